@@ -0,0 +1,82 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import no.ntnu.candidate10034.Item;
+import no.ntnu.candidate10034.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Onboarding of a whole catalog into an empty warehouse, one
+ * Item at a time with addItem compared to a single addAll.
+ * Fresh Items are created before every call, outside of the
+ * measurement, since an Item can only be added once.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AddAllBenchmark {
+  /** Number of items in the catalog. */
+  @Param({"100000", "1000000"})
+  public int catalogSize;
+
+  /** Items to add in the next call. */
+  private Item[] items;
+
+
+  /**
+   * Create fresh Items for the next call.
+   */
+  @Setup(Level.Invocation)
+  public void setUp() {
+    items = new Item[catalogSize];
+    for (int index = 0; index < catalogSize; index++) {
+      items[index] = Catalog.item(index);
+    }
+  }
+
+
+  /**
+   * Add the Items one at a time.
+   *
+   * @return the filled warehouse.
+   */
+  @Benchmark
+  public Warehouse addItem() {
+    Warehouse warehouse = new Warehouse();
+    for (Item item : items) {
+      warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+    }
+    return warehouse;
+  }
+
+
+  /**
+   * Add the Items as one batch.
+   *
+   * @return the filled warehouse.
+   */
+  @Benchmark
+  public Warehouse addAll() {
+    Warehouse warehouse = new Warehouse();
+    warehouse.addAll(items);
+    return warehouse;
+  }
+}
@@ -0,0 +1,89 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import no.ntnu.candidate10034.AttributeIndex;
+import no.ntnu.candidate10034.Item;
+import no.ntnu.candidate10034.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Items matching a brand, a color and a category, found by
+ * filtering every Item with a Stream compared to intersecting
+ * the bitmaps of the AttributeIndex of the warehouse.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttributeQueryBenchmark {
+  /** Brand of the query. */
+  private static final String BRAND = "Skeidar";
+  /** Color of the query. */
+  private static final String COLOR = "grey";
+  /** Category of the query. */
+  private static final int CATEGORY = 2;
+
+  /** Number of items in the warehouse. */
+  @Param({"100000", "1000000"})
+  public int catalogSize;
+
+  /** Warehouse under test. */
+  private Warehouse warehouse;
+  /** Attribute indexes of the warehouse. */
+  private AttributeIndex attributes;
+
+
+  /**
+   * Fill the warehouse and create its attribute indexes.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    warehouse = Catalog.warehouse(catalogSize);
+    attributes = warehouse.attributes();
+  }
+
+
+  /**
+   * Filter every Item on the three attributes.
+   *
+   * @return the matching Items.
+   */
+  @Benchmark
+  public List<Item> streamQuery() {
+    return warehouse.stream()
+        .filter(item -> item.getItemBrand().equalsIgnoreCase(BRAND)
+            && item.getItemColor().equalsIgnoreCase(COLOR)
+            && item.getItemCategoryAsInt() + 1 == CATEGORY)
+        .collect(Collectors.toList());
+  }
+
+
+  /**
+   * Intersect the bitmaps of the three attributes.
+   *
+   * @return the matching Items.
+   */
+  @Benchmark
+  public List<Item> bitmapQuery() {
+    return attributes.items(attributes.query(BRAND, COLOR, CATEGORY));
+  }
+}
@@ -0,0 +1,46 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.Main;
+
+/**
+ * Entry point of the benchmark jar.
+ *
+ * <p>Forwards all arguments to the JMH command line, but writes
+ * the results as JSON to <code>jmh-result.json</code> unless a
+ * result format or file is given, so that every run leaves a
+ * machine-readable record which can be compared between releases.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class BenchmarkRunner {
+
+  /** Not to be instantiated. */
+  private BenchmarkRunner() {
+  }
+
+
+  /**
+   * Run the benchmarks.
+   *
+   * @param args JMH command line options.
+   * @throws Exception if JMH fails to run.
+   */
+  public static void main(String[] args) throws Exception {
+    List<String> options = new ArrayList<>(Arrays.asList(args));
+
+    if (!options.contains("-rf")) {
+      options.add("-rf");
+      options.add("json");
+    }
+    if (!options.contains("-rff")) {
+      options.add("-rff");
+      options.add("jmh-result.json");
+    }
+    Main.main(options.toArray(new String[0]));
+  }
+}
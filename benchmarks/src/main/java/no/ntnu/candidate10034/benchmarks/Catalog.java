@@ -0,0 +1,107 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import no.ntnu.candidate10034.Item;
+import no.ntnu.candidate10034.Warehouse;
+
+/**
+ * Deterministic synthetic catalog used by the benchmarks.
+ *
+ * <p>Item i always gets the same number, description and
+ * attributes, so results from different runs and releases
+ * measure the same data. Brands, colors and categories are
+ * drawn from small sets, as in a real assortment.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class Catalog {
+  /** Brands of the synthetic items. */
+  static final String[] BRANDS = {
+      "Jysk", "Skeidar", "Home Decor", "Monter", "Byggmax",
+      "Maxbo", "Obs Bygg", "Ikea", "Bauhaus", "Coop"
+  };
+  /** Colors of the synthetic items. */
+  static final String[] COLORS = {
+      "brown", "grey", "white", "black", "transparent", "oak", "pine", "red"
+  };
+
+  /** Utility class, not to be instantiated. */
+  private Catalog() {
+  }
+
+
+  /**
+   * Get the itemNumber of the synthetic item with an index.
+   *
+   * @param index index of the item.
+   * @return itemNumber.
+   */
+  public static String number(int index) {
+    return "SKU-" + index;
+  }
+
+
+  /**
+   * Get the itemDescription of the synthetic item with an index.
+   *
+   * @param index index of the item.
+   * @return itemDescription.
+   */
+  public static String description(int index) {
+    return "Product " + index + " " + COLORS[index % COLORS.length];
+  }
+
+
+  /**
+   * Create the synthetic item with an index.
+   *
+   * @param index index of the item.
+   * @return new Item.
+   */
+  public static Item item(int index) {
+    return new Item(
+        number(index), BRANDS[index % BRANDS.length],
+        COLORS[(index / BRANDS.length) % COLORS.length],
+        description(index), 1 + index % 100,
+        0.5 + index % 300 / 100.0, 0.1 + index % 250 / 100.0,
+        10 + index % 20000, index % 500,
+        1 + index % 4
+    );
+  }
+
+
+  /**
+   * Create a warehouse holding the first items of the catalog.
+   *
+   * @param size number of items to add.
+   * @return new Warehouse.
+   */
+  public static Warehouse warehouse(int size) {
+    Item[] items = new Item[size];
+    for (int index = 0; index < size; index++) {
+      items[index] = item(index);
+    }
+    Warehouse warehouse = new Warehouse();
+    warehouse.addAll(items);
+    return warehouse;
+  }
+
+
+  /**
+   * Precompute keys of a Zipfian access trace over a catalog.
+   *
+   * @param size number of items in the catalog.
+   * @param length number of keys in the trace, a power of two.
+   * @param descriptions whether to use descriptions rather than numbers.
+   * @return new array of keys.
+   */
+  public static String[] zipfianKeys(int size, int length, boolean descriptions) {
+    int[] trace = ZipfianGenerator.scrambled(size, 42).trace(length);
+    String[] keys = new String[length];
+    for (int index = 0; index < length; index++) {
+      keys[index] = descriptions ? description(trace[index]) : number(trace[index]);
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,135 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import no.ntnu.candidate10034.ChangeFeed;
+import no.ntnu.candidate10034.Item;
+import no.ntnu.candidate10034.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of publishing to the change feed: amount adjustments of
+ * Zipfian distributed Items with and without the feed, and
+ * reading the events back.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChangeFeedBenchmark {
+  /** Length of the precomputed key trace, a power of two. */
+  private static final int TRACE_LENGTH = 1 << 16;
+
+  /** Whether the warehouse has a change feed. */
+  @Param({"false", "true"})
+  public boolean feed;
+
+  /** Warehouse under test. */
+  private Warehouse warehouse;
+  /** Items of a Zipfian trace of itemNumbers. */
+  private Item[] trace;
+
+
+  /**
+   * Fill the warehouse and look up the Items of the trace.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    warehouse = Catalog.warehouse(100_000);
+    if (feed) {
+      warehouse.changes();
+    }
+    String[] numbers = Catalog.zipfianKeys(100_000, TRACE_LENGTH, false);
+    trace = new Item[TRACE_LENGTH];
+    for (int index = 0; index < TRACE_LENGTH; index++) {
+      trace[index] = warehouse.search(numbers[index]);
+    }
+  }
+
+
+  /**
+   * Position of each thread in the trace, and its reader.
+   */
+  @State(Scope.Thread)
+  public static class Cursor {
+    /** Next index in the trace. */
+    private int next;
+    /** Reader of the feed, if there is one. */
+    private ChangeFeed.Subscription subscription;
+    /** Sum of the values read, so the reads are not optimized away. */
+    private long sum;
+
+    /**
+     * Subscribe to the feed.
+     *
+     * @param benchmark the shared state.
+     */
+    @Setup(Level.Trial)
+    public void setUp(ChangeFeedBenchmark benchmark) {
+      if (benchmark.feed) {
+        subscription = benchmark.warehouse.changes().subscribe();
+      }
+    }
+  }
+
+
+  /**
+   * Add and remove a unit, publishing two events if there is a feed.
+   *
+   * @param cursor position in the trace.
+   * @return the new amount.
+   */
+  @Benchmark
+  public int adjust(Cursor cursor) {
+    Item item = trace[cursor.next++ & (TRACE_LENGTH - 1)];
+    warehouse.adjustAmount(item, 1);
+    return warehouse.adjustAmount(item, -1);
+  }
+
+
+  /**
+   * Add and remove a unit from four threads at once.
+   *
+   * @param cursor position in the trace.
+   * @return the new amount.
+   */
+  @Benchmark
+  @Threads(4)
+  public int adjustContended(Cursor cursor) {
+    return adjust(cursor);
+  }
+
+
+  /**
+   * Add and remove a unit, then read the two events back.
+   *
+   * @param cursor position in the trace and the reader.
+   * @return the sum of the values read.
+   */
+  @Benchmark
+  public long adjustAndRead(Cursor cursor) {
+    adjust(cursor);
+    if (cursor.subscription != null) {
+      cursor.subscription.poll((sequence, type, item, oldValue, newValue, time) ->
+          cursor.sum += newValue, 16);
+    }
+    return cursor.sum;
+  }
+}
@@ -0,0 +1,123 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import no.ntnu.candidate10034.ItemColumns;
+import no.ntnu.candidate10034.StockTotals;
+import no.ntnu.candidate10034.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full scans of the numeric fields: value per category and
+ * items under a weight limit, over the Item objects with a
+ * Stream compared to the ItemColumns of the warehouse, and the
+ * value per category read from the running StockTotals.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnScanBenchmark {
+  /** Weight limit of the filter, selecting a tenth of the catalog. */
+  private static final double WEIGHT_LIMIT = 11;
+
+  /** Number of items in the warehouse. */
+  @Param({"100000", "1000000"})
+  public int catalogSize;
+
+  /** Warehouse under test. */
+  private Warehouse warehouse;
+  /** Column store of the warehouse. */
+  private ItemColumns columns;
+  /** Running totals of the warehouse. */
+  private StockTotals totals;
+
+
+  /**
+   * Fill the warehouse and create its column store.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    warehouse = Catalog.warehouse(catalogSize);
+    columns = warehouse.columns();
+    totals = warehouse.totals();
+  }
+
+
+  /**
+   * Sum the stock value per category over the Items.
+   *
+   * @return totals per category.
+   */
+  @Benchmark
+  public long[] streamValueByCategory() {
+    long[] totals = new long[ItemColumns.CATEGORIES];
+    warehouse.stream().forEach(item -> totals[item.getItemCategoryAsInt()]
+        += (long) item.getItemPrice() * item.getItemAmount());
+    return totals;
+  }
+
+
+  /**
+   * Sum the stock value per category over the columns.
+   *
+   * @return totals per category.
+   */
+  @Benchmark
+  public long[] columnValueByCategory() {
+    return columns.stockValueByCategory();
+  }
+
+
+  /**
+   * Read the stock value per category from the running totals.
+   *
+   * @return totals per category.
+   */
+  @Benchmark
+  public long[] totalsValueByCategory() {
+    long[] result = new long[ItemColumns.CATEGORIES];
+    for (int category = 1; category <= result.length; category++) {
+      result[category - 1] = totals.category(category).getStockValue();
+    }
+    return result;
+  }
+
+
+  /**
+   * Count the light items over the Items.
+   *
+   * @return number of items under the limit.
+   */
+  @Benchmark
+  public long streamCountWeightBelow() {
+    return warehouse.stream().filter(item -> item.getItemWeight() < WEIGHT_LIMIT).count();
+  }
+
+
+  /**
+   * Count the light items over the columns.
+   *
+   * @return number of items under the limit.
+   */
+  @Benchmark
+  public int columnCountWeightBelow() {
+    return columns.countWeightBelow(WEIGHT_LIMIT);
+  }
+}
@@ -0,0 +1,70 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import no.ntnu.candidate10034.Item;
+
+/**
+ * Measures the heap taken by a catalog of Items.
+ *
+ * <p>The Items are built as a parser of a supplier file would
+ * build them, with a String of its own for every field, and
+ * kept alive in an array. The live heap is measured after a
+ * full garbage collection before and after, and the difference
+ * is reported per Item. Run it with a heap large enough for the
+ * catalog, for example:
+ *
+ * <pre>
+ * java -Xmx4g -cp benchmarks.jar no.ntnu.candidate10034.benchmarks.HeapFootprint 10000000
+ * </pre>
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class HeapFootprint {
+
+  /** Not to be instantiated. */
+  private HeapFootprint() {
+  }
+
+
+  /**
+   * Build the catalog and print its size.
+   *
+   * @param args number of Items, 10 000 000 if not given.
+   */
+  public static void main(String[] args) {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+    long before = liveHeap();
+
+    Item[] items = new Item[size];
+    for (int index = 0; index < size; index++) {
+      Item item = Catalog.item(index);
+      items[index] = new Item(
+          item.getItemNumber(), new String(item.getItemBrand().toCharArray()),
+          new String(item.getItemColor().toCharArray()), item.getItemDescription(),
+          item.getItemWeight(), item.getItemLength(), item.getItemHeight(),
+          item.getItemPrice(), item.getItemAmount(), item.getItemCategoryAsInt() + 1
+      );
+    }
+
+    long after = liveHeap();
+    System.out.printf("%d items: %.1f MB, %.1f bytes per item%n",
+        items.length, (after - before) / 1e6, (after - before) / (double) items.length);
+  }
+
+
+  /**
+   * Measure the live heap after a full garbage collection.
+   *
+   * @return bytes of heap in use.
+   */
+  private static long liveHeap() {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    for (int round = 0; round < 3; round++) {
+      System.gc();
+    }
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+}
@@ -0,0 +1,271 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import no.ntnu.candidate10034.Warehouse;
+import no.ntnu.candidate10034.WarehouseServer;
+
+/**
+ * Load test of the HTTP API on localhost.
+ *
+ * <p>Starts a WarehouseServer over a synthetic catalog and opens
+ * a number of keep-alive connections to it, each sending one
+ * request after the other for a while: mostly lookups of Zipfian
+ * distributed itemNumbers, some stock adjustments and a few pages
+ * of the list. Prints the requests per second and the latency
+ * percentiles, for example:
+ *
+ * <pre>
+ * java -cp benchmarks.jar no.ntnu.candidate10034.benchmarks.HttpLoadTest 100000 1000 20
+ * </pre>
+ *
+ * <p>The requests are written and read on plain sockets, as a
+ * full HTTP client costs more CPU per request than the server
+ * and would measure itself on a small machine.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class HttpLoadTest {
+  /** Width of a latency bucket in microseconds. */
+  private static final int BUCKET_MICROS = 10;
+  /** Number of latency buckets, the last one holding everything slower. */
+  private static final int BUCKETS = 100_000;
+
+  /** Port of the server. */
+  private final int port;
+  /** itemNumbers to look up, a power of two of them. */
+  private final String[] keys;
+  /** Number of Items, for the offsets of the pages. */
+  private final int size;
+  /** Latencies counted per bucket. */
+  private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+  /** Requests which failed or were not answered with 200 OK. */
+  private final AtomicLong failures = new AtomicLong();
+  /** Requests completed, successful or not. */
+  private final AtomicLong completed = new AtomicLong();
+
+
+  /**
+   * Create a load test.
+   *
+   * @param port port of the server.
+   * @param keys itemNumbers to look up, a power of two of them.
+   * @param size number of Items.
+   */
+  private HttpLoadTest(int port, String[] keys, int size) {
+    this.port = port;
+    this.keys = keys;
+    this.size = size;
+  }
+
+
+  /**
+   * Run the load test.
+   *
+   * @param args number of Items (100 000), connections (1 000)
+   *      and seconds to run (20).
+   * @throws Exception If the server can not be started.
+   */
+  public static void main(String[] args) throws Exception {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    int connections = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+    int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+    Warehouse warehouse = Catalog.warehouse(size);
+    try (WarehouseServer server = WarehouseServer.start(
+        warehouse, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+        WarehouseServer.DEFAULT_THREADS
+    )) {
+      System.out.printf("%d items, %d connections, %s threads%n", size, connections,
+          server.isVirtualThreads() ? "virtual" : WarehouseServer.DEFAULT_THREADS + " platform");
+
+      HttpLoadTest test = new HttpLoadTest(
+          server.getPort(), Catalog.zipfianKeys(size, 1 << 20, false), size
+      );
+      test.run(connections, Math.max(1, seconds / 5));
+      test.reset();
+      long elapsed = test.run(connections, seconds);
+      test.report(elapsed);
+    }
+  }
+
+
+  /**
+   * Send requests on a number of connections for a while.
+   *
+   * @param connections number of connections.
+   * @param seconds how long to send requests.
+   * @return nanoseconds from the start until the last response.
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  private long run(int connections, int seconds) throws InterruptedException {
+    long start = System.nanoTime();
+    long end = start + seconds * 1_000_000_000L;
+    List<Thread> clients = new ArrayList<>();
+    for (int connection = 0; connection < connections; connection++) {
+      int seed = connection;
+      Thread client = new Thread(null, () -> connect(seed, end), "client-" + seed, 1 << 16);
+      client.setDaemon(true);
+      client.start();
+      clients.add(client);
+    }
+    for (Thread client : clients) {
+      client.join();
+    }
+    return System.nanoTime() - start;
+  }
+
+
+  /**
+   * Send requests on one connection until a time.
+   *
+   * @param seed seed of the request mix of the connection.
+   * @param end System.nanoTime() to stop at.
+   */
+  private void connect(int seed, long end) {
+    Random random = new Random(seed);
+    int next = random.nextInt(keys.length);
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      socket.setTcpNoDelay(true);
+      OutputStream out = socket.getOutputStream();
+      InputStream in = new BufferedInputStream(socket.getInputStream(), 1 << 14);
+
+      while (System.nanoTime() < end) {
+        String key = keys[next++ & (keys.length - 1)];
+        int kind = random.nextInt(100);
+        String request;
+        if (kind < 80) {
+          request = "GET /items/" + key + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        } else if (kind < 95) {
+          request = "POST /items/" + key + "/amount HTTP/1.1\r\nHost: localhost\r\n"
+              + "Content-Length: 12\r\n\r\n{\"delta\": 1}";
+        } else {
+          request = "GET /items?offset=" + random.nextInt(size) + "&limit=20 HTTP/1.1\r\n"
+              + "Host: localhost\r\n\r\n";
+        }
+
+        long sent = System.nanoTime();
+        out.write(request.getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+        int status = readResponse(in);
+        record(System.nanoTime() - sent, status == 200);
+      }
+    } catch (IOException e) {
+      failures.incrementAndGet();
+    }
+  }
+
+
+  /**
+   * Read a response, skipping its body.
+   *
+   * @param in the connection.
+   * @return the status of the response.
+   * @throws IOException If the connection fails or is closed.
+   */
+  private static int readResponse(InputStream in) throws IOException {
+    StringBuilder line = new StringBuilder();
+    int status = -1;
+    long length = 0;
+    while (true) {
+      line.setLength(0);
+      int c;
+      while ((c = in.read()) != '\n') {
+        if (c < 0) {
+          throw new IOException("Connection closed");
+        }
+        if (c != '\r') {
+          line.append((char) c);
+        }
+      }
+      if (line.length() == 0) {
+        break;
+      }
+      if (status < 0) {
+        status = Integer.parseInt(line.substring(9, 12));
+      } else if (line.toString().regionMatches(true, 0, "Content-Length:", 0, 15)) {
+        length = Long.parseLong(line.substring(15).trim());
+      }
+    }
+    while (length > 0) {
+      long skipped = in.skip(length);
+      if (skipped <= 0) {
+        if (in.read() < 0) {
+          throw new IOException("Connection closed");
+        }
+        skipped = 1;
+      }
+      length -= skipped;
+    }
+    return status;
+  }
+
+
+  /**
+   * Count a completed request.
+   *
+   * @param nanos its latency.
+   * @param success true if it was answered with 200 OK.
+   */
+  private void record(long nanos, boolean success) {
+    int bucket = (int) Math.min(BUCKETS - 1, nanos / 1000 / BUCKET_MICROS);
+    latencies.incrementAndGet(bucket);
+    completed.incrementAndGet();
+    if (!success) {
+      failures.incrementAndGet();
+    }
+  }
+
+
+  /**
+   * Forget what the warm-up counted.
+   */
+  private void reset() {
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      latencies.set(bucket, 0);
+    }
+    failures.set(0);
+    completed.set(0);
+  }
+
+
+  /**
+   * Print the throughput and latency percentiles.
+   *
+   * @param elapsed nanoseconds the requests were sent over.
+   */
+  private void report(long elapsed) {
+    long total = completed.get();
+    System.out.printf("%d requests, %d failed, %.0f requests/s%n",
+        total, failures.get(), total * 1e9 / elapsed);
+
+    double[] percentiles = {50, 90, 99, 99.9};
+    String[] names = {"p50", "p90", "p99", "p99.9"};
+    StringBuilder line = new StringBuilder("latency");
+    long seen = 0;
+    int next = 0;
+    for (int bucket = 0; bucket < BUCKETS && next < percentiles.length; bucket++) {
+      seen += latencies.get(bucket);
+      while (next < percentiles.length && seen >= total * percentiles[next] / 100) {
+        line.append(String.format(" %s %.2f ms,", names[next],
+            (bucket + 1) * BUCKET_MICROS / 1000.0));
+        next++;
+      }
+    }
+    line.setLength(line.length() - 1);
+    System.out.println(line);
+  }
+}
@@ -0,0 +1,109 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import no.ntnu.candidate10034.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of Item construction and the validating setters.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemBenchmark {
+  /** Item mutated by the setter benchmarks. */
+  private Item item;
+  /** Changing input, so that the setters cannot be folded away. */
+  private int counter;
+
+
+  /**
+   * Create the item used by the setter benchmarks.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    item = Catalog.item(0);
+  }
+
+
+  /**
+   * Construct an item, validating all ten fields.
+   *
+   * @return the new item.
+   */
+  @Benchmark
+  public Item construct() {
+    int index = counter++ & 0xFFFF;
+    return new Item(
+        "Floor 2.0", "Jysk", "brown",
+        "Futuristic floor", index,
+        188.0, 2.0, 100 + index,
+        25, 1 + (index & 3)
+    );
+  }
+
+
+  /**
+   * Change the price of an item.
+   *
+   * @return the item.
+   */
+  @Benchmark
+  public Item setItemPrice() {
+    item.setItemPrice(counter++ & 0xFFFF);
+    return item;
+  }
+
+
+  /**
+   * Change the amount of an item.
+   *
+   * @return the item.
+   */
+  @Benchmark
+  public Item setItemAmount() {
+    item.setItemAmount(counter++ & 0xFFFF);
+    return item;
+  }
+
+
+  /**
+   * Change the weight of an item.
+   *
+   * @return the item.
+   */
+  @Benchmark
+  public Item setItemWeight() {
+    item.setItemWeight((counter++ & 0xFFFF) * 0.25);
+    return item;
+  }
+
+
+  /**
+   * Change the brand of an item.
+   *
+   * @return the item.
+   */
+  @Benchmark
+  public Item setItemBrand() {
+    item.setItemBrand(Catalog.BRANDS[counter++ % Catalog.BRANDS.length]);
+    return item;
+  }
+}
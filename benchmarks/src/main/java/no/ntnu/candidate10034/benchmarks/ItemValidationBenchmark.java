@@ -0,0 +1,125 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import no.ntnu.candidate10034.ItemField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the typed field validation of ItemField with the
+ * String based validation Item used before, for the checks
+ * done when constructing one Item.
+ *
+ * <p>Run with <code>-prof gc</code> to see the allocation per
+ * operation as well. {@link ItemBenchmark#construct()} shows the
+ * effect on the throughput of the constructor itself.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemValidationBenchmark {
+  /** Changing input, so that the checks cannot be folded away. */
+  private int counter;
+
+
+  /**
+   * Validate the ten fields of an Item with ItemField.
+   *
+   * @return sum of the validated numbers.
+   */
+  @Benchmark
+  public double typed() {
+    int index = counter++ & 0xFFFF;
+    ItemField.NUMBER.validate("Floor 2.0");
+    ItemField.BRAND.validate("Jysk");
+    ItemField.COLOR.validate("brown");
+    ItemField.DESCRIPTION.validate("Futuristic floor");
+    return ItemField.WEIGHT.validate((double) index)
+        + ItemField.LENGTH.validate(188.0)
+        + ItemField.HEIGHT.validate(2.0)
+        + ItemField.PRICE.validate(100 + index)
+        + ItemField.AMOUNT.validate(25)
+        + ItemField.CATEGORY.validate(1 + (index & 3));
+  }
+
+
+  /**
+   * Validate the ten fields of an Item the way Item used to.
+   *
+   * @return sum of the validated numbers.
+   */
+  @Benchmark
+  public double stringBased() {
+    int index = counter++ & 0xFFFF;
+    double weight = index;
+    int price = 100 + index;
+    int category = index & 3;
+    legacyValidate("Floor 2.0", "itemNumber");
+    legacyValidate("Jysk", "itemBrand");
+    legacyValidate("brown", "itemColor");
+    legacyValidate("Futuristic floor", "itemDescription");
+    legacyValidate(weight + "", "itemWeight");
+    legacyValidate(188.0 + "", "itemLength");
+    legacyValidate(2.0 + "", "itemHeight");
+    legacyValidate(price + "", "itemPrice");
+    legacyValidate(25 + "", "itemAmount");
+    legacyValidate(category + "", "itemCategory");
+    return weight + 188.0 + 2.0 + price + 25 + category;
+  }
+
+
+  /**
+   * Copy of the validation Item did before ItemField.
+   *
+   * @param field the field value to validate.
+   * @param prefix the prefix identifying the properties of the field.
+   */
+  private static void legacyValidate(String field, String prefix) {
+    boolean valid = true;
+
+    switch (prefix) {
+      case "itemHeight":
+      case "itemLength":
+      case "itemWeight":
+        if (Double.parseDouble(field) < 0) {
+          valid = false;
+        }
+        break;
+      case "itemPrice":
+      case "itemAmount":
+        if (Integer.parseInt(field) < 0) {
+          valid = false;
+        }
+        break;
+      case "itemCategory":
+        int category = Integer.parseInt(field);
+        if (category < 0 || category > 3) {
+          valid = false;
+        }
+        break;
+      default:
+        if (field.isBlank()) {
+          valid = false;
+        }
+        break;
+    }
+
+    if (!valid) {
+      throw new IllegalArgumentException("Invalid input for " + prefix);
+    }
+  }
+}
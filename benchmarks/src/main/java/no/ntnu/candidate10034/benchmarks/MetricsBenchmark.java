@@ -0,0 +1,122 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import no.ntnu.candidate10034.Item;
+import no.ntnu.candidate10034.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the operation metrics: searches and amount adjustments
+ * of Zipfian distributed Items, timing every operation or a
+ * sample of them.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+  /** Length of the precomputed key trace, a power of two. */
+  private static final int TRACE_LENGTH = 1 << 16;
+
+  /** How many operations there are for each one timed. */
+  @Param({"1", "64", "1024"})
+  public int sampleRate;
+
+  /** Warehouse under test. */
+  private Warehouse warehouse;
+  /** Zipfian trace of itemNumbers. */
+  private String[] numbers;
+  /** Items of the trace. */
+  private Item[] trace;
+
+
+  /**
+   * Fill the warehouse and look up the Items of the trace.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    warehouse = Catalog.warehouse(100_000);
+    warehouse.metrics().setSampleRate(sampleRate);
+    numbers = Catalog.zipfianKeys(100_000, TRACE_LENGTH, false);
+    trace = new Item[TRACE_LENGTH];
+    for (int index = 0; index < TRACE_LENGTH; index++) {
+      trace[index] = warehouse.search(numbers[index]);
+    }
+  }
+
+
+  /**
+   * Position of each thread in the trace.
+   */
+  @State(Scope.Thread)
+  public static class Cursor {
+    /** Next index in the trace. */
+    private int next;
+
+    /**
+     * Get the next index in the trace.
+     *
+     * @return the index.
+     */
+    int next() {
+      return next++ & (TRACE_LENGTH - 1);
+    }
+  }
+
+
+  /**
+   * Search for an Item by itemNumber.
+   *
+   * @param cursor position in the trace.
+   * @return the Item found.
+   */
+  @Benchmark
+  public Item search(Cursor cursor) {
+    return warehouse.search(numbers[cursor.next()]);
+  }
+
+
+  /**
+   * Search from four threads at once, which share the counters.
+   *
+   * @param cursor position in the trace.
+   * @return the Item found.
+   */
+  @Benchmark
+  @Threads(4)
+  public Item searchContended(Cursor cursor) {
+    return search(cursor);
+  }
+
+
+  /**
+   * Add and remove a unit of an Item already found.
+   *
+   * @param cursor position in the trace.
+   * @return the new amount.
+   */
+  @Benchmark
+  public int adjust(Cursor cursor) {
+    Item item = trace[cursor.next()];
+    warehouse.adjustAmount(item, 1);
+    return warehouse.adjustAmount(item, -1);
+  }
+}
@@ -0,0 +1,115 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import no.ntnu.candidate10034.Item;
+import no.ntnu.candidate10034.ItemField;
+import no.ntnu.candidate10034.RangeIndex;
+import no.ntnu.candidate10034.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A price range and the most stocked items, found by filtering
+ * and sorting every Item with a Stream compared to the sorted
+ * RangeIndex of the warehouse.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RangeQueryBenchmark {
+  /** Lowest price of the range, inclusive. */
+  private static final int FROM = 1000;
+  /** Highest price of the range, inclusive. */
+  private static final int TO = 1100;
+  /** Number of items in the top list. */
+  private static final int TOP = 10;
+
+  /** Number of items in the warehouse. */
+  @Param({"100000", "1000000"})
+  public int catalogSize;
+
+  /** Warehouse under test. */
+  private Warehouse warehouse;
+  /** Range indexes of the warehouse. */
+  private RangeIndex ranges;
+
+
+  /**
+   * Fill the warehouse and create its range indexes.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    warehouse = Catalog.warehouse(catalogSize);
+    ranges = warehouse.ranges();
+  }
+
+
+  /**
+   * Filter every Item on the price range.
+   *
+   * @return the matching Items, by price.
+   */
+  @Benchmark
+  public List<Item> streamPriceRange() {
+    return warehouse.stream()
+        .filter(item -> item.getItemPrice() >= FROM && item.getItemPrice() <= TO)
+        .sorted(Comparator.comparingInt(Item::getItemPrice))
+        .collect(Collectors.toList());
+  }
+
+
+  /**
+   * Look the price range up in the index.
+   *
+   * @return the matching Items, by price.
+   */
+  @Benchmark
+  public List<Item> indexPriceRange() {
+    return ranges.between(ItemField.PRICE, FROM, TO);
+  }
+
+
+  /**
+   * Sort every Item by amount to find the most stocked.
+   *
+   * @return the most stocked Items.
+   */
+  @Benchmark
+  public List<Item> streamTopAmount() {
+    return warehouse.stream()
+        .sorted(Comparator.comparingInt(Item::getItemAmount).reversed())
+        .limit(TOP)
+        .collect(Collectors.toList());
+  }
+
+
+  /**
+   * Take the most stocked Items from the end of the index.
+   *
+   * @return the most stocked Items.
+   */
+  @Benchmark
+  public List<Item> indexTopAmount() {
+    return ranges.highest(ItemField.AMOUNT, TOP);
+  }
+}
@@ -0,0 +1,124 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import no.ntnu.candidate10034.InventoryReport;
+import no.ntnu.candidate10034.Item;
+import no.ntnu.candidate10034.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering every Item of a warehouse, the way the console dump
+ * used to with a String[] and a println per field, compared to
+ * the streaming InventoryReport. Both write UTF-8 bytes to a
+ * sink which discards them, so only the rendering is measured.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+  /** Labels the console dump printed in front of each field. */
+  private static final String[] FIELD_NAMES = {
+    "- Item number:   |  ", "- Brand:         |  ", "- Color:         |  ",
+    "- Description:   |  ", "- Height:        |  ", "- Length:        |  ",
+    "- Amount:        |  ", "- Price:         |  ", "- Category:      |  "
+  };
+
+  /** Number of items in the warehouse. */
+  @Param({"100000", "1000000"})
+  public int catalogSize;
+
+  /** Warehouse rendered. */
+  private Warehouse warehouse;
+
+
+  /**
+   * Fill the warehouse.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    warehouse = Catalog.warehouse(catalogSize);
+  }
+
+
+  /**
+   * Print every field of every Item with its own println, as
+   * the console dump did.
+   *
+   * @return the stream printed to.
+   */
+  @Benchmark
+  public PrintStream printlnPerField() {
+    PrintStream out = new PrintStream(OutputStream.nullOutputStream(), true);
+    for (Item item : warehouse.getItemsView()) {
+      String[] fields = item.getAllFields();
+      for (int index = 0; index < fields.length - 1; index++) {
+        out.println(FIELD_NAMES[index] + fields[index]);
+      }
+      out.println("--------------------------------------------------");
+    }
+    return out;
+  }
+
+
+  /**
+   * Render every Item as a table through one buffered writer.
+   *
+   * @return number of Items written.
+   * @throws IOException never, as the sink discards everything.
+   */
+  @Benchmark
+  public long reportTable() throws IOException {
+    return new InventoryReport(InventoryReport.Layout.TABLE, 0)
+        .write(warehouse.getItemsView(), sink());
+  }
+
+
+  /**
+   * Render every Item as CSV through one buffered writer.
+   *
+   * @return number of Items written.
+   * @throws IOException never, as the sink discards everything.
+   */
+  @Benchmark
+  public long reportCsv() throws IOException {
+    return new InventoryReport(InventoryReport.Layout.CSV, 0)
+        .write(warehouse.getItemsView(), sink());
+  }
+
+
+  /**
+   * Create a buffered writer of UTF-8 bytes which are discarded.
+   *
+   * @return new Writer.
+   */
+  private static Writer sink() {
+    return new BufferedWriter(
+        new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8), 1 << 16
+    );
+  }
+}
@@ -0,0 +1,93 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import no.ntnu.candidate10034.Item;
+import no.ntnu.candidate10034.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A campaign price for every item of one brand, set one Item at
+ * a time from a Stream compared to the bulk reprice of the
+ * warehouse. Each call switches between two prices, so that
+ * every matching Item really changes.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepriceBenchmark {
+  /** Selects the items of the campaign, a tenth of the catalog. */
+  private static final Predicate<Item> CAMPAIGN = item -> item.getItemBrand().equals("Skeidar");
+
+  /** Number of items in the warehouse. */
+  @Param({"100000", "1000000"})
+  public int catalogSize;
+
+  /** Warehouse under test. */
+  private Warehouse warehouse;
+  /** Price set by the next call. */
+  private int price;
+
+
+  /**
+   * Fill the warehouse.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    warehouse = Catalog.warehouse(catalogSize);
+  }
+
+
+  /**
+   * Set the price of every matching Item from a Stream.
+   *
+   * @return the price set.
+   */
+  @Benchmark
+  public int streamReprice() {
+    int next = price = 300 - price;
+    warehouse.stream().filter(CAMPAIGN).forEach(item -> item.setItemPrice(next));
+    return next;
+  }
+
+
+  /**
+   * Set the price of every matching Item in bulk.
+   *
+   * @return the number of matching Items.
+   */
+  @Benchmark
+  public int bulkReprice() {
+    price = 300 - price;
+    return warehouse.reprice(CAMPAIGN, price);
+  }
+
+
+  /**
+   * Give every matching Item a percentage discount in bulk.
+   *
+   * @return the number of matching Items.
+   */
+  @Benchmark
+  public int bulkDiscount() {
+    return warehouse.discount(CAMPAIGN, 1);
+  }
+}
@@ -0,0 +1,99 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import no.ntnu.candidate10034.Item;
+import no.ntnu.candidate10034.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of the prefix and fuzzy searches of the Warehouse.
+ *
+ * <p>Queries are the beginnings of Zipfian-chosen descriptions,
+ * and the same descriptions with one character dropped and one
+ * replaced, as an operator typing in a hurry would produce.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+  /** Length of the precomputed query traces, a power of two. */
+  private static final int TRACE_LENGTH = 1 << 12;
+  /** Most Items returned by a search. */
+  private static final int LIMIT = 10;
+
+  /** Number of items in the warehouse. */
+  @Param({"100000", "1000000"})
+  public int catalogSize;
+
+  /** Warehouse under test. */
+  private Warehouse warehouse;
+  /** Beginnings of descriptions. */
+  private String[] prefixes;
+  /** Descriptions with two typing errors. */
+  private String[] misspelt;
+  /** Next index in the traces. */
+  private int next;
+
+
+  /**
+   * Fill the warehouse, build its search index and precompute the queries.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    warehouse = Catalog.warehouse(catalogSize);
+    String[] descriptions = Catalog.zipfianKeys(catalogSize, TRACE_LENGTH, true);
+    prefixes = new String[TRACE_LENGTH];
+    misspelt = new String[TRACE_LENGTH];
+
+    for (int index = 0; index < TRACE_LENGTH; index++) {
+      String description = descriptions[index];
+      prefixes[index] = description.substring(0, description.length() - 3);
+      StringBuilder typo = new StringBuilder(description);
+      typo.deleteCharAt(description.length() / 2);
+      typo.setCharAt(description.length() / 3, 'x');
+      misspelt[index] = typo.toString();
+    }
+    warehouse.searchPrefix("", 1);
+  }
+
+
+  /**
+   * Find the items beginning with a prefix.
+   *
+   * @return the items found.
+   */
+  @Benchmark
+  public List<Item> searchPrefix() {
+    return warehouse.searchPrefix(prefixes[next++ & (TRACE_LENGTH - 1)], LIMIT);
+  }
+
+
+  /**
+   * Find the items closest to a misspelt description.
+   *
+   * @return the items found.
+   */
+  @Benchmark
+  public List<Item> searchFuzzy() {
+    return warehouse.searchFuzzy(misspelt[next++ & (TRACE_LENGTH - 1)], 2, LIMIT);
+  }
+}
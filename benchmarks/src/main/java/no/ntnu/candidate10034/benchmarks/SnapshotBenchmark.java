@@ -0,0 +1,133 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import no.ntnu.candidate10034.FsyncPolicy;
+import no.ntnu.candidate10034.Snapshot;
+import no.ntnu.candidate10034.Warehouse;
+import no.ntnu.candidate10034.WriteAheadLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Startup time of a Warehouse kept on disk: replaying a full
+ * WriteAheadLog, restoring a Snapshot, and mapping a Snapshot
+ * to answer the first search without restoring it.
+ *
+ * <p>The files are written once per trial to the temporary
+ * directory, and stay in the page cache, so this measures the
+ * work of decoding rather than of reading the device.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SnapshotBenchmark {
+  /** Number of items in the warehouse. */
+  @Param({"100000", "1000000"})
+  public int catalogSize;
+
+  /** Directory holding the files. */
+  private Path directory;
+  /** Log holding one ADD record per item. */
+  private Path log;
+  /** Snapshot of the same items. */
+  private Path snapshot;
+
+
+  /**
+   * Write the log and the snapshot of a full catalog.
+   *
+   * @throws IOException if the files cannot be written.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("snapshot-benchmark");
+    log = directory.resolve("warehouse.wal");
+    snapshot = directory.resolve("warehouse.snapshot");
+
+    Warehouse warehouse = new Warehouse();
+    try (WriteAheadLog wal = WriteAheadLog.open(log, FsyncPolicy.NEVER, warehouse)) {
+      for (int index = 0; index < catalogSize; index++) {
+        warehouse.addItem(Catalog.item(index), Catalog.number(index), Catalog.description(index));
+      }
+    }
+    Snapshot.write(warehouse, snapshot);
+  }
+
+
+  /**
+   * Delete the files.
+   *
+   * @throws IOException if the files cannot be deleted.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(log);
+    Files.deleteIfExists(snapshot);
+    Files.delete(directory);
+  }
+
+
+  /**
+   * Rebuild the warehouse by replaying every record of the log.
+   *
+   * @return the rebuilt warehouse.
+   * @throws IOException if the log cannot be read.
+   */
+  @Benchmark
+  public Warehouse replayLog() throws IOException {
+    Warehouse warehouse = new Warehouse();
+    WriteAheadLog.replay(log, warehouse);
+    return warehouse;
+  }
+
+
+  /**
+   * Rebuild the warehouse from the snapshot.
+   *
+   * @return the rebuilt warehouse.
+   * @throws IOException if the snapshot cannot be read.
+   */
+  @Benchmark
+  public Warehouse restoreSnapshot() throws IOException {
+    Warehouse warehouse = new Warehouse();
+    try (Snapshot mapped = Snapshot.open(snapshot)) {
+      mapped.restore(warehouse);
+    }
+    return warehouse;
+  }
+
+
+  /**
+   * Map the snapshot and answer one search from it directly.
+   *
+   * @return the amount of the item found.
+   * @throws IOException if the snapshot cannot be read.
+   */
+  @Benchmark
+  public int firstSearch() throws IOException {
+    try (Snapshot mapped = Snapshot.open(snapshot)) {
+      return mapped.getItemAmount(mapped.indexOf(Catalog.number(catalogSize / 2)));
+    }
+  }
+}
@@ -0,0 +1,693 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import no.ntnu.candidate10034.Item;
+import no.ntnu.candidate10034.Warehouse;
+import no.ntnu.candidate10034.WarehouseMetrics;
+
+/**
+ * Soak test of a Warehouse under hours of mixed traffic, run in
+ * the JVM with no server or other service.
+ *
+ * <p>A number of workers, on virtual threads when the JVM has
+ * them, drive a synthetic catalog with a mix of five kinds of
+ * operation:
+ * <ul>
+ *   <li>search: lookups of Zipfian distributed Items by number,
+ *       description or both, and some misses.</li>
+ *   <li>receive: a burst of adjustments adding stock to 64
+ *       Items at once, as a delivery being booked in.</li>
+ *   <li>pick: removal of a few units of a Zipfian distributed,
+ *       so mostly hot, Item, restocking it when it runs out.</li>
+ *   <li>reprice: the start or end of a campaign giving every
+ *       Item of a brand 20% off.</li>
+ *   <li>churn: addition of a new Item, and deletion of the
+ *       worker's oldest one once it has added a thousand.</li>
+ * </ul>
+ * The mix is one of the presets read, picking, receiving,
+ * campaign, churn and mixed, or weights such as
+ * <code>search=90,pick=9,reprice=0.01</code>.
+ *
+ * <p>By default each worker starts its next operation as soon as
+ * the last one ends. Given a rate, the workers instead start
+ * operations at fixed times, and latency is measured from when an
+ * operation should have started, so a stall counts against every
+ * operation it delays.
+ *
+ * <p>Every interval the throughput and latency percentiles of
+ * each kind of operation in that interval are printed, with the
+ * live heap after a full garbage collection, which shows up as a
+ * pause in the latencies. At the end the trend of the live heap
+ * is fitted with a straight line, and the test exits with status
+ * 1 if it grew by more than 16 MB or 10%, whichever is more. For
+ * example, for an hour:
+ *
+ * <pre>
+ * java -cp benchmarks.jar no.ntnu.candidate10034.benchmarks.SoakTest 100000 16 3600 60 mixed
+ * </pre>
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class SoakTest {
+  /** Length of the Zipfian key trace, a power of two. */
+  private static final int TRACE_LENGTH = 1 << 20;
+  /** Lines of a delivery. */
+  private static final int RECEIVE_LINES = 64;
+  /** Units put back when a pick finds too few. */
+  private static final int RESTOCK = 100;
+  /** Percentage off the prices during a campaign. */
+  private static final int CAMPAIGN_PERCENT = 20;
+  /** Items a worker adds before it deletes its oldest. */
+  private static final int CHURN_BACKLOG = 1000;
+  /** Live heap growth which is never taken for a leak, in bytes. */
+  private static final long LEAK_BYTES = 16L << 20;
+  /** Live heap growth which is never taken for a leak, as a share. */
+  private static final double LEAK_SHARE = 0.10;
+
+  /** Sub-buckets of each power of two in the histograms, as a number of bits. */
+  private static final int SUB_BITS = 3;
+  /** Sub-buckets of each power of two in the histograms. */
+  private static final int SUB_BUCKETS = 1 << SUB_BITS;
+  /** Number of buckets of a histogram, up to about 18 minutes. */
+  private static final int BUCKETS = 39 * SUB_BUCKETS;
+
+  /** Weights of the preset workloads, in the order of Kind. */
+  private static final Map<String, double[]> PRESETS = Map.of(
+      "read", new double[] {95, 1, 4, 0, 0},
+      "picking", new double[] {15, 5, 80, 0, 0},
+      "receiving", new double[] {30, 60, 10, 0, 0},
+      "campaign", new double[] {80, 4, 15, 0.05, 0},
+      "churn", new double[] {50, 0, 0, 0, 50},
+      "mixed", new double[] {70, 5, 20, 0.01, 5}
+  );
+
+  /** The kinds of operation, by ordinal. */
+  private static final Kind[] KINDS = Kind.values();
+
+  /** The Warehouse under test. */
+  private final Warehouse warehouse;
+  /** Number of Items of the catalog. */
+  private final int size;
+  /** Zipfian trace of itemNumbers. */
+  private final String[] numbers;
+  /** itemDescriptions of the same Items as numbers. */
+  private final String[] descriptions;
+  /** Cumulative weights of the kinds, ending at 1. */
+  private final double[] mix;
+  /** Nanoseconds between the starts of a worker, 0 to run flat out. */
+  private final long period;
+  /** Whether each brand has a campaign running. */
+  private final AtomicBoolean[] campaigns;
+  /** The workers. */
+  private final List<Worker> workers = new ArrayList<>();
+  /** Whether the workers are to go on. */
+  private volatile boolean running = true;
+
+
+  /**
+   * A kind of operation.
+   */
+  private enum Kind {
+    /** Lookups by number, description or both. */
+    SEARCH,
+    /** Deliveries of stock. */
+    RECEIVE,
+    /** Picks of hot Items. */
+    PICK,
+    /** Starts and ends of campaigns. */
+    REPRICE,
+    /** Additions and deletions of Items. */
+    CHURN;
+
+    /**
+     * Get the name of the kind as written in a workload.
+     *
+     * @return the name.
+     */
+    String label() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+
+  /**
+   * Create a soak test.
+   *
+   * @param size number of Items of the catalog.
+   * @param weights weights of the kinds of operation.
+   * @param period nanoseconds between the starts of a worker, 0
+   *      to run flat out.
+   */
+  private SoakTest(int size, double[] weights, long period) {
+    this.warehouse = Catalog.warehouse(size);
+    this.size = size;
+    this.numbers = Catalog.zipfianKeys(size, TRACE_LENGTH, false);
+    this.descriptions = Catalog.zipfianKeys(size, TRACE_LENGTH, true);
+    this.period = period;
+    this.campaigns = new AtomicBoolean[Catalog.BRANDS.length];
+    for (int brand = 0; brand < campaigns.length; brand++) {
+      campaigns[brand] = new AtomicBoolean();
+    }
+
+    double total = 0;
+    for (double weight : weights) {
+      total += weight;
+    }
+    this.mix = new double[weights.length];
+    double sum = 0;
+    for (int kind = 0; kind < weights.length; kind++) {
+      sum += weights[kind];
+      mix[kind] = sum / total;
+    }
+    mix[mix.length - 1] = 1;
+  }
+
+
+  /**
+   * Run the soak test.
+   *
+   * @param args number of Items (100 000), workers (16), seconds
+   *      to run (60), seconds between reports (10), the workload
+   *      (mixed) and operations per second over all workers (0,
+   *      as many as possible).
+   * @throws InterruptedException If interrupted while running.
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+    int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+    int interval = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+    String workload = args.length > 4 ? args[4] : "mixed";
+    long rate = args.length > 5 ? Long.parseLong(args[5]) : 0;
+    if (size < 1 || threads < 1 || seconds < 1 || interval < 1 || rate < 0) {
+      throw new IllegalArgumentException("Counts and times must be positive");
+    }
+
+    long period = rate == 0 ? 0 : threads * 1_000_000_000L / rate;
+    SoakTest test = new SoakTest(size, weights(workload), period);
+    ExecutorService executor = executor();
+    System.out.printf("%d items, %d workers on %s threads, %s, %s%n", size, threads,
+        executor == null ? "platform" : "virtual", workload,
+        rate == 0 ? "closed loop" : rate + " operations/s");
+
+    boolean leak = test.run(threads, executor, seconds, interval);
+    for (WarehouseMetrics.Stats stats : test.warehouse.metrics().snapshot().values()) {
+      System.out.println("  " + stats);
+    }
+    if (leak) {
+      System.exit(1);
+    }
+  }
+
+
+  /**
+   * Read the weights of a workload.
+   *
+   * @param workload name of a preset, or kind=weight pairs
+   *      separated by commas.
+   * @return weights of the kinds.
+   * @throws IllegalArgumentException If the workload is not
+   *      understood.
+   */
+  private static double[] weights(String workload) {
+    double[] preset = PRESETS.get(workload);
+    if (preset != null) {
+      return preset;
+    }
+    double[] weights = new double[KINDS.length];
+    double total = 0;
+    for (String pair : workload.split(",")) {
+      String[] parts = pair.split("=");
+      Kind kind = parts.length == 2 ? kind(parts[0].trim()) : null;
+      if (kind == null) {
+        throw new IllegalArgumentException(
+            "Workload must be one of " + PRESETS.keySet() + " or kind=weight pairs: " + workload
+        );
+      }
+      weights[kind.ordinal()] = Double.parseDouble(parts[1].trim());
+      total += weights[kind.ordinal()];
+    }
+    if (!(total > 0)) {
+      throw new IllegalArgumentException("Workload has no weight: " + workload);
+    }
+    return weights;
+  }
+
+
+  /**
+   * Find a kind of operation by its name.
+   *
+   * @param label the name.
+   * @return the Kind, or null if there is none by the name.
+   */
+  private static Kind kind(String label) {
+    for (Kind kind : KINDS) {
+      if (kind.label().equals(label)) {
+        return kind;
+      }
+    }
+    return null;
+  }
+
+
+  /**
+   * Create an executor starting a virtual thread per task, if
+   * the JVM has them.
+   *
+   * @return the executor, or null before Java 21.
+   */
+  private static ExecutorService executor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+
+
+  /*
+  * RUNNING
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Run the workers, report on them every interval, and check the
+   * trend of the live heap.
+   *
+   * @param threads number of workers.
+   * @param executor runs the workers, or null for platform threads.
+   * @param seconds how long to run.
+   * @param interval seconds between reports.
+   * @return whether the live heap grew as if it leaked.
+   * @throws InterruptedException If interrupted while running.
+   */
+  private boolean run(int threads, ExecutorService executor, int seconds, int interval)
+      throws InterruptedException {
+    List<Thread> platform = new ArrayList<>();
+    for (int index = 0; index < threads; index++) {
+      Worker worker = new Worker(index);
+      workers.add(worker);
+      if (executor != null) {
+        executor.execute(worker);
+      } else {
+        Thread thread = new Thread(worker, "worker-" + index);
+        thread.setDaemon(true);
+        thread.start();
+        platform.add(thread);
+      }
+    }
+
+    List<double[]> heap = new ArrayList<>();
+    long[][] last = new long[KINDS.length][BUCKETS];
+    long start = System.nanoTime();
+    long end = start + seconds * 1_000_000_000L;
+    long previous = start;
+    while (previous < end) {
+      long wake = Math.min(end, previous + interval * 1_000_000_000L);
+      while (System.nanoTime() < wake) {
+        TimeUnit.NANOSECONDS.sleep(wake - System.nanoTime());
+      }
+      long now = System.nanoTime();
+      long[][] current = histograms();
+      long live = liveHeap();
+      heap.add(new double[] {(now - start) / 1e9, live});
+      report((now - start) / 1e9, now - previous, last, current, live);
+      last = current;
+      previous = now;
+    }
+
+    running = false;
+    if (executor != null) {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+    for (Thread thread : platform) {
+      thread.join();
+    }
+    return checkHeap(heap);
+  }
+
+
+  /**
+   * Add up the histograms of all workers.
+   *
+   * @return operations ever done per kind and bucket.
+   */
+  private long[][] histograms() {
+    long[][] sums = new long[KINDS.length][BUCKETS];
+    for (Worker worker : workers) {
+      for (int kind = 0; kind < KINDS.length; kind++) {
+        AtomicLongArray histogram = worker.histograms[kind];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+          sums[kind][bucket] += histogram.getOpaque(bucket);
+        }
+      }
+    }
+    return sums;
+  }
+
+
+  /**
+   * Print the throughput and latencies of an interval.
+   *
+   * @param time seconds since the start.
+   * @param nanos length of the interval.
+   * @param before histograms at the start of the interval.
+   * @param after histograms at the end of the interval.
+   * @param live live heap in bytes.
+   */
+  private void report(double time, long nanos, long[][] before, long[][] after, long live) {
+    long total = 0;
+    long[][] interval = new long[KINDS.length][BUCKETS];
+    long[] counts = new long[KINDS.length];
+    for (int kind = 0; kind < KINDS.length; kind++) {
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+        interval[kind][bucket] = after[kind][bucket] - before[kind][bucket];
+        counts[kind] += interval[kind][bucket];
+      }
+      total += counts[kind];
+    }
+    long errors = 0;
+    for (Worker worker : workers) {
+      errors += worker.errors;
+    }
+
+    System.out.printf("[%7.0fs] %,.0f ops/s, %,d items, live heap %.1f MB, %d errors%n",
+        time, total * 1e9 / nanos, warehouse.size(), live / 1e6, errors);
+    for (Kind kind : KINDS) {
+      long[] histogram = interval[kind.ordinal()];
+      if (counts[kind.ordinal()] > 0) {
+        System.out.printf("  %-8s %,12.0f/s  p50 %9.1f  p99 %9.1f  p99.9 %9.1f  max %9.1f us%n",
+            kind.label(), counts[kind.ordinal()] * 1e9 / nanos,
+            percentile(histogram, 50) / 1e3, percentile(histogram, 99) / 1e3,
+            percentile(histogram, 99.9) / 1e3, percentile(histogram, 100) / 1e3);
+      }
+    }
+  }
+
+
+  /**
+   * Fit a straight line to the live heap after the first fifth of
+   * the run, and print how much it grew.
+   *
+   * @param samples seconds since the start and live heap in bytes.
+   * @return whether it grew as if it leaked.
+   */
+  private static boolean checkHeap(List<double[]> samples) {
+    List<double[]> steady = samples.subList(samples.size() / 5, samples.size());
+    if (steady.size() < 3) {
+      System.out.println("Too few reports to tell the trend of the live heap");
+      return false;
+    }
+    double meanTime = 0;
+    double meanHeap = 0;
+    for (double[] sample : steady) {
+      meanTime += sample[0] / steady.size();
+      meanHeap += sample[1] / steady.size();
+    }
+    double covariance = 0;
+    double variance = 0;
+    for (double[] sample : steady) {
+      covariance += (sample[0] - meanTime) * (sample[1] - meanHeap);
+      variance += (sample[0] - meanTime) * (sample[0] - meanTime);
+    }
+    double slope = covariance / variance;
+    double span = steady.get(steady.size() - 1)[0] - steady.get(0)[0];
+    double growth = slope * span;
+    double first = meanHeap - slope * (meanTime - steady.get(0)[0]);
+    boolean leak = growth > Math.max(LEAK_BYTES, first * LEAK_SHARE);
+
+    System.out.printf("Live heap %s by %.1f MB over %.0f s, %.1f MB per hour%s%n",
+        growth < 0 ? "shrank" : "grew", Math.abs(growth) / 1e6, span, slope * 3600 / 1e6,
+        leak ? ": it may be leaking" : "");
+    return leak;
+  }
+
+
+  /**
+   * Measure the live heap after a full garbage collection.
+   *
+   * @return bytes of heap in use.
+   */
+  private static long liveHeap() {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    memory.gc();
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+
+
+
+  /*
+  * HISTOGRAMS
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Get the bucket of a time, with eight buckets for each power
+   * of two of nanoseconds.
+   *
+   * @param nanos the time in nanoseconds.
+   * @return index of the bucket.
+   */
+  private static int bucket(long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) Math.max(0, nanos);
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+    int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+    return Math.min(BUCKETS - 1, (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub);
+  }
+
+
+  /**
+   * Get the time within which a percentage of the operations of a
+   * histogram completed, rounded up to the limit of its bucket.
+   *
+   * @param histogram operations per bucket.
+   * @param percent the percentage.
+   * @return the time in nanoseconds, or 0 if there are none.
+   */
+  private static long percentile(long[] histogram, double percent) {
+    long total = 0;
+    for (long count : histogram) {
+      total += count;
+    }
+    long rank = Math.max(1, (long) Math.ceil(total * percent / 100));
+    long seen = 0;
+    for (int bucket = 0; bucket < histogram.length && total > 0; bucket++) {
+      seen += histogram[bucket];
+      if (seen >= rank) {
+        if (bucket < SUB_BUCKETS) {
+          return bucket;
+        }
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (bucket / SUB_BUCKETS - 1)) - 1;
+      }
+    }
+    return 0;
+  }
+
+
+
+  /*
+  * WORKERS
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * One worker, doing operations of the mix until told to stop.
+   */
+  private final class Worker implements Runnable {
+    /** Number of the worker. */
+    private final int index;
+    /** Operations done per bucket of their latency, per kind. Written by this worker only. */
+    private final AtomicLongArray[] histograms = new AtomicLongArray[KINDS.length];
+    /** Source of the choices of the worker. */
+    private final SplittableRandom random;
+    /** Items added by churn and not deleted yet, oldest first. */
+    private final ArrayDeque<Item> added = new ArrayDeque<>();
+    /** Next index in the Zipfian traces. */
+    private int next;
+    /** Serial number of the next Item added by churn. */
+    private int serial;
+    /** Operations which threw. Written by this worker only. */
+    private volatile long errors;
+
+    /**
+     * Create a worker.
+     *
+     * @param index number of the worker.
+     */
+    private Worker(int index) {
+      this.index = index;
+      this.random = new SplittableRandom(index);
+      this.next = random.nextInt(TRACE_LENGTH);
+      for (int kind = 0; kind < KINDS.length; kind++) {
+        histograms[kind] = new AtomicLongArray(BUCKETS);
+      }
+    }
+
+    @Override
+    public void run() {
+      long intended = System.nanoTime();
+      while (running) {
+        if (period > 0) {
+          intended += period;
+          long wait = intended - System.nanoTime();
+          if (wait > 0) {
+            LockSupport.parkNanos(wait);
+          }
+        }
+        double choice = random.nextDouble();
+        int kind = 0;
+        while (choice >= mix[kind]) {
+          kind++;
+        }
+
+        long start = period > 0 ? intended : System.nanoTime();
+        try {
+          operate(KINDS[kind]);
+        } catch (RuntimeException e) {
+          errors++;
+        }
+        AtomicLongArray histogram = histograms[kind];
+        int bucket = bucket(System.nanoTime() - start);
+        histogram.setOpaque(bucket, histogram.getOpaque(bucket) + 1);
+      }
+    }
+
+    /**
+     * Do one operation.
+     *
+     * @param kind the kind of operation.
+     */
+    private void operate(Kind kind) {
+      switch (kind) {
+        case SEARCH:
+          search();
+          break;
+        case RECEIVE:
+          receive();
+          break;
+        case PICK:
+          pick();
+          break;
+        case REPRICE:
+          reprice();
+          break;
+        default:
+          churn();
+          break;
+      }
+    }
+
+    /**
+     * Look up a hot Item by number, description or both, or an
+     * Item which does not exist.
+     */
+    private void search() {
+      int position = next++ & (TRACE_LENGTH - 1);
+      int choice = random.nextInt(100);
+      if (choice < 80) {
+        warehouse.search(numbers[position]);
+      } else if (choice < 90) {
+        warehouse.search(descriptions[position]);
+      } else if (choice < 95) {
+        warehouse.search(numbers[position], descriptions[position]);
+      } else {
+        warehouse.search("MISSING-" + position);
+      }
+    }
+
+    /**
+     * Book in a delivery of Items spread over the catalog.
+     */
+    private void receive() {
+      String[] keys = new String[RECEIVE_LINES];
+      int[] deltas = new int[RECEIVE_LINES];
+      for (int line = 0; line < RECEIVE_LINES; line++) {
+        keys[line] = Catalog.number(random.nextInt(size));
+        deltas[line] = 1 + random.nextInt(20);
+      }
+      warehouse.adjustAmounts(keys, deltas);
+    }
+
+    /**
+     * Pick a few units of a hot Item, restocking it if there are
+     * too few.
+     */
+    private void pick() {
+      String key = numbers[next++ & (TRACE_LENGTH - 1)];
+      Item item = warehouse.search(key);
+      int units = 1 + random.nextInt(3);
+      if (item.getItemAmount() < units) {
+        warehouse.adjustAmount(item, RESTOCK);
+      }
+      try {
+        warehouse.adjustAmount(item, -units);
+      } catch (IllegalArgumentException e) {
+        /* Another picker took the last units first, as happens on the floor. */
+        warehouse.adjustAmount(item, RESTOCK);
+      }
+    }
+
+    /**
+     * Start or end the campaign of a brand.
+     */
+    private void reprice() {
+      int brand = random.nextInt(campaigns.length);
+      String name = Catalog.BRANDS[brand];
+      Predicate<Item> filter = item -> name.equals(item.getItemBrand());
+      if (campaigns[brand].compareAndSet(false, true)) {
+        warehouse.discount(filter, CAMPAIGN_PERCENT);
+      } else if (campaigns[brand].compareAndSet(true, false)) {
+        warehouse.reprice(filter, price -> price * 100 / (100 - CAMPAIGN_PERCENT));
+      }
+    }
+
+    /**
+     * Add a new Item, and delete the oldest this worker added
+     * once it has added enough.
+     */
+    private void churn() {
+      Item template = Catalog.item(random.nextInt(size));
+      String number = "NEW-" + index + "-" + serial;
+      String description = "New product " + index + " " + serial;
+      serial++;
+      Item item = new Item(
+          number, template.getItemBrand(), template.getItemColor(), description,
+          template.getItemWeight(), template.getItemLength(), template.getItemHeight(),
+          template.getItemPrice(), template.getItemAmount(),
+          template.getItemCategoryAsInt() + 1
+      );
+      if (warehouse.addItem(item, number, description)) {
+        added.addLast(item);
+      }
+      if (added.size() > CHURN_BACKLOG) {
+        Item oldest = added.removeFirst();
+        warehouse.deleteCurrentItem(
+            oldest, oldest.getItemNumber(), oldest.getItemDescription()
+        );
+      }
+    }
+  }
+}
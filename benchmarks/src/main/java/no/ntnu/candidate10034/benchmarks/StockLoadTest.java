@@ -0,0 +1,234 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import no.ntnu.candidate10034.StockServer;
+import no.ntnu.candidate10034.Warehouse;
+
+/**
+ * Load test of the binary stock protocol on localhost.
+ *
+ * <p>Starts a StockServer over a synthetic catalog and opens a
+ * number of connections to it. Each connection writes a batch of
+ * pipelined requests at once and then reads their answers, as a
+ * sorter reporting a burst of scans would: mostly adjustments of
+ * Zipfian distributed itemNumbers by one unit, some lookups and a
+ * few price changes. Prints the operations per second and the
+ * time a batch takes, for example:
+ *
+ * <pre>
+ * java -cp benchmarks.jar no.ntnu.candidate10034.benchmarks.StockLoadTest 100000 4 256 20 1
+ * </pre>
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class StockLoadTest {
+  /** Port of the server. */
+  private final int port;
+  /** Frames of the keys to use, a power of two of them. */
+  private final byte[][] keys;
+  /** Requests written at once by each connection. */
+  private final int depth;
+  /** Operations answered. */
+  private final AtomicLong operations = new AtomicLong();
+  /** Operations answered with another status than OK. */
+  private final AtomicLong refused = new AtomicLong();
+  /** Batches answered. */
+  private final AtomicLong batches = new AtomicLong();
+  /** Nanoseconds spent on the batches, summed over the connections. */
+  private final AtomicLong batchNanos = new AtomicLong();
+  /** Connections which failed. */
+  private final AtomicLong failures = new AtomicLong();
+
+
+  /**
+   * Create a load test.
+   *
+   * @param port port of the server.
+   * @param keys keys to use, a power of two of them.
+   * @param depth requests written at once by each connection.
+   */
+  private StockLoadTest(int port, String[] keys, int depth) {
+    this.port = port;
+    this.keys = new byte[keys.length][];
+    for (int index = 0; index < keys.length; index++) {
+      this.keys[index] = keys[index].getBytes(StandardCharsets.UTF_8);
+    }
+    this.depth = depth;
+  }
+
+
+  /**
+   * Run the load test.
+   *
+   * @param args number of Items (100 000), connections (4),
+   *      requests per batch (256), seconds to run (20) and event
+   *      loops of the server (StockServer.DEFAULT_LOOPS).
+   * @throws Exception If the server can not be started.
+   */
+  public static void main(String[] args) throws Exception {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    int connections = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+    int depth = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+    int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+    int loops = args.length > 4 ? Integer.parseInt(args[4]) : StockServer.DEFAULT_LOOPS;
+
+    Warehouse warehouse = Catalog.warehouse(size);
+    try (StockServer server = StockServer.start(
+        warehouse, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), loops
+    )) {
+      System.out.printf("%d items, %d connections, %d per batch, %d loops%n",
+          size, connections, depth, loops);
+      StockLoadTest test = new StockLoadTest(
+          server.getPort(), Catalog.zipfianKeys(size, 1 << 20, false), depth
+      );
+      test.run(connections, Math.max(1, seconds / 5));
+      test.reset();
+      long elapsed = test.run(connections, seconds);
+      test.report(elapsed);
+    }
+  }
+
+
+  /**
+   * Send batches on a number of connections for a while.
+   *
+   * @param connections number of connections.
+   * @param seconds how long to send batches.
+   * @return nanoseconds from the start until the last answer.
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  private long run(int connections, int seconds) throws InterruptedException {
+    long start = System.nanoTime();
+    long end = start + seconds * 1_000_000_000L;
+    List<Thread> clients = new ArrayList<>();
+    for (int connection = 0; connection < connections; connection++) {
+      int seed = connection;
+      Thread client = new Thread(() -> connect(seed, end), "client-" + seed);
+      client.setDaemon(true);
+      client.start();
+      clients.add(client);
+    }
+    for (Thread client : clients) {
+      client.join();
+    }
+    return System.nanoTime() - start;
+  }
+
+
+  /**
+   * Send batches on one connection until a time.
+   *
+   * @param seed seed of the request mix of the connection.
+   * @param end System.nanoTime() to stop at.
+   */
+  private void connect(int seed, long end) {
+    Random random = new Random(seed);
+    int next = random.nextInt(keys.length);
+    ByteBuffer requests = ByteBuffer.allocateDirect(depth * (7 + StockServer.MAX_KEY));
+    ByteBuffer answers = ByteBuffer.allocateDirect(1 << 16);
+
+    try (SocketChannel channel = SocketChannel.open(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+    )) {
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      while (System.nanoTime() < end) {
+        requests.clear();
+        for (int request = 0; request < depth; request++) {
+          byte[] key = keys[next++ & (keys.length - 1)];
+          int kind = random.nextInt(100);
+          requests.putShort((short) (5 + key.length));
+          if (kind < 70) {
+            requests.put(StockServer.ADJUST).putInt(random.nextBoolean() ? 1 : -1);
+          } else if (kind < 95) {
+            requests.put(StockServer.SEARCH).putInt(0);
+          } else {
+            requests.put(StockServer.PRICE).putInt(10 + random.nextInt(20000));
+          }
+          requests.put(key);
+        }
+
+        long sent = System.nanoTime();
+        requests.flip();
+        while (requests.hasRemaining()) {
+          channel.write(requests);
+        }
+        readAnswers(channel, answers);
+        batchNanos.addAndGet(System.nanoTime() - sent);
+        batches.incrementAndGet();
+        operations.addAndGet(depth);
+      }
+    } catch (IOException e) {
+      failures.incrementAndGet();
+    }
+  }
+
+
+  /**
+   * Read the answers of a batch.
+   *
+   * @param channel the connection.
+   * @param answers buffer for the answers, in write mode.
+   * @throws IOException If the connection fails or is closed.
+   */
+  private void readAnswers(SocketChannel channel, ByteBuffer answers) throws IOException {
+    int answered = 0;
+    int notOk = 0;
+    while (answered < depth) {
+      if (channel.read(answers) < 0) {
+        throw new IOException("Connection closed");
+      }
+      answers.flip();
+      while (answered < depth && answers.remaining() >= 2) {
+        int length = answers.getShort(answers.position()) & 0xffff;
+        if (answers.remaining() < 2 + length) {
+          break;
+        }
+        if (answers.get(answers.position() + 2) != StockServer.OK) {
+          notOk++;
+        }
+        answers.position(answers.position() + 2 + length);
+        answered++;
+      }
+      answers.compact();
+    }
+    refused.addAndGet(notOk);
+  }
+
+
+  /**
+   * Forget what the warm-up counted.
+   */
+  private void reset() {
+    operations.set(0);
+    refused.set(0);
+    batches.set(0);
+    batchNanos.set(0);
+    failures.set(0);
+  }
+
+
+  /**
+   * Print the throughput and the mean time of a batch.
+   *
+   * @param elapsed nanoseconds the batches were sent over.
+   */
+  private void report(long elapsed) {
+    long total = operations.get();
+    System.out.printf("%d operations, %d not OK, %d connections failed%n",
+        total, refused.get(), failures.get());
+    System.out.printf("%.0f operations/s, %.3f ms per batch of %d%n",
+        total * 1e9 / elapsed, batchNanos.get() / 1e6 / Math.max(1, batches.get()), depth);
+  }
+}
@@ -0,0 +1,102 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import no.ntnu.candidate10034.Item;
+import no.ntnu.candidate10034.VersionedRegistry;
+import no.ntnu.candidate10034.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of keeping versions for consistent views: amount
+ * adjustments of Zipfian distributed Items with and without the
+ * registry of versions, taking a view, and valuing the stock
+ * from one.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ViewBenchmark {
+  /** Length of the precomputed trace, a power of two. */
+  private static final int TRACE_LENGTH = 1 << 16;
+
+  /** Whether a view has been taken, so that versions are kept. */
+  @Param({"false", "true"})
+  public boolean versioned;
+
+  /** Warehouse under test. */
+  private Warehouse warehouse;
+  /** Items of a Zipfian trace. */
+  private Item[] trace;
+  /** Next index in the trace. */
+  private int next;
+
+
+  /**
+   * Fill the warehouse and look up the Items of the trace.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    warehouse = Catalog.warehouse(100_000);
+    String[] numbers = Catalog.zipfianKeys(100_000, TRACE_LENGTH, false);
+    trace = new Item[TRACE_LENGTH];
+    for (int index = 0; index < TRACE_LENGTH; index++) {
+      trace[index] = warehouse.search(numbers[index]);
+    }
+    if (versioned) {
+      warehouse.view();
+    }
+  }
+
+
+  /**
+   * Add and remove a unit of an Item already found.
+   *
+   * @return the new amount.
+   */
+  @Benchmark
+  public int adjust() {
+    Item item = trace[next++ & (TRACE_LENGTH - 1)];
+    warehouse.adjustAmount(item, 1);
+    return warehouse.adjustAmount(item, -1);
+  }
+
+
+  /**
+   * Take a view of the warehouse.
+   *
+   * @return the view.
+   */
+  @Benchmark
+  public VersionedRegistry.View view() {
+    return warehouse.view();
+  }
+
+
+  /**
+   * Value the stock from a new view.
+   *
+   * @return the value of the stock.
+   */
+  @Benchmark
+  public long stockValue() {
+    return warehouse.view().getStockValue();
+  }
+}
@@ -0,0 +1,210 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import no.ntnu.candidate10034.Item;
+import no.ntnu.candidate10034.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the Warehouse registry operations over catalogs
+ * from a thousand to ten million items.
+ *
+ * <p>Lookups follow a scrambled Zipfian trace, so that a few hot
+ * SKUs get most of the traffic as they do on a scanner floor.
+ * Run a single size with <code>-p catalogSize=1000000</code>; the
+ * largest catalog needs a heap of several gigabytes.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WarehouseBenchmark {
+  /** Length of the precomputed key traces, a power of two. */
+  private static final int TRACE_LENGTH = 1 << 16;
+
+  /** Number of items in the warehouse. */
+  @Param({"1000", "100000", "1000000", "10000000"})
+  public int catalogSize;
+
+  /** Warehouse under test. */
+  private Warehouse warehouse;
+  /** Zipfian trace of itemNumbers. */
+  private String[] numbers;
+  /** Descriptions matching the numbers of the trace. */
+  private String[] descriptions;
+  /** Keys which are not registered. */
+  private String[] misses;
+
+
+  /**
+   * Fill the warehouse and precompute the key traces.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    warehouse = Catalog.warehouse(catalogSize);
+    numbers = Catalog.zipfianKeys(catalogSize, TRACE_LENGTH, false);
+    descriptions = Catalog.zipfianKeys(catalogSize, TRACE_LENGTH, true);
+    misses = new String[TRACE_LENGTH];
+    for (int index = 0; index < TRACE_LENGTH; index++) {
+      misses[index] = descriptions[index] + "?";
+    }
+  }
+
+
+  /**
+   * Position of each thread in the key traces.
+   */
+  @State(Scope.Thread)
+  public static class Cursor {
+    /** Next index in the trace. */
+    private int next;
+    /** Serial of the next item added by this thread. */
+    private int serial;
+    /** Thread-unique prefix for added items. */
+    private String prefix;
+
+    /**
+     * Give each thread its own key space for added items.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+      prefix = "NEW-" + Thread.currentThread().getId() + "-";
+    }
+
+    /**
+     * Get the next index of the trace.
+     *
+     * @return index into the trace.
+     */
+    int next() {
+      return next++ & (TRACE_LENGTH - 1);
+    }
+  }
+
+
+  /**
+   * Look up a hot item by its number.
+   *
+   * @param cursor position in the trace.
+   * @return the found item.
+   */
+  @Benchmark
+  public Item searchByNumber(Cursor cursor) {
+    return warehouse.search(numbers[cursor.next()]);
+  }
+
+
+  /**
+   * Look up a hot item by its description.
+   *
+   * @param cursor position in the trace.
+   * @return the found item.
+   */
+  @Benchmark
+  public Item searchByDescription(Cursor cursor) {
+    return warehouse.search(descriptions[cursor.next()]);
+  }
+
+
+  /**
+   * Look up a key which is not registered.
+   *
+   * @param cursor position in the trace.
+   * @return null.
+   */
+  @Benchmark
+  public Item searchMiss(Cursor cursor) {
+    return warehouse.search(misses[cursor.next()]);
+  }
+
+
+  /**
+   * Look up a hot item by both its number and description.
+   *
+   * @param cursor position in the trace.
+   * @return the found item.
+   */
+  @Benchmark
+  public Item searchByNumberAndDescription(Cursor cursor) {
+    int index = cursor.next();
+    return warehouse.search(numbers[index], descriptions[index]);
+  }
+
+
+  /**
+   * Add a new item and delete it again, keeping the catalog size stable.
+   *
+   * @param cursor thread-local key space.
+   * @return whether the item was added.
+   */
+  @Benchmark
+  public boolean addAndDeleteItem(Cursor cursor) {
+    String number = cursor.prefix + cursor.serial++;
+    Item item = new Item(
+        number, "Jysk", "brown",
+        number + " description", 1,
+        1.0, 1.0, 10,
+        1, 1
+    );
+    boolean added = warehouse.addItem(item, number, item.getItemDescription());
+    warehouse.deleteCurrentItem(item, number, item.getItemDescription());
+    return added;
+  }
+
+
+  /**
+   * Collect every item of the warehouse.
+   *
+   * @return number of items.
+   */
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int getItems() {
+    return warehouse.getItems().size();
+  }
+
+
+  /**
+   * Sum the stock value of every item with a sequential stream.
+   *
+   * @return total stock value.
+   */
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public long streamStockValue() {
+    return warehouse.stream()
+        .mapToLong(item -> (long) item.getItemPrice() * item.getItemAmount())
+        .sum();
+  }
+
+
+  /**
+   * Sum the stock value of every item with a parallel stream.
+   *
+   * @return total stock value.
+   */
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public long parallelStreamStockValue() {
+    return warehouse.parallelStream()
+        .mapToLong(item -> (long) item.getItemPrice() * item.getItemAmount())
+        .sum();
+  }
+}
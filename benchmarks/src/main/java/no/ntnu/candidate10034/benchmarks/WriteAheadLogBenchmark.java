@@ -0,0 +1,142 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import no.ntnu.candidate10034.FsyncPolicy;
+import no.ntnu.candidate10034.Warehouse;
+import no.ntnu.candidate10034.WriteAheadLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mutation throughput of a Warehouse with a WriteAheadLog attached,
+ * for each FsyncPolicy, compared to no log at all ("OFF").
+ *
+ * <p>Runs with several threads by default, since group commit only
+ * pays off when changes arrive concurrently. The log is written to
+ * the temporary directory; point <code>java.io.tmpdir</code> at the
+ * device to be measured.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class WriteAheadLogBenchmark {
+  /** Number of items in the warehouse. */
+  private static final int CATALOG_SIZE = 100_000;
+  /** Length of the precomputed key trace, a power of two. */
+  private static final int TRACE_LENGTH = 1 << 16;
+
+  /** FsyncPolicy of the log, or OFF for no log. */
+  @Param({"OFF", "NEVER", "INTERVAL", "ALWAYS"})
+  public String policy;
+
+  /** Warehouse under test. */
+  private Warehouse warehouse;
+  /** Log attached to the warehouse, or null. */
+  private WriteAheadLog log;
+  /** Directory holding the log file. */
+  private Path directory;
+  /** Zipfian trace of itemNumbers. */
+  private String[] numbers;
+
+
+  /**
+   * Fill the warehouse and attach a fresh log.
+   *
+   * @throws IOException if the log cannot be created.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    warehouse = Catalog.warehouse(CATALOG_SIZE);
+    numbers = Catalog.zipfianKeys(CATALOG_SIZE, TRACE_LENGTH, false);
+    directory = Files.createTempDirectory("wal-benchmark");
+    if (!"OFF".equals(policy)) {
+      log = WriteAheadLog.open(
+          directory.resolve("warehouse.wal"), FsyncPolicy.valueOf(policy), warehouse
+      );
+    }
+  }
+
+
+  /**
+   * Close and delete the log.
+   *
+   * @throws IOException if the log cannot be closed or deleted.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    if (log != null) {
+      log.close();
+    }
+    Files.deleteIfExists(directory.resolve("warehouse.wal"));
+    Files.delete(directory);
+  }
+
+
+  /**
+   * Position of each thread in the key trace.
+   */
+  @State(Scope.Thread)
+  public static class Cursor {
+    /** Next index in the trace. */
+    private int next;
+
+    /**
+     * Get the next index of the trace.
+     *
+     * @return index into the trace.
+     */
+    int next() {
+      return next++ & (TRACE_LENGTH - 1);
+    }
+  }
+
+
+  /**
+   * Receive one unit of a hot item.
+   *
+   * @param cursor position in the trace.
+   * @return the new amount.
+   */
+  @Benchmark
+  public int adjustAmount(Cursor cursor) {
+    return warehouse.adjustAmount(numbers[cursor.next()], 1);
+  }
+
+
+  /**
+   * Change the price of a hot item.
+   *
+   * @param cursor position in the trace.
+   * @return the new price.
+   */
+  @Benchmark
+  public int changePrice(Cursor cursor) {
+    int index = cursor.next();
+    int price = 10 + index;
+    warehouse.search(numbers[index]).setItemPrice(price);
+    return price;
+  }
+}
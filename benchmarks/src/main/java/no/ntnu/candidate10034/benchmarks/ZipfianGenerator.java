@@ -0,0 +1,143 @@
+package no.ntnu.candidate10034.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws ranks in [0, n) following a Zipfian distribution,
+ * where rank 0 is the most popular.
+ *
+ * <p>Uses the rejection-free method of Gray et al. ("Quickly
+ * generating billion-record synthetic databases"), which only
+ * needs the zeta constant of the item count to be computed once.
+ * With {@link #scrambled()} the popular ranks are spread over the
+ * whole key space, so that hot SKUs are not simply the first
+ * items added to the catalog.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class ZipfianGenerator {
+  /** Skew used by common key-value store benchmarks. */
+  public static final double DEFAULT_THETA = 0.99;
+
+  /** Number of distinct ranks. */
+  private final long items;
+  /** Skew of the distribution. */
+  private final double theta;
+  /** Precomputed constants of the method. */
+  private final double alpha;
+  private final double zetan;
+  private final double eta;
+  /** Whether ranks are hashed over the key space. */
+  private final boolean scrambled;
+  /** Source of uniform randomness. */
+  private final SplittableRandom random;
+
+
+  /**
+   * Create a generator over a number of items.
+   *
+   * @param items number of distinct ranks, must be positive.
+   * @param theta skew of the distribution, in (0, 1).
+   * @param scrambled whether hot ranks are spread over the key space.
+   * @param seed seed of the generator.
+   */
+  public ZipfianGenerator(long items, double theta, boolean scrambled, long seed) {
+    if (items <= 0 || theta <= 0 || theta >= 1) {
+      throw new IllegalArgumentException("Invalid Zipfian parameters");
+    }
+    this.items = items;
+    this.theta = theta;
+    this.scrambled = scrambled;
+    this.random = new SplittableRandom(seed);
+
+    double zeta2 = zeta(2, theta);
+    this.zetan = zeta(items, theta);
+    this.alpha = 1.0 / (1.0 - theta);
+    this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2 / zetan);
+  }
+
+
+  /**
+   * Create a scrambled generator with the default skew.
+   *
+   * @param items number of distinct ranks.
+   * @param seed seed of the generator.
+   * @return new generator.
+   */
+  public static ZipfianGenerator scrambled(long items, long seed) {
+    return new ZipfianGenerator(items, DEFAULT_THETA, true, seed);
+  }
+
+
+  /**
+   * Draw the next rank.
+   *
+   * @return rank in [0, items).
+   */
+  public long next() {
+    double u = random.nextDouble();
+    double uz = u * zetan;
+    long rank;
+
+    if (uz < 1.0) {
+      rank = 0;
+    } else if (uz < 1.0 + Math.pow(0.5, theta)) {
+      rank = 1;
+    } else {
+      rank = (long) (items * Math.pow(eta * u - eta + 1, alpha));
+    }
+    rank = Math.min(rank, items - 1);
+
+    return scrambled ? Math.floorMod(fnv(rank), items) : rank;
+  }
+
+
+  /**
+   * Fill an array with ranks, for use as a precomputed key trace.
+   *
+   * @param length number of ranks to draw.
+   * @return new array of ranks.
+   */
+  public int[] trace(int length) {
+    int[] trace = new int[length];
+    for (int index = 0; index < length; index++) {
+      trace[index] = (int) next();
+    }
+    return trace;
+  }
+
+
+  /**
+   * Sum of 1 / i^theta for i in [1, n].
+   *
+   * @param n number of terms.
+   * @param theta skew.
+   * @return the zeta constant.
+   */
+  private static double zeta(long n, double theta) {
+    double sum = 0;
+    for (long i = 1; i <= n; i++) {
+      sum += 1 / Math.pow(i, theta);
+    }
+    return sum;
+  }
+
+
+  /**
+   * 64-bit FNV-1a hash of a long, used to scramble ranks.
+   *
+   * @param value the value to hash.
+   * @return hash of the value.
+   */
+  private static long fnv(long value) {
+    long hash = 0xCBF29CE484222325L;
+    for (int index = 0; index < 8; index++) {
+      hash ^= value & 0xFF;
+      hash *= 0x100000001B3L;
+      value >>>= 8;
+    }
+    return hash;
+  }
+}
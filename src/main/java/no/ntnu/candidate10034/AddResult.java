@@ -0,0 +1,104 @@
+package no.ntnu.candidate10034;
+
+import java.util.Arrays;
+
+/**
+ * The outcome of adding a batch of Items with
+ * {@link Warehouse#addAll(Item[])}.
+ *
+ * <p>Tells how many Items were added, and for every Item which
+ * was not, why it was rejected. Items are referred to by their
+ * position in the batch.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class AddResult {
+  /** Reason each Item of the batch was rejected, or null if added. */
+  private final Reason[] reasons;
+  /** Number of Items added. */
+  private final int added;
+
+
+  /**
+   * Why an Item of a batch was not added.
+   */
+  public enum Reason {
+    /** The Item was null. */
+    NULL,
+    /** The Item already belongs to a warehouse, or appears earlier in the batch. */
+    REGISTERED,
+    /** Another Item has the same itemNumber. */
+    DUPLICATE_NUMBER,
+    /** Another Item has the same itemDescription. */
+    DUPLICATE_DESCRIPTION
+  }
+
+
+  /**
+   * Create the outcome of a batch.
+   *
+   * @param reasons reason each Item was rejected, or null if added.
+   * @param added number of Items added.
+   */
+  AddResult(Reason[] reasons, int added) {
+    this.reasons = reasons;
+    this.added = added;
+  }
+
+
+  /**
+   * Get the number of Items which were added.
+   *
+   * @return number of Items added.
+   */
+  public int getAdded() {
+    return added;
+  }
+
+
+  /**
+   * Get the number of Items which were rejected.
+   *
+   * @return number of Items rejected.
+   */
+  public int getRejected() {
+    return reasons.length - added;
+  }
+
+
+  /**
+   * Get why an Item of the batch was rejected.
+   *
+   * @param index position of the Item in the batch.
+   * @return the reason, or null if the Item was added.
+   */
+  public Reason getReason(int index) {
+    return reasons[index];
+  }
+
+
+  /**
+   * Get the positions of the rejected Items in the batch.
+   *
+   * @return new array of the positions, in ascending order.
+   */
+  public int[] getRejectedIndexes() {
+    int[] indexes = new int[getRejected()];
+    int next = 0;
+    for (int index = 0; index < reasons.length; index++) {
+      if (reasons[index] != null) {
+        indexes[next++] = index;
+      }
+    }
+    return indexes;
+  }
+
+
+  @Override
+  public String toString() {
+    return "AddResult[added=" + added + ", rejected="
+        + Arrays.toString(getRejectedIndexes()) + "]";
+  }
+}
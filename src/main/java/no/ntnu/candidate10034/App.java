@@ -1,5 +1,8 @@
 package no.ntnu.candidate10034;
 
+import java.nio.file.Path;
+import java.util.Locale;
+
 /** 
  * Represents the starting point of the 
  * application. The public static void
@@ -8,10 +11,15 @@ package no.ntnu.candidate10034;
  * user interface.
  *
  * @since       2022-11-03
- * @version     2022-11-04
+ * @version     2026-10-17
  * @author      Candidate 10034
 */
 public class App {
+  /** Log file used unless another is given. */
+  private static final String DEFAULT_LOG_FILE = "warehouse.wal";
+  /** Snapshot file used unless another is given. */
+  private static final String DEFAULT_SNAPSHOT_FILE = "warehouse.snapshot";
+
   /**
    * Initialize the application.
    * 
@@ -24,9 +32,94 @@ public class App {
    * that there is no support for running multiple
    * instances of this application simultaneously.
    *
+   * <p>The inventory is kept in a write-ahead log, so that
+   * it survives a restart. The following options are accepted:
+   * <ul>
+   *   <li><code>--wal &lt;file&gt;</code> log file, default warehouse.wal.</li>
+   *   <li><code>--snapshot &lt;file&gt;</code> snapshot written on exit
+   *       and loaded on start, default warehouse.snapshot.</li>
+   *   <li><code>--no-snapshot</code> replay the whole log on start.</li>
+   *   <li><code>--fsync &lt;always|interval|never&gt;</code> when changes
+   *       are forced to disk, default interval.</li>
+   *   <li><code>--no-wal</code> keep the inventory in memory only.</li>
+   *   <li><code>--batch &lt;file&gt;</code> run a script of commands
+   *       without the menus, "-" to read it from STDIN, and exit
+   *       with status 1 if any command failed.</li>
+   *   <li><code>--http &lt;port&gt;</code> serve the inventory through
+   *       an HTTP API instead of the menus.</li>
+   *   <li><code>--stock &lt;port&gt;</code> serve the stock to scanners
+   *       through a binary protocol instead of the menus, alone or
+   *       along with the HTTP API.</li>
+   * </ul>
+   *
    * @param args system parameters.
    */
   public static void main(String[] args) {
-    UserInterface.launch();
+    String logFile = DEFAULT_LOG_FILE;
+    String snapshotFile = DEFAULT_SNAPSHOT_FILE;
+    FsyncPolicy policy = FsyncPolicy.INTERVAL;
+    String batch = null;
+    int httpPort = -1;
+    int stockPort = -1;
+
+    for (int index = 0; index < args.length; index++) {
+      switch (args[index]) {
+        case "--wal":
+          logFile = argument(args, ++index);
+          break;
+        case "--snapshot":
+          snapshotFile = argument(args, ++index);
+          break;
+        case "--no-snapshot":
+          snapshotFile = null;
+          break;
+        case "--fsync":
+          policy = FsyncPolicy.valueOf(argument(args, ++index).toUpperCase(Locale.ROOT));
+          break;
+        case "--no-wal":
+          logFile = null;
+          break;
+        case "--batch":
+          batch = argument(args, ++index);
+          break;
+        case "--http":
+          httpPort = Integer.parseInt(argument(args, ++index));
+          break;
+        case "--stock":
+          stockPort = Integer.parseInt(argument(args, ++index));
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option " + args[index]);
+      }
+    }
+
+    Path log = logFile == null ? null : Path.of(logFile);
+    Path snapshot = snapshotFile == null ? null : Path.of(snapshotFile);
+    if (httpPort >= 0 || stockPort >= 0) {
+      UserInterface.serve(httpPort, stockPort, log, snapshot, policy);
+    } else if (batch != null) {
+      long failed = UserInterface.runBatch(batch, log, snapshot, policy);
+      System.exit(failed == 0 ? 0 : 1);
+    } else if (log == null) {
+      UserInterface.launch();
+    } else {
+      UserInterface.launch(log, snapshot, policy);
+    }
+  }
+
+
+  /**
+   * Get the value of an option.
+   *
+   * @param args system parameters.
+   * @param index position of the value.
+   * @return the value.
+   * @throws IllegalArgumentException If the value is missing.
+   */
+  private static String argument(String[] args, int index) {
+    if (index >= args.length) {
+      throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+    }
+    return args[index];
   }
 }
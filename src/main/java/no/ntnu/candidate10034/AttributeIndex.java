@@ -0,0 +1,463 @@
+package no.ntnu.candidate10034;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Secondary indexes of the Items of a Warehouse by brand, color
+ * and category.
+ *
+ * <p>These attributes take few distinct values, so rather than
+ * a list of Items per value, each value has an ItemBitmap of the
+ * dense ids of its Items (see {@link ItemColumns}). A question
+ * such as "all grey doors from Skeidar" is answered by
+ * intersecting three bitmaps, without looking at any Item, and
+ * the Items themselves are only fetched for the ids which remain.
+ *
+ * <p>The index is kept up to date as a WarehouseListener, and is
+ * created by {@link Warehouse#attributes()}. Brands and colors
+ * are matched ignoring case, like itemNumbers and descriptions.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class AttributeIndex implements WarehouseListener {
+  /** Code of an id without an Item. */
+  private static final int NONE = -1;
+
+  /** Guards everything below. */
+  private final StampedLock lock;
+  /** The Item at each id, or null. */
+  private Item[] items;
+  /** Code of the brand of the Item at each id, or NONE. */
+  private int[] brandOf;
+  /** Code of the color of the Item at each id, or NONE. */
+  private int[] colorOf;
+  /** Category of the Item at each id, 1 to 4, or 0. */
+  private byte[] categoryOf;
+  /** Bitmaps of the brands. */
+  private final Dimension brands;
+  /** Bitmaps of the colors. */
+  private final Dimension colors;
+  /** Ids of the Items of each category, the first for category 1. */
+  private final ItemBitmap[] categories;
+
+
+  /**
+   * Create an empty index.
+   *
+   * @param capacity number of ids to make room for.
+   */
+  AttributeIndex(int capacity) {
+    this.lock = new StampedLock();
+    this.items = new Item[Math.max(16, capacity)];
+    this.brandOf = new int[items.length];
+    this.colorOf = new int[items.length];
+    this.categoryOf = new byte[items.length];
+    this.brands = new Dimension(StringDictionary.BRANDS);
+    this.colors = new Dimension(StringDictionary.COLORS);
+    this.categories = new ItemBitmap[ItemColumns.CATEGORIES];
+    for (int index = 0; index < categories.length; index++) {
+      categories[index] = new ItemBitmap();
+    }
+    Arrays.fill(brandOf, NONE);
+    Arrays.fill(colorOf, NONE);
+  }
+
+
+  /**
+   * Put the Items of a warehouse into the index.
+   *
+   * <p>Must be called after the index has been registered as
+   * a listener, while the warehouse is locked for writing, so
+   * that no change is missed.
+   *
+   * @param slots the insertion order of the warehouse.
+   * @param end number of used positions in slots.
+   */
+  void load(Item[] slots, int end) {
+    long stamp = lock.writeLock();
+    try {
+      capacity(end);
+      for (int id = 0; id < end; id++) {
+        if (slots[id] != null) {
+          insert(id, slots[id]);
+        }
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+
+  /*
+  * QUERIES
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Get the ids of the Items of a brand.
+   *
+   * @param brand the brand, in any case.
+   * @return new bitmap of the ids.
+   */
+  public ItemBitmap brand(String brand) {
+    long stamp = lock.readLock();
+    try {
+      return brands.bitmap(brand).copy();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get the ids of the Items of a color.
+   *
+   * @param color the color, in any case.
+   * @return new bitmap of the ids.
+   */
+  public ItemBitmap color(String color) {
+    long stamp = lock.readLock();
+    try {
+      return colors.bitmap(color).copy();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get the ids of the Items of a category.
+   *
+   * @param category the category, 1 to 4.
+   * @return new bitmap of the ids.
+   */
+  public ItemBitmap category(int category) {
+    ItemField.CATEGORY.validate(category);
+    long stamp = lock.readLock();
+    try {
+      return categories[category - 1].copy();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get the ids of the Items matching every given attribute.
+   *
+   * <p>The bitmaps of the attributes are intersected while the
+   * index is locked, so the result matches a single state of it.
+   *
+   * @param brand the brand, in any case, or null for any.
+   * @param color the color, in any case, or null for any.
+   * @param category the category, 1 to 4, or 0 for any.
+   * @return new bitmap of the ids.
+   */
+  public ItemBitmap query(String brand, String color, int category) {
+    if (category != 0) {
+      ItemField.CATEGORY.validate(category);
+    }
+
+    long stamp = lock.readLock();
+    try {
+      ItemBitmap result = null;
+      if (brand != null) {
+        result = brands.bitmap(brand);
+      }
+      if (color != null) {
+        ItemBitmap bitmap = colors.bitmap(color);
+        result = result == null ? bitmap : result.and(bitmap);
+      }
+      if (category != 0) {
+        ItemBitmap bitmap = categories[category - 1];
+        result = result == null ? bitmap : result.and(bitmap);
+      }
+      if (result == null) {
+        return categories[0].or(categories[1]).or(categories[2]).or(categories[3]);
+      }
+      /* A single attribute leaves one of the index's own bitmaps. */
+      return (brand == null ? 0 : 1) + (color == null ? 0 : 1) + (category == 0 ? 0 : 1) == 1
+          ? result.copy() : result;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get the Items at the ids of a bitmap.
+   *
+   * <p>Ids which no longer hold an Item, because the registry
+   * changed since the bitmap was made, are skipped.
+   *
+   * @param ids the ids.
+   * @return new list of the Items, in ascending order of id.
+   */
+  public List<Item> items(ItemBitmap ids) {
+    List<Item> result = new ArrayList<>(ids.cardinality());
+    long stamp = lock.readLock();
+    try {
+      Item[] current = items;
+      ids.forEach(id -> {
+        if (id < current.length && current[id] != null) {
+          result.add(current[id]);
+        }
+      });
+    } finally {
+      lock.unlockRead(stamp);
+    }
+    return result;
+  }
+
+
+
+  /*
+  * LISTENER METHODS
+  * ----------------------------------------------------------------
+  */
+
+  @Override
+  public void itemAdded(Item item) {
+    long stamp = lock.writeLock();
+    try {
+      capacity(item.slot + 1);
+      if (items[item.slot] != null) {
+        /* Left behind by an addition which another listener aborted. */
+        delete(item.slot);
+      }
+      insert(item.slot, item);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  @Override
+  public void itemRemoved(Item item) {
+    long stamp = lock.writeLock();
+    try {
+      int id = item.slot;
+      if (id >= 0 && id < items.length && items[id] == item) {
+        delete(id);
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  @Override
+  public void fieldChanged(Item item, ItemField field) {
+    if (field != ItemField.BRAND && field != ItemField.COLOR && field != ItemField.CATEGORY) {
+      return;
+    }
+
+    long stamp = lock.writeLock();
+    try {
+      int id = item.slot;
+      if (id >= 0 && id < items.length && items[id] == item) {
+        delete(id);
+        insert(id, item);
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  @Override
+  public void itemsRenumbered() {
+    long stamp = lock.writeLock();
+    try {
+      Item[] previous = items;
+      int length = previous.length;
+      items = new Item[length];
+      brandOf = new int[length];
+      colorOf = new int[length];
+      categoryOf = new byte[length];
+      Arrays.fill(brandOf, NONE);
+      Arrays.fill(colorOf, NONE);
+      brands.clear();
+      colors.clear();
+      for (int index = 0; index < categories.length; index++) {
+        categories[index] = new ItemBitmap();
+      }
+
+      for (Item item : previous) {
+        if (item != null && item.slot >= 0) {
+          insert(item.slot, item);
+        }
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  /**
+   * Put an Item into every index at an id. Must be called
+   * while holding the write lock.
+   *
+   * @param id the id.
+   * @param item the Item.
+   */
+  private void insert(int id, Item item) {
+    int brand = brands.code(item.getItemBrandCode(), item.getItemBrand());
+    int color = colors.code(item.getItemColorCode(), item.getItemColor());
+    int category = item.getItemCategoryAsInt() + 1;
+
+    items[id] = item;
+    brandOf[id] = brand;
+    colorOf[id] = color;
+    categoryOf[id] = (byte) category;
+    brands.bitmaps.get(brand).add(id);
+    colors.bitmaps.get(color).add(id);
+    categories[category - 1].add(id);
+  }
+
+
+  /**
+   * Remove the Item at an id from every index. Must be called
+   * while holding the write lock.
+   *
+   * @param id the id.
+   */
+  private void delete(int id) {
+    brands.bitmaps.get(brandOf[id]).remove(id);
+    colors.bitmaps.get(colorOf[id]).remove(id);
+    categories[categoryOf[id] - 1].remove(id);
+    items[id] = null;
+    brandOf[id] = NONE;
+    colorOf[id] = NONE;
+    categoryOf[id] = 0;
+  }
+
+
+  /**
+   * Make sure the arrays have room for a number of ids. Must
+   * be called while holding the write lock.
+   *
+   * @param required number of ids.
+   */
+  private void capacity(int required) {
+    if (required > items.length) {
+      int length = Math.max(required, items.length * 2);
+      int previous = items.length;
+      items = Arrays.copyOf(items, length);
+      brandOf = Arrays.copyOf(brandOf, length);
+      colorOf = Arrays.copyOf(colorOf, length);
+      categoryOf = Arrays.copyOf(categoryOf, length);
+      Arrays.fill(brandOf, previous, length, NONE);
+      Arrays.fill(colorOf, previous, length, NONE);
+    }
+  }
+
+
+
+  /**
+   * The bitmaps of one String attribute, whose values are
+   * matched ignoring case.
+   *
+   * <p>Items give their value as a code of a StringDictionary,
+   * which is matched exactly. The code of the lowercased value
+   * is therefore looked up once per dictionary code, and kept,
+   * so indexing an Item compares no Strings.
+   */
+  private static final class Dimension {
+    /** Dictionary of the values of the attribute in the Items. */
+    private final StringDictionary dictionary;
+    /** Code of each lowercased value. */
+    private final Map<String, Integer> codes;
+    /** Ids of the Items of each value, by code. */
+    private final List<ItemBitmap> bitmaps;
+    /** Code of the value of each dictionary code, plus one, or 0 if not known yet. */
+    private int[] byDictionaryCode;
+
+
+    /**
+     * Create an attribute without values.
+     *
+     * @param dictionary dictionary of the values in the Items.
+     */
+    Dimension(StringDictionary dictionary) {
+      this.dictionary = dictionary;
+      this.codes = new HashMap<>();
+      this.bitmaps = new ArrayList<>();
+      this.byDictionaryCode = new int[16];
+    }
+
+
+    /**
+     * Get the code of the value of an Item, assigning the next
+     * one if it is new.
+     *
+     * @param dictionaryCode code of the value in the dictionary,
+     *      or StringDictionary.NONE if it has none.
+     * @param value the value, looked up by itself if it has no
+     *      dictionary code.
+     * @return the code.
+     */
+    int code(int dictionaryCode, String value) {
+      if (dictionaryCode == StringDictionary.NONE) {
+        return code(value.toLowerCase(Locale.ROOT));
+      }
+      if (dictionaryCode >= byDictionaryCode.length) {
+        byDictionaryCode = Arrays.copyOf(
+            byDictionaryCode, Math.max(dictionaryCode + 1, byDictionaryCode.length * 2)
+        );
+      }
+      int code = byDictionaryCode[dictionaryCode] - 1;
+      if (code < 0) {
+        code = code(dictionary.decode(dictionaryCode).toLowerCase(Locale.ROOT));
+        byDictionaryCode[dictionaryCode] = code + 1;
+      }
+      return code;
+    }
+
+
+    /**
+     * Get the code of a lowercased value, assigning the next
+     * one if it is new.
+     *
+     * @param value the lowercased value.
+     * @return the code.
+     */
+    private int code(String value) {
+      return codes.computeIfAbsent(value, key -> {
+        bitmaps.add(new ItemBitmap());
+        return bitmaps.size() - 1;
+      });
+    }
+
+
+    /**
+     * Get the bitmap of a value, without copying it.
+     *
+     * @param value the value, in any case, or null.
+     * @return the bitmap, or an empty one if the value is unknown.
+     */
+    ItemBitmap bitmap(String value) {
+      Integer code = value == null ? null : codes.get(value.toLowerCase(Locale.ROOT));
+      return code == null ? new ItemBitmap() : bitmaps.get(code);
+    }
+
+
+    /**
+     * Empty every bitmap, keeping the codes.
+     */
+    void clear() {
+      for (int code = 0; code < bitmaps.size(); code++) {
+        bitmaps.set(code, new ItemBitmap());
+      }
+    }
+  }
+}
@@ -0,0 +1,465 @@
+package no.ntnu.candidate10034;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs a script of commands against a Warehouse, without the
+ * menus of the User Interface.
+ *
+ * <p>Meant for replaying large operation files, such as the
+ * daily receiving and picking logs. Each line holds one command
+ * followed by its arguments, separated by whitespace. An
+ * argument containing whitespace is written in double quotes,
+ * where <code>\"</code> and <code>\\</code> stand for a quote
+ * and a backslash. Empty lines, and everything from a
+ * <code>#</code> beginning a word to the end of the line, are
+ * ignored. Command names ignore case. The commands are:
+ * <ul>
+ *   <li><code>add number brand color description weight length
+ *       height price amount category</code> adds an Item.</li>
+ *   <li><code>search key</code> writes the Item found by its
+ *       itemNumber or itemDescription.</li>
+ *   <li><code>find key1 key2</code> writes the Item found by
+ *       both its itemNumber and itemDescription.</li>
+ *   <li><code>increase key units</code> and
+ *       <code>decrease key units</code> adjust the amount.</li>
+ *   <li><code>price key price</code> sets the price.</li>
+ *   <li><code>discount key percent</code> lowers the price.</li>
+ *   <li><code>remove key</code> deletes the Item.</li>
+ *   <li><code>list</code> writes every Item.</li>
+ * </ul>
+ *
+ * <p>Items are written one per line with their fields separated
+ * by tabs. A key which finds no Item is written as
+ * <code>NOT FOUND key</code>. A command which fails is written
+ * as <code>ERROR line n: reason</code> and the script goes on.
+ * Other commands write nothing, so that replaying a log of
+ * changes produces only its errors.
+ *
+ * <p>The script is read through a buffer of its own rather than
+ * a Scanner, and all output goes through the one Writer given,
+ * which should be buffered. Nothing is flushed until the end.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class BatchRunner {
+  /** Number of characters read from the script at a time. */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /** The Warehouse the commands are run against. */
+  private final Warehouse warehouse;
+  /** Where results and errors are written. */
+  private final Writer out;
+
+  /** Number of commands run. */
+  private long commands;
+  /** Number of commands which failed. */
+  private long failed;
+  /** Time taken by all runs, in nanoseconds. */
+  private long elapsedNanos;
+
+
+  /**
+   * Create a runner of scripts.
+   *
+   * @param warehouse the Warehouse to run the commands against.
+   * @param out where results and errors are written.
+   */
+  public BatchRunner(Warehouse warehouse, Writer out) {
+    this.warehouse = warehouse;
+    this.out = out;
+  }
+
+
+  /**
+   * Run every command of a script, then flush the output.
+   *
+   * @param script the script, read to its end but not closed.
+   * @return number of commands run.
+   * @throws IOException If the script cannot be read or the
+   *      output cannot be written.
+   */
+  public long run(Reader script) throws IOException {
+    Tokenizer tokenizer = new Tokenizer(script);
+    List<String> tokens = new ArrayList<>();
+    long start = System.nanoTime();
+    long before = commands;
+
+    while (tokenizer.nextLine(tokens)) {
+      commands++;
+      try {
+        if (tokenizer.error != null) {
+          throw new IllegalArgumentException(tokenizer.error);
+        }
+        execute(tokens);
+      } catch (IllegalArgumentException e) {
+        failed++;
+        out.write("ERROR line ");
+        out.write(Long.toString(tokenizer.line));
+        out.write(": ");
+        out.write(String.valueOf(e.getMessage()));
+        out.write('\n');
+      }
+    }
+    out.flush();
+    elapsedNanos += System.nanoTime() - start;
+    return commands - before;
+  }
+
+
+  /**
+   * Get the number of commands run.
+   *
+   * @return number of commands, failed ones included.
+   */
+  public long getCommands() {
+    return commands;
+  }
+
+
+  /**
+   * Get the number of commands which failed.
+   *
+   * @return number of failed commands.
+   */
+  public long getFailed() {
+    return failed;
+  }
+
+
+  /**
+   * Get the throughput of all runs.
+   *
+   * @return commands run per second.
+   */
+  public double getCommandsPerSecond() {
+    return elapsedNanos == 0 ? 0 : commands * 1e9 / elapsedNanos;
+  }
+
+
+  /**
+   * Describe how many commands were run, and how fast.
+   *
+   * @return one line summing up the runs.
+   */
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT, "Ran %d commands (%d failed) in %d ms, %.0f commands/s",
+        commands, failed, elapsedNanos / 1_000_000, getCommandsPerSecond());
+  }
+
+
+
+  /*
+  * COMMANDS
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Run one command.
+   *
+   * @param tokens the command name followed by its arguments.
+   * @throws IOException If the output cannot be written.
+   * @throws IllegalArgumentException If the command fails.
+   */
+  private void execute(List<String> tokens) throws IOException {
+    String command = tokens.get(0).toLowerCase(Locale.ROOT);
+    switch (command) {
+      case "add":
+        arguments(tokens, 10);
+        Item item = new Item(
+            tokens.get(1), tokens.get(2), tokens.get(3), tokens.get(4),
+            parseDouble(tokens.get(5)), parseDouble(tokens.get(6)), parseDouble(tokens.get(7)),
+            parseInt(tokens.get(8)), parseInt(tokens.get(9)), parseInt(tokens.get(10))
+        );
+        if (!warehouse.addItem(item, item.getItemNumber(), item.getItemDescription())) {
+          throw new IllegalArgumentException("Item already exists: " + item.getItemNumber());
+        }
+        break;
+      case "search":
+        arguments(tokens, 1);
+        write(warehouse.search(tokens.get(1)), tokens.get(1));
+        break;
+      case "find":
+        arguments(tokens, 2);
+        write(warehouse.search(tokens.get(1), tokens.get(2)), tokens.get(1));
+        break;
+      case "increase":
+        arguments(tokens, 2);
+        warehouse.adjustAmount(tokens.get(1), parseUnits(tokens.get(2)));
+        break;
+      case "decrease":
+        arguments(tokens, 2);
+        warehouse.adjustAmount(tokens.get(1), -parseUnits(tokens.get(2)));
+        break;
+      case "price":
+        arguments(tokens, 2);
+        find(tokens.get(1)).setItemPrice(parseInt(tokens.get(2)));
+        break;
+      case "discount":
+        arguments(tokens, 2);
+        int percent = parseInt(tokens.get(2));
+        if (percent < 0 || percent > 100) {
+          throw new IllegalArgumentException("Discount must be between 0 and 100: " + percent);
+        }
+        Item discounted = find(tokens.get(1));
+        discounted.setItemPrice(
+            (int) ((long) discounted.getItemPrice() * (100 - percent) / 100)
+        );
+        break;
+      case "remove":
+        arguments(tokens, 1);
+        Item removed = warehouse.search(tokens.get(1));
+        if (removed == null || !warehouse.deleteCurrentItem(
+            removed, removed.getItemNumber(), removed.getItemDescription()
+        )) {
+          write(null, tokens.get(1));
+        }
+        break;
+      case "list":
+        arguments(tokens, 0);
+        for (Item listed : warehouse.getItemsView()) {
+          write(listed, null);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown command " + tokens.get(0));
+    }
+  }
+
+
+  /**
+   * Check the number of arguments of a command.
+   *
+   * @param tokens the command name followed by its arguments.
+   * @param count number of arguments expected.
+   * @throws IllegalArgumentException If there are more or fewer.
+   */
+  private static void arguments(List<String> tokens, int count) {
+    if (tokens.size() - 1 != count) {
+      throw new IllegalArgumentException(
+          tokens.get(0) + " takes " + count + " arguments, not " + (tokens.size() - 1)
+      );
+    }
+  }
+
+
+  /**
+   * Look up the Item of a key.
+   *
+   * @param key itemNumber or itemDescription.
+   * @return the Item.
+   * @throws IllegalArgumentException If no Item is found.
+   */
+  private Item find(String key) {
+    Item item = warehouse.search(key);
+    if (item == null) {
+      throw new IllegalArgumentException("No item found for " + key);
+    }
+    return item;
+  }
+
+
+  /**
+   * Parse a whole number.
+   *
+   * @param token the text of the number.
+   * @return the number.
+   * @throws IllegalArgumentException If it is not a whole number.
+   */
+  private static int parseInt(String token) {
+    try {
+      return Integer.parseInt(token);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Not a whole number: " + token);
+    }
+  }
+
+
+  /**
+   * Parse a number of units to adjust an amount by.
+   *
+   * @param token the text of the number.
+   * @return the number, which is not negative.
+   * @throws IllegalArgumentException If it is not a whole
+   *      number of at least 0.
+   */
+  private static int parseUnits(String token) {
+    int units = parseInt(token);
+    if (units < 0) {
+      throw new IllegalArgumentException("Units cannot be negative: " + token);
+    }
+    return units;
+  }
+
+
+  /**
+   * Parse a decimal number.
+   *
+   * @param token the text of the number.
+   * @return the number.
+   * @throws IllegalArgumentException If it is not a number.
+   */
+  private static double parseDouble(String token) {
+    try {
+      return Double.parseDouble(token);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Not a number: " + token);
+    }
+  }
+
+
+  /**
+   * Write an Item as one line of tab separated fields.
+   *
+   * @param item the Item, or null if none was found.
+   * @param key the key searched for, written if no Item was found.
+   * @throws IOException If the output cannot be written.
+   */
+  private void write(Item item, String key) throws IOException {
+    if (item == null) {
+      out.write("NOT FOUND ");
+      out.write(key);
+      out.write('\n');
+      return;
+    }
+    String[] fields = item.getAllFields();
+    for (int index = 0; index < fields.length; index++) {
+      if (index > 0) {
+        out.write('\t');
+      }
+      out.write(fields[index]);
+    }
+    out.write('\n');
+  }
+
+
+
+  /**
+   * Splits a script into lines of words, reading it through a
+   * buffer of its own.
+   */
+  private static final class Tokenizer {
+    /** The script. */
+    private final Reader reader;
+    /** Characters read from the script. */
+    private final char[] buffer = new char[BUFFER_SIZE];
+    /** The word being read. */
+    private final StringBuilder word = new StringBuilder();
+    /** Position of the next character in the buffer. */
+    private int position;
+    /** Number of characters in the buffer. */
+    private int limit;
+    /** Number of the line last returned, counting from 1. */
+    private long line;
+    /** Number of the line being read. */
+    private long nextLine = 1;
+    /** Why the line last returned cannot be run, or null. */
+    private String error;
+
+    /**
+     * Create a tokenizer of a script.
+     *
+     * @param reader the script.
+     */
+    private Tokenizer(Reader reader) {
+      this.reader = reader;
+    }
+
+    /**
+     * Read the words of the next line which holds any.
+     *
+     * @param tokens list replaced by the words of the line.
+     * @return false if the script has ended.
+     * @throws IOException If the script cannot be read.
+     */
+    private boolean nextLine(List<String> tokens) throws IOException {
+      tokens.clear();
+      error = null;
+      int c = read();
+      while (c != -1) {
+        if (c == '\n') {
+          if (!tokens.isEmpty()) {
+            line = nextLine++;
+            return true;
+          }
+          nextLine++;
+        } else if (c == '#') {
+          while (c != -1 && c != '\n') {
+            c = read();
+          }
+          continue;
+        } else if (!Character.isWhitespace(c)) {
+          c = readWord(c);
+          tokens.add(word.toString());
+          continue;
+        }
+        c = read();
+      }
+      line = nextLine;
+      return !tokens.isEmpty();
+    }
+
+    /**
+     * Read a word, quoted or not. A quote left open ends the
+     * word at the end of the line.
+     *
+     * @param first the first character of the word.
+     * @return the character following the word.
+     * @throws IOException If the script cannot be read.
+     */
+    private int readWord(int first) throws IOException {
+      word.setLength(0);
+      int c = first;
+      if (c != '"') {
+        while (c != -1 && !Character.isWhitespace(c)) {
+          word.append((char) c);
+          c = read();
+        }
+        return c;
+      }
+
+      c = read();
+      while (c != '"') {
+        if (c == -1 || c == '\n') {
+          error = "Unclosed quote";
+          return c;
+        }
+        if (c == '\\') {
+          c = read();
+          if (c == -1) {
+            continue;
+          }
+        }
+        word.append((char) c);
+        c = read();
+      }
+      return read();
+    }
+
+    /**
+     * Read the next character of the script.
+     *
+     * @return the character, or -1 at the end.
+     * @throws IOException If the script cannot be read.
+     */
+    private int read() throws IOException {
+      if (position == limit) {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          return -1;
+        }
+      }
+      return buffer[position++];
+    }
+  }
+}
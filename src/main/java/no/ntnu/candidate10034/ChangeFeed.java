@@ -0,0 +1,385 @@
+package no.ntnu.candidate10034;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Feed of the changes made to the Items of a Warehouse, for
+ * systems which follow them, such as a sync to an ERP system,
+ * a dashboard or alerting.
+ *
+ * <p>Every addition, deletion, amount change, price change and
+ * change of another field is written as an event into a ring of
+ * preallocated slots, numbered by an ever growing sequence. Each
+ * reader has a {@link Subscription} of its own, which remembers
+ * the next sequence it wants, so readers go at their own pace
+ * and do not disturb each other.
+ *
+ * <p>Publishing claims a sequence with one compare-and-set and
+ * fills its slot with plain writes, so it neither allocates nor
+ * takes a lock, and never waits for a reader. A reader which
+ * falls a whole ring behind has its oldest events overwritten,
+ * skips to the oldest event still in the ring, and is told how
+ * many it lost. Each slot carries the sequence of its event, set
+ * when it is complete, and readers check it before and after
+ * reading, so they never see an event half written.
+ *
+ * <p>The feed is kept up to date as a WarehouseListener, and is
+ * created by {@link Warehouse#changes()}.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class ChangeFeed implements WarehouseListener {
+  /** Slots used unless another number is given. */
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+
+  /** Failed claims after which a writer lets other threads run. */
+  private static final int SPINS = 64;
+
+  /** Handle used for ordered reads and writes of the slot sequences. */
+  private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+  /** Handle used for claiming the next sequence. */
+  private static final VarHandle NEXT;
+
+  static {
+    try {
+      NEXT = MethodHandles.lookup().findVarHandle(ChangeFeed.class, "next", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /** The kinds of change, by ordinal. */
+  private static final Type[] TYPES = Type.values();
+  /** The fields, by ordinal. */
+  private static final ItemField[] FIELDS = ItemField.values();
+
+  /**
+   * Sequence plus one of the event in each slot, 0 if the slot is
+   * empty, or minus that while the event is being written.
+   */
+  private final long[] sequences;
+  /** Kind of the event in each slot, as the ordinal of its Type. */
+  private final byte[] types;
+  /** Item of the event in each slot. */
+  private final Item[] items;
+  /** Value before the change of the event in each slot. */
+  private final int[] oldValues;
+  /** Value after the change of the event in each slot. */
+  private final int[] newValues;
+  /** Wall clock time of the event in each slot. */
+  private final long[] times;
+  /** Number of slots minus one, for the slot of a sequence. */
+  private final int mask;
+  /** Sequence of the next event to be claimed. */
+  private volatile long next;
+
+
+  /**
+   * Kind of change an event tells of.
+   */
+  public enum Type {
+    /** An Item was added. The values are 0 and its amount. */
+    ADDED,
+    /** An Item was deleted. The values are its amount and 0. */
+    REMOVED,
+    /** The amount of an Item changed. The values are the old and new amount. */
+    AMOUNT,
+    /** The price of an Item changed. The values are the old and new price. */
+    PRICE,
+    /**
+     * Another field of an Item changed. The values are both the
+     * ordinal of the ItemField, see {@link #field(int)}.
+     */
+    FIELD;
+
+    /**
+     * Get the field which a FIELD event tells of.
+     *
+     * @param value a value of the event.
+     * @return the field.
+     */
+    public ItemField field(int value) {
+      return FIELDS[value];
+    }
+  }
+
+
+  /**
+   * Receives the events read from a feed.
+   */
+  @FunctionalInterface
+  public interface Handler {
+
+    /**
+     * Called for each event, in the order of the sequence.
+     *
+     * @param sequence number of the event in the feed.
+     * @param type the kind of change.
+     * @param item the Item which changed.
+     * @param oldValue the value before the change, see {@link Type}.
+     * @param newValue the value after the change, see {@link Type}.
+     * @param time the wall clock time of the change, in
+     *      milliseconds since the epoch.
+     */
+    void changed(long sequence, Type type, Item item, int oldValue, int newValue, long time);
+  }
+
+
+  /**
+   * Create an empty feed.
+   *
+   * @param capacity number of events kept, rounded up to a power
+   *      of two.
+   * @throws IllegalArgumentException If capacity is less than 1
+   *      or more than 2^30.
+   */
+  ChangeFeed(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity must be from 1 to 2^30");
+    }
+    int slots = Integer.highestOneBit(capacity);
+    if (slots < capacity) {
+      slots <<= 1;
+    }
+    this.sequences = new long[slots];
+    this.types = new byte[slots];
+    this.items = new Item[slots];
+    this.oldValues = new int[slots];
+    this.newValues = new int[slots];
+    this.times = new long[slots];
+    this.mask = slots - 1;
+  }
+
+
+  /**
+   * Get the number of events the feed keeps.
+   *
+   * @return the number of slots.
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+
+
+  /**
+   * Get the sequence the next event will have, which is also the
+   * number of events published so far.
+   *
+   * @return the next sequence.
+   */
+  public long nextSequence() {
+    return next;
+  }
+
+
+  /**
+   * Start reading the events published from now on.
+   *
+   * @return new Subscription.
+   */
+  public Subscription subscribe() {
+    return new Subscription(next);
+  }
+
+
+  /**
+   * Start reading from the oldest event still kept.
+   *
+   * @return new Subscription.
+   */
+  public Subscription subscribeFromOldest() {
+    return new Subscription(Math.max(0, next - capacity()));
+  }
+
+
+
+  /*
+  * PUBLISHING
+  * ----------------------------------------------------------------
+  */
+
+  @Override
+  public void itemAdded(Item item) {
+    publish(Type.ADDED, item, 0, item.getItemAmount());
+  }
+
+
+  @Override
+  public void itemRemoved(Item item) {
+    publish(Type.REMOVED, item, item.getItemAmount(), 0);
+  }
+
+
+  @Override
+  public void amountChanged(Item item, int oldAmount, int newAmount) {
+    publish(Type.AMOUNT, item, oldAmount, newAmount);
+  }
+
+
+  @Override
+  public void priceChanged(Item item, int oldPrice, int newPrice) {
+    publish(Type.PRICE, item, oldPrice, newPrice);
+  }
+
+
+  @Override
+  public void fieldChanged(Item item, ItemField field) {
+    publish(Type.FIELD, item, field.ordinal(), field.ordinal());
+  }
+
+
+  /**
+   * Publish an event.
+   *
+   * <p>A sequence is claimed with a compare-and-set once the
+   * event a whole ring earlier in its slot is complete, so no two
+   * writers ever fill the same slot at once. The slot is then
+   * marked as being written, filled, and marked with the sequence
+   * of the event. The only wait is for a writer of the same slot
+   * a whole ring earlier which was descheduled halfway, and it
+   * yields the processor so that writer can finish.
+   *
+   * @param type the kind of change.
+   * @param item the Item which changed.
+   * @param oldValue the value before the change.
+   * @param newValue the value after the change.
+   */
+  private void publish(Type type, Item item, int oldValue, int newValue) {
+    long sequence;
+    int slot;
+    for (int attempt = 1; ; attempt++) {
+      sequence = next;
+      slot = (int) sequence & mask;
+      long previous = Math.max(0, sequence - mask);
+      if ((long) SEQUENCES.getAcquire(sequences, slot) == previous
+          && NEXT.compareAndSet(this, sequence, sequence + 1)) {
+        break;
+      }
+      if (attempt % SPINS == 0) {
+        Thread.yield();
+      } else {
+        Thread.onSpinWait();
+      }
+    }
+    long stamp = sequence + 1;
+    SEQUENCES.setOpaque(sequences, slot, -stamp);
+    VarHandle.storeStoreFence();
+
+    types[slot] = (byte) type.ordinal();
+    items[slot] = item;
+    oldValues[slot] = oldValue;
+    newValues[slot] = newValue;
+    times[slot] = System.currentTimeMillis();
+    SEQUENCES.setRelease(sequences, slot, stamp);
+  }
+
+
+
+  /*
+  * READING
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * The position of one reader in the feed.
+   *
+   * <p>A Subscription is meant for one thread at a time. Any
+   * number of them can read the same feed at once.
+   */
+  public final class Subscription {
+    /** Sequence of the next event to read. */
+    private long position;
+    /** Events overwritten before they could be read. */
+    private long lost;
+
+    /**
+     * Create a subscription.
+     *
+     * @param position sequence of the first event to read.
+     */
+    private Subscription(long position) {
+      this.position = position;
+    }
+
+    /**
+     * Get the sequence of the next event to read.
+     *
+     * @return the sequence.
+     */
+    public long position() {
+      return position;
+    }
+
+    /**
+     * Get the number of events which were overwritten before
+     * this subscription could read them.
+     *
+     * @return the number of events lost.
+     */
+    public long lost() {
+      return lost;
+    }
+
+    /**
+     * Get the number of events published but not read yet.
+     *
+     * @return the number of events behind.
+     */
+    public long lag() {
+      return next - position;
+    }
+
+    /**
+     * Read the events published since the last poll, up to a
+     * limit. Stops early at an event which is still being written.
+     *
+     * @param handler receives the events.
+     * @param limit most events to read.
+     * @return the number of events read.
+     */
+    public int poll(Handler handler, int limit) {
+      int read = 0;
+      while (read < limit) {
+        int slot = (int) position & mask;
+        long stamp = position + 1;
+        long before = (long) SEQUENCES.getAcquire(sequences, slot);
+        if (Math.abs(before) > stamp) {
+          skipOverwritten();
+          continue;
+        }
+        if (before != stamp) {
+          break;
+        }
+
+        Type type = TYPES[types[slot]];
+        Item item = items[slot];
+        int oldValue = oldValues[slot];
+        int newValue = newValues[slot];
+        long time = times[slot];
+        VarHandle.loadLoadFence();
+        if ((long) SEQUENCES.getAcquire(sequences, slot) != stamp) {
+          skipOverwritten();
+          continue;
+        }
+
+        handler.changed(position, type, item, oldValue, newValue, time);
+        position++;
+        read++;
+      }
+      return read;
+    }
+
+    /**
+     * Move past the events which have been overwritten, to the
+     * oldest one still kept.
+     */
+    private void skipOverwritten() {
+      long oldest = Math.max(position + 1, next - capacity());
+      lost += oldest - position;
+      position = oldest;
+    }
+  }
+}
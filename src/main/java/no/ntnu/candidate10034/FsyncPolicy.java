@@ -0,0 +1,29 @@
+package no.ntnu.candidate10034;
+
+/**
+ * Decides when the changes written to a WriteAheadLog are
+ * forced to the storage device.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public enum FsyncPolicy {
+  /**
+   * Every change waits until it has been forced to disk. Changes
+   * made while a force is in progress are forced together by the
+   * next one, so that one fsync commits a whole group of them.
+   */
+  ALWAYS,
+  /**
+   * Changes are forced at a fixed interval. A crash loses at most
+   * the changes of the last interval.
+   */
+  INTERVAL,
+  /**
+   * Changes are written to the file but never forced, leaving it
+   * to the operating system. Survives a crash of the application,
+   * but not of the machine.
+   */
+  NEVER
+}
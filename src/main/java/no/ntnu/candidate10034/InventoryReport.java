@@ -0,0 +1,458 @@
+package no.ntnu.candidate10034;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Renders Items as a report, a table for reading or CSV for
+ * other programs, streaming them to a Writer.
+ *
+ * <p>Each Item is written field by field straight to the Writer,
+ * without building Strings or arrays for it: numbers are
+ * formatted into a buffer kept by the report, and padding is
+ * written from a buffer of spaces. The Writer should be
+ * buffered, and is flushed after every page so that a console
+ * shows each page as it is done.
+ *
+ * <p>A report shows a selection of the fields of the Items, in
+ * the order given. Its Items may be split into pages of a fixed
+ * number of rows. A table then repeats its header on every page,
+ * while CSV writes it only once. In a table, text longer than its
+ * column is cut short, and the category is written by name. CSV
+ * quotes text which needs it, and writes the category number.
+ *
+ * <p>A report keeps a buffer, so it is not safe for use by
+ * several threads at once.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class InventoryReport {
+  /** Width of each column of a table, by field. */
+  private static final int[] WIDTHS = {16, 12, 12, 32, 9, 9, 9, 10, 9, 14};
+  /** Title of each column of a table, by field. */
+  private static final String[] TITLES = {
+    "Item number", "Brand", "Color", "Description", "Weight",
+    "Length", "Height", "Price", "Amount", "Category"
+  };
+  /** Separator between columns of a table. */
+  private static final String TABLE_SEPARATOR = " | ";
+  /** Most decimals of a measurement written without Double.toString. */
+  private static final int DECIMALS = 3;
+  /** Ten to the power of DECIMALS. */
+  private static final long SCALE = 1000;
+
+  /** The layout of the report. */
+  private final Layout layout;
+  /** Number of Items on a page, or 0 for a single page. */
+  private final int pageSize;
+  /** The fields shown, in order. */
+  private final ItemField[] columns;
+  /** Buffer of spaces used for padding. */
+  private final char[] spaces;
+  /** Buffer numbers are formatted into. */
+  private final char[] digits = new char[32];
+  /** Line between the header and the rows of a table. */
+  private final char[] rule;
+
+
+  /**
+   * How a report is laid out.
+   */
+  public enum Layout {
+    /** Columns of fixed width separated by bars, for reading. */
+    TABLE,
+    /** Comma separated values, for spreadsheets and other programs. */
+    CSV
+  }
+
+
+  /**
+   * Create a report.
+   *
+   * @param layout the layout of the report.
+   * @param pageSize number of Items on a page, or 0 for a single page.
+   * @param columns the fields to show, in order, or none to
+   *      show every field.
+   * @throws IllegalArgumentException If pageSize is negative.
+   */
+  public InventoryReport(Layout layout, int pageSize, ItemField... columns) {
+    if (pageSize < 0) {
+      throw new IllegalArgumentException("Page size cannot be negative: " + pageSize);
+    }
+    this.layout = layout;
+    this.pageSize = pageSize;
+    this.columns = columns.length == 0 ? ItemField.values() : columns.clone();
+
+    int widest = 0;
+    int total = 0;
+    for (ItemField column : this.columns) {
+      widest = Math.max(widest, WIDTHS[column.ordinal()]);
+      total += WIDTHS[column.ordinal()];
+    }
+    this.spaces = new char[widest];
+    Arrays.fill(spaces, ' ');
+    this.rule = new char[total + TABLE_SEPARATOR.length() * (this.columns.length - 1)];
+    Arrays.fill(rule, '-');
+  }
+
+
+  /**
+   * Get the number of Items on a page.
+   *
+   * @return number of Items, or 0 for a single page.
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+
+
+  /*
+  * RENDERING
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Write every Item, page by page.
+   *
+   * @param items the Items, such as the live view of a Warehouse.
+   * @param out where the report is written.
+   * @return number of Items written.
+   * @throws IOException If the report cannot be written.
+   */
+  public long write(Iterable<? extends Item> items, Writer out) throws IOException {
+    Iterator<? extends Item> iterator = items.iterator();
+    long written = writePage(iterator, 1, out, true);
+    for (int page = 2; iterator.hasNext(); page++) {
+      written += writePage(iterator, page, out, layout == Layout.TABLE);
+    }
+    return written;
+  }
+
+
+  /**
+   * Write every Item to a file, replacing it.
+   *
+   * @param items the Items, such as the live view of a Warehouse.
+   * @param file the file, written as UTF-8.
+   * @return number of Items written.
+   * @throws IOException If the file cannot be written.
+   */
+  public long write(Iterable<? extends Item> items, Path file) throws IOException {
+    try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      return write(items, out);
+    }
+  }
+
+
+  /**
+   * Write one page of the Items, skipping the pages before it.
+   *
+   * @param items the Items, such as the live view of a Warehouse.
+   * @param page number of the page, counting from 1.
+   * @param out where the page is written.
+   * @return number of Items written, 0 if the page is past the end.
+   * @throws IOException If the page cannot be written.
+   */
+  public int writePage(Iterable<? extends Item> items, int page, Writer out)
+      throws IOException {
+    Iterator<? extends Item> iterator = items.iterator();
+    long skip = pageSize == 0 ? 0 : (long) (page - 1) * pageSize;
+    for (long skipped = 0; skipped < skip && iterator.hasNext(); skipped++) {
+      iterator.next();
+    }
+    return page == 1 || iterator.hasNext() ? writePage(iterator, page, out) : 0;
+  }
+
+
+  /**
+   * Write the next page of Items from an iterator, with its
+   * header. Meant for showing a report a page at a time.
+   *
+   * @param items the Items not yet written.
+   * @param page number of the page, counting from 1.
+   * @param out where the page is written.
+   * @return number of Items written.
+   * @throws IOException If the page cannot be written.
+   */
+  public int writePage(Iterator<? extends Item> items, int page, Writer out)
+      throws IOException {
+    return writePage(items, page, out, true);
+  }
+
+
+  /**
+   * Write the next page of Items from an iterator.
+   *
+   * @param items the Items not yet written.
+   * @param page number of the page, counting from 1.
+   * @param out where the page is written.
+   * @param header whether to write the header first.
+   * @return number of Items written.
+   * @throws IOException If the page cannot be written.
+   */
+  private int writePage(Iterator<? extends Item> items, int page, Writer out, boolean header)
+      throws IOException {
+    if (header) {
+      writeHeader(page, out);
+    }
+    int written = 0;
+    while ((pageSize == 0 || written < pageSize) && items.hasNext()) {
+      writeRow(items.next(), out);
+      written++;
+    }
+    out.flush();
+    return written;
+  }
+
+
+  /**
+   * Write the header of a page.
+   *
+   * @param page number of the page, counting from 1.
+   * @param out where the header is written.
+   * @throws IOException If the header cannot be written.
+   */
+  private void writeHeader(int page, Writer out) throws IOException {
+    if (layout == Layout.CSV) {
+      for (int index = 0; index < columns.length; index++) {
+        if (index > 0) {
+          out.write(',');
+        }
+        out.write(columns[index].getFieldName());
+      }
+      out.write('\n');
+      return;
+    }
+
+    if (pageSize > 0) {
+      out.write("Page ");
+      writeInt(page, out);
+      out.write('\n');
+    }
+    for (int index = 0; index < columns.length; index++) {
+      if (index > 0) {
+        out.write(TABLE_SEPARATOR);
+      }
+      writeText(TITLES[columns[index].ordinal()], WIDTHS[columns[index].ordinal()], out);
+    }
+    out.write('\n');
+    out.write(rule);
+    out.write('\n');
+  }
+
+
+  /**
+   * Write one Item as a row.
+   *
+   * @param item the Item.
+   * @param out where the row is written.
+   * @throws IOException If the row cannot be written.
+   */
+  private void writeRow(Item item, Writer out) throws IOException {
+    boolean table = layout == Layout.TABLE;
+    for (int index = 0; index < columns.length; index++) {
+      if (index > 0) {
+        out.write(table ? TABLE_SEPARATOR : ",");
+      }
+      ItemField column = columns[index];
+      int width = table ? WIDTHS[column.ordinal()] : 0;
+      switch (column) {
+        case NUMBER:
+          writeText(item.getItemNumber(), width, out);
+          break;
+        case BRAND:
+          writeText(item.getItemBrand(), width, out);
+          break;
+        case COLOR:
+          writeText(item.getItemColor(), width, out);
+          break;
+        case DESCRIPTION:
+          writeText(item.getItemDescription(), width, out);
+          break;
+        case WEIGHT:
+          writeNumber(formatDouble(item.getItemWeight()), width, out);
+          break;
+        case LENGTH:
+          writeNumber(formatDouble(item.getItemLength()), width, out);
+          break;
+        case HEIGHT:
+          writeNumber(formatDouble(item.getItemHeight()), width, out);
+          break;
+        case PRICE:
+          writeNumber(formatLong(item.getItemPrice(), digits.length), width, out);
+          break;
+        case AMOUNT:
+          writeNumber(formatLong(item.getItemAmount(), digits.length), width, out);
+          break;
+        default:
+          if (table) {
+            writeText(item.getItemCategoryAsString(), width, out);
+          } else {
+            writeNumber(formatLong(item.getItemCategoryAsInt() + 1, digits.length), 0, out);
+          }
+          break;
+      }
+    }
+    out.write('\n');
+  }
+
+
+
+  /*
+  * FORMATTING
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Write a text value, padded or cut to the width of its
+   * column in a table, or quoted if needed in CSV.
+   *
+   * @param text the text.
+   * @param width width of the column, or 0 for CSV.
+   * @param out where the text is written.
+   * @throws IOException If the text cannot be written.
+   */
+  private void writeText(String text, int width, Writer out) throws IOException {
+    if (width == 0) {
+      writeCsv(text, out);
+    } else if (text.length() >= width) {
+      out.write(text, 0, width);
+    } else {
+      out.write(text);
+      out.write(spaces, 0, width - text.length());
+    }
+  }
+
+
+  /**
+   * Write a text value of CSV, in quotes with its quotes doubled
+   * if it holds a comma, quote or line break.
+   *
+   * @param text the text.
+   * @param out where the text is written.
+   * @throws IOException If the text cannot be written.
+   */
+  private static void writeCsv(String text, Writer out) throws IOException {
+    boolean quote = false;
+    for (int index = 0; index < text.length() && !quote; index++) {
+      char c = text.charAt(index);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      out.write(text);
+      return;
+    }
+
+    out.write('"');
+    int start = 0;
+    for (int index = 0; index < text.length(); index++) {
+      if (text.charAt(index) == '"') {
+        out.write(text, start, index + 1 - start);
+        start = index;
+      }
+    }
+    out.write(text, start, text.length() - start);
+    out.write('"');
+  }
+
+
+  /**
+   * Write a number formatted at the end of the digits buffer,
+   * right-aligned in its column in a table.
+   *
+   * @param start where the number begins in the digits buffer.
+   * @param width width of the column, or 0 for CSV.
+   * @param out where the number is written.
+   * @throws IOException If the number cannot be written.
+   */
+  private void writeNumber(int start, int width, Writer out) throws IOException {
+    int length = digits.length - start;
+    if (length < width) {
+      out.write(spaces, 0, width - length);
+    }
+    out.write(digits, start, length);
+  }
+
+
+  /**
+   * Write a whole number.
+   *
+   * @param value the number.
+   * @param out where the number is written.
+   * @throws IOException If the number cannot be written.
+   */
+  private void writeInt(int value, Writer out) throws IOException {
+    writeNumber(formatLong(value, digits.length), 0, out);
+  }
+
+
+  /**
+   * Format a whole number into the digits buffer, ending
+   * before a given position.
+   *
+   * @param value the number.
+   * @param end position after the last digit.
+   * @return position of the first character.
+   */
+  private int formatLong(long value, int end) {
+    boolean negative = value < 0;
+    long rest = negative ? value : -value;
+    int position = end;
+    do {
+      digits[--position] = (char) ('0' - rest % 10);
+      rest /= 10;
+    } while (rest != 0);
+    if (negative) {
+      digits[--position] = '-';
+    }
+    return position;
+  }
+
+
+  /**
+   * Format a measurement into the end of the digits buffer, as
+   * Double.toString would.
+   *
+   * <p>Values with at most three decimals, which measurements in
+   * meters and kilograms are, are formatted from a long without
+   * creating a String. Other values fall back to Double.toString.
+   *
+   * @param value the measurement.
+   * @return position of the first character in the digits buffer.
+   */
+  private int formatDouble(double value) {
+    long scaled = Math.round(value * SCALE);
+    if (Math.abs(value) >= 1e7 || scaled / (double) SCALE != value) {
+      String text = Double.toString(value);
+      text.getChars(0, text.length(), digits, digits.length - text.length());
+      return digits.length - text.length();
+    }
+
+    long whole = Math.abs(scaled) / SCALE;
+    long fraction = Math.abs(scaled) % SCALE;
+    int decimals = DECIMALS;
+    while (decimals > 1 && fraction % 10 == 0) {
+      fraction /= 10;
+      decimals--;
+    }
+    int position = digits.length - decimals;
+    int end = formatLong(fraction, digits.length);
+    while (end > position) {
+      digits[--end] = '0';
+    }
+    digits[--position] = '.';
+    position = formatLong(whole, position);
+    if (scaled < 0 || (scaled == 0 && 1 / value < 0)) {
+      digits[--position] = '-';
+    }
+    return position;
+  }
+}
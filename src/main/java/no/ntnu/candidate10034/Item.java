@@ -1,5 +1,8 @@
 package no.ntnu.candidate10034;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 /**
  * Represents an item in a warehouse, containing
  * general product information, pricing and the
@@ -10,7 +13,7 @@ package no.ntnu.candidate10034;
  * therefore mainly acessors and mutators. 
  *
  * @since       2022-10-04
- * @version     2022-10-05
+ * @version     2026-10-17
  * @author      Candidate 10034
  */
 public class Item {
@@ -22,10 +25,14 @@ public class Item {
 
   /** Identifier of the item. */
   private String  itemNumber;
-  /** Delivering brand. */
-  private String  itemBrand;
-  /** Color of the item. */
-  private String  itemColor;
+  /** Delivering brand, as its code in StringDictionary.BRANDS, or NONE. */
+  private int     itemBrand;
+  /** Delivering brand if it has no code in the full dictionary, otherwise null. */
+  private String  itemBrandText;
+  /** Color of the item, as its code in StringDictionary.COLORS, or NONE. */
+  private int     itemColor;
+  /** Color of the item if it has no code in the full dictionary, otherwise null. */
+  private String  itemColorText;
   /** Short description. */
   private String  itemDescription;
   /** Weight in kilograms. */
@@ -34,18 +41,45 @@ public class Item {
   private double  itemLength;
   /** Height in meters. */
   private double  itemHeight;
-  /** Price of the item. */
-  private int     itemPrice;
-  /** Amount of this item in storage. */
-  private int     itemAmount;
+  /** Price of the item. Updated atomically through PRICE. */
+  private volatile int itemPrice;
+  /** Amount of this item in storage. Updated atomically through AMOUNT. */
+  private volatile int itemAmount;
   /** Item-category identifier. */
   private int     itemCategory;
 
+  /**
+   * Position in the insertion order of the Warehouse holding
+   * this item, or -1 if it is not registered. Owned by Warehouse.
+   */
+  int slot = -1;
+  /** Warehouse holding this item, told about its changes. Owned by Warehouse. */
+  volatile Warehouse owner;
+  /**
+   * Id of the item in the WriteAheadLog of its Warehouse, which
+   * its records name it by. Owned by WriteAheadLog.
+   */
+  int logId = -1;
+
   /** Category of Item-instance. */
   private static final String[] CATEGORY = new String[] {
       "floor laminate", "window", "door", "lumber"
   };
 
+  /** Handle used for compare-and-set updates of itemAmount. */
+  private static final VarHandle AMOUNT;
+  /** Handle used for atomic updates of itemPrice. */
+  private static final VarHandle PRICE;
+
+  static {
+    try {
+      AMOUNT = MethodHandles.lookup().findVarHandle(Item.class, "itemAmount", int.class);
+      PRICE = MethodHandles.lookup().findVarHandle(Item.class, "itemPrice", int.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
 
 
   /*
@@ -110,6 +144,21 @@ public class Item {
    * @return String itemBrand.
    */
   public String getItemBrand() {
+    int code = itemBrand;
+    return code != StringDictionary.NONE ? StringDictionary.BRANDS.decode(code) : itemBrandText;
+  }
+
+
+  /**
+   * Access the brand behind the item as its code in the shared
+   * dictionary of brands, so that Items can be compared and
+   * grouped by brand without comparing Strings.
+   *
+   * @return code of itemBrand in StringDictionary.BRANDS, or
+   *      StringDictionary.NONE if the brand was new when the
+   *      dictionary was full.
+   */
+  public int getItemBrandCode() {
     return itemBrand;
   }
 
@@ -121,6 +170,20 @@ public class Item {
    * @return String itemColor.
    */
   public String getItemColor() {
+    int code = itemColor;
+    return code != StringDictionary.NONE ? StringDictionary.COLORS.decode(code) : itemColorText;
+  }
+
+
+  /**
+   * Get the color of the item as its code in the shared
+   * dictionary of colors.
+   *
+   * @return code of itemColor in StringDictionary.COLORS, or
+   *      StringDictionary.NONE if the color was new when the
+   *      dictionary was full.
+   */
+  public int getItemColorCode() {
     return itemColor;
   }
 
@@ -241,8 +304,15 @@ public class Item {
    * @param itemNumber new articleNumber.
    */
   public void setItemNumber(final String itemNumber) {
-    validateField(itemNumber, "itemNumber");
-    this.itemNumber = itemNumber;
+    ItemField.NUMBER.validate(itemNumber);
+    Warehouse gated = beginChange();
+    try {
+      this.itemNumber = itemNumber;
+      fieldChanged(ItemField.NUMBER);
+    } finally {
+      endChange(gated);
+    }
+    awaitDurable();
   }
 
 
@@ -253,8 +323,17 @@ public class Item {
    * @param itemBrand new brand.
    */
   public void setItemBrand(final String itemBrand) {
-    validateField(itemBrand, "itemBrand");
-    this.itemBrand = itemBrand;
+    ItemField.BRAND.validate(itemBrand);
+    Warehouse gated = beginChange();
+    try {
+      int code = StringDictionary.BRANDS.encode(itemBrand);
+      this.itemBrandText = code == StringDictionary.NONE ? itemBrand : null;
+      this.itemBrand = code;
+      fieldChanged(ItemField.BRAND);
+    } finally {
+      endChange(gated);
+    }
+    awaitDurable();
   }
 
 
@@ -265,8 +344,17 @@ public class Item {
    * @param itemColor new color.
   */
   public void setItemColor(final String itemColor) {
-    validateField(itemColor, "itemColor");
-    this.itemColor = itemColor;
+    ItemField.COLOR.validate(itemColor);
+    Warehouse gated = beginChange();
+    try {
+      int code = StringDictionary.COLORS.encode(itemColor);
+      this.itemColorText = code == StringDictionary.NONE ? itemColor : null;
+      this.itemColor = code;
+      fieldChanged(ItemField.COLOR);
+    } finally {
+      endChange(gated);
+    }
+    awaitDurable();
   }
 
 
@@ -279,8 +367,15 @@ public class Item {
    * @param itemDescription new description
    */
   public void setItemDescription(final String itemDescription) {
-    validateField(itemDescription, "itemDescription");
-    this.itemDescription = itemDescription;
+    ItemField.DESCRIPTION.validate(itemDescription);
+    Warehouse gated = beginChange();
+    try {
+      this.itemDescription = itemDescription;
+      fieldChanged(ItemField.DESCRIPTION);
+    } finally {
+      endChange(gated);
+    }
+    awaitDurable();
   }
 
 
@@ -293,8 +388,15 @@ public class Item {
    * @param itemWeight new weight.
    */
   public void setItemWeight(final double itemWeight) {
-    validateField(itemWeight + "", "itemWeight");
-    this.itemWeight = itemWeight;
+    ItemField.WEIGHT.validate(itemWeight);
+    Warehouse gated = beginChange();
+    try {
+      this.itemWeight = itemWeight;
+      fieldChanged(ItemField.WEIGHT);
+    } finally {
+      endChange(gated);
+    }
+    awaitDurable();
   }
 
 
@@ -307,8 +409,15 @@ public class Item {
    * @param itemLength new length.
    */
   public void setItemLength(final double itemLength) {
-    validateField(itemLength + "", "itemLength");
-    this.itemLength = itemLength;
+    ItemField.LENGTH.validate(itemLength);
+    Warehouse gated = beginChange();
+    try {
+      this.itemLength = itemLength;
+      fieldChanged(ItemField.LENGTH);
+    } finally {
+      endChange(gated);
+    }
+    awaitDurable();
   }
 
 
@@ -321,34 +430,151 @@ public class Item {
    * @param itemHeight new height.
    */
   public void setItemHeight(final double itemHeight) {
-    validateField(itemHeight + "", "itemHeight");
-    this.itemHeight = itemHeight;
+    ItemField.HEIGHT.validate(itemHeight);
+    Warehouse gated = beginChange();
+    try {
+      this.itemHeight = itemHeight;
+      fieldChanged(ItemField.HEIGHT);
+    } finally {
+      endChange(gated);
+    }
+    awaitDurable();
   }
 
 
   /**
    * Update the item pricing as an integer.
    *
-   * </p>The price cannot be less than 0.
+   * </p>The price cannot be less than 0. The price is replaced
+   * atomically, and the Warehouse holding the item, if any, is
+   * told about the change before another thread can change the
+   * price again. Its listeners therefore hear of the price
+   * changes of one item in the order they were made, with the
+   * price each one replaced, and a log of them replays to the
+   * last price.
    *
    * @param itemPrice new price.
    */
   public void setItemPrice(final int itemPrice) {
-    validateField(itemPrice + "", "itemPrice");
-    this.itemPrice = itemPrice;
+    ItemField.PRICE.validate(itemPrice);
+    Warehouse gated = beginChange();
+    try {
+      replacePrice(itemPrice);
+    } finally {
+      endChange(gated);
+    }
+    awaitDurable();
+  }
+
+
+  /**
+   * Replace the price and tell the Warehouse holding the item,
+   * as {@link #setItemPrice(int)} does, without validating the
+   * price or waiting for the change to be durable. Used by the
+   * Warehouse for bulk changes made under its lock.
+   *
+   * @param itemPrice new price, already validated.
+   */
+  void replacePrice(final int itemPrice) {
+    synchronized (this) {
+      int oldPrice = (int) PRICE.getAndSet(this, itemPrice);
+
+      Warehouse warehouse = owner;
+      if (warehouse != null) {
+        warehouse.firePriceChanged(this, oldPrice, itemPrice);
+      }
+    }
+  }
+
+
+  /**
+   * Replace the price only if it still is an expected one, as
+   * {@link #replacePrice(int)} does. The price is compared and
+   * replaced under the same monitor as setItemPrice, so a price
+   * set in between is never overwritten. Used by the Warehouse
+   * for bulk changes computed from the old prices.
+   *
+   * @param expected the price the item must still have.
+   * @param itemPrice new price, already validated.
+   * @return whether the price was the expected one, and is now
+   *      the new one.
+   */
+  boolean compareAndReplacePrice(final int expected, final int itemPrice) {
+    synchronized (this) {
+      if (this.itemPrice != expected) {
+        return false;
+      }
+      if (expected != itemPrice) {
+        replacePrice(itemPrice);
+      }
+      return true;
+    }
   }
 
 
   /**
    * Update the amount of items in store.
    * 
-   * </p>The amount cannot be less than 0.
+   * </p>The amount cannot be less than 0. The Warehouse
+   * holding the item, if any, is told about the change.
    *
    * @param itemAmount new amount.
    */
   public void setItemAmount(final int itemAmount) {
-    validateField(itemAmount + "", "itemAmount");
-    this.itemAmount = itemAmount;
+    ItemField.AMOUNT.validate(itemAmount);
+    Warehouse gated = beginChange();
+    try {
+      int oldAmount = (int) AMOUNT.getAndSet(this, itemAmount);
+
+      Warehouse warehouse = owner;
+      if (warehouse != null) {
+        warehouse.fireAmountChanged(this, oldAmount, itemAmount);
+      }
+    } finally {
+      endChange(gated);
+    }
+    awaitDurable();
+  }
+
+  /**
+   * Atomically add a signed delta to the amount of items in store.
+   *
+   * </p>Retries a compare-and-set until no other thread changed
+   * the amount in between, so concurrent adjustments are never
+   * lost. The amount is left untouched if the result would be
+   * less than 0 or exceed the range of an int.
+   *
+   * @param delta the number of units to add, negative to remove.
+   * @return the new amount, or -1 if the adjustment was rejected.
+   */
+  int tryAdjustItemAmount(final int delta) {
+    int current;
+    int updated;
+    do {
+      current = itemAmount;
+      long result = (long) current + delta;
+      if (result < 0 || result > Integer.MAX_VALUE) {
+        return -1;
+      }
+      updated = (int) result;
+    } while (!AMOUNT.weakCompareAndSet(this, current, updated));
+    return updated;
+  }
+
+  /**
+   * Atomically add a signed delta to the amount of items in
+   * store, without checking the result.
+   *
+   * </p>Used when replaying a log, whose deltas may have been
+   * recorded in another order than they were applied: the
+   * amount may then pass through values no caller could have
+   * set, but the sum of all deltas ends where it did.
+   *
+   * @param delta the number of units to add, negative to remove.
+   * @return the new amount.
+   */
+  int addItemAmount(final int delta) {
+    return (int) AMOUNT.getAndAdd(this, delta) + delta;
   }
 
   /**
@@ -360,59 +586,67 @@ public class Item {
    *
    * @param itemCategory new item category.
    */
-  public void setItemCategory(int itemCategory) {
-    itemCategory--;
-    validateField(itemCategory + "", "itemCategory");
-    this.itemCategory = itemCategory;
+  public void setItemCategory(final int itemCategory) {
+    ItemField.CATEGORY.validate(itemCategory);
+    Warehouse gated = beginChange();
+    try {
+      this.itemCategory = itemCategory - 1;
+      fieldChanged(ItemField.CATEGORY);
+    } finally {
+      endChange(gated);
+    }
+    awaitDurable();
+  }
+
+
+  /**
+   * Tell the Warehouse holding the item, if any, that a field
+   * other than the amount or price changed.
+   *
+   * @param field the field which changed.
+   */
+  private void fieldChanged(final ItemField field) {
+    Warehouse warehouse = owner;
+    if (warehouse != null) {
+      warehouse.fireFieldChanged(this, field);
+    }
   }
 
 
+  /**
+   * Start a change of the item, keeping the Warehouse holding
+   * it, if any, from taking a checkpoint until it is logged.
+   * See {@link Warehouse#beginChange()}.
+   *
+   * @return the Warehouse to pass to endChange, or null.
+   */
+  private Warehouse beginChange() {
+    Warehouse warehouse = owner;
+    return warehouse != null && warehouse.beginChange() ? warehouse : null;
+  }
 
-  /*
-  * PARAMETER VALIDATORS
-  * ----------------------------------------------------------------
-  */
 
   /**
-   * Validate a field value against based on a prefix.
-   *
-   * @param field the field value to validate.
-   * @param prefix the prefix identifying the properties of the field.
-   * @throws IllegalArgumentException 
-   *      If field value is considered invalid according to its prefix.
-   */
-  private void validateField(String field, String prefix) {
-    boolean valid = true;
-
-    switch (prefix) {
-      case "itemHeight":
-      case "itemLength":
-      case "itemWeight":
-        if (Double.parseDouble(field) < 0) {
-          valid = false;
-        }
-        break;
-      case "itemPrice":
-      case "itemAmount":
-        if (Integer.parseInt(field) < 0) {
-          valid = false;
-        }
-        break;
-      case "itemCategory":
-        int category = Integer.parseInt(field);
-        if (category < 0 || category > 3) {
-          valid = false;
-        }
-        break;
-      default:
-        if (field.isBlank()) {
-          valid = false;
-        }
-        break;
+   * End a change started by beginChange.
+   *
+   * @param gated the Warehouse returned by beginChange, or null.
+   */
+  private static void endChange(final Warehouse gated) {
+    if (gated != null) {
+      gated.endChange(true);
     }
+  }
+
 
-    if (!valid) {
-      throw new IllegalArgumentException("Invalid input for " + prefix);
+  /**
+   * Wait until the changes of the item are durable, if the
+   * Warehouse holding it logs them. Called once a change has
+   * ended, so that a checkpoint is not held off meanwhile.
+   */
+  private void awaitDurable() {
+    Warehouse warehouse = owner;
+    if (warehouse != null) {
+      warehouse.awaitDurable();
     }
   }
 
@@ -428,7 +662,7 @@ public class Item {
   @Override
   public final String toString() {
     return "Item [itemNumber=" + itemNumber + ", itemBrand=" 
-            + itemBrand + ", itemPrice=" + itemPrice 
+            + getItemBrand() + ", itemPrice=" + itemPrice 
             + ", itemAmount=" + itemAmount + ", itemCategory=" 
             + itemCategory + "]";
   }
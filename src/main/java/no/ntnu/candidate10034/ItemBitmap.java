@@ -0,0 +1,590 @@
+package no.ntnu.candidate10034;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of dense item ids, as returned by the
+ * AttributeIndex of a Warehouse.
+ *
+ * <p>The ids are split into chunks of 65536 by their upper 16
+ * bits, and each chunk which holds any ids is stored in the form
+ * that suits it: a sorted array of the lower 16 bits while it
+ * holds at most 4096 ids, and a plain bitset of 8 KB once it holds
+ * more. Sparse sets thus take two bytes per id and dense sets one
+ * bit, and intersections and unions work chunk by chunk, a word
+ * of 64 ids at a time where both sides are bitsets.
+ *
+ * <p>Not thread-safe. Bitmaps returned by the index are copies,
+ * which the caller is free to combine and change.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class ItemBitmap {
+  /** Most ids a chunk holds as a sorted array. */
+  private static final int ARRAY_LIMIT = 4096;
+  /** Number of 64-bit words of a chunk held as a bitset. */
+  private static final int WORDS = 1024;
+
+  /** Upper 16 bits of the ids of each chunk, in ascending order. */
+  private char[] keys;
+  /** The chunks, at the same positions as their keys. */
+  private Chunk[] chunks;
+  /** Number of chunks in use. */
+  private int size;
+
+
+  /**
+   * Create an empty bitmap.
+   */
+  public ItemBitmap() {
+    this.keys = new char[4];
+    this.chunks = new Chunk[4];
+    this.size = 0;
+  }
+
+
+  /**
+   * Add an id to the set.
+   *
+   * @param id a non-negative id.
+   * @return true if the id was not in the set already.
+   */
+  public boolean add(int id) {
+    char key = (char) (id >>> 16);
+    int index = find(key);
+    if (index < 0) {
+      index = -index - 1;
+      insert(index, key, new Chunk());
+    }
+    return chunks[index].add((char) id);
+  }
+
+
+  /**
+   * Remove an id from the set.
+   *
+   * @param id a non-negative id.
+   * @return true if the id was in the set.
+   */
+  public boolean remove(int id) {
+    int index = find((char) (id >>> 16));
+    if (index < 0 || !chunks[index].remove((char) id)) {
+      return false;
+    }
+    if (chunks[index].cardinality == 0) {
+      System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+      System.arraycopy(chunks, index + 1, chunks, index, size - index - 1);
+      chunks[--size] = null;
+    }
+    return true;
+  }
+
+
+  /**
+   * Check whether an id is in the set.
+   *
+   * @param id a non-negative id.
+   * @return true if the id is in the set.
+   */
+  public boolean contains(int id) {
+    int index = find((char) (id >>> 16));
+    return index >= 0 && chunks[index].contains((char) id);
+  }
+
+
+  /**
+   * Count the ids in the set.
+   *
+   * @return number of ids.
+   */
+  public int cardinality() {
+    int cardinality = 0;
+    for (int index = 0; index < size; index++) {
+      cardinality += chunks[index].cardinality;
+    }
+    return cardinality;
+  }
+
+
+  /**
+   * Check whether the set is empty.
+   *
+   * @return true if the set holds no ids.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+
+  /**
+   * Compute the ids which are in both this set and another.
+   *
+   * @param other the other set.
+   * @return new bitmap of the intersection.
+   */
+  public ItemBitmap and(ItemBitmap other) {
+    ItemBitmap result = new ItemBitmap();
+    int left = 0;
+    int right = 0;
+
+    while (left < size && right < other.size) {
+      char leftKey = keys[left];
+      char rightKey = other.keys[right];
+      if (leftKey < rightKey) {
+        left++;
+      } else if (leftKey > rightKey) {
+        right++;
+      } else {
+        Chunk chunk = chunks[left].and(other.chunks[right]);
+        if (chunk.cardinality > 0) {
+          result.insert(result.size, leftKey, chunk);
+        }
+        left++;
+        right++;
+      }
+    }
+    return result;
+  }
+
+
+  /**
+   * Compute the ids which are in this set, another, or both.
+   *
+   * @param other the other set.
+   * @return new bitmap of the union.
+   */
+  public ItemBitmap or(ItemBitmap other) {
+    ItemBitmap result = new ItemBitmap();
+    int left = 0;
+    int right = 0;
+
+    while (left < size || right < other.size) {
+      if (right == other.size || (left < size && keys[left] < other.keys[right])) {
+        result.insert(result.size, keys[left], chunks[left].copy());
+        left++;
+      } else if (left == size || keys[left] > other.keys[right]) {
+        result.insert(result.size, other.keys[right], other.chunks[right].copy());
+        right++;
+      } else {
+        result.insert(result.size, keys[left], chunks[left].or(other.chunks[right]));
+        left++;
+        right++;
+      }
+    }
+    return result;
+  }
+
+
+  /**
+   * Compute the ids which are in this set but not in another.
+   *
+   * @param other the other set.
+   * @return new bitmap of the difference.
+   */
+  public ItemBitmap andNot(ItemBitmap other) {
+    ItemBitmap result = new ItemBitmap();
+    int right = 0;
+
+    for (int left = 0; left < size; left++) {
+      while (right < other.size && other.keys[right] < keys[left]) {
+        right++;
+      }
+      Chunk chunk = right < other.size && other.keys[right] == keys[left]
+          ? chunks[left].andNot(other.chunks[right])
+          : chunks[left].copy();
+      if (chunk.cardinality > 0) {
+        result.insert(result.size, keys[left], chunk);
+      }
+    }
+    return result;
+  }
+
+
+  /**
+   * Get the lowest id in the set.
+   *
+   * @return the lowest id, or -1 if the set is empty.
+   */
+  public int first() {
+    return size == 0 ? -1 : keys[0] << 16 | chunks[0].first();
+  }
+
+
+  /**
+   * Call an action for every id in the set, in ascending order.
+   *
+   * @param action the action.
+   */
+  public void forEach(IntConsumer action) {
+    for (int index = 0; index < size; index++) {
+      chunks[index].forEach(keys[index] << 16, action);
+    }
+  }
+
+
+  /**
+   * Get the ids of the set in ascending order.
+   *
+   * @return new array of the ids.
+   */
+  public int[] toArray() {
+    int[] ids = new int[cardinality()];
+    int[] next = new int[1];
+    forEach(id -> ids[next[0]++] = id);
+    return ids;
+  }
+
+
+  /**
+   * Create an independent copy of the set.
+   *
+   * @return new bitmap with the same ids.
+   */
+  public ItemBitmap copy() {
+    ItemBitmap copy = new ItemBitmap();
+    copy.keys = Arrays.copyOf(keys, Math.max(4, size));
+    copy.chunks = new Chunk[copy.keys.length];
+    for (int index = 0; index < size; index++) {
+      copy.chunks[index] = chunks[index].copy();
+    }
+    copy.size = size;
+    return copy;
+  }
+
+
+  /**
+   * Find the chunk with a key.
+   *
+   * @param key upper 16 bits of an id.
+   * @return index of the chunk, or -(insertion point) - 1.
+   */
+  private int find(char key) {
+    /* Ids mostly arrive in ascending order: try the last chunk first. */
+    if (size > 0 && keys[size - 1] == key) {
+      return size - 1;
+    }
+    return Arrays.binarySearch(keys, 0, size, key);
+  }
+
+
+  /**
+   * Insert a chunk.
+   *
+   * @param index position of the chunk.
+   * @param key upper 16 bits of its ids.
+   * @param chunk the chunk.
+   */
+  private void insert(int index, char key, Chunk chunk) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      chunks = Arrays.copyOf(chunks, size * 2);
+    }
+    System.arraycopy(keys, index, keys, index + 1, size - index);
+    System.arraycopy(chunks, index, chunks, index + 1, size - index);
+    keys[index] = key;
+    chunks[index] = chunk;
+    size++;
+  }
+
+
+  /**
+   * The lower 16 bits of the ids sharing their upper 16 bits,
+   * as a sorted array or as a bitset.
+   */
+  private static final class Chunk {
+    /** Sorted ids while an array, otherwise null. */
+    char[] values;
+    /** Bitset of the ids once too many for an array, otherwise null. */
+    long[] words;
+    /** Number of ids. */
+    int cardinality;
+
+    /** Create an empty chunk, held as an array. */
+    Chunk() {
+      this.values = new char[4];
+    }
+
+    /**
+     * Create a chunk from its parts.
+     *
+     * @param values sorted ids, or null.
+     * @param words bitset of the ids, or null.
+     * @param cardinality number of ids.
+     */
+    Chunk(char[] values, long[] words, int cardinality) {
+      this.values = values;
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    /**
+     * Add an id.
+     *
+     * @param value lower 16 bits of the id.
+     * @return true if it was not there already.
+     */
+    boolean add(char value) {
+      if (words != null) {
+        long before = words[value >>> 6];
+        words[value >>> 6] = before | (1L << value);
+        if (before == words[value >>> 6]) {
+          return false;
+        }
+        cardinality++;
+        return true;
+      }
+
+      int index = cardinality > 0 && values[cardinality - 1] < value
+          ? -cardinality - 1
+          : Arrays.binarySearch(values, 0, cardinality, value);
+      if (index >= 0) {
+        return false;
+      }
+      if (cardinality == ARRAY_LIMIT) {
+        toBitset();
+        return add(value);
+      }
+      index = -index - 1;
+      if (cardinality == values.length) {
+        values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, cardinality * 2));
+      }
+      System.arraycopy(values, index, values, index + 1, cardinality - index);
+      values[index] = value;
+      cardinality++;
+      return true;
+    }
+
+    /**
+     * Remove an id.
+     *
+     * @param value lower 16 bits of the id.
+     * @return true if it was there.
+     */
+    boolean remove(char value) {
+      if (words != null) {
+        long before = words[value >>> 6];
+        words[value >>> 6] = before & ~(1L << value);
+        if (before == words[value >>> 6]) {
+          return false;
+        }
+        cardinality--;
+        if (cardinality <= ARRAY_LIMIT / 2) {
+          toArray();
+        }
+        return true;
+      }
+
+      int index = Arrays.binarySearch(values, 0, cardinality, value);
+      if (index < 0) {
+        return false;
+      }
+      System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+      cardinality--;
+      return true;
+    }
+
+    /**
+     * Check for an id.
+     *
+     * @param value lower 16 bits of the id.
+     * @return true if it is there.
+     */
+    boolean contains(char value) {
+      if (words != null) {
+        return (words[value >>> 6] & (1L << value)) != 0;
+      }
+      return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+    }
+
+    /**
+     * Intersect with another chunk.
+     *
+     * @param other the other chunk.
+     * @return new chunk.
+     */
+    Chunk and(Chunk other) {
+      if (words != null && other.words != null) {
+        long[] result = new long[WORDS];
+        int count = 0;
+        for (int index = 0; index < WORDS; index++) {
+          result[index] = words[index] & other.words[index];
+          count += Long.bitCount(result[index]);
+        }
+        return new Chunk(null, result, count).compact();
+      }
+
+      Chunk array = words == null ? this : other;
+      Chunk any = array == this ? other : this;
+      char[] result = new char[array.cardinality];
+      int count = 0;
+      for (int index = 0; index < array.cardinality; index++) {
+        if (any.contains(array.values[index])) {
+          result[count++] = array.values[index];
+        }
+      }
+      return new Chunk(result, null, count);
+    }
+
+    /**
+     * Unite with another chunk.
+     *
+     * @param other the other chunk.
+     * @return new chunk.
+     */
+    Chunk or(Chunk other) {
+      if (words == null && other.words == null
+          && cardinality + other.cardinality <= ARRAY_LIMIT) {
+        char[] result = new char[cardinality + other.cardinality];
+        int count = 0;
+        int left = 0;
+        int right = 0;
+        while (left < cardinality || right < other.cardinality) {
+          if (right == other.cardinality
+              || (left < cardinality && values[left] < other.values[right])) {
+            result[count++] = values[left++];
+          } else if (left == cardinality || values[left] > other.values[right]) {
+            result[count++] = other.values[right++];
+          } else {
+            result[count++] = values[left++];
+            right++;
+          }
+        }
+        return new Chunk(result, null, count);
+      }
+
+      long[] result = bitset();
+      long[] right = other.bitset();
+      int count = 0;
+      for (int index = 0; index < WORDS; index++) {
+        result[index] |= right[index];
+        count += Long.bitCount(result[index]);
+      }
+      return new Chunk(null, result, count).compact();
+    }
+
+    /**
+     * Remove the ids of another chunk.
+     *
+     * @param other the other chunk.
+     * @return new chunk.
+     */
+    Chunk andNot(Chunk other) {
+      if (words == null) {
+        char[] result = new char[cardinality];
+        int count = 0;
+        for (int index = 0; index < cardinality; index++) {
+          if (!other.contains(values[index])) {
+            result[count++] = values[index];
+          }
+        }
+        return new Chunk(result, null, count);
+      }
+
+      long[] result = words.clone();
+      long[] right = other.bitset();
+      int count = 0;
+      for (int index = 0; index < WORDS; index++) {
+        result[index] &= ~right[index];
+        count += Long.bitCount(result[index]);
+      }
+      return new Chunk(null, result, count).compact();
+    }
+
+    /**
+     * Get the lowest value of the chunk, which is not empty.
+     *
+     * @return the lowest value.
+     */
+    int first() {
+      if (words == null) {
+        return values[0];
+      }
+      int index = 0;
+      while (words[index] == 0) {
+        index++;
+      }
+      return index << 6 | Long.numberOfTrailingZeros(words[index]);
+    }
+
+    /**
+     * Call an action for every id.
+     *
+     * @param high upper 16 bits of the ids, shifted in place.
+     * @param action the action.
+     */
+    void forEach(int high, IntConsumer action) {
+      if (words == null) {
+        for (int index = 0; index < cardinality; index++) {
+          action.accept(high | values[index]);
+        }
+        return;
+      }
+      for (int index = 0; index < WORDS; index++) {
+        long word = words[index];
+        while (word != 0) {
+          action.accept(high | (index << 6) | Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+    }
+
+    /**
+     * Copy the chunk.
+     *
+     * @return new chunk with the same ids.
+     */
+    Chunk copy() {
+      return new Chunk(
+          values == null ? null : Arrays.copyOf(values, Math.max(4, cardinality)),
+          words == null ? null : words.clone(),
+          cardinality
+      );
+    }
+
+    /**
+     * Get the ids as a new bitset.
+     *
+     * @return new array of WORDS words.
+     */
+    private long[] bitset() {
+      if (words != null) {
+        return words.clone();
+      }
+      long[] result = new long[WORDS];
+      for (int index = 0; index < cardinality; index++) {
+        result[values[index] >>> 6] |= 1L << values[index];
+      }
+      return result;
+    }
+
+    /** Switch to a bitset. */
+    private void toBitset() {
+      words = bitset();
+      values = null;
+    }
+
+    /** Switch to a sorted array. */
+    private void toArray() {
+      char[] result = new char[Math.max(4, cardinality)];
+      int[] next = new int[1];
+      forEach(0, value -> result[next[0]++] = (char) value);
+      values = result;
+      words = null;
+    }
+
+    /**
+     * Switch a bitset to an array if it holds few enough ids.
+     *
+     * @return this chunk.
+     */
+    private Chunk compact() {
+      if (words != null && cardinality <= ARRAY_LIMIT) {
+        toArray();
+      }
+      return this;
+    }
+  }
+}
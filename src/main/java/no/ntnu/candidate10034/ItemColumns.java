@@ -0,0 +1,576 @@
+package no.ntnu.candidate10034;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Column store of the numeric fields of the Items in a Warehouse.
+ *
+ * <p>The weight, length, height, price, amount and category of
+ * every Item are copied into primitive arrays, at the position
+ * of the dense id of the Item: its place in the insertion order
+ * of the warehouse. Totals and filters then run as simple loops
+ * over contiguous arrays, instead of following a reference to
+ * every Item on the heap.
+ *
+ * <p>The store is kept up to date as a WarehouseListener, and
+ * is created by {@link Warehouse#columns()}. Ids are reused
+ * when the warehouse compacts its insertion order, so they
+ * should not be kept across changes of the registry. A {@link Row}
+ * gives access to the fields at an id without creating objects.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class ItemColumns implements WarehouseListener {
+  /** Number of categories, numbered 1 to CATEGORIES. */
+  public static final int CATEGORIES = 4;
+
+  /** Handle used for ordered writes of the int columns. */
+  private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+  /**
+   * Lets field changes, which arrive from any thread, update
+   * the arrays together, while additions, deletions and growth
+   * replace them exclusively.
+   */
+  private final StampedLock lock;
+  /** Current arrays. Replaced as a whole when they grow. */
+  private volatile Columns columns;
+
+
+  /**
+   * Create an empty store.
+   *
+   * @param capacity number of ids to make room for.
+   */
+  ItemColumns(int capacity) {
+    this.lock = new StampedLock();
+    this.columns = new Columns(Math.max(16, capacity));
+  }
+
+
+  /**
+   * Copy the Items of a warehouse into the store.
+   *
+   * <p>Must be called after the store has been registered as
+   * a listener, while the warehouse is locked for writing, so
+   * that no change is missed.
+   *
+   * @param slots the insertion order of the warehouse.
+   * @param end number of used positions in slots.
+   */
+  void load(Item[] slots, int end) {
+    long stamp = lock.writeLock();
+    try {
+      Columns current = capacity(end);
+      for (int id = 0; id < end; id++) {
+        if (slots[id] != null) {
+          current.store(id, slots[id]);
+        }
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+
+  /*
+  * AGGREGATES
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Get the total value in store, the sum of price times
+   * amount over all Items.
+   *
+   * @return total stock value.
+   */
+  public long stockValue() {
+    long stamp = lock.readLock();
+    try {
+      Columns current = columns;
+      int[] prices = current.prices;
+      int[] amounts = current.amounts;
+      byte[] categories = current.categories;
+      long total = 0;
+
+      for (int id = 0; id < current.end; id++) {
+        if (categories[id] != 0) {
+          total += (long) prices[id] * amounts[id];
+        }
+      }
+      return total;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get the value in store of each category, the sum of price
+   * times amount over the Items of that category.
+   *
+   * @return array of CATEGORIES totals, the first for category 1.
+   */
+  public long[] stockValueByCategory() {
+    long stamp = lock.readLock();
+    try {
+      Columns current = columns;
+      int[] prices = current.prices;
+      int[] amounts = current.amounts;
+      byte[] categories = current.categories;
+      long[] totals = new long[CATEGORIES + 1];
+
+      for (int id = 0; id < current.end; id++) {
+        totals[categories[id]] += (long) prices[id] * amounts[id];
+      }
+      return Arrays.copyOfRange(totals, 1, CATEGORIES + 1);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Count the Items weighing less than a limit.
+   *
+   * @param limit weight limit in kilograms.
+   * @return number of Items lighter than the limit.
+   */
+  public int countWeightBelow(double limit) {
+    long stamp = lock.readLock();
+    try {
+      Columns current = columns;
+      double[] weights = current.weights;
+      byte[] categories = current.categories;
+      int count = 0;
+
+      for (int id = 0; id < current.end; id++) {
+        if (weights[id] < limit && categories[id] != 0) {
+          count++;
+        }
+      }
+      return count;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Find the ids of the Items weighing less than a limit.
+   *
+   * @param limit weight limit in kilograms.
+   * @return ids of the Items lighter than the limit, in
+   *      insertion order.
+   */
+  public int[] idsWeightBelow(double limit) {
+    long stamp = lock.readLock();
+    try {
+      Columns current = columns;
+      double[] weights = current.weights;
+      byte[] categories = current.categories;
+      int[] ids = new int[16];
+      int count = 0;
+
+      for (int id = 0; id < current.end; id++) {
+        if (weights[id] < limit && categories[id] != 0) {
+          if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count * 2);
+          }
+          ids[count++] = id;
+        }
+      }
+      return Arrays.copyOf(ids, count);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get a reusable view of the fields at an id.
+   *
+   * @param id dense id of an Item.
+   * @return new Row positioned at the id.
+   */
+  public Row row(int id) {
+    return new Row().moveTo(id);
+  }
+
+
+
+  /*
+  * LISTENER METHODS
+  * ----------------------------------------------------------------
+  */
+
+  @Override
+  public void itemAdded(Item item) {
+    long stamp = lock.writeLock();
+    try {
+      capacity(item.slot + 1).store(item.slot, item);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  @Override
+  public void itemRemoved(Item item) {
+    long stamp = lock.writeLock();
+    try {
+      Columns current = columns;
+      int id = item.slot;
+      if (id >= 0 && id < current.end && current.items[id] == item) {
+        current.clear(id);
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  @Override
+  public void amountChanged(Item item, int oldAmount, int newAmount) {
+    refresh(item, ItemField.AMOUNT);
+  }
+
+
+  @Override
+  public void priceChanged(Item item, int oldPrice, int newPrice) {
+    refresh(item, ItemField.PRICE);
+  }
+
+
+  @Override
+  public void fieldChanged(Item item, ItemField field) {
+    refresh(item, field);
+  }
+
+
+  @Override
+  public void itemsRenumbered() {
+    long stamp = lock.writeLock();
+    try {
+      Columns current = columns;
+      int end = 0;
+
+      /* Compaction only moves Items to lower ids, so one forward pass is enough. */
+      for (int id = 0; id < current.end; id++) {
+        Item item = current.items[id];
+        if (item != null && item.slot != id) {
+          current.clear(id);
+          current.store(item.slot, item);
+        }
+        if (item != null) {
+          end = Math.max(end, item.slot + 1);
+        }
+      }
+      current.end = end;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  /**
+   * Copy a changed field of an Item into its column.
+   *
+   * <p>Amounts and prices may be changed by several threads
+   * at once, and their events may arrive in another order than
+   * the changes. The current value is therefore read from the
+   * Item and written again until it no longer changes, so the
+   * last event to finish always leaves the latest value behind.
+   *
+   * @param item the Item which changed.
+   * @param field the field which changed.
+   */
+  private void refresh(Item item, ItemField field) {
+    long stamp = lock.readLock();
+    try {
+      Columns current = columns;
+      int id = item.slot;
+      if (id < 0 || id >= current.end || current.items[id] != item) {
+        return;
+      }
+
+      switch (field) {
+        case AMOUNT:
+          int amount;
+          do {
+            amount = item.getItemAmount();
+            INTS.setVolatile(current.amounts, id, amount);
+          } while (item.getItemAmount() != amount);
+          break;
+        case PRICE:
+          int price;
+          do {
+            price = item.getItemPrice();
+            INTS.setVolatile(current.prices, id, price);
+          } while (item.getItemPrice() != price);
+          break;
+        case WEIGHT:
+          current.weights[id] = item.getItemWeight();
+          break;
+        case LENGTH:
+          current.lengths[id] = item.getItemLength();
+          break;
+        case HEIGHT:
+          current.heights[id] = item.getItemHeight();
+          break;
+        case CATEGORY:
+          current.categories[id] = (byte) (item.getItemCategoryAsInt() + 1);
+          break;
+        default:
+          break;
+      }
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Make sure the arrays have room for a number of ids,
+   * replacing them with larger ones if needed.
+   *
+   * <p>Must be called while holding the write lock.
+   *
+   * @param required number of ids.
+   * @return the current arrays.
+   */
+  private Columns capacity(int required) {
+    Columns current = columns;
+    if (required > current.items.length) {
+      current = current.copy(Math.max(required, current.items.length * 2));
+      columns = current;
+    }
+    return current;
+  }
+
+
+  /**
+   * The arrays of the store, replaced together when they grow.
+   */
+  private static final class Columns {
+    /** The Item at each id, or null. */
+    final Item[] items;
+    /** Weight of the Item at each id. */
+    final double[] weights;
+    /** Length of the Item at each id. */
+    final double[] lengths;
+    /** Height of the Item at each id. */
+    final double[] heights;
+    /** Price of the Item at each id. */
+    final int[] prices;
+    /** Amount of the Item at each id. */
+    final int[] amounts;
+    /** Category of the Item at each id, 1 to 4, or 0 for no Item. */
+    final byte[] categories;
+    /** One more than the highest id in use. Written under the write lock. */
+    volatile int end;
+
+    /**
+     * Create empty arrays.
+     *
+     * @param capacity number of ids.
+     */
+    Columns(int capacity) {
+      this(
+          new Item[capacity], new double[capacity], new double[capacity],
+          new double[capacity], new int[capacity], new int[capacity],
+          new byte[capacity], 0
+      );
+    }
+
+    /**
+     * Create the arrays from existing ones.
+     *
+     * @param items the Items.
+     * @param weights the weights.
+     * @param lengths the lengths.
+     * @param heights the heights.
+     * @param prices the prices.
+     * @param amounts the amounts.
+     * @param categories the categories.
+     * @param end one more than the highest id in use.
+     */
+    private Columns(
+        Item[] items, double[] weights, double[] lengths, double[] heights,
+        int[] prices, int[] amounts, byte[] categories, int end
+    ) {
+      this.items = items;
+      this.weights = weights;
+      this.lengths = lengths;
+      this.heights = heights;
+      this.prices = prices;
+      this.amounts = amounts;
+      this.categories = categories;
+      this.end = end;
+    }
+
+    /**
+     * Copy the arrays into larger ones.
+     *
+     * @param capacity number of ids of the copy.
+     * @return the copy.
+     */
+    Columns copy(int capacity) {
+      return new Columns(
+          Arrays.copyOf(items, capacity), Arrays.copyOf(weights, capacity),
+          Arrays.copyOf(lengths, capacity), Arrays.copyOf(heights, capacity),
+          Arrays.copyOf(prices, capacity), Arrays.copyOf(amounts, capacity),
+          Arrays.copyOf(categories, capacity), end
+      );
+    }
+
+    /**
+     * Copy every field of an Item to an id.
+     *
+     * @param id the id.
+     * @param item the Item.
+     */
+    void store(int id, Item item) {
+      items[id] = item;
+      weights[id] = item.getItemWeight();
+      lengths[id] = item.getItemLength();
+      heights[id] = item.getItemHeight();
+      prices[id] = item.getItemPrice();
+      amounts[id] = item.getItemAmount();
+      categories[id] = (byte) (item.getItemCategoryAsInt() + 1);
+      if (id >= end) {
+        end = id + 1;
+      }
+    }
+
+    /**
+     * Empty an id.
+     *
+     * @param id the id.
+     */
+    void clear(int id) {
+      items[id] = null;
+      prices[id] = 0;
+      amounts[id] = 0;
+      categories[id] = 0;
+    }
+  }
+
+
+  /**
+   * Flyweight view of the fields of the Item at an id.
+   *
+   * <p>A Row reads the columns directly, so one instance can
+   * be moved over many ids without creating any objects. The
+   * fields are read without locking, and may belong to a
+   * different Item if the registry changes meanwhile.
+   */
+  public final class Row {
+    /** Id the row is positioned at. */
+    private int id;
+
+    /** Create a row, positioned at id 0. */
+    private Row() {
+    }
+
+    /**
+     * Position the row at another id.
+     *
+     * @param id dense id of an Item.
+     * @return this row.
+     */
+    public Row moveTo(int id) {
+      this.id = id;
+      return this;
+    }
+
+    /**
+     * Get the id the row is positioned at.
+     *
+     * @return the id.
+     */
+    public int getId() {
+      return id;
+    }
+
+    /**
+     * Check whether an Item is registered at the id.
+     *
+     * @return true if there is an Item at the id.
+     */
+    public boolean isPresent() {
+      Columns current = columns;
+      return id >= 0 && id < current.end && current.categories[id] != 0;
+    }
+
+    /**
+     * Get the Item at the id.
+     *
+     * @return the Item, or null if there is none.
+     */
+    public Item getItem() {
+      Columns current = columns;
+      return id >= 0 && id < current.end ? current.items[id] : null;
+    }
+
+    /**
+     * Get the weight of the Item at the id.
+     *
+     * @return double weight in kg.
+     */
+    public double getItemWeight() {
+      return columns.weights[id];
+    }
+
+    /**
+     * Get the length of the Item at the id.
+     *
+     * @return double length in meters.
+     */
+    public double getItemLength() {
+      return columns.lengths[id];
+    }
+
+    /**
+     * Get the height of the Item at the id.
+     *
+     * @return double height in meters.
+     */
+    public double getItemHeight() {
+      return columns.heights[id];
+    }
+
+    /**
+     * Get the price of the Item at the id.
+     *
+     * @return int price.
+     */
+    public int getItemPrice() {
+      return (int) INTS.getVolatile(columns.prices, id);
+    }
+
+    /**
+     * Get the amount of the Item at the id.
+     *
+     * @return int amount.
+     */
+    public int getItemAmount() {
+      return (int) INTS.getVolatile(columns.amounts, id);
+    }
+
+    /**
+     * Get the category of the Item at the id.
+     *
+     * @return int category, 1 to 4, or 0 if there is no Item.
+     */
+    public int getItemCategory() {
+      return columns.categories[id];
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package no.ntnu.candidate10034;
+
+/**
+ * Represents the fields of the Item class along with
+ * the constraints each of them has to satisfy.
+ *
+ * <p>Every field is validated on its own primitive type,
+ * so checking a price or a weight does not turn the value
+ * into a String and parse it back. An invalid value results
+ * in an IllegalArgumentException naming the field.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public enum ItemField {
+  /** Identifier of the item, a non-blank String. */
+  NUMBER("itemNumber"),
+  /** Delivering brand, a non-blank String. */
+  BRAND("itemBrand"),
+  /** Color of the item, a non-blank String. */
+  COLOR("itemColor"),
+  /** Short description, a non-blank String. */
+  DESCRIPTION("itemDescription"),
+  /** Weight in kilograms, cannot be negative. */
+  WEIGHT("itemWeight"),
+  /** Length in meters, cannot be negative. */
+  LENGTH("itemLength"),
+  /** Height in meters, cannot be negative. */
+  HEIGHT("itemHeight"),
+  /** Price of the item, cannot be negative. */
+  PRICE("itemPrice", 0, Integer.MAX_VALUE),
+  /** Amount in storage, cannot be negative. */
+  AMOUNT("itemAmount", 0, Integer.MAX_VALUE),
+  /** Category of the item, in the range [1, 4]. */
+  CATEGORY("itemCategory", 1, 4);
+
+  /** Name of the field in the Item class. */
+  private final String fieldName;
+  /** Smallest valid value of an int field. */
+  private final int min;
+  /** Largest valid value of an int field. */
+  private final int max;
+
+
+  /**
+   * Create a field which is not an int.
+   *
+   * @param fieldName name of the field in the Item class.
+   */
+  ItemField(String fieldName) {
+    this(fieldName, 0, -1);
+  }
+
+
+  /**
+   * Create an int field with an inclusive range of valid values.
+   *
+   * @param fieldName name of the field in the Item class.
+   * @param min smallest valid value.
+   * @param max largest valid value.
+   */
+  ItemField(String fieldName, int min, int max) {
+    this.fieldName = fieldName;
+    this.min = min;
+    this.max = max;
+  }
+
+
+  /**
+   * Get the name of the field in the Item class.
+   *
+   * @return field name, such as "itemPrice".
+   */
+  public String getFieldName() {
+    return fieldName;
+  }
+
+
+  /**
+   * Validate the value of a String field.
+   *
+   * @param value the value to validate.
+   * @return the value, if valid.
+   * @throws IllegalArgumentException If value is null or blank.
+   */
+  public String validate(String value) {
+    if (value == null || value.isBlank()) {
+      throw invalid();
+    }
+    return value;
+  }
+
+
+  /**
+   * Validate the value of a measurement field.
+   *
+   * @param value the value to validate.
+   * @return the value, if valid.
+   * @throws IllegalArgumentException If value is negative.
+   */
+  public double validate(double value) {
+    if (value < 0) {
+      throw invalid();
+    }
+    return value;
+  }
+
+
+  /**
+   * Validate the value of an int field against its range.
+   *
+   * @param value the value to validate.
+   * @return the value, if valid.
+   * @throws IllegalArgumentException If value is out of range.
+   */
+  public int validate(int value) {
+    if (value < min || value > max) {
+      throw invalid();
+    }
+    return value;
+  }
+
+
+  /**
+   * Create the exception thrown for an invalid value.
+   *
+   * @return new IllegalArgumentException naming the field.
+   */
+  private IllegalArgumentException invalid() {
+    return new IllegalArgumentException("Invalid input for " + fieldName);
+  }
+}
@@ -0,0 +1,103 @@
+package no.ntnu.candidate10034;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range of the insertion order of a Warehouse.
+ *
+ * <p>Works directly on the array of the registry without copying
+ * it. Positions left empty by deleted Items are skipped. Splitting
+ * halves the remaining range, so a parallel stream divides the
+ * registry evenly between its threads.
+ *
+ * <p>The traversal is weakly consistent: it sees the array as it
+ * was when the Spliterator was created, along with deletions made
+ * after that, and never throws ConcurrentModificationException.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+final class ItemSpliterator implements Spliterator<Item> {
+  /** Ranges smaller than this are not split any further. */
+  private static final int MIN_SPLIT = 1024;
+
+  /** Insertion order of the registry. */
+  private final Item[] items;
+  /** Next position to visit. */
+  private int origin;
+  /** Position after the last one to visit. */
+  private final int fence;
+  /** Share of the positions expected to hold an Item. */
+  private final double density;
+
+
+  /**
+   * Create a Spliterator over a range of an insertion order.
+   *
+   * @param items insertion order of the registry.
+   * @param origin first position to visit.
+   * @param fence position after the last one to visit.
+   * @param density share of the positions expected to hold an Item.
+   */
+  ItemSpliterator(Item[] items, int origin, int fence, double density) {
+    this.items = items;
+    this.origin = origin;
+    this.fence = fence;
+    this.density = density;
+  }
+
+
+  @Override
+  public boolean tryAdvance(Consumer<? super Item> action) {
+    while (origin < fence) {
+      Item item = items[origin++];
+      if (item != null) {
+        action.accept(item);
+        return true;
+      }
+    }
+    return false;
+  }
+
+
+  @Override
+  public void forEachRemaining(Consumer<? super Item> action) {
+    Item[] array = items;
+    int end = fence;
+
+    for (int index = origin; index < end; index++) {
+      Item item = array[index];
+      if (item != null) {
+        action.accept(item);
+      }
+    }
+    origin = end;
+  }
+
+
+  @Override
+  public Spliterator<Item> trySplit() {
+    int low = origin;
+    int middle = (low + fence) >>> 1;
+
+    if (middle - low < MIN_SPLIT) {
+      return null;
+    }
+    origin = middle;
+    return new ItemSpliterator(items, low, middle, density);
+  }
+
+
+  @Override
+  public long estimateSize() {
+    return (long) Math.ceil((fence - origin) * density);
+  }
+
+
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL;
+  }
+}
@@ -0,0 +1,303 @@
+package no.ntnu.candidate10034;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes the small JSON documents of the HTTP API.
+ *
+ * <p>Requests are flat objects whose values are strings, numbers
+ * or null. Anything else, such as nested objects or arrays, is
+ * rejected, which keeps the parser small and the API free of
+ * dependencies. Numbers are kept as their text until a field is
+ * read as an int or a double.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+final class Json {
+  /** Hexadecimal digits, for escaping control characters. */
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  /** The text being parsed. */
+  private final String text;
+  /** Position of the next character. */
+  private int position;
+
+
+  /**
+   * Create a parser of a document.
+   *
+   * @param text the document.
+   */
+  private Json(String text) {
+    this.text = text;
+  }
+
+
+
+  /*
+  * READING
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Parse a flat JSON object.
+   *
+   * @param text the document.
+   * @return the values by name: Strings for strings and the text
+   *      of numbers, null for null.
+   * @throws IllegalArgumentException If the document is not a
+   *      flat object.
+   */
+  static Map<String, String> parseObject(String text) {
+    Json parser = new Json(text);
+    Map<String, String> values = new HashMap<>();
+
+    parser.expect('{');
+    if (!parser.skip('}')) {
+      do {
+        String name = parser.string();
+        parser.expect(':');
+        values.put(name, parser.value());
+      } while (parser.skip(','));
+      parser.expect('}');
+    }
+    parser.whitespace();
+    if (parser.position != text.length()) {
+      throw new IllegalArgumentException("Unexpected text after the object");
+    }
+    return values;
+  }
+
+
+  /**
+   * Get a string field.
+   *
+   * @param values the fields of an object.
+   * @param name name of the field.
+   * @return the value.
+   * @throws IllegalArgumentException If the field is missing.
+   */
+  static String string(Map<String, String> values, String name) {
+    String value = values.get(name);
+    if (value == null) {
+      throw new IllegalArgumentException("Missing field " + name);
+    }
+    return value;
+  }
+
+
+  /**
+   * Get a whole number field.
+   *
+   * @param values the fields of an object.
+   * @param name name of the field.
+   * @return the value.
+   * @throws IllegalArgumentException If the field is missing
+   *      or not a whole number.
+   */
+  static int integer(Map<String, String> values, String name) {
+    try {
+      return Integer.parseInt(string(values, name));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Field " + name + " is not a whole number");
+    }
+  }
+
+
+  /**
+   * Get a number field.
+   *
+   * @param values the fields of an object.
+   * @param name name of the field.
+   * @return the value.
+   * @throws IllegalArgumentException If the field is missing
+   *      or not a number.
+   */
+  static double number(Map<String, String> values, String name) {
+    try {
+      return Double.parseDouble(string(values, name));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Field " + name + " is not a number");
+    }
+  }
+
+
+  /**
+   * Read a value: a string, a number or null.
+   *
+   * @return the string, the text of the number, or null.
+   */
+  private String value() {
+    whitespace();
+    if (position < text.length() && text.charAt(position) == '"') {
+      return string();
+    }
+    if (text.startsWith("null", position)) {
+      position += 4;
+      return null;
+    }
+
+    int start = position;
+    while (position < text.length() && "+-.0123456789eE".indexOf(text.charAt(position)) >= 0) {
+      position++;
+    }
+    if (start == position) {
+      throw new IllegalArgumentException("Expected a string, number or null at " + start);
+    }
+    return text.substring(start, position);
+  }
+
+
+  /**
+   * Read a string.
+   *
+   * @return the string, unescaped.
+   */
+  private String string() {
+    expect('"');
+    StringBuilder builder = new StringBuilder();
+    while (true) {
+      if (position >= text.length()) {
+        throw new IllegalArgumentException("Unclosed string");
+      }
+      char c = text.charAt(position++);
+      if (c == '"') {
+        return builder.toString();
+      }
+      if (c != '\\') {
+        builder.append(c);
+        continue;
+      }
+      if (position >= text.length()) {
+        throw new IllegalArgumentException("Unclosed string");
+      }
+      char escaped = text.charAt(position++);
+      switch (escaped) {
+        case 'b':
+          builder.append('\b');
+          break;
+        case 'f':
+          builder.append('\f');
+          break;
+        case 'n':
+          builder.append('\n');
+          break;
+        case 'r':
+          builder.append('\r');
+          break;
+        case 't':
+          builder.append('\t');
+          break;
+        case 'u':
+          if (position + 4 > text.length()) {
+            throw new IllegalArgumentException("Bad escape at " + position);
+          }
+          try {
+            builder.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+          } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad escape at " + position);
+          }
+          position += 4;
+          break;
+        default:
+          builder.append(escaped);
+          break;
+      }
+    }
+  }
+
+
+  /**
+   * Read a character, after any whitespace.
+   *
+   * @param c the character expected.
+   * @throws IllegalArgumentException If another character follows.
+   */
+  private void expect(char c) {
+    if (!skip(c)) {
+      throw new IllegalArgumentException("Expected '" + c + "' at " + position);
+    }
+  }
+
+
+  /**
+   * Read a character if it follows, after any whitespace.
+   *
+   * @param c the character.
+   * @return true if it was read.
+   */
+  private boolean skip(char c) {
+    whitespace();
+    if (position < text.length() && text.charAt(position) == c) {
+      position++;
+      return true;
+    }
+    return false;
+  }
+
+
+  /**
+   * Skip whitespace.
+   */
+  private void whitespace() {
+    while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+      position++;
+    }
+  }
+
+
+
+  /*
+  * WRITING
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Write a string, quoted and escaped.
+   *
+   * @param out where the string is written.
+   * @param value the string.
+   */
+  static void writeString(StringBuilder out, String value) {
+    out.append('"');
+    for (int index = 0; index < value.length(); index++) {
+      char c = value.charAt(index);
+      if (c == '"' || c == '\\') {
+        out.append('\\').append(c);
+      } else if (c < 0x20) {
+        out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+      } else {
+        out.append(c);
+      }
+    }
+    out.append('"');
+  }
+
+
+  /**
+   * Write an Item as an object of all its fields.
+   *
+   * @param out where the Item is written.
+   * @param item the Item.
+   */
+  static void writeItem(StringBuilder out, Item item) {
+    out.append("{\"number\":");
+    writeString(out, item.getItemNumber());
+    out.append(",\"brand\":");
+    writeString(out, item.getItemBrand());
+    out.append(",\"color\":");
+    writeString(out, item.getItemColor());
+    out.append(",\"description\":");
+    writeString(out, item.getItemDescription());
+    out.append(",\"weight\":").append(item.getItemWeight());
+    out.append(",\"length\":").append(item.getItemLength());
+    out.append(",\"height\":").append(item.getItemHeight());
+    out.append(",\"price\":").append(item.getItemPrice());
+    out.append(",\"amount\":").append(item.getItemAmount());
+    out.append(",\"category\":").append(item.getItemCategoryAsInt() + 1);
+    out.append('}');
+  }
+}
@@ -0,0 +1,351 @@
+package no.ntnu.candidate10034;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.BiConsumer;
+
+/**
+ * Hash index of Items by a String key, ignoring case.
+ *
+ * <p>Keys are stored as they were given, and hashed and compared
+ * one character at a time through {@link #fold(char)}, so a
+ * lookup never creates a lowercased copy of the key and does not
+ * allocate at all. Folding is done per character without a
+ * Locale, so the index behaves the same whatever the default
+ * Locale of the JVM is, for example Turkish, where
+ * <code>"ITEM".toLowerCase()</code> is not <code>"item"</code>.
+ *
+ * <p>Lookups take no lock and may run at any time. Changes must
+ * be made by one thread at a time, which the Warehouse ensures
+ * with its write lock. Buckets are chains of nodes which are
+ * published with release semantics, so a reader sees either the
+ * state before or after a change. When the table grows, a new
+ * table of new nodes is built and published as a whole, so
+ * readers of the old table are not disturbed.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+final class KeyIndex {
+  /** Smallest number of buckets. */
+  private static final int MIN_CAPACITY = 16;
+
+  /** Handle used for ordered reads and writes of the buckets. */
+  private static final VarHandle BUCKETS = MethodHandles.arrayElementVarHandle(Node[].class);
+
+  /** Buckets, a power of two of them. Replaced as a whole when it grows. */
+  private volatile Node[] table;
+  /** Number of keys. */
+  private volatile int size;
+
+
+  /**
+   * Create an empty index.
+   */
+  KeyIndex() {
+    this.table = new Node[MIN_CAPACITY];
+  }
+
+
+
+  /*
+  * KEY FOLDING
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Fold a character for comparison ignoring case.
+   *
+   * <p>This is the comparison of
+   * {@link String#equalsIgnoreCase(String)}: two characters are
+   * equal ignoring case exactly when their folds are equal.
+   * ASCII, which most keys are, is folded without the
+   * Unicode tables.
+   *
+   * @param c the character.
+   * @return the lowercase of its uppercase.
+   */
+  static char fold(char c) {
+    if (c < 0x80) {
+      return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+
+  /**
+   * Fold every character of a key.
+   *
+   * @param key the key.
+   * @return the folded key, which is the key itself if no
+   *     character changes.
+   */
+  static String fold(String key) {
+    int length = key.length();
+    int index = 0;
+    while (index < length && fold(key.charAt(index)) == key.charAt(index)) {
+      index++;
+    }
+    if (index == length) {
+      return key;
+    }
+
+    char[] folded = key.toCharArray();
+    for (; index < length; index++) {
+      folded[index] = fold(folded[index]);
+    }
+    return new String(folded);
+  }
+
+
+  /**
+   * Hash a key ignoring case.
+   *
+   * @param key the key.
+   * @return hash code of the folded key, with the high bits
+   *     spread into the low ones used to pick a bucket.
+   */
+  static int hash(String key) {
+    int hash = 0;
+    for (int index = 0; index < key.length(); index++) {
+      hash = 31 * hash + fold(key.charAt(index));
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+
+  /**
+   * Compare two keys ignoring case.
+   *
+   * @param key1 the first key.
+   * @param key2 the second key.
+   * @return true if every pair of characters folds to the same.
+   */
+  static boolean matches(String key1, String key2) {
+    int length = key1.length();
+    if (length != key2.length()) {
+      return false;
+    }
+    for (int index = 0; index < length; index++) {
+      char c1 = key1.charAt(index);
+      char c2 = key2.charAt(index);
+      if (c1 != c2 && fold(c1) != fold(c2)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+
+
+  /*
+  * LOOKUPS
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Look up the Item of a key, ignoring case.
+   *
+   * @param key the key.
+   * @return the Item, or null if the key is not in the index.
+   */
+  Item get(String key) {
+    return get(key, hash(key));
+  }
+
+
+  /**
+   * Look up the Item of a key whose hash is already known, so
+   * that a key looked up in several indexes is hashed once.
+   *
+   * @param key the key.
+   * @param hash the hash of the key, by {@link #hash(String)}.
+   * @return the Item, or null if the key is not in the index.
+   */
+  Item get(String key, int hash) {
+    Node[] current = table;
+    Node node = (Node) BUCKETS.getAcquire(current, hash & (current.length - 1));
+    while (node != null) {
+      if (node.hash == hash && matches(node.key, key)) {
+        return node.item;
+      }
+      node = node.next;
+    }
+    return null;
+  }
+
+
+  /**
+   * Get the number of keys in the index.
+   *
+   * @return number of keys.
+   */
+  int size() {
+    return size;
+  }
+
+
+  /**
+   * Call an action for every key and its Item, in no
+   * particular order.
+   *
+   * @param action the action, given the key as it was stored.
+   */
+  void forEach(BiConsumer<String, Item> action) {
+    Node[] current = table;
+    for (int bucket = 0; bucket < current.length; bucket++) {
+      Node node = (Node) BUCKETS.getAcquire(current, bucket);
+      while (node != null) {
+        action.accept(node.key, node.item);
+        node = node.next;
+      }
+    }
+  }
+
+
+
+  /*
+  * CHANGES, ONE THREAD AT A TIME
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Put an Item at a key, replacing the Item of an equal key.
+   *
+   * @param key the key, stored as given.
+   * @param item the Item.
+   * @return the Item replaced, or null.
+   */
+  Item put(String key, Item item) {
+    int hash = hash(key);
+    Node[] current = table;
+    int bucket = hash & (current.length - 1);
+    Node head = (Node) BUCKETS.getAcquire(current, bucket);
+
+    for (Node node = head; node != null; node = node.next) {
+      if (node.hash == hash && matches(node.key, key)) {
+        Item previous = node.item;
+        node.item = item;
+        return previous;
+      }
+    }
+    BUCKETS.setRelease(current, bucket, new Node(key, hash, item, head));
+    size = size + 1;
+    if (size > threshold(current.length)) {
+      resize(current.length * 2);
+    }
+    return null;
+  }
+
+
+  /**
+   * Remove a key if it holds a given Item.
+   *
+   * @param key the key, in any case.
+   * @param item the Item expected at the key.
+   * @return true if the key was removed.
+   */
+  boolean remove(String key, Item item) {
+    int hash = hash(key);
+    Node[] current = table;
+    int bucket = hash & (current.length - 1);
+    Node previous = null;
+    Node node = (Node) BUCKETS.getAcquire(current, bucket);
+
+    while (node != null) {
+      if (node.hash == hash && matches(node.key, key)) {
+        if (node.item != item) {
+          return false;
+        }
+        if (previous == null) {
+          BUCKETS.setRelease(current, bucket, node.next);
+        } else {
+          previous.next = node.next;
+        }
+        size = size - 1;
+        return true;
+      }
+      previous = node;
+      node = node.next;
+    }
+    return false;
+  }
+
+
+  /**
+   * Make room for a number of keys, so the table does not
+   * grow step by step while they are put.
+   *
+   * @param expected number of keys the index is about to hold.
+   */
+  void ensureCapacity(int expected) {
+    int length = table.length;
+    while (threshold(length) < expected && length < 1 << 30) {
+      length *= 2;
+    }
+    if (length > table.length) {
+      resize(length);
+    }
+  }
+
+
+  /**
+   * Get the number of keys a table can hold before it grows.
+   *
+   * @param length number of buckets.
+   * @return three quarters of the buckets.
+   */
+  private static int threshold(int length) {
+    return length - (length >>> 2);
+  }
+
+
+  /**
+   * Move every key into a new table of new nodes, and publish it.
+   *
+   * @param length number of buckets of the new table.
+   */
+  private void resize(int length) {
+    Node[] current = table;
+    Node[] resized = new Node[length];
+    for (Node head : current) {
+      for (Node node = head; node != null; node = node.next) {
+        int bucket = node.hash & (length - 1);
+        resized[bucket] = new Node(node.key, node.hash, node.item, resized[bucket]);
+      }
+    }
+    table = resized;
+  }
+
+
+
+  /**
+   * An entry in the chain of a bucket.
+   */
+  private static final class Node {
+    /** The key, as it was given. */
+    private final String key;
+    /** Hash of the folded key. */
+    private final int hash;
+    /** Item of the key. */
+    private volatile Item item;
+    /** Next entry of the chain, or null. */
+    private volatile Node next;
+
+    /**
+     * Create an entry.
+     *
+     * @param key the key.
+     * @param hash hash of the folded key.
+     * @param item Item of the key.
+     * @param next next entry of the chain.
+     */
+    private Node(String key, int hash, Item item, Node next) {
+      this.key = key;
+      this.hash = hash;
+      this.item = item;
+      this.next = next;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package no.ntnu.candidate10034;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event of one timed operation on a Warehouse.
+ *
+ * <p>Written by {@link WarehouseMetrics} for every operation it
+ * times while a recording with the event enabled is running, for
+ * example with <code>-XX:StartFlightRecording</code>. When no
+ * recording wants the event, creating and checking it costs next
+ * to nothing.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+@Name("no.ntnu.candidate10034.WarehouseOperation")
+@Label("Warehouse Operation")
+@Category("Warehouse")
+@Description("An operation on a Warehouse and how long it took")
+@StackTrace(false)
+final class OperationEvent extends jdk.jfr.Event {
+  /** Name of the operation. */
+  @Label("Operation")
+  String operation;
+
+  /** Key the operation was given, if any. */
+  @Label("Key")
+  String key;
+
+  /** Whether the operation succeeded, such as a search finding an Item. */
+  @Label("Succeeded")
+  boolean succeeded;
+
+  /** Time the operation took. */
+  @Label("Elapsed")
+  @Timespan(Timespan.NANOSECONDS)
+  long elapsed;
+}
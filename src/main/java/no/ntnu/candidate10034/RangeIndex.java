@@ -0,0 +1,547 @@
+package no.ntnu.candidate10034;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Sorted indexes of the Items of a Warehouse by price, weight
+ * and amount in store.
+ *
+ * <p>For each of the three fields, a red-black tree maps every
+ * value in use to an ItemBitmap of the dense ids of the Items
+ * holding it (see {@link ItemColumns}). Ranges, floor, ceiling
+ * and the highest or lowest values are then found in logarithmic
+ * time, and only the Items in the answer are visited.
+ *
+ * <p>The indexes are kept up to date as a WarehouseListener,
+ * and are created by {@link Warehouse#ranges()}. Prices and
+ * amounts may change from several threads at once, so every
+ * change takes the lock of the indexes exclusively and moves the
+ * Item to the value it holds at that moment, which leaves the
+ * latest value behind whatever order the events arrive in.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class RangeIndex implements WarehouseListener {
+  /** Guards everything below. */
+  private final StampedLock lock;
+  /** The Item at each id, or null. */
+  private Item[] items;
+  /** Index of the prices. */
+  private final Ordering prices;
+  /** Index of the weights. */
+  private final Ordering weights;
+  /** Index of the amounts in store. */
+  private final Ordering amounts;
+
+
+  /**
+   * Create empty indexes.
+   *
+   * @param capacity number of ids to make room for.
+   */
+  RangeIndex(int capacity) {
+    this.lock = new StampedLock();
+    this.items = new Item[Math.max(16, capacity)];
+    this.prices = new Ordering(ItemField.PRICE, items.length);
+    this.weights = new Ordering(ItemField.WEIGHT, items.length);
+    this.amounts = new Ordering(ItemField.AMOUNT, items.length);
+  }
+
+
+  /**
+   * Put the Items of a warehouse into the indexes.
+   *
+   * <p>Must be called after the indexes have been registered as
+   * a listener, while the warehouse is locked for writing, so
+   * that no change is missed.
+   *
+   * @param slots the insertion order of the warehouse.
+   * @param end number of used positions in slots.
+   */
+  void load(Item[] slots, int end) {
+    long stamp = lock.writeLock();
+    try {
+      capacity(end);
+      for (int id = 0; id < end; id++) {
+        if (slots[id] != null) {
+          insert(id, slots[id]);
+        }
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+
+  /*
+  * QUERIES
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Get the Items with a value of a field within a range.
+   *
+   * @param field PRICE, WEIGHT or AMOUNT.
+   * @param from lowest value, inclusive.
+   * @param to highest value, inclusive.
+   * @return new list of the Items, in ascending order of the
+   *     value and then of id.
+   * @throws IllegalArgumentException If the field is not indexed.
+   */
+  public List<Item> between(ItemField field, double from, double to) {
+    Ordering ordering = ordering(field);
+    long stamp = lock.readLock();
+    try {
+      return collect(ordering.ids.subMap(from, true, to, true).values(), Integer.MAX_VALUE);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get the Items with a value of a field below a limit.
+   *
+   * @param field PRICE, WEIGHT or AMOUNT.
+   * @param limit the limit, exclusive.
+   * @return new list of the Items, in ascending order of the
+   *     value and then of id.
+   * @throws IllegalArgumentException If the field is not indexed.
+   */
+  public List<Item> below(ItemField field, double limit) {
+    Ordering ordering = ordering(field);
+    long stamp = lock.readLock();
+    try {
+      return collect(ordering.ids.headMap(limit, false).values(), Integer.MAX_VALUE);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get the ids of the Items with a value of a field within a
+   * range, to be combined with other bitmaps such as those of
+   * an {@link AttributeIndex}.
+   *
+   * @param field PRICE, WEIGHT or AMOUNT.
+   * @param from lowest value, inclusive.
+   * @param to highest value, inclusive.
+   * @return new bitmap of the ids.
+   * @throws IllegalArgumentException If the field is not indexed.
+   */
+  public ItemBitmap idsBetween(ItemField field, double from, double to) {
+    Ordering ordering = ordering(field);
+    long stamp = lock.readLock();
+    try {
+      ItemBitmap result = new ItemBitmap();
+      for (ItemBitmap ids : ordering.ids.subMap(from, true, to, true).values()) {
+        result = result.or(ids);
+      }
+      return result;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get an Item with the highest value of a field at or below
+   * a given value.
+   *
+   * @param field PRICE, WEIGHT or AMOUNT.
+   * @param value the value.
+   * @return the Item with the lowest id among those with that
+   *     value, or null if every value is higher.
+   * @throws IllegalArgumentException If the field is not indexed.
+   */
+  public Item floor(ItemField field, double value) {
+    Ordering ordering = ordering(field);
+    long stamp = lock.readLock();
+    try {
+      return first(ordering.ids.floorEntry(value));
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get an Item with the lowest value of a field at or above
+   * a given value.
+   *
+   * @param field PRICE, WEIGHT or AMOUNT.
+   * @param value the value.
+   * @return the Item with the lowest id among those with that
+   *     value, or null if every value is lower.
+   * @throws IllegalArgumentException If the field is not indexed.
+   */
+  public Item ceiling(ItemField field, double value) {
+    Ordering ordering = ordering(field);
+    long stamp = lock.readLock();
+    try {
+      return first(ordering.ids.ceilingEntry(value));
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get the Items with the lowest values of a field.
+   *
+   * @param field PRICE, WEIGHT or AMOUNT.
+   * @param count largest number of Items to return.
+   * @return new list of at most count Items, in ascending order
+   *     of the value and then of id.
+   * @throws IllegalArgumentException If the field is not indexed.
+   */
+  public List<Item> lowest(ItemField field, int count) {
+    Ordering ordering = ordering(field);
+    long stamp = lock.readLock();
+    try {
+      return collect(ordering.ids.values(), count);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get the Items with the highest values of a field.
+   *
+   * @param field PRICE, WEIGHT or AMOUNT.
+   * @param count largest number of Items to return.
+   * @return new list of at most count Items, in descending order
+   *     of the value and then ascending order of id.
+   * @throws IllegalArgumentException If the field is not indexed.
+   */
+  public List<Item> highest(ItemField field, int count) {
+    Ordering ordering = ordering(field);
+    long stamp = lock.readLock();
+    try {
+      return collect(ordering.ids.descendingMap().values(), count);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get the Items of the bitmaps of some values, in turn, up to
+   * a limit. Must be called while holding the lock.
+   *
+   * @param bitmaps the bitmaps, in the order of their values.
+   * @param limit largest number of Items to return.
+   * @return new list of the Items.
+   */
+  private List<Item> collect(Collection<ItemBitmap> bitmaps, int limit) {
+    List<Item> result = new ArrayList<>(Math.min(limit, 16));
+    for (ItemBitmap ids : bitmaps) {
+      if (result.size() >= limit) {
+        break;
+      }
+      if (ids.cardinality() <= limit - result.size()) {
+        ids.forEach(id -> result.add(items[id]));
+      } else {
+        for (int id : ids.toArray()) {
+          if (result.size() >= limit) {
+            break;
+          }
+          result.add(items[id]);
+        }
+      }
+    }
+    return result;
+  }
+
+
+  /**
+   * Get the Item with the lowest id of the bitmap of a value.
+   * Must be called while holding the lock.
+   *
+   * @param entry the value and its bitmap, or null.
+   * @return the Item, or null if there is no entry.
+   */
+  private Item first(Map.Entry<Double, ItemBitmap> entry) {
+    return entry == null ? null : items[entry.getValue().first()];
+  }
+
+
+  /**
+   * Get the index of a field.
+   *
+   * @param field the field.
+   * @return its index.
+   * @throws IllegalArgumentException If the field is not indexed.
+   */
+  private Ordering ordering(ItemField field) {
+    switch (field) {
+      case PRICE:
+        return prices;
+      case WEIGHT:
+        return weights;
+      case AMOUNT:
+        return amounts;
+      default:
+        throw new IllegalArgumentException(field.getFieldName() + " is not indexed by range.");
+    }
+  }
+
+
+
+  /*
+  * LISTENER METHODS
+  * ----------------------------------------------------------------
+  */
+
+  @Override
+  public void itemAdded(Item item) {
+    long stamp = lock.writeLock();
+    try {
+      capacity(item.slot + 1);
+      if (items[item.slot] != null) {
+        /* Left behind by an addition which another listener aborted. */
+        delete(item.slot);
+      }
+      insert(item.slot, item);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  @Override
+  public void itemRemoved(Item item) {
+    long stamp = lock.writeLock();
+    try {
+      int id = item.slot;
+      if (id >= 0 && id < items.length && items[id] == item) {
+        delete(id);
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  @Override
+  public void amountChanged(Item item, int oldAmount, int newAmount) {
+    refresh(item, amounts);
+  }
+
+
+  @Override
+  public void priceChanged(Item item, int oldPrice, int newPrice) {
+    refresh(item, prices);
+  }
+
+
+  @Override
+  public void fieldChanged(Item item, ItemField field) {
+    if (field == ItemField.WEIGHT) {
+      refresh(item, weights);
+    }
+  }
+
+
+  @Override
+  public void itemsRenumbered() {
+    long stamp = lock.writeLock();
+    try {
+      Item[] previous = items;
+      items = new Item[previous.length];
+      prices.clear(previous.length);
+      weights.clear(previous.length);
+      amounts.clear(previous.length);
+
+      for (Item item : previous) {
+        if (item != null && item.slot >= 0) {
+          insert(item.slot, item);
+        }
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  /**
+   * Move an Item to the value of a field it holds now.
+   *
+   * @param item the Item which changed.
+   * @param ordering the index of the field which changed.
+   */
+  private void refresh(Item item, Ordering ordering) {
+    long stamp = lock.writeLock();
+    try {
+      int id = item.slot;
+      if (id >= 0 && id < items.length && items[id] == item) {
+        double value = ordering.read(item);
+        if (value != ordering.values[id]) {
+          ordering.remove(id);
+          ordering.add(id, value);
+        }
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  /**
+   * Put an Item into every index at an id. Must be called
+   * while holding the write lock.
+   *
+   * @param id the id.
+   * @param item the Item.
+   */
+  private void insert(int id, Item item) {
+    items[id] = item;
+    prices.add(id, prices.read(item));
+    weights.add(id, weights.read(item));
+    amounts.add(id, amounts.read(item));
+  }
+
+
+  /**
+   * Remove the Item at an id from every index. Must be called
+   * while holding the write lock.
+   *
+   * @param id the id.
+   */
+  private void delete(int id) {
+    prices.remove(id);
+    weights.remove(id);
+    amounts.remove(id);
+    items[id] = null;
+  }
+
+
+  /**
+   * Make sure the arrays have room for a number of ids. Must
+   * be called while holding the write lock.
+   *
+   * @param required number of ids.
+   */
+  private void capacity(int required) {
+    if (required > items.length) {
+      int length = Math.max(required, items.length * 2);
+      items = Arrays.copyOf(items, length);
+      prices.grow(length);
+      weights.grow(length);
+      amounts.grow(length);
+    }
+  }
+
+
+
+  /**
+   * The sorted index of one field.
+   */
+  private static final class Ordering {
+    /** The field indexed. */
+    private final ItemField field;
+    /** Ids of the Items holding each value in use. */
+    private final NavigableMap<Double, ItemBitmap> ids;
+    /** The value indexed for the Item at each id, or NaN. */
+    private double[] values;
+
+
+    /**
+     * Create an empty index of a field.
+     *
+     * @param field the field.
+     * @param capacity number of ids to make room for.
+     */
+    Ordering(ItemField field, int capacity) {
+      this.field = field;
+      this.ids = new TreeMap<>();
+      this.values = new double[capacity];
+      Arrays.fill(values, Double.NaN);
+    }
+
+
+    /**
+     * Read the value of the field from an Item.
+     *
+     * @param item the Item.
+     * @return the value.
+     */
+    double read(Item item) {
+      switch (field) {
+        case PRICE:
+          return item.getItemPrice();
+        case WEIGHT:
+          return item.getItemWeight();
+        default:
+          return item.getItemAmount();
+      }
+    }
+
+
+    /**
+     * Index a value at an id without one.
+     *
+     * @param id the id.
+     * @param value the value.
+     */
+    void add(int id, double value) {
+      values[id] = value;
+      ids.computeIfAbsent(value, key -> new ItemBitmap()).add(id);
+    }
+
+
+    /**
+     * Remove the value at an id, if any.
+     *
+     * @param id the id.
+     */
+    void remove(int id) {
+      double value = values[id];
+      if (Double.isNaN(value)) {
+        return;
+      }
+      ItemBitmap bitmap = ids.get(value);
+      bitmap.remove(id);
+      if (bitmap.isEmpty()) {
+        ids.remove(value);
+      }
+      values[id] = Double.NaN;
+    }
+
+
+    /**
+     * Make room for a number of ids.
+     *
+     * @param length the new number of ids.
+     */
+    void grow(int length) {
+      int previous = values.length;
+      values = Arrays.copyOf(values, length);
+      Arrays.fill(values, previous, length, Double.NaN);
+    }
+
+
+    /**
+     * Remove every value.
+     *
+     * @param length the new number of ids.
+     */
+    void clear(int length) {
+      ids.clear();
+      values = new double[length];
+      Arrays.fill(values, Double.NaN);
+    }
+  }
+}
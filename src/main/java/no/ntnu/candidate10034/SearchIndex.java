@@ -0,0 +1,554 @@
+package no.ntnu.candidate10034;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Radix tree of lowercased keys, used by Warehouse for prefix
+ * and fuzzy searches.
+ *
+ * <p>Each edge of the tree is labelled with a run of characters,
+ * and the key of a node is the concatenation of the labels from
+ * the root. Keys sharing a beginning share the path for it, so
+ * all keys with a prefix are found under a single node, and a
+ * fuzzy search can give up on a whole subtree as soon as its
+ * path is too far from the query.
+ *
+ * <p>Not thread-safe. Warehouse changes the tree under its write
+ * lock, and searches it under its read lock.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+final class SearchIndex {
+  /** Shared label of the root, and of nodes with no children. */
+  private static final char[] EMPTY = new char[0];
+  /** Shared children of leaves. */
+  private static final Node[] NO_CHILDREN = new Node[0];
+
+  /** Root of the tree, with an empty label. */
+  private final Node root;
+  /** Number of keys in the tree. */
+  private int size;
+
+
+  /**
+   * Create an empty index.
+   */
+  SearchIndex() {
+    this.root = new Node(EMPTY, null);
+    this.size = 0;
+  }
+
+
+  /**
+   * Get the number of keys in the index.
+   *
+   * @return number of keys.
+   */
+  int size() {
+    return size;
+  }
+
+
+  /**
+   * Register an Item under a key, replacing any Item already
+   * registered under it.
+   *
+   * @param key the lowercased key.
+   * @param item the Item.
+   */
+  void put(String key, Item item) {
+    Node node = root;
+    int position = 0;
+
+    while (true) {
+      if (position == key.length()) {
+        if (node.item == null) {
+          size++;
+        }
+        node.item = item;
+        return;
+      }
+
+      int index = node.find(key.charAt(position));
+      if (index < 0) {
+        node.insert(-index - 1, new Node(label(key, position, key.length()), item));
+        size++;
+        return;
+      }
+
+      Node child = node.children[index];
+      int common = commonLength(child.label, key, position);
+      if (common < child.label.length) {
+        /* The key leaves the label part way: split the edge. */
+        Node middle = new Node(Arrays.copyOf(child.label, common), null);
+        child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+        middle.children = new Node[] {child};
+        node.children[index] = middle;
+        child = middle;
+      }
+      node = child;
+      position += common;
+    }
+  }
+
+
+  /**
+   * Remove the registration of a key, if it is held by a
+   * given Item.
+   *
+   * @param key the lowercased key.
+   * @param item the Item expected under the key.
+   * @return true if the key was removed.
+   */
+  boolean remove(String key, Item item) {
+    Node parent = null;
+    int parentIndex = -1;
+    Node node = root;
+    int position = 0;
+
+    while (position < key.length()) {
+      int index = node.find(key.charAt(position));
+      if (index < 0) {
+        return false;
+      }
+      Node child = node.children[index];
+      if (commonLength(child.label, key, position) < child.label.length) {
+        return false;
+      }
+      parent = node;
+      parentIndex = index;
+      node = child;
+      position += child.label.length;
+    }
+    if (node.item != item) {
+      return false;
+    }
+
+    node.item = null;
+    size--;
+    if (parent != null) {
+      if (node.children.length == 0) {
+        parent.delete(parentIndex);
+        if (parent != root && parent.item == null && parent.children.length == 1) {
+          parent.mergeChild();
+        }
+      } else if (node.children.length == 1) {
+        node.mergeChild();
+      }
+    }
+    return true;
+  }
+
+
+  /**
+   * Collect the Items of the keys beginning with a prefix, in
+   * lexicographic order of their keys.
+   *
+   * @param prefix the lowercased prefix.
+   * @param limit most Items to collect.
+   * @param results list to add the Items to.
+   */
+  void prefix(String prefix, int limit, List<Item> results) {
+    Node node = root;
+    int position = 0;
+
+    while (position < prefix.length()) {
+      int index = node.find(prefix.charAt(position));
+      if (index < 0) {
+        return;
+      }
+      Node child = node.children[index];
+      int common = commonLength(child.label, prefix, position);
+      if (common < child.label.length && position + common < prefix.length()) {
+        return;
+      }
+      node = child;
+      position += common;
+    }
+    collect(node, limit, results);
+  }
+
+
+  /**
+   * Collect the Items of the keys beginning with a run of
+   * characters within an edit distance of a query.
+   *
+   * <p>The edit distance counts the characters which must be
+   * inserted, deleted or substituted to turn one String into
+   * the other. The tree is walked depth first, keeping one row
+   * of the distance matrix per character of the path, and a
+   * subtree is skipped once every entry of the row is beyond
+   * the best distance which can still make the results.
+   *
+   * <p>The distance of a key is the smallest distance of any
+   * of its beginnings, so that a misspelt start of a long
+   * description is enough to find it.
+   *
+   * @param query the lowercased query, longer than the largest
+   *      distance accepted by matches.
+   * @param matches matches found so far, by distance.
+   */
+  void fuzzy(String query, Matches matches) {
+    int[] first = new int[query.length() + 1];
+    for (int column = 0; column < first.length; column++) {
+      first[column] = column;
+    }
+
+    List<int[]> rows = new ArrayList<>();
+    rows.add(first);
+    for (Node child : root.children) {
+      walk(child, query, 0, query.length(), rows, matches);
+    }
+  }
+
+
+  /**
+   * Walk a subtree for fuzzy matches.
+   *
+   * <p>Since the smallest entry of a row never decreases further
+   * down, a subtree is taken as a whole once no deeper beginning
+   * can be closer than one already passed.
+   *
+   * @param node the node to visit.
+   * @param query the lowercased query.
+   * @param depth number of characters above the label of node.
+   * @param best the smallest distance of a beginning of the path so far.
+   * @param rows one row of the distance matrix per character
+   *      of the path, reused between calls.
+   * @param matches matches found so far, by distance.
+   */
+  private static void walk(
+      Node node, String query, int depth, int best, List<int[]> rows, Matches matches
+  ) {
+    int columns = query.length() + 1;
+
+    for (char c : node.label) {
+      int[] previous = rows.get(depth);
+      depth++;
+      if (rows.size() == depth) {
+        rows.add(new int[columns]);
+      }
+      int[] row = rows.get(depth);
+
+      /*
+      * Only entries within bound of the diagonal can be at most
+      * bound, so the others are left at bound + 1.
+      */
+      int cap = matches.bound() + 1;
+      int from = Math.max(1, depth - cap + 1);
+      int to = Math.min(columns - 1, depth + cap - 1);
+      row[0] = Math.min(depth, cap);
+      row[from - 1] = row[0];
+      int smallest = row[0];
+      for (int column = from; column <= to; column++) {
+        int cost = query.charAt(column - 1) == c ? 0 : 1;
+        int value = Math.min(
+            Math.min(row[column - 1] + 1, previous[column] + 1),
+            previous[column - 1] + cost
+        );
+        value = Math.min(value, cap);
+        row[column] = value;
+        smallest = Math.min(smallest, value);
+      }
+      if (to + 1 < columns) {
+        row[to + 1] = cap;
+        row[columns - 1] = cap;
+      }
+
+      best = Math.min(best, row[columns - 1]);
+      if (best <= smallest) {
+        /* No deeper beginning can be closer: take the whole subtree. */
+        matches.addAll(node, best);
+        return;
+      }
+      if (smallest > matches.bound()) {
+        return;
+      }
+    }
+
+    if (node.item != null && best <= matches.bound()) {
+      matches.add(node.item, best);
+    }
+    for (Node child : node.children) {
+      walk(child, query, depth, best, rows, matches);
+    }
+  }
+
+
+  /**
+   * Collect the Items of a subtree in key order.
+   *
+   * @param node root of the subtree.
+   * @param limit most Items to collect.
+   * @param results list to add the Items to.
+   */
+  private static void collect(Node node, int limit, List<Item> results) {
+    if (results.size() >= limit) {
+      return;
+    }
+    if (node.item != null) {
+      results.add(node.item);
+    }
+    for (Node child : node.children) {
+      collect(child, limit, results);
+    }
+  }
+
+
+  /**
+   * Copy part of a key into a label.
+   *
+   * @param key the key.
+   * @param from index of the first character.
+   * @param to index after the last character.
+   * @return the label.
+   */
+  private static char[] label(String key, int from, int to) {
+    char[] label = new char[to - from];
+    key.getChars(from, to, label, 0);
+    return label;
+  }
+
+
+  /**
+   * Count the characters a label has in common with a key
+   * from a position.
+   *
+   * @param label the label.
+   * @param key the key.
+   * @param position where in the key the label starts.
+   * @return number of equal leading characters.
+   */
+  private static int commonLength(char[] label, String key, int position) {
+    int limit = Math.min(label.length, key.length() - position);
+    int common = 0;
+    while (common < limit && label[common] == key.charAt(position + common)) {
+      common++;
+    }
+    return common;
+  }
+
+
+  /**
+   * A node of the tree, with the label of the edge leading to it.
+   */
+  private static final class Node {
+    /** Characters of the edge from the parent. */
+    char[] label;
+    /** Item registered under the key ending here, or null. */
+    Item item;
+    /** Children, ordered by the first character of their labels. */
+    Node[] children;
+
+    /**
+     * Create a node without children.
+     *
+     * @param label characters of the edge from the parent.
+     * @param item Item registered at the node, or null.
+     */
+    Node(char[] label, Item item) {
+      this.label = label;
+      this.item = item;
+      this.children = NO_CHILDREN;
+    }
+
+    /**
+     * Find the child whose label starts with a character.
+     *
+     * @param c the character.
+     * @return index of the child, or -(insertion point) - 1.
+     */
+    int find(char c) {
+      int low = 0;
+      int high = children.length - 1;
+      while (low <= high) {
+        int middle = (low + high) >>> 1;
+        char first = children[middle].label[0];
+        if (first < c) {
+          low = middle + 1;
+        } else if (first > c) {
+          high = middle - 1;
+        } else {
+          return middle;
+        }
+      }
+      return -low - 1;
+    }
+
+    /**
+     * Insert a child.
+     *
+     * @param index position of the new child.
+     * @param child the child.
+     */
+    void insert(int index, Node child) {
+      Node[] updated = new Node[children.length + 1];
+      System.arraycopy(children, 0, updated, 0, index);
+      updated[index] = child;
+      System.arraycopy(children, index, updated, index + 1, children.length - index);
+      children = updated;
+    }
+
+    /**
+     * Delete a child.
+     *
+     * @param index position of the child.
+     */
+    void delete(int index) {
+      if (children.length == 1) {
+        children = NO_CHILDREN;
+        return;
+      }
+      Node[] updated = new Node[children.length - 1];
+      System.arraycopy(children, 0, updated, 0, index);
+      System.arraycopy(children, index + 1, updated, index, updated.length - index);
+      children = updated;
+    }
+
+    /**
+     * Absorb the only child of a node without an Item, joining
+     * the two labels.
+     */
+    void mergeChild() {
+      Node child = children[0];
+      char[] joined = Arrays.copyOf(label, label.length + child.label.length);
+      System.arraycopy(child.label, 0, joined, label.length, child.label.length);
+      label = joined;
+      item = child.item;
+      children = child.children;
+    }
+  }
+
+
+  /**
+   * The best matches of a fuzzy search, grouped by distance.
+   *
+   * <p>Each distance keeps at most limit Items. Once the
+   * distances up to some bound hold limit Items together,
+   * farther matches can no longer make the results, and the
+   * search is narrowed to that bound.
+   *
+   * <p>An Item found again closer by its other key is moved
+   * by its entry in an identity map, and its entry at the
+   * farther distance is skipped rather than removed from the
+   * list, so that every match costs the same however many
+   * have been found.
+   */
+  static final class Matches {
+    /** Items found at each distance, including ones since found closer. */
+    private final List<List<Item>> byDistance;
+    /** Number of Items at each distance, not counting ones found closer. */
+    private final int[] counts;
+    /** Distance each Item was found at. */
+    private final Map<Item, Integer> distances;
+    /** Most Items to return. */
+    private final int limit;
+    /** Largest distance which can still make the results. */
+    private int bound;
+
+    /**
+     * Create an empty set of matches.
+     *
+     * @param maxDistance largest edit distance accepted.
+     * @param limit most Items to return.
+     */
+    Matches(int maxDistance, int limit) {
+      this.byDistance = new ArrayList<>();
+      for (int distance = 0; distance <= maxDistance; distance++) {
+        byDistance.add(new ArrayList<>());
+      }
+      this.counts = new int[maxDistance + 1];
+      this.distances = new IdentityHashMap<>();
+      this.limit = limit;
+      this.bound = maxDistance;
+    }
+
+    /**
+     * Get the largest distance which can still make the results.
+     *
+     * @return the bound.
+     */
+    int bound() {
+      return bound;
+    }
+
+    /**
+     * Add a match.
+     *
+     * @param item the Item.
+     * @param distance its edit distance from the query.
+     */
+    void add(Item item, int distance) {
+      Integer other = distances.get(item);
+      if (other != null && other <= distance) {
+        return;
+      }
+      if (counts[distance] < limit) {
+        if (other != null) {
+          /* Found closer by another key of the same Item. */
+          counts[other]--;
+        }
+        byDistance.get(distance).add(item);
+        distances.put(item, distance);
+        counts[distance]++;
+        narrow();
+      }
+    }
+
+    /**
+     * Add every Item of a subtree at one distance.
+     *
+     * @param node root of the subtree.
+     * @param distance the edit distance of all its Items.
+     */
+    private void addAll(Node node, int distance) {
+      if (distance > bound || counts[distance] >= limit) {
+        return;
+      }
+      if (node.item != null) {
+        add(node.item, distance);
+      }
+      for (Node child : node.children) {
+        addAll(child, distance);
+      }
+    }
+
+    /**
+     * Lower the bound to the smallest distance at which limit
+     * Items have been found.
+     */
+    private void narrow() {
+      int found = 0;
+      for (int distance = 0; distance < bound; distance++) {
+        found += counts[distance];
+        if (found >= limit) {
+          bound = distance;
+          return;
+        }
+      }
+    }
+
+    /**
+     * Get the best matches, closest first.
+     *
+     * @return list of at most limit Items.
+     */
+    List<Item> toList() {
+      List<Item> results = new ArrayList<>();
+      for (int distance = 0; distance < byDistance.size(); distance++) {
+        for (Item item : byDistance.get(distance)) {
+          if (results.size() < limit && distances.get(item) == distance) {
+            results.add(item);
+          }
+        }
+      }
+      return results;
+    }
+  }
+}
@@ -0,0 +1,748 @@
+package no.ntnu.candidate10034;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * Read-only, memory-mapped image of the Items of a Warehouse.
+ *
+ * <p>A snapshot holds every field of every Item in a flat
+ * binary file which is mapped into memory rather than read.
+ * Opening it only checks the header, so a large registry can
+ * be searched straight away, and the operating system loads
+ * the pages that are used. {@link #restore(Warehouse)} turns
+ * the whole file back into Items when a live registry is needed.
+ *
+ * <p>The file consists of a header followed by
+ * <pre>
+ *   double[count] weights, lengths and heights
+ *   int[count]    prices, amounts and categories (1 to 4)
+ *   long[4 * count + 1] start of the itemNumber, brand,
+ *                 color and description of each Item in the
+ *                 string heap, followed by its end
+ *   int[table]    open-addressing hash table of the
+ *                 itemNumbers by their case-folded hash
+ *                 (see KeyIndex), holding Item index + 1
+ *   int[table]    same for the itemDescriptions
+ *   byte[]        string heap of UTF-8 bytes
+ * </pre>
+ * Columns are 8-byte aligned and stored in big-endian order.
+ * The string heap is mapped in segments of 1 GB, and no string
+ * crosses the border between two segments.
+ *
+ * <p>A snapshot also records the generation of the
+ * WriteAheadLog it was taken from and the offset in that log
+ * it is up to date with, so that the log can be replayed from
+ * where the snapshot ends.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class Snapshot implements Closeable {
+  /** First bytes of a snapshot file: "WMSSNAP" followed by the format version. */
+  static final long MAGIC = 0x574D53534E415002L;
+  /** Bytes of the file header. */
+  static final int HEADER_SIZE = 64;
+
+  /** Most Items a snapshot can hold, keeping the columns within one mapping. */
+  private static final int MAX_ITEMS = 1 << 24;
+  /** Number of String fields of an Item. */
+  private static final int STRINGS = 4;
+  /** Position of the itemNumber among the String fields. */
+  private static final int NUMBER = 0;
+  /** Position of the brand among the String fields. */
+  private static final int BRAND = 1;
+  /** Position of the color among the String fields. */
+  private static final int COLOR = 2;
+  /** Position of the description among the String fields. */
+  private static final int DESCRIPTION = 3;
+  /** log2 of the size of a segment of the string heap. */
+  private static final int SEGMENT_SHIFT = 30;
+  /** Size of a segment of the string heap. */
+  private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+
+  /** File the snapshot is mapped from. */
+  private final FileChannel channel;
+  /** Header, columns, string offsets and hash tables. */
+  private final ByteBuffer columns;
+  /** String heap, in segments of SEGMENT_SIZE. */
+  private final ByteBuffer[] heap;
+  /** Number of Items. */
+  private final int count;
+  /** Number of buckets of each hash table, a power of two. */
+  private final int tableSize;
+  /** Generation of the log the snapshot was taken from. */
+  private final long logGeneration;
+  /** Offset in the log the snapshot is up to date with. */
+  private final long logOffset;
+
+
+  /**
+   * Create a snapshot over a mapped file.
+   *
+   * @param channel the open file.
+   * @param columns mapping of everything before the string heap.
+   * @param heap mappings of the string heap.
+   */
+  private Snapshot(FileChannel channel, ByteBuffer columns, ByteBuffer[] heap) {
+    this.channel = channel;
+    this.columns = columns;
+    this.heap = heap;
+    this.count = columns.getInt(8);
+    this.tableSize = columns.getInt(12);
+    this.logGeneration = columns.getLong(16);
+    this.logOffset = columns.getLong(24);
+  }
+
+
+  /*
+  * WRITING
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Write all Items of a warehouse to a snapshot file which is
+   * not tied to any log.
+   *
+   * <p>No other thread may change the warehouse meanwhile.
+   *
+   * @param warehouse the warehouse to write.
+   * @param file the snapshot file, replaced if it exists.
+   * @throws IOException if the file could not be written.
+   */
+  public static void write(Warehouse warehouse, Path file) throws IOException {
+    write(warehouse, file, -1, WriteAheadLog.HEADER_SIZE);
+  }
+
+
+  /**
+   * Write all Items of a warehouse to a snapshot file.
+   *
+   * <p>The snapshot is written to a temporary file next to
+   * the target, forced to disk and then moved over the target,
+   * so a crash never leaves a partly written snapshot behind.
+   *
+   * @param warehouse the warehouse to write.
+   * @param file the snapshot file, replaced if it exists.
+   * @param logGeneration generation of the log the warehouse is kept in.
+   * @param logOffset offset in that log the warehouse is up to date with.
+   * @throws IOException if the file could not be written.
+   */
+  static void write(Warehouse warehouse, Path file, long logGeneration, long logOffset)
+      throws IOException {
+    write(warehouse.stream().toArray(Item[]::new), file, logGeneration, logOffset);
+  }
+
+
+  /**
+   * Write Items to a snapshot file, in the order given, as
+   * {@link #write(Warehouse, Path, long, long)} does.
+   *
+   * @param items the Items to write.
+   * @param file the snapshot file, replaced if it exists.
+   * @param logGeneration generation of the log the Items are kept in.
+   * @param logOffset offset in that log the Items are up to date with.
+   * @throws IOException if the file could not be written.
+   */
+  static void write(Item[] items, Path file, long logGeneration, long logOffset)
+      throws IOException {
+    int count = items.length;
+    if (count > MAX_ITEMS) {
+      throw new IOException("Too many items for a snapshot: " + count);
+    }
+    int tableSize = tableSize(count);
+
+    /* Lay out the string heap, moving strings which would cross a segment. */
+    long[] offsets = new long[STRINGS * count + 1];
+    long heapLength = 0;
+    for (int index = 0; index < count; index++) {
+      for (int field = 0; field < STRINGS; field++) {
+        int length = Utf8.length(field(items[index], field));
+        if ((heapLength >>> SEGMENT_SHIFT) != ((heapLength + length) >>> SEGMENT_SHIFT)) {
+          heapLength = (heapLength + SEGMENT_SIZE - 1) & -SEGMENT_SIZE;
+        }
+        offsets[STRINGS * index + field] = heapLength;
+        heapLength += length;
+      }
+    }
+    offsets[STRINGS * count] = heapLength;
+
+    long heapStart = heapStart(count, tableSize);
+
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(
+        temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+    )) {
+      MappedByteBuffer columns = channel.map(FileChannel.MapMode.READ_WRITE, 0, heapStart);
+      columns.putLong(0, MAGIC);
+      columns.putInt(8, count);
+      columns.putInt(12, tableSize);
+      columns.putLong(16, logGeneration);
+      columns.putLong(24, logOffset);
+      columns.putLong(32, heapStart);
+      columns.putLong(40, heapLength);
+
+      for (int index = 0; index < count; index++) {
+        Item item = items[index];
+        columns.putDouble((int) (doubleColumn(count, 0) + 8L * index), item.getItemWeight());
+        columns.putDouble((int) (doubleColumn(count, 1) + 8L * index), item.getItemLength());
+        columns.putDouble((int) (doubleColumn(count, 2) + 8L * index), item.getItemHeight());
+        columns.putInt((int) (intColumn(count, 0) + 4L * index), item.getItemPrice());
+        columns.putInt((int) (intColumn(count, 1) + 4L * index), item.getItemAmount());
+        columns.putInt((int) (intColumn(count, 2) + 4L * index), item.getItemCategoryAsInt() + 1);
+      }
+
+      int offsetColumn = (int) offsetColumn(count);
+      for (int index = 0; index < offsets.length; index++) {
+        columns.putLong(offsetColumn + 8 * index, offsets[index]);
+      }
+
+      int numberTable = (int) tableColumn(count, tableSize, NUMBER);
+      int descriptionTable = (int) tableColumn(count, tableSize, DESCRIPTION);
+      for (int index = 0; index < count; index++) {
+        insert(columns, numberTable, tableSize, items[index].getItemNumber(), index);
+        insert(columns, descriptionTable, tableSize, items[index].getItemDescription(), index);
+      }
+      columns.force();
+
+      for (long segmentStart = 0; segmentStart < heapLength; segmentStart += SEGMENT_SIZE) {
+        long segmentLength = Math.min(SEGMENT_SIZE, heapLength - segmentStart);
+        MappedByteBuffer segment = channel.map(
+            FileChannel.MapMode.READ_WRITE, heapStart + segmentStart, segmentLength
+        );
+        for (int index = 0; index < offsets.length - 1; index++) {
+          long offset = offsets[index];
+          if (offset >= segmentStart && offset < segmentStart + segmentLength) {
+            segment.position((int) (offset - segmentStart));
+            Utf8.encode(segment, field(items[index / STRINGS], index % STRINGS));
+          }
+        }
+        segment.force();
+      }
+      channel.force(true);
+    }
+    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+
+  /**
+   * Put an Item index into an open-addressing hash table.
+   *
+   * @param columns the mapping holding the table.
+   * @param table position of the table in columns.
+   * @param tableSize number of buckets, a power of two.
+   * @param key the key, in any case.
+   * @param index index of the Item with the key.
+   */
+  private static void insert(ByteBuffer columns, int table, int tableSize, String key, int index) {
+    int mask = tableSize - 1;
+    int bucket = spread(KeyIndex.hash(key)) & mask;
+    while (columns.getInt(table + 4 * bucket) != 0) {
+      bucket = (bucket + 1) & mask;
+    }
+    columns.putInt(table + 4 * bucket, index + 1);
+  }
+
+
+  /**
+   * Get a String field of an Item by its position.
+   *
+   * @param item the Item.
+   * @param field position of the field.
+   * @return the value of the field.
+   */
+  private static String field(Item item, int field) {
+    switch (field) {
+      case NUMBER:
+        return item.getItemNumber();
+      case BRAND:
+        return item.getItemBrand();
+      case COLOR:
+        return item.getItemColor();
+      default:
+        return item.getItemDescription();
+    }
+  }
+
+
+
+  /*
+  * READING
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Map a snapshot file into memory.
+   *
+   * @param file the snapshot file.
+   * @return the opened snapshot.
+   * @throws IOException if the file cannot be read or is not a snapshot.
+   */
+  public static Snapshot open(Path file) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      long fileSize = channel.size();
+      if (fileSize < HEADER_SIZE) {
+        throw new IOException("Not a warehouse snapshot: " + file);
+      }
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+      if (header.getLong(0) != MAGIC) {
+        throw new IOException("Not a warehouse snapshot: " + file);
+      }
+      int count = header.getInt(8);
+      int tableSize = header.getInt(12);
+      long heapStart = header.getLong(32);
+      long heapLength = header.getLong(40);
+      if (count < 0 || count > MAX_ITEMS || tableSize != tableSize(count)
+          || heapStart != heapStart(count, tableSize)
+          || heapLength < 0 || heapStart + heapLength != fileSize) {
+        throw new IOException("Damaged warehouse snapshot: " + file);
+      }
+
+      ByteBuffer columns = channel.map(FileChannel.MapMode.READ_ONLY, 0, heapStart);
+      ByteBuffer[] heap = new ByteBuffer[(int) ((heapLength + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT)];
+      for (int segment = 0; segment < heap.length; segment++) {
+        long segmentStart = (long) segment << SEGMENT_SHIFT;
+        heap[segment] = channel.map(
+            FileChannel.MapMode.READ_ONLY, heapStart + segmentStart,
+            Math.min(SEGMENT_SIZE, heapLength - segmentStart)
+        );
+      }
+      return new Snapshot(channel, columns, heap);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+
+  /**
+   * Get the number of Items in the snapshot.
+   *
+   * @return number of Items.
+   */
+  public int size() {
+    return count;
+  }
+
+
+  /**
+   * Get the generation of the log the snapshot was taken from.
+   *
+   * @return log generation, or -1 if it was not taken from a log.
+   */
+  public long getLogGeneration() {
+    return logGeneration;
+  }
+
+
+  /**
+   * Get the offset in the log which the snapshot is up to date with.
+   *
+   * @return offset in the log file.
+   */
+  public long getLogOffset() {
+    return logOffset;
+  }
+
+
+  /**
+   * Get the itemNumber of an Item.
+   *
+   * @param index index of the Item, 0 to size() - 1.
+   * @return String itemNumber.
+   */
+  public String getItemNumber(int index) {
+    return string(index, NUMBER);
+  }
+
+
+  /**
+   * Get the brand of an Item.
+   *
+   * @param index index of the Item, 0 to size() - 1.
+   * @return String itemBrand.
+   */
+  public String getItemBrand(int index) {
+    return string(index, BRAND);
+  }
+
+
+  /**
+   * Get the color of an Item.
+   *
+   * @param index index of the Item, 0 to size() - 1.
+   * @return String itemColor.
+   */
+  public String getItemColor(int index) {
+    return string(index, COLOR);
+  }
+
+
+  /**
+   * Get the description of an Item.
+   *
+   * @param index index of the Item, 0 to size() - 1.
+   * @return String itemDescription.
+   */
+  public String getItemDescription(int index) {
+    return string(index, DESCRIPTION);
+  }
+
+
+  /**
+   * Get the weight of an Item.
+   *
+   * @param index index of the Item, 0 to size() - 1.
+   * @return double weight in kg.
+   */
+  public double getItemWeight(int index) {
+    return columns.getDouble((int) doubleColumn(count, 0) + 8 * checkIndex(index));
+  }
+
+
+  /**
+   * Get the length of an Item.
+   *
+   * @param index index of the Item, 0 to size() - 1.
+   * @return double length in meters.
+   */
+  public double getItemLength(int index) {
+    return columns.getDouble((int) doubleColumn(count, 1) + 8 * checkIndex(index));
+  }
+
+
+  /**
+   * Get the height of an Item.
+   *
+   * @param index index of the Item, 0 to size() - 1.
+   * @return double height in meters.
+   */
+  public double getItemHeight(int index) {
+    return columns.getDouble((int) doubleColumn(count, 2) + 8 * checkIndex(index));
+  }
+
+
+  /**
+   * Get the price of an Item.
+   *
+   * @param index index of the Item, 0 to size() - 1.
+   * @return int price.
+   */
+  public int getItemPrice(int index) {
+    return columns.getInt((int) intColumn(count, 0) + 4 * checkIndex(index));
+  }
+
+
+  /**
+   * Get the amount in store of an Item.
+   *
+   * @param index index of the Item, 0 to size() - 1.
+   * @return int amount.
+   */
+  public int getItemAmount(int index) {
+    return columns.getInt((int) intColumn(count, 1) + 4 * checkIndex(index));
+  }
+
+
+  /**
+   * Get the category of an Item.
+   *
+   * @param index index of the Item, 0 to size() - 1.
+   * @return int category, 1 to 4.
+   */
+  public int getItemCategory(int index) {
+    return columns.getInt((int) intColumn(count, 2) + 4 * checkIndex(index));
+  }
+
+
+  /**
+   * Create a new Item from the fields stored at an index.
+   *
+   * @param index index of the Item, 0 to size() - 1.
+   * @return new Item, not registered in any warehouse.
+   */
+  public Item getItem(int index) {
+    return new Item(
+        getItemNumber(index), getItemBrand(index),
+        getItemColor(index), getItemDescription(index),
+        getItemWeight(index), getItemLength(index),
+        getItemHeight(index), getItemPrice(index),
+        getItemAmount(index), getItemCategory(index)
+    );
+  }
+
+
+  /**
+   * Find the index of an Item by its itemNumber or, failing
+   * that, by its itemDescription, ignoring case in the same
+   * way as {@link Warehouse#search(String)}.
+   *
+   * @param searchWord an itemNumber or itemDescription.
+   * @return index of the Item, or -1 if not found.
+   */
+  public int indexOf(String searchWord) {
+    int index = lookup(NUMBER, searchWord);
+    return index >= 0 ? index : lookup(DESCRIPTION, searchWord);
+  }
+
+
+  /**
+   * Add every Item of the snapshot to a warehouse.
+   *
+   * <p>The Items are created in parallel, and then added
+   * under a single lock of the warehouse, in the order they
+   * had in the warehouse the snapshot was taken of. Items
+   * whose keys are already taken in the warehouse are left out.
+   *
+   * @param warehouse the warehouse to fill, normally empty.
+   * @return number of Items added.
+   */
+  public int restore(Warehouse warehouse) {
+    return warehouse.addAll(getItems()).getAdded();
+  }
+
+
+  /**
+   * Create every Item of the snapshot, in parallel.
+   *
+   * @return new Items, in the order of the snapshot.
+   */
+  Item[] getItems() {
+    Item[] items = new Item[count];
+    IntStream.range(0, count).parallel().forEach(index -> items[index] = getItem(index));
+    return items;
+  }
+
+
+  /**
+   * Close the file. The mapped memory is released once the
+   * snapshot is no longer referenced.
+   *
+   * @throws IOException if the file could not be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+
+  /**
+   * Look up a key in one of the hash tables, ignoring case as
+   * {@link KeyIndex} does, without allocating.
+   *
+   * @param field NUMBER or DESCRIPTION.
+   * @param key the key, in any case.
+   * @return index of the Item, or -1 if not found.
+   */
+  private int lookup(int field, String key) {
+    int table = (int) tableColumn(count, tableSize, field);
+    int mask = tableSize - 1;
+    int bucket = spread(KeyIndex.hash(key)) & mask;
+
+    int entry;
+    while ((entry = columns.getInt(table + 4 * bucket)) != 0) {
+      if (matches(entry - 1, field, key)) {
+        return entry - 1;
+      }
+      bucket = (bucket + 1) & mask;
+    }
+    return -1;
+  }
+
+
+  /**
+   * Compare a String field of an Item with a key ignoring case,
+   * decoding the field from the string heap one character at a
+   * time rather than into a new String.
+   *
+   * @param index index of the Item.
+   * @param field position of the field.
+   * @param key the key, in any case.
+   * @return true if every character folds to the same as the
+   *     character of the key at the same position.
+   */
+  private boolean matches(int index, int field, String key) {
+    int position = (int) offsetColumn(count) + 8 * (STRINGS * index + field);
+    long start = columns.getLong(position);
+    ByteBuffer segment = heap[(int) (start >>> SEGMENT_SHIFT)];
+    int offset = (int) (start & (SEGMENT_SIZE - 1));
+    int end = offset + (int) (columns.getLong(position + 8) - start);
+    int length = key.length();
+    int next = 0;
+
+    while (offset < end) {
+      int b = segment.get(offset++);
+      int codePoint;
+      if (b >= 0) {
+        codePoint = b;
+      } else if ((b & 0xE0) == 0xC0) {
+        codePoint = (b & 0x1F) << 6 | segment.get(offset++) & 0x3F;
+      } else if ((b & 0xF0) == 0xE0) {
+        codePoint = (b & 0x0F) << 12 | (segment.get(offset++) & 0x3F) << 6
+            | segment.get(offset++) & 0x3F;
+      } else {
+        codePoint = (b & 0x07) << 18 | (segment.get(offset++) & 0x3F) << 12
+            | (segment.get(offset++) & 0x3F) << 6 | segment.get(offset++) & 0x3F;
+      }
+
+      if (Character.isBmpCodePoint(codePoint)) {
+        if (next == length || !sameFolded((char) codePoint, key.charAt(next++))) {
+          return false;
+        }
+      } else if (next + 1 >= length
+          || key.charAt(next++) != Character.highSurrogate(codePoint)
+          || key.charAt(next++) != Character.lowSurrogate(codePoint)) {
+        return false;
+      }
+    }
+    return next == length;
+  }
+
+
+  /**
+   * Compare two characters ignoring case.
+   *
+   * @param c1 the first character.
+   * @param c2 the second character.
+   * @return true if they fold to the same.
+   */
+  private static boolean sameFolded(char c1, char c2) {
+    return c1 == c2 || KeyIndex.fold(c1) == KeyIndex.fold(c2);
+  }
+
+
+  /**
+   * Decode a String field of an Item from the string heap.
+   *
+   * @param index index of the Item.
+   * @param field position of the field.
+   * @return the value of the field.
+   */
+  private String string(int index, int field) {
+    int position = (int) offsetColumn(count) + 8 * (STRINGS * checkIndex(index) + field);
+    long start = columns.getLong(position);
+    int length = (int) (columns.getLong(position + 8) - start);
+
+    byte[] bytes = new byte[length];
+    heap[(int) (start >>> SEGMENT_SHIFT)].get((int) (start & (SEGMENT_SIZE - 1)), bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+
+  /**
+   * Check that an index refers to an Item of the snapshot.
+   *
+   * @param index the index.
+   * @return the index.
+   * @throws IndexOutOfBoundsException if the index is out of range.
+   */
+  private int checkIndex(int index) {
+    if (index < 0 || index >= count) {
+      throw new IndexOutOfBoundsException("No item at index " + index);
+    }
+    return index;
+  }
+
+
+
+  /*
+  * LAYOUT
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Get the number of buckets of the hash tables for a number
+   * of Items, keeping them at most half full.
+   *
+   * @param count number of Items.
+   * @return a power of two.
+   */
+  private static int tableSize(int count) {
+    return Math.max(2, Integer.highestOneBit(Math.max(1, count)) << 2);
+  }
+
+
+  /**
+   * Mix the bits of a hash code, as the tables use its low bits.
+   *
+   * @param hash the hash code.
+   * @return the mixed hash.
+   */
+  private static int spread(int hash) {
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+
+  /**
+   * Get the position of a double column.
+   *
+   * @param count number of Items.
+   * @param column 0 for weights, 1 for lengths, 2 for heights.
+   * @return file offset of the column.
+   */
+  private static long doubleColumn(long count, int column) {
+    return HEADER_SIZE + 8 * count * column;
+  }
+
+
+  /**
+   * Get the position of an int column.
+   *
+   * @param count number of Items.
+   * @param column 0 for prices, 1 for amounts, 2 for categories.
+   * @return file offset of the column.
+   */
+  private static long intColumn(long count, int column) {
+    return doubleColumn(count, 3) + 4 * count * column;
+  }
+
+
+  /**
+   * Get the position of the string offsets, 8-byte aligned.
+   *
+   * @param count number of Items.
+   * @return file offset of the string offsets.
+   */
+  private static long offsetColumn(long count) {
+    return (intColumn(count, 3) + 7) & -8L;
+  }
+
+
+  /**
+   * Get the position of a hash table.
+   *
+   * @param count number of Items.
+   * @param tableSize number of buckets of each table.
+   * @param field NUMBER or DESCRIPTION.
+   * @return file offset of the table.
+   */
+  private static long tableColumn(long count, int tableSize, int field) {
+    long start = offsetColumn(count) + 8 * (STRINGS * count + 1);
+    return field == NUMBER ? start : start + 4L * tableSize;
+  }
+
+
+  /**
+   * Get the position of the string heap, 8-byte aligned.
+   *
+   * @param count number of Items.
+   * @param tableSize number of buckets of each table.
+   * @return file offset of the string heap.
+   */
+  private static long heapStart(long count, int tableSize) {
+    return (tableColumn(count, tableSize, DESCRIPTION) + 4L * tableSize + 7) & -8L;
+  }
+}
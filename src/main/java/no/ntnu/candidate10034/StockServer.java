@@ -0,0 +1,504 @@
+package no.ntnu.candidate10034;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Serves the stock of a {@link Warehouse} to scanners and sorters
+ * over a compact binary protocol on TCP.
+ *
+ * <p>Every message is a frame of a 2 byte length followed by that
+ * many bytes, all numbers big-endian. A request is:
+ * <pre>
+ *   u16 length | u8 operation | i32 argument | key as UTF-8
+ * </pre>
+ * where the operation is {@link #SEARCH}, {@link #ADJUST} with the
+ * argument as the delta, or {@link #PRICE} with the argument as the
+ * new price, and the key is an itemNumber or itemDescription of at
+ * most {@link #MAX_KEY} bytes. Each request is answered with:
+ * <pre>
+ *   u16 length | u8 status | i32 amount | i32 price | message as UTF-8
+ * </pre>
+ * where the amount and price are those the operation left the
+ * Item with, or 0 if no Item was found or it was deleted before
+ * the operation was done, and the message is empty
+ * unless the status is an error. A frame too short or too long
+ * closes the connection.
+ *
+ * <p>Requests may be pipelined: a client can write many frames
+ * without waiting, and the answers come back in the same order.
+ * All frames read at once are answered into one buffer, which is
+ * written with a single call, so a batch of requests costs about
+ * one system call each way. While a client is not reading its
+ * answers, no more of its requests are read.
+ *
+ * <p>The connections are spread over a few event loops, each a
+ * thread with a {@link Selector} of its own. Operations run on
+ * the loop itself, which suits the lock-free reads and the
+ * compare-and-set adjustments of the Warehouse.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class StockServer implements AutoCloseable {
+  /** Operation looking up an Item. */
+  public static final byte SEARCH = 1;
+  /** Operation adjusting the amount of an Item by the argument. */
+  public static final byte ADJUST = 2;
+  /** Operation changing the price of an Item to the argument. */
+  public static final byte PRICE = 3;
+
+  /** Status of an operation which succeeded. */
+  public static final byte OK = 0;
+  /** Status when no Item is found by the key. */
+  public static final byte NOT_FOUND = 1;
+  /** Status when the Item refuses the change, such as a negative amount. */
+  public static final byte REJECTED = 2;
+  /** Status of an unknown operation. */
+  public static final byte BAD_REQUEST = 3;
+  /** Status when the operation failed inside the server. */
+  public static final byte FAILED = 4;
+
+  /** Largest key of a request, in bytes. */
+  public static final int MAX_KEY = 1024;
+  /** Event loops used unless another number is given. */
+  public static final int DEFAULT_LOOPS =
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+  /** Bytes of a request before the key. */
+  private static final int REQUEST_HEADER = 5;
+  /** Bytes of an answer before the message. */
+  private static final int ANSWER_HEADER = 9;
+  /** Largest message of an answer, in bytes. */
+  private static final int MAX_MESSAGE = 256;
+  /** Largest answer, with its length. */
+  private static final int MAX_ANSWER = 2 + ANSWER_HEADER + MAX_MESSAGE;
+  /** Size of the buffers of a connection. */
+  private static final int BUFFER = 1 << 14;
+  /** Message of an answer which is not an error. */
+  private static final byte[] NO_MESSAGE = new byte[0];
+
+  /** The Warehouse served. */
+  private final Warehouse warehouse;
+  /** Accepts the connections. */
+  private final ServerSocketChannel acceptor;
+  /** The event loops. */
+  private final Loop[] loops;
+  /** Whether the server is running. */
+  private volatile boolean running = true;
+  /** Loop given the next connection. */
+  private int nextLoop;
+
+
+  /**
+   * Create a server. Use {@link #start(Warehouse, InetSocketAddress, int)}.
+   *
+   * @param warehouse the Warehouse to serve.
+   * @param acceptor the bound channel accepting connections.
+   * @param loops number of event loops.
+   * @throws IOException If a selector cannot be opened.
+   */
+  private StockServer(Warehouse warehouse, ServerSocketChannel acceptor, int loops)
+      throws IOException {
+    this.warehouse = warehouse;
+    this.acceptor = acceptor;
+    this.loops = new Loop[loops];
+    for (int index = 0; index < loops; index++) {
+      this.loops[index] = new Loop(index);
+    }
+  }
+
+
+  /**
+   * Start serving a Warehouse.
+   *
+   * @param warehouse the Warehouse to serve.
+   * @param address address to listen on, port 0 for any free port.
+   * @param loops number of event loops, at least 1.
+   * @return the running server.
+   * @throws IOException If the address cannot be bound.
+   * @throws IllegalArgumentException If loops is less than 1.
+   */
+  public static StockServer start(Warehouse warehouse, InetSocketAddress address, int loops)
+      throws IOException {
+    if (loops < 1) {
+      throw new IllegalArgumentException("At least one event loop is needed");
+    }
+    ServerSocketChannel acceptor = ServerSocketChannel.open();
+    try {
+      acceptor.bind(address, 4096);
+      acceptor.configureBlocking(false);
+      StockServer server = new StockServer(warehouse, acceptor, loops);
+      acceptor.register(server.loops[0].selector, SelectionKey.OP_ACCEPT);
+      for (Loop loop : server.loops) {
+        loop.thread.start();
+      }
+      return server;
+    } catch (IOException | RuntimeException e) {
+      acceptor.close();
+      throw e;
+    }
+  }
+
+
+  /**
+   * Get the port the server listens on.
+   *
+   * @return the port.
+   */
+  public int getPort() {
+    return acceptor.socket().getLocalPort();
+  }
+
+
+  /**
+   * Stop the server and close every connection.
+   */
+  @Override
+  public void close() {
+    running = false;
+    for (Loop loop : loops) {
+      loop.selector.wakeup();
+    }
+    for (Loop loop : loops) {
+      try {
+        loop.thread.join(1000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    try {
+      acceptor.close();
+    } catch (IOException e) {
+      /* Nothing more can be done while stopping. */
+    }
+  }
+
+
+  /**
+   * Accept the waiting connections and hand them to the loops in
+   * turn. Runs on the first loop.
+   *
+   * @throws IOException If accepting fails.
+   */
+  private void accept() throws IOException {
+    SocketChannel channel;
+    while ((channel = acceptor.accept()) != null) {
+      channel.configureBlocking(false);
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      Loop loop = loops[nextLoop];
+      nextLoop = (nextLoop + 1) % loops.length;
+      loop.pending.add(channel);
+      if (loop != loops[0]) {
+        loop.selector.wakeup();
+      }
+    }
+  }
+
+
+
+  /*
+  * EVENT LOOP
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * A thread serving its share of the connections.
+   */
+  private final class Loop implements Runnable {
+    /** Selector of the connections of this loop. */
+    private final Selector selector;
+    /** Connections accepted but not yet registered. */
+    private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+    /** The thread running the loop. */
+    private final Thread thread;
+    /** Bytes of the key being decoded. */
+    private final byte[] key = new byte[MAX_KEY];
+
+    /**
+     * Create a loop.
+     *
+     * @param index number of the loop, for the name of its thread.
+     * @throws IOException If the selector cannot be opened.
+     */
+    private Loop(int index) throws IOException {
+      selector = Selector.open();
+      thread = new Thread(this, "warehouse-stock-" + index);
+      thread.setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (running) {
+          selector.select();
+          register();
+          Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+          while (selected.hasNext()) {
+            SelectionKey key = selected.next();
+            selected.remove();
+            if (key.isValid() && key.isAcceptable()) {
+              accept();
+              register();
+            } else if (key.isValid()) {
+              ((Connection) key.attachment()).ready(key);
+            }
+          }
+        }
+      } catch (IOException e) {
+        /* The selector itself failed, so the loop cannot go on. */
+      } finally {
+        for (SelectionKey key : selector.keys()) {
+          closeQuietly(key);
+        }
+        try {
+          selector.close();
+        } catch (IOException e) {
+          /* Nothing more can be done while stopping. */
+        }
+      }
+    }
+
+    /**
+     * Register the connections handed to this loop.
+     *
+     * @throws IOException If a channel cannot be registered.
+     */
+    private void register() throws IOException {
+      SocketChannel channel;
+      while ((channel = pending.poll()) != null) {
+        Connection connection = new Connection(channel, this);
+        channel.register(selector, SelectionKey.OP_READ, connection);
+      }
+    }
+
+    /**
+     * Answer one request.
+     *
+     * @param in the request, after its length.
+     * @param length the length of the request.
+     * @param out where the answer is written.
+     */
+    private void answer(ByteBuffer in, int length, ByteBuffer out) {
+      byte operation = in.get();
+      int argument = in.getInt();
+      int keyLength = length - REQUEST_HEADER;
+      in.get(key, 0, keyLength);
+      String searchWord = new String(key, 0, keyLength, StandardCharsets.UTF_8);
+
+      if (operation < SEARCH || operation > PRICE) {
+        write(out, BAD_REQUEST, null, "Unknown operation " + operation);
+        return;
+      }
+      Item item = warehouse.search(searchWord);
+      if (item == null || item.owner != warehouse) {
+        write(out, NOT_FOUND, null, "No item found for " + searchWord);
+        return;
+      }
+
+      try {
+        int amount;
+        int price;
+        if (operation == ADJUST) {
+          amount = warehouse.adjustAmount(item, argument);
+          price = item.getItemPrice();
+        } else if (operation == PRICE) {
+          item.setItemPrice(argument);
+          amount = item.getItemAmount();
+          price = argument;
+        } else {
+          amount = item.getItemAmount();
+          price = item.getItemPrice();
+        }
+        if (item.owner != warehouse) {
+          /* Deleted while the operation was made, which then counts for nothing. */
+          write(out, NOT_FOUND, null, "No item found for " + searchWord);
+        } else {
+          write(out, OK, amount, price, null);
+        }
+      } catch (IllegalArgumentException e) {
+        if (item.owner != warehouse) {
+          write(out, NOT_FOUND, null, "No item found for " + searchWord);
+        } else {
+          write(out, REJECTED, item, e.getMessage());
+        }
+      } catch (RuntimeException e) {
+        write(out, FAILED, item, e.toString());
+      }
+    }
+  }
+
+
+  /**
+   * Write an answer.
+   *
+   * @param out where the answer is written.
+   * @param status status of the operation.
+   * @param item the Item, or null if none was found.
+   * @param message the reason of an error, or null.
+   */
+  private static void write(ByteBuffer out, byte status, Item item, String message) {
+    write(
+        out, status, item == null ? 0 : item.getItemAmount(),
+        item == null ? 0 : item.getItemPrice(), message
+    );
+  }
+
+
+  /**
+   * Write an answer with the amount and price an operation left
+   * the Item with.
+   *
+   * @param out where the answer is written.
+   * @param status status of the operation.
+   * @param amount amount of the Item.
+   * @param price price of the Item.
+   * @param message the reason of an error, or null.
+   */
+  private static void write(ByteBuffer out, byte status, int amount, int price, String message) {
+    byte[] text = message == null ? NO_MESSAGE : message.getBytes(StandardCharsets.UTF_8);
+    int textLength = Math.min(text.length, MAX_MESSAGE);
+    out.putShort((short) (ANSWER_HEADER + textLength));
+    out.put(status);
+    out.putInt(amount);
+    out.putInt(price);
+    out.put(text, 0, textLength);
+  }
+
+
+  /**
+   * Close the channel of a key, ignoring failures.
+   *
+   * @param key the key.
+   */
+  private static void closeQuietly(SelectionKey key) {
+    key.cancel();
+    try {
+      key.channel().close();
+    } catch (IOException e) {
+      /* The connection is gone either way. */
+    }
+  }
+
+
+
+  /*
+  * CONNECTIONS
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * The buffers of one client connection.
+   */
+  private final class Connection {
+    /** The channel of the client. */
+    private final SocketChannel channel;
+    /** The loop serving the connection. */
+    private final Loop loop;
+    /** Requests read but not answered, in write mode. */
+    private final ByteBuffer in = ByteBuffer.allocate(BUFFER);
+    /** Answers not yet written, in write mode. */
+    private final ByteBuffer out = ByteBuffer.allocate(BUFFER);
+
+    /**
+     * Create a connection.
+     *
+     * @param channel the channel of the client.
+     * @param loop the loop serving the connection.
+     */
+    private Connection(SocketChannel channel, Loop loop) {
+      this.channel = channel;
+      this.loop = loop;
+    }
+
+    /**
+     * Read, answer and write what the channel is ready for. A
+     * failing or misbehaving connection is closed.
+     *
+     * @param key the key of the channel.
+     */
+    private void ready(SelectionKey key) {
+      try {
+        if (key.isWritable() && !flush(key)) {
+          return;
+        }
+        if (key.isReadable() && channel.read(in) < 0) {
+          closeQuietly(key);
+          return;
+        }
+        serve(key);
+      } catch (IOException | ProtocolException e) {
+        closeQuietly(key);
+      }
+    }
+
+    /**
+     * Answer every complete request read, while there is room
+     * for the answers, then write them.
+     *
+     * @param key the key of the channel.
+     * @throws IOException If writing fails.
+     * @throws ProtocolException If a frame has a bad length.
+     */
+    private void serve(SelectionKey key) throws IOException {
+      in.flip();
+      while (in.remaining() >= 2 && out.remaining() >= MAX_ANSWER) {
+        int length = in.getShort(in.position()) & 0xffff;
+        if (length < REQUEST_HEADER || length > REQUEST_HEADER + MAX_KEY) {
+          throw new ProtocolException();
+        }
+        if (in.remaining() < 2 + length) {
+          break;
+        }
+        in.position(in.position() + 2);
+        loop.answer(in, length, out);
+      }
+      in.compact();
+      flush(key);
+    }
+
+    /**
+     * Write the answers, waiting for the channel to be writable
+     * instead of reading more while some are left.
+     *
+     * @param key the key of the channel.
+     * @return true if every answer was written.
+     * @throws IOException If writing fails.
+     */
+    private boolean flush(SelectionKey key) throws IOException {
+      out.flip();
+      channel.write(out);
+      out.compact();
+      boolean done = out.position() == 0;
+      key.interestOps(done ? SelectionKey.OP_READ : SelectionKey.OP_WRITE);
+      return done;
+    }
+  }
+
+
+  /**
+   * Thrown when a frame has a length no request can have.
+   */
+  private static final class ProtocolException extends RuntimeException {
+    /** Serial version of the exception. */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create the exception.
+     */
+    private ProtocolException() {
+      super("Bad frame length", null, false, false);
+    }
+  }
+}
@@ -0,0 +1,570 @@
+package no.ntnu.candidate10034;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Running totals of the stock in a Warehouse: the number of
+ * Items, the units in store, their value and their weight, over
+ * the whole warehouse, per category and per brand.
+ *
+ * <p>Every Item contributes its price times amount, its amount,
+ * and its weight times amount to the totals of the warehouse,
+ * of its category and of its brand. The contribution of each
+ * Item is remembered at its dense id (see {@link ItemColumns}),
+ * and every change of the Item adds only the difference to the
+ * totals, so keeping them up to date takes constant time.
+ *
+ * <p>The totals are kept in LongAdders, which can be read at
+ * any time without taking a lock, and are summed as long, so the
+ * product of an int price and an int amount cannot overflow.
+ * Weights are summed in whole grams, which keeps the sums
+ * exact however often they change. While the warehouse changes,
+ * the figures of one {@link Totals} may be read at slightly
+ * different moments.
+ *
+ * <p>The totals are kept up to date as a WarehouseListener,
+ * and are created by {@link Warehouse#totals()}. Brands are
+ * matched ignoring case.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class StockTotals implements WarehouseListener {
+  /** Grams in a kilogram. */
+  private static final double GRAMS = 1000;
+
+  /** Handle used for atomic updates of the contributions. */
+  private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+  /**
+   * Lets amount and price changes, which arrive from any thread,
+   * update the contributions together, while additions, deletions,
+   * moves between groups and growth are made exclusively.
+   */
+  private final StampedLock lock;
+  /** Totals of the whole warehouse. */
+  private final Group all;
+  /** Totals of each category, the first for category 1. */
+  private final Group[] categories;
+  /** Totals of each lowercased brand in use. */
+  private final Map<String, Group> brands;
+  /** Totals of the brand of each code of StringDictionary.BRANDS, or null if not known yet. */
+  private Group[] brandByCode;
+  /** The Item at each id, or null. */
+  private Item[] items;
+  /** Category group of the Item at each id. */
+  private Group[] categoryOf;
+  /** Brand group of the Item at each id. */
+  private Group[] brandOf;
+  /** Value contributed by the Item at each id. */
+  private long[] values;
+  /** Units contributed by the Item at each id. */
+  private long[] units;
+  /** Grams contributed by the Item at each id. */
+  private long[] grams;
+
+
+  /**
+   * Create empty totals.
+   *
+   * @param capacity number of ids to make room for.
+   */
+  StockTotals(int capacity) {
+    this.lock = new StampedLock();
+    this.all = new Group();
+    this.categories = new Group[ItemColumns.CATEGORIES];
+    for (int index = 0; index < categories.length; index++) {
+      categories[index] = new Group();
+    }
+    this.brands = new ConcurrentHashMap<>();
+    this.brandByCode = new Group[16];
+    int length = Math.max(16, capacity);
+    this.items = new Item[length];
+    this.categoryOf = new Group[length];
+    this.brandOf = new Group[length];
+    this.values = new long[length];
+    this.units = new long[length];
+    this.grams = new long[length];
+  }
+
+
+  /**
+   * Add the Items of a warehouse to the totals.
+   *
+   * <p>Must be called after the totals have been registered as
+   * a listener, while the warehouse is locked for writing, so
+   * that no change is missed.
+   *
+   * @param slots the insertion order of the warehouse.
+   * @param end number of used positions in slots.
+   */
+  void load(Item[] slots, int end) {
+    long stamp = lock.writeLock();
+    try {
+      capacity(end);
+      for (int id = 0; id < end; id++) {
+        if (slots[id] != null) {
+          insert(id, slots[id]);
+        }
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+
+  /*
+  * TOTALS
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Get the totals of the whole warehouse.
+   *
+   * @return the current totals.
+   */
+  public Totals total() {
+    return all.read();
+  }
+
+
+  /**
+   * Get the totals of a category.
+   *
+   * @param category the category, 1 to 4.
+   * @return the current totals.
+   */
+  public Totals category(int category) {
+    ItemField.CATEGORY.validate(category);
+    return categories[category - 1].read();
+  }
+
+
+  /**
+   * Get the totals of a brand.
+   *
+   * @param brand the brand, in any case.
+   * @return the current totals, all zero if no Item has the brand.
+   */
+  public Totals brand(String brand) {
+    Group group = brands.get(brand.toLowerCase(Locale.ROOT));
+    return group == null ? new Group().read() : group.read();
+  }
+
+
+  /**
+   * Get the totals of every brand which has been in use.
+   *
+   * @return new map from the lowercased brands to their current
+   *     totals, in alphabetical order.
+   */
+  public Map<String, Totals> brands() {
+    Map<String, Totals> result = new TreeMap<>();
+    brands.forEach((brand, group) -> result.put(brand, group.read()));
+    return result;
+  }
+
+
+
+  /*
+  * LISTENER METHODS
+  * ----------------------------------------------------------------
+  */
+
+  @Override
+  public void itemAdded(Item item) {
+    long stamp = lock.writeLock();
+    try {
+      capacity(item.slot + 1);
+      if (items[item.slot] != null) {
+        /* Left behind by an addition which another listener aborted. */
+        delete(item.slot);
+      }
+      insert(item.slot, item);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  @Override
+  public void itemRemoved(Item item) {
+    long stamp = lock.writeLock();
+    try {
+      int id = item.slot;
+      if (id >= 0 && id < items.length && items[id] == item) {
+        delete(id);
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  @Override
+  public void amountChanged(Item item, int oldAmount, int newAmount) {
+    refresh(item);
+  }
+
+
+  @Override
+  public void priceChanged(Item item, int oldPrice, int newPrice) {
+    refresh(item);
+  }
+
+
+  @Override
+  public void fieldChanged(Item item, ItemField field) {
+    if (field == ItemField.WEIGHT) {
+      refresh(item);
+    } else if (field == ItemField.BRAND || field == ItemField.CATEGORY) {
+      long stamp = lock.writeLock();
+      try {
+        int id = item.slot;
+        if (id >= 0 && id < items.length && items[id] == item) {
+          delete(id);
+          insert(id, item);
+        }
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+  }
+
+
+  @Override
+  public void itemsRenumbered() {
+    long stamp = lock.writeLock();
+    try {
+      /*
+       * Compaction only moves Items to lower ids, so one forward pass
+       * is enough. A change of a moved Item made between its move and
+       * this call found it missing at its new id and was dropped, so
+       * its contribution is computed again rather than moved.
+       */
+      for (int id = 0; id < items.length; id++) {
+        Item item = items[id];
+        if (item != null && item.slot != id) {
+          delete(id);
+          if (item.slot >= 0) {
+            if (items[item.slot] != null) {
+              delete(item.slot);
+            }
+            insert(item.slot, item);
+          }
+        }
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  /**
+   * Bring the contributions of an Item up to date with its
+   * price, amount and weight.
+   *
+   * <p>Several threads may refresh the same Item at once, with
+   * their events in any order. Each contribution is therefore
+   * replaced by compare-and-set, so every difference is added
+   * to the totals exactly once, and read again from the Item
+   * until it no longer changes, so the last refresh to finish
+   * always leaves the latest values behind.
+   *
+   * @param item the Item which changed.
+   */
+  private void refresh(Item item) {
+    long stamp = lock.readLock();
+    try {
+      int id = item.slot;
+      if (id < 0 || id >= items.length || items[id] != item) {
+        return;
+      }
+
+      Group category = categoryOf[id];
+      Group brand = brandOf[id];
+      long value;
+      long unit;
+      long gram;
+      do {
+        value = value(item);
+        unit = item.getItemAmount();
+        gram = grams(item);
+        long valueChange = exchange(values, id, value);
+        long unitChange = exchange(units, id, unit);
+        long gramChange = exchange(grams, id, gram);
+        all.add(0, valueChange, unitChange, gramChange);
+        category.add(0, valueChange, unitChange, gramChange);
+        brand.add(0, valueChange, unitChange, gramChange);
+      } while (value(item) != value || item.getItemAmount() != unit || grams(item) != gram);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Atomically replace a contribution.
+   *
+   * @param contributions the contributions.
+   * @param id the id of the contribution.
+   * @param contribution the new contribution.
+   * @return the new contribution minus the one it replaced.
+   */
+  private static long exchange(long[] contributions, int id, long contribution) {
+    return contribution - (long) LONGS.getAndSet(contributions, id, contribution);
+  }
+
+
+  /**
+   * Add an Item to the totals at an id. Must be called while
+   * holding the write lock.
+   *
+   * @param id the id.
+   * @param item the Item.
+   */
+  private void insert(int id, Item item) {
+    Group category = categories[item.getItemCategoryAsInt()];
+    Group brand = brand(item.getItemBrandCode(), item.getItemBrand());
+    long value = value(item);
+    long unit = item.getItemAmount();
+    long gram = grams(item);
+
+    items[id] = item;
+    categoryOf[id] = category;
+    brandOf[id] = brand;
+    values[id] = value;
+    units[id] = unit;
+    grams[id] = gram;
+    all.add(1, value, unit, gram);
+    category.add(1, value, unit, gram);
+    brand.add(1, value, unit, gram);
+  }
+
+
+  /**
+   * Remove the Item at an id from the totals. Must be called
+   * while holding the write lock.
+   *
+   * @param id the id.
+   */
+  private void delete(int id) {
+    all.add(-1, -values[id], -units[id], -grams[id]);
+    categoryOf[id].add(-1, -values[id], -units[id], -grams[id]);
+    brandOf[id].add(-1, -values[id], -units[id], -grams[id]);
+    items[id] = null;
+    categoryOf[id] = null;
+    brandOf[id] = null;
+    values[id] = 0;
+    units[id] = 0;
+    grams[id] = 0;
+  }
+
+
+  /**
+   * Get the totals of the brand with a code in the dictionary
+   * of brands. The group of each code is looked up by its
+   * lowercased brand only once. Must be called while holding
+   * the write lock.
+   *
+   * @param code code of the brand in StringDictionary.BRANDS,
+   *      or StringDictionary.NONE if it has none.
+   * @param value the brand, looked up by itself if it has no code.
+   * @return the totals of the brand.
+   */
+  private Group brand(int code, String value) {
+    if (code == StringDictionary.NONE) {
+      return brands.computeIfAbsent(value.toLowerCase(Locale.ROOT), key -> new Group());
+    }
+    if (code >= brandByCode.length) {
+      brandByCode = Arrays.copyOf(brandByCode, Math.max(code + 1, brandByCode.length * 2));
+    }
+    Group group = brandByCode[code];
+    if (group == null) {
+      String brand = StringDictionary.BRANDS.decode(code).toLowerCase(Locale.ROOT);
+      group = brands.computeIfAbsent(brand, key -> new Group());
+      brandByCode[code] = group;
+    }
+    return group;
+  }
+
+
+  /**
+   * Compute the value in store of an Item.
+   *
+   * @param item the Item.
+   * @return its price times its amount.
+   */
+  private static long value(Item item) {
+    return (long) item.getItemPrice() * item.getItemAmount();
+  }
+
+
+  /**
+   * Compute the weight in store of an Item.
+   *
+   * @param item the Item.
+   * @return its weight times its amount, in whole grams.
+   */
+  private static long grams(Item item) {
+    return Math.round(item.getItemWeight() * GRAMS) * item.getItemAmount();
+  }
+
+
+  /**
+   * Make sure the arrays have room for a number of ids. Must
+   * be called while holding the write lock.
+   *
+   * @param required number of ids.
+   */
+  private void capacity(int required) {
+    if (required > items.length) {
+      int length = Math.max(required, items.length * 2);
+      items = Arrays.copyOf(items, length);
+      categoryOf = Arrays.copyOf(categoryOf, length);
+      brandOf = Arrays.copyOf(brandOf, length);
+      values = Arrays.copyOf(values, length);
+      units = Arrays.copyOf(units, length);
+      grams = Arrays.copyOf(grams, length);
+    }
+  }
+
+
+
+  /**
+   * The running totals of one group of Items.
+   */
+  private static final class Group {
+    /** Number of Items. */
+    private final LongAdder items = new LongAdder();
+    /** Sum of price times amount. */
+    private final LongAdder value = new LongAdder();
+    /** Sum of amounts. */
+    private final LongAdder units = new LongAdder();
+    /** Sum of weight times amount, in grams. */
+    private final LongAdder grams = new LongAdder();
+
+
+    /**
+     * Add to the totals.
+     *
+     * @param itemChange change of the number of Items.
+     * @param valueChange change of the value.
+     * @param unitChange change of the units.
+     * @param gramChange change of the weight in grams.
+     */
+    void add(long itemChange, long valueChange, long unitChange, long gramChange) {
+      if (itemChange != 0) {
+        items.add(itemChange);
+      }
+      if (valueChange != 0) {
+        value.add(valueChange);
+      }
+      if (unitChange != 0) {
+        units.add(unitChange);
+      }
+      if (gramChange != 0) {
+        grams.add(gramChange);
+      }
+    }
+
+
+    /**
+     * Read the totals.
+     *
+     * @return new Totals.
+     */
+    Totals read() {
+      return new Totals(items.sum(), value.sum(), units.sum(), grams.sum());
+    }
+  }
+
+
+
+  /**
+   * The totals of a group of Items at the time they were read.
+   */
+  public static final class Totals {
+    /** Number of Items. */
+    private final long items;
+    /** Sum of price times amount. */
+    private final long stockValue;
+    /** Sum of amounts. */
+    private final long units;
+    /** Sum of weight times amount, in grams. */
+    private final long grams;
+
+
+    /**
+     * Create totals.
+     *
+     * @param items number of Items.
+     * @param stockValue sum of price times amount.
+     * @param units sum of amounts.
+     * @param grams sum of weight times amount, in grams.
+     */
+    private Totals(long items, long stockValue, long units, long grams) {
+      this.items = items;
+      this.stockValue = stockValue;
+      this.units = units;
+      this.grams = grams;
+    }
+
+
+    /**
+     * Access the number of Items.
+     *
+     * @return number of Items.
+     */
+    public long getItems() {
+      return items;
+    }
+
+
+    /**
+     * Access the value in store.
+     *
+     * @return sum of price times amount.
+     */
+    public long getStockValue() {
+      return stockValue;
+    }
+
+
+    /**
+     * Access the units in store.
+     *
+     * @return sum of amounts.
+     */
+    public long getUnits() {
+      return units;
+    }
+
+
+    /**
+     * Access the weight in store.
+     *
+     * @return sum of weight times amount, in kg, to the nearest gram.
+     */
+    public double getWeight() {
+      return grams / GRAMS;
+    }
+
+
+    @Override
+    public String toString() {
+      return "Totals[items=" + items + ", stockValue=" + stockValue
+          + ", units=" + units + ", weight=" + getWeight() + "]";
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package no.ntnu.candidate10034;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared dictionary of the values of a String field which takes
+ * few distinct values, such as the brand or color of an Item.
+ *
+ * <p>Every distinct value is given a small int code the first
+ * time it is seen, and is then kept once for all the Items which
+ * use it. An Item stores only the code of its value, so a
+ * catalog of millions of Items keeps a few hundred Strings
+ * rather than one per Item, and equality and grouping on the
+ * field compare ints instead of Strings.
+ *
+ * <p>Values are matched exactly, case included, so that every
+ * Item gives back the value it was given. Codes are never reused
+ * or removed, so the dictionary is shared by every Warehouse and
+ * only grows with the number of distinct values ever used. As the
+ * values may come from untrusted input, it stops growing at
+ * {@link #CAPACITY} values: a new value after that gets no code,
+ * and the Item keeps the String itself. Decoding takes no lock,
+ * and encoding only locks to add a new value.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class StringDictionary {
+  /** Dictionary of the brands of all Items. */
+  public static final StringDictionary BRANDS = new StringDictionary();
+  /** Dictionary of the colors of all Items. */
+  public static final StringDictionary COLORS = new StringDictionary();
+
+  /** Largest number of values a dictionary gives a code. */
+  public static final int CAPACITY = 4096;
+  /** Result of encode for a new value when the dictionary is full. */
+  public static final int NONE = -1;
+
+  /** Code of each value. */
+  private final ConcurrentHashMap<String, Integer> codes;
+  /** Value of each code. Replaced as a whole when it grows. */
+  private volatile String[] values;
+  /** Number of codes given. Guarded by this. */
+  private int size;
+
+
+  /**
+   * Create an empty dictionary.
+   */
+  StringDictionary() {
+    this.codes = new ConcurrentHashMap<>();
+    this.values = new String[16];
+  }
+
+
+  /**
+   * Get the code of a value, giving it the next code if it
+   * is new and the dictionary is not full.
+   *
+   * @param value the value. Cannot be null.
+   * @return the code of the value, or NONE if it is new and
+   *      the dictionary holds CAPACITY values.
+   */
+  public int encode(String value) {
+    Integer code = codes.get(value);
+    return code != null ? code : add(value);
+  }
+
+
+  /**
+   * Get the code of a value, without adding it.
+   *
+   * @param value the value.
+   * @return the code of the value, or -1 if it has none.
+   */
+  public int lookup(String value) {
+    Integer code = value == null ? null : codes.get(value);
+    return code != null ? code : -1;
+  }
+
+
+  /**
+   * Get the value of a code.
+   *
+   * @param code a code given by this dictionary.
+   * @return the value.
+   */
+  public String decode(int code) {
+    return values[code];
+  }
+
+
+  /**
+   * Get the number of distinct values in the dictionary,
+   * which is one more than the highest code.
+   *
+   * @return number of values.
+   */
+  public int size() {
+    return codes.size();
+  }
+
+
+  /**
+   * Give a new value the next code, unless the dictionary is full.
+   *
+   * <p>The value is stored before its code is published in the
+   * map, so any thread which finds the code can decode it.
+   *
+   * @param value the value.
+   * @return the code of the value, or NONE if the dictionary is full.
+   */
+  private synchronized int add(String value) {
+    Integer code = codes.get(value);
+    if (code != null) {
+      return code;
+    }
+    if (size == CAPACITY) {
+      return NONE;
+    }
+
+    String[] current = values;
+    if (size == current.length) {
+      current = Arrays.copyOf(current, size * 2);
+    }
+    current[size] = value;
+    values = current;
+    codes.put(value, size);
+    return size++;
+  }
+}
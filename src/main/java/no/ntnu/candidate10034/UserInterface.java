@@ -1,7 +1,20 @@
 package no.ntnu.candidate10034;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
 import java.util.Scanner;
 
 /**
@@ -22,7 +35,7 @@ import java.util.Scanner;
  * an instance of this class.
  *
  * @since       2022-11-03
- * @version     2022-12-09
+ * @version     2026-10-17
  * @author      Candidate 10034
 */
 public class UserInterface {
@@ -70,6 +83,8 @@ public class UserInterface {
   private static final String HOME_OPTION_SEARCH_AND = "3";
   /** Home Menu option for displaying all items in the inventory along with their properties. */
   private static final String HOME_OPTION_SHOW_ALL = "4";
+  /** Home Menu option for writing all items in the inventory to a table or CSV file. */
+  private static final String HOME_OPTION_EXPORT = "5";
 
 
 
@@ -86,24 +101,25 @@ public class UserInterface {
   /** Universal option for exiting the application. */
   private static final String OPTION_EXIT = "0";
 
+  /** Most items suggested when a search has no exact match. */
+  private static final int MAX_SUGGESTIONS = 9;
+  /** Most typing errors tolerated when suggesting items. */
+  private static final int MAX_SPELLING_ERRORS = 2;
+
   /** Container for the item which is currently being created or searched for. */
   private static Item currentItem = null;
 
   /** Indicator for which menu to show next. */
   private static int nextMenu = 0;
 
-  /** Formatted list of the names of each field which the Item-class contains. */
-  private static final String[] FIELD_NAMES = new String[] {
-    "- Item number:   |  ",
-    "- Brand:         |  ",
-    "- Color:         |  ",
-    "- Description:   |  ",
-    "- Height:        |  ",
-    "- Length:        |  ",
-    "- Amount:        |  ",
-    "- Price:         |  ",
-    "- Category:      |  "
-  };
+  /** Log keeping the changes of the warehouse durable, or null if not persisted. */
+  private static WriteAheadLog log = null;
+
+  /** Snapshot written by the log when exiting, or null for none. */
+  private static Path snapshotFile = null;
+
+  /** Number of items shown on each page of the inventory. */
+  private static final int PAGE_SIZE = 25;
 
 
 
@@ -113,6 +129,161 @@ public class UserInterface {
   * ---------------------------------------------------------------------------------
   */
 
+  /**
+   * Restore the warehouse from a write-ahead log, and keep
+   * logging every change to it, before launching the User
+   * Interface.
+   *
+   * <p>If items were restored, the startup menu is skipped
+   * and the Home Menu is displayed right away.
+   *
+   * @param logFile the log file, created if missing.
+   * @param policy when logged changes are forced to disk.
+   */
+  public static void launch(Path logFile, FsyncPolicy policy) {
+    launch(logFile, null, policy);
+  }
+
+
+  /**
+   * Restore the warehouse from a snapshot and the write-ahead
+   * log following it, and keep logging every change, before
+   * launching the User Interface.
+   *
+   * <p>A new snapshot is written when exiting, so that the
+   * next start only has to map it instead of replaying the
+   * whole log.
+   *
+   * @param logFile the log file, created if missing.
+   * @param snapshot the snapshot file, or null for none.
+   * @param policy when logged changes are forced to disk.
+   */
+  public static void launch(Path logFile, Path snapshot, FsyncPolicy policy) {
+    openLog(logFile, snapshot, policy);
+
+    if (WAREHOUSE.size() > 0) {
+      System.out.println("\nRestored " + WAREHOUSE.size() + " items from " + logFile + ".");
+      nextMenu = 2;
+    }
+    launch();
+  }
+
+
+  /**
+   * Run a script of commands against the warehouse, without
+   * the menus, as described by {@link BatchRunner}.
+   *
+   * <p>Results and errors are written to STDOUT through a single
+   * buffered writer. The throughput is reported on STDERR at the
+   * end, so that it does not mix with the results. If a log file
+   * is given, the warehouse is restored from it first, every
+   * change is logged, and a snapshot is written at the end.
+   *
+   * @param script the script file, or "-" to read STDIN.
+   * @param logFile the log file, created if missing, or null
+   *      to keep the inventory in memory only.
+   * @param snapshot the snapshot file, or null for none.
+   * @param policy when logged changes are forced to disk.
+   * @return number of commands which failed.
+   */
+  public static long runBatch(String script, Path logFile, Path snapshot, FsyncPolicy policy) {
+    if (logFile != null) {
+      openLog(logFile, snapshot, policy);
+    }
+
+    BatchRunner runner = new BatchRunner(WAREHOUSE, consoleWriter());
+    try (Reader reader = "-".equals(script)
+        ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+        : Files.newBufferedReader(Path.of(script), StandardCharsets.UTF_8)
+    ) {
+      runner.run(reader);
+    } catch (IOException e) {
+      System.err.println("Could not run " + script + ": " + e.getMessage());
+      closeLog();
+      return runner.getFailed() + 1;
+    }
+
+    closeLog();
+    System.err.println(runner);
+    return runner.getFailed();
+  }
+
+
+  /**
+   * Serve the warehouse through the HTTP API of
+   * {@link WarehouseServer}, the binary stock protocol of
+   * {@link StockServer}, or both, without the menus, until the
+   * application is stopped.
+   *
+   * <p>If a log file is given, the warehouse is restored from it
+   * first and every change is logged. When the application is
+   * stopped, the servers are closed, a snapshot is written and
+   * the log is closed.
+   *
+   * @param httpPort port of the HTTP API, 0 for any free port,
+   *      or -1 for no HTTP API.
+   * @param stockPort port of the stock protocol, 0 for any free
+   *      port, or -1 for no stock protocol.
+   * @param logFile the log file, created if missing, or null
+   *      to keep the inventory in memory only.
+   * @param snapshot the snapshot file, or null for none.
+   * @param policy when logged changes are forced to disk.
+   */
+  public static void serve(
+      int httpPort, int stockPort, Path logFile, Path snapshot, FsyncPolicy policy
+  ) {
+    if (logFile != null) {
+      openLog(logFile, snapshot, policy);
+    }
+
+    WarehouseServer httpServer = null;
+    StockServer stockServer = null;
+    try {
+      if (httpPort >= 0) {
+        httpServer = WarehouseServer.start(
+            WAREHOUSE, new InetSocketAddress(httpPort), WarehouseServer.DEFAULT_THREADS
+        );
+        System.out.println("Serving " + WAREHOUSE.size() + " items on http://localhost:"
+            + httpServer.getPort() + "/items"
+            + (httpServer.isVirtualThreads() ? " on virtual threads." : " on a pool of threads."));
+      }
+      if (stockPort >= 0) {
+        stockServer = StockServer.start(
+            WAREHOUSE, new InetSocketAddress(stockPort), StockServer.DEFAULT_LOOPS
+        );
+        System.out.println("Serving " + WAREHOUSE.size() + " items to scanners on port "
+            + stockServer.getPort() + ".");
+      }
+    } catch (IOException e) {
+      System.out.println("Could not listen: " + e.getMessage());
+      if (httpServer != null) {
+        httpServer.close();
+      }
+      closeLog();
+      System.exit(1);
+    }
+
+    WarehouseServer runningHttp = httpServer;
+    StockServer runningStock = stockServer;
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      if (runningHttp != null) {
+        runningHttp.close();
+      }
+      if (runningStock != null) {
+        runningStock.close();
+      }
+      closeLog();
+    }));
+
+    /* Runs until the application is stopped, which runs the shutdown hook. */
+    try {
+      new CountDownLatch(1).await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+
   /**
    * Launch the User Interface and activate the displaying of
    * the Home Menu.
@@ -291,6 +462,10 @@ public class UserInterface {
           selected = true;
           showAll();
           break;
+        case HOME_OPTION_EXPORT:  // User would like to save the inventory to a file.
+          selected = true;
+          export();
+          break;
         default:
           /* The input was not recognized as a valid option. */
           System.out.println("\nOption \"" + input + "\" is not available.");
@@ -376,37 +551,74 @@ public class UserInterface {
     System.out.println("   2. Search for item (name or description). ");
     System.out.println("   3. Search for item (name and description).");
     System.out.println("   4. Show all items in the inventory.");
+    System.out.println("   5. Export the inventory to a file.");
     System.out.println("   0. Exit.");
   }
 
 
 
   /**
-   * Prints all items in the register to the console along with all their
-   * field values.
+   * Prints all items in the register to the console as a table,
+   * one page at a time, letting the user stop after any page.
    */
   private static void showAll() {
+    InventoryReport report = new InventoryReport(InventoryReport.Layout.TABLE, PAGE_SIZE);
 
-    /* Retrieves all items in the register along with an iterator. */
-    LinkedHashSet<Item> items = WAREHOUSE.getItems();
-    Iterator<Item> iterator = getIterator(items);
-
-    System.out.println("\n\n              ITEMS IN WAREHOUSE:");
-    System.out.println("--------------------------------------------------");
-    /* Iterates over all items in the LinkedHashSet. */
-    while (iterator.hasNext()) {
-      String[] fields = iterator.next().getAllFields();
+    /* Retrieves a live view of all items in the register, without copying it. */
+    Iterator<Item> iterator = WAREHOUSE.getItemsView().iterator();
+    Writer out = consoleWriter();
 
-      /* Prints all field values for each Item. */
-      for (int index = 0; index < fields.length - 1; index++) {
-        System.out.println(FIELD_NAMES[index] + fields[index]);
+    System.out.println("\n\n              ITEMS IN WAREHOUSE:\n");
+    scanner.nextLine();
+    try {
+      /* Writes a page at a time, until the items run out or the user stops. */
+      for (int page = 1; page == 1 || iterator.hasNext(); page++) {
+        report.writePage(iterator, page, out);
+        if (iterator.hasNext()) {
+          System.out.print("\nPress Enter for the next page, or q to stop: ");
+          if ("q".equalsIgnoreCase(scanner.nextLine().trim())) {
+            break;
+          }
+        }
       }
-      System.out.println("--------------------------------------------------");
+    } catch (IOException e) {
+      System.out.println("Could not show the items: " + e.getMessage());
     }
     System.out.println("\n\n");
   }
 
 
+  /**
+   * Writes all items in the register to a file chosen by the user,
+   * as CSV if its name ends with ".csv", otherwise as a table.
+   */
+  private static void export() {
+    System.out.print("\nFile to write: ");
+    scanner.nextLine();
+    String file = scanner.nextLine().trim();
+
+    InventoryReport.Layout layout = file.toLowerCase(Locale.ROOT).endsWith(".csv")
+        ? InventoryReport.Layout.CSV : InventoryReport.Layout.TABLE;
+    try {
+      long written = new InventoryReport(layout, 0).write(WAREHOUSE.getItemsView(), Path.of(file));
+      System.out.println("\n" + written + " items written to " + file + ".");
+    } catch (IOException | InvalidPathException e) {
+      System.out.println("\nCould not write " + file + ": " + e.getMessage());
+    }
+  }
+
+
+  /**
+   * Creates a buffered writer to STDOUT, which is flushed but
+   * never closed.
+   *
+   * @return new Writer.
+   */
+  private static Writer consoleWriter() {
+    return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+  }
+
+
 
 
 
@@ -445,11 +657,14 @@ public class UserInterface {
     }
 
     if (delete) { /* Deletion is chosen, item is deleted and user is redirected to home menu. */
-      System.out.println("Item has been removed.");
-      WAREHOUSE.deleteCurrentItem(
+      if (WAREHOUSE.deleteCurrentItem(
           currentItem, currentItem.getItemNumber(),
           currentItem.getItemDescription()
-      );  
+      )) {
+        System.out.println("Item has been removed.");
+      } else { /* Another client removed it first. */
+        System.out.println("Item was already removed.");
+      }
       currentItem = null;
       nextMenu = 2;
     } else { /* Delettion is aborted, and user is redirected to item menu. */
@@ -488,9 +703,9 @@ public class UserInterface {
     }
     int currentprice = currentItem.getItemPrice();
 
-    /* Calculates the remaining price when applying the discount. */
+    /* Calculates the remaining price when applying the discount, as a long to avoid overflow. */
     int remainder = 100 - number;
-    int discount = (currentprice * remainder) / 100;
+    int discount = (int) ((long) currentprice * remainder / 100);
 
     /* Sets the price to be the current price - the given percentage.*/
     currentItem.setItemPrice(discount);
@@ -561,9 +776,12 @@ public class UserInterface {
       }
     }
     /* Increases the item amount. */
-    int newAmount = currentItem.getItemAmount() + number;
-    currentItem.setItemAmount(newAmount);
-    System.out.println("\nItem amount increased by " + number + ".");
+    try {
+      WAREHOUSE.adjustAmount(currentItem.getItemNumber(), number);
+      System.out.println("\nItem amount increased by " + number + ".");
+    } catch (IllegalArgumentException e) { /* Amount would no longer fit. */
+      System.out.println("\nItem amount could not be increased by " + number + ".");
+    }
   }
 
 
@@ -598,10 +816,17 @@ public class UserInterface {
       }
     }
 
-    /* Decreases the amount of the item. */
-    int newAmount = currentAmount - number;
-    currentItem.setItemAmount(newAmount);
-    System.out.println("\nItem amount decreased by " + number + ".");
+    /*
+    * Decreases the amount of the item. Another user may have picked
+    * from the same item in the meantime, which makes the adjustment
+    * fail rather than bringing the amount below zero.
+    */
+    try {
+      WAREHOUSE.adjustAmount(currentItem.getItemNumber(), -number);
+      System.out.println("\nItem amount decreased by " + number + ".");
+    } catch (IllegalArgumentException e) { /* Not enough items left in store. */
+      System.out.println("\nOnly " + currentItem.getItemAmount() + " items left in store.");
+    }
   }
 
 
@@ -736,24 +961,56 @@ public class UserInterface {
   */
 
   /**
-   * Get an iterator object for the LinkedHashSet containing the items
-   * present in the register.
+   * Exits the application and terminates the program.
+   */
+  private static void exit() {
+    /* Makes sure every change is written before terminating. */
+    closeLog();
+
+    System.out.println("\n\n--------------------------------------------------");
+    System.out.println(" Thank you for using Warehouse Management System");
+    System.exit(0);
+  }
+
+
+  /**
+   * Restore the warehouse from a snapshot and the write-ahead
+   * log following it, and keep logging every change. Exits the
+   * application if the log cannot be opened.
    *
-   * @param items the LinkedHashSet containing the items.
-   * @return new iterator.
+   * @param logFile the log file, created if missing.
+   * @param snapshot the snapshot file, or null for none.
+   * @param policy when logged changes are forced to disk.
    */
-  private static Iterator<Item> getIterator(final LinkedHashSet<Item> items) {
-    return items.iterator();
+  private static void openLog(Path logFile, Path snapshot, FsyncPolicy policy) {
+    snapshotFile = snapshot;
+    try {
+      log = WriteAheadLog.open(
+          logFile, snapshot, policy, WriteAheadLog.DEFAULT_INTERVAL_MILLIS, WAREHOUSE
+      );
+    } catch (IOException e) {
+      System.out.println("Could not open " + logFile + ": " + e.getMessage());
+      System.exit(1);
+    }
   }
 
 
   /**
-   * Exits the application and terminates the program.
+   * Write a snapshot if one is kept, and close the log, so that
+   * every change is on disk. Does nothing if there is no log.
    */
-  private static void exit() {
-    System.out.println("\n\n--------------------------------------------------");
-    System.out.println(" Thank you for using Warehouse Management System");
-    System.exit(0);
+  private static void closeLog() {
+    if (log != null) {
+      try {
+        if (snapshotFile != null) {
+          log.checkpoint(snapshotFile);
+        }
+        log.close();
+      } catch (IOException e) {
+        System.out.println("\nSome changes could not be saved: " + e.getMessage());
+      }
+      log = null;
+    }
   }
 
 
@@ -777,6 +1034,18 @@ public class UserInterface {
 
     currentItem = WAREHOUSE.search(search);
 
+    /*
+    * Without an exact match, offers the items beginning with
+    * the search string, or else those with a similar spelling.
+    */
+    if (currentItem == null && !search.isEmpty()) {
+      List<Item> suggestions = WAREHOUSE.searchPrefix(search, MAX_SUGGESTIONS);
+      if (suggestions.isEmpty()) {
+        suggestions = WAREHOUSE.searchFuzzy(search, MAX_SPELLING_ERRORS, MAX_SUGGESTIONS);
+      }
+      currentItem = chooseItem(suggestions);
+    }
+
     /*
     * Checks if the search resulted in a found item
     * or if there were no matches.
@@ -794,6 +1063,47 @@ public class UserInterface {
 
 
 
+  /**
+   * Lists the items which a search might have meant, and lets
+   * the user pick one of them.
+   *
+   * @param suggestions the items to choose between.
+   * @return the chosen Item, or null if none was chosen.
+   */
+  private static Item chooseItem(List<Item> suggestions) {
+    if (suggestions.isEmpty()) {
+      return null;
+    }
+
+    System.out.println("\nNo exact match. Did you mean:");
+    for (int index = 0; index < suggestions.size(); index++) {
+      Item item = suggestions.get(index);
+      System.out.println("   " + (index + 1) + ". " + item.getItemNumber()
+          + " - " + item.getItemDescription());
+    }
+    System.out.println("   0. None of these.");
+
+    while (true) {
+      System.out.print("Your option: ");
+      String input = scanner.nextLine().trim();
+      try {
+        int choice = Integer.parseInt(input);
+        if (choice == 0) {
+          return null;
+        }
+        if (choice > 0 && choice <= suggestions.size()) {
+          return suggestions.get(choice - 1);
+        }
+      } catch (NumberFormatException e) {
+        /* Falls through to asking again. */
+      }
+      System.out.println("\nOption \"" + input + "\" is not available.");
+      System.out.println("Please try again.");
+    }
+  }
+
+
+
   /**
    * Prompts the user to enter two different string which will be used by
    * the warehouse instance to search for a specific item by both its
@@ -0,0 +1,85 @@
+package no.ntnu.candidate10034;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes Strings as UTF-8 straight into a ByteBuffer, without
+ * the temporary byte array of <code>String.getBytes</code>.
+ *
+ * <p>Unpaired surrogates are encoded as '?', the same as the
+ * UTF-8 Charset does, so the result can be decoded with it.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+final class Utf8 {
+
+  /** Utility class, not to be instantiated. */
+  private Utf8() {
+  }
+
+
+  /**
+   * Count the UTF-8 bytes of a String without encoding it.
+   *
+   * @param value the String.
+   * @return number of UTF-8 bytes.
+   */
+  static int length(String value) {
+    int bytes = 0;
+    int length = value.length();
+
+    for (int index = 0; index < length; index++) {
+      char c = value.charAt(index);
+      if (c < 0x80) {
+        bytes += 1;
+      } else if (c < 0x800) {
+        bytes += 2;
+      } else if (Character.isHighSurrogate(c) && index + 1 < length
+          && Character.isLowSurrogate(value.charAt(index + 1))) {
+        bytes += 4;
+        index++;
+      } else if (Character.isSurrogate(c)) {
+        bytes += 1;
+      } else {
+        bytes += 3;
+      }
+    }
+    return bytes;
+  }
+
+
+  /**
+   * Write the UTF-8 bytes of a String at the position of a buffer.
+   *
+   * @param buffer the buffer to write to.
+   * @param value the String.
+   */
+  static void encode(ByteBuffer buffer, String value) {
+    int length = value.length();
+
+    for (int index = 0; index < length; index++) {
+      char c = value.charAt(index);
+      if (c < 0x80) {
+        buffer.put((byte) c);
+      } else if (c < 0x800) {
+        buffer.put((byte) (0xC0 | (c >> 6)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      } else if (Character.isHighSurrogate(c) && index + 1 < length
+          && Character.isLowSurrogate(value.charAt(index + 1))) {
+        int codePoint = Character.toCodePoint(c, value.charAt(++index));
+        buffer.put((byte) (0xF0 | (codePoint >> 18)));
+        buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+        buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+      } else if (Character.isSurrogate(c)) {
+        buffer.put((byte) '?');
+      } else {
+        buffer.put((byte) (0xE0 | (c >> 12)));
+        buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      }
+    }
+  }
+}
@@ -0,0 +1,644 @@
+package no.ntnu.candidate10034;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Registry of immutable versions of the Items of a Warehouse,
+ * from which point-in-time views are taken.
+ *
+ * <p>Items are changed in place by their setters, so a report
+ * which lists the Items and then reads their fields can see some
+ * changes and not others. This registry instead keeps a copy of
+ * the fields of every Item, a {@link Version}, in a persistent
+ * tree of 32-way nodes indexed by the position of the Item in
+ * the warehouse. A change never alters a node: it copies the few
+ * nodes on the path to the Item, and swaps in the new root with
+ * a compare-and-set. A {@link View} is nothing but a root, so it
+ * is taken in constant time, never changes, and never holds up a
+ * writer. The versions and nodes only a view still uses are
+ * freed by the garbage collector once no view holds them.
+ *
+ * <p>The registry is kept up to date as a WarehouseListener, and
+ * each change copies about 700 bytes, so it is created only when
+ * the first view is asked for, by {@link Warehouse#view()}.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class VersionedRegistry implements WarehouseListener {
+  /** Bits of the position used at each level of the tree. */
+  private static final int BITS = 5;
+  /** Children of a node. */
+  private static final int WIDTH = 1 << BITS;
+  /** Mask of the bits of the position used at one level. */
+  private static final int MASK = WIDTH - 1;
+  /** Failed attempts after which a writer lets other threads run. */
+  private static final int SPINS = 64;
+
+  /** Handle used for swapping in a new tree. */
+  private static final VarHandle TREE;
+
+  static {
+    try {
+      TREE = MethodHandles.lookup().findVarHandle(VersionedRegistry.class, "tree", Tree.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /** The current versions. Replaced as a whole on every change. */
+  private volatile Tree tree;
+
+
+  /**
+   * Create an empty registry.
+   */
+  VersionedRegistry() {
+    this.tree = Tree.build(new Version[0], 0);
+  }
+
+
+  /**
+   * Add the Items of a warehouse to the registry.
+   *
+   * <p>Must be called after the registry has been registered as
+   * a listener, while the warehouse is locked for writing, so
+   * that no change is missed.
+   *
+   * @param items the insertion order of the warehouse.
+   * @param end number of used positions in items.
+   */
+  void load(Item[] items, int end) {
+    Version[] versions = new Version[end];
+    for (int index = 0; index < end; index++) {
+      if (items[index] != null) {
+        versions[index] = new Version(items[index]);
+      }
+    }
+    tree = Tree.build(versions, end);
+  }
+
+
+  /**
+   * Take a view of the current versions.
+   *
+   * <p>The view shows every change made before it was taken
+   * whole. To keep changes made under the write lock of the
+   * warehouse whole as well, views are taken by
+   * {@link Warehouse#view()} while that lock is free.
+   *
+   * @return new View.
+   */
+  View view() {
+    return new View(tree);
+  }
+
+
+
+  /*
+  * PUBLISHING
+  * ----------------------------------------------------------------
+  */
+
+  @Override
+  public void itemAdded(Item item) {
+    /*
+     * Called under the write lock with the Item at its new
+     * position, which nothing else writes to. Should a listener
+     * after this one abort the addition, the position is taken
+     * by the next Item added, or dropped when renumbered.
+     */
+    Tree current;
+    do {
+      current = tree;
+    } while (!TREE.compareAndSet(this, current, current.set(item.slot, new Version(item))));
+  }
+
+
+  @Override
+  public void itemRemoved(Item item) {
+    Tree current;
+    do {
+      current = tree;
+    } while (!TREE.compareAndSet(this, current, current.set(item.slot, null)));
+  }
+
+
+  @Override
+  public void amountChanged(Item item, int oldAmount, int newAmount) {
+    publish(item);
+  }
+
+
+  @Override
+  public void priceChanged(Item item, int oldPrice, int newPrice) {
+    publish(item);
+  }
+
+
+  @Override
+  public void fieldChanged(Item item, ItemField field) {
+    publish(item);
+  }
+
+
+  @Override
+  public void itemsRenumbered() {
+    Tree current;
+    Tree renumbered;
+    do {
+      current = tree;
+      renumbered = current.renumber();
+    } while (!TREE.compareAndSet(this, current, renumbered));
+  }
+
+
+  /**
+   * Replace the version of an Item by a copy of its fields now.
+   *
+   * <p>The fields are read after the change and again after any
+   * other change swaps in a tree first, so the last version put
+   * in is always read after the last change, even when several
+   * threads change the same Item at once. The version at the
+   * position of the Item must be of the Item itself: while the
+   * warehouse is renumbering, adding or deleting it, the writer
+   * waits for that to be put in, and an Item no longer in the
+   * warehouse is left alone.
+   *
+   * @param item the Item which changed.
+   */
+  private void publish(Item item) {
+    for (int attempt = 1; ; attempt++) {
+      Tree current = tree;
+      int slot = item.slot;
+      if (slot < 0) {
+        return;
+      }
+      Version version = current.get(slot);
+      if (version != null && version.item == item) {
+        if (TREE.compareAndSet(this, current, current.set(slot, new Version(item)))) {
+          return;
+        }
+      } else if (attempt % SPINS == 0) {
+        Thread.yield();
+      } else {
+        Thread.onSpinWait();
+      }
+    }
+  }
+
+
+
+  /*
+  * TREE
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * An immutable tree of versions by position. Inner nodes hold
+   * up to 32 nodes, and leaves up to 32 versions.
+   */
+  private static final class Tree {
+    /** The root node. */
+    private final Object[] root;
+    /** Bits of the position below the root, 0 if the root is a leaf. */
+    private final int shift;
+    /** One past the highest position which has held a version. */
+    private final int end;
+    /** Number of versions. */
+    private final int count;
+
+    /**
+     * Create a tree.
+     *
+     * @param root the root node.
+     * @param shift bits of the position below the root.
+     * @param end one past the highest position used.
+     * @param count number of versions.
+     */
+    private Tree(Object[] root, int shift, int end, int count) {
+      this.root = root;
+      this.shift = shift;
+      this.end = end;
+      this.count = count;
+    }
+
+    /**
+     * Build a tree bottom up from versions by position.
+     *
+     * @param versions the versions, null where there is none.
+     * @param end number of positions of versions used.
+     * @return new Tree.
+     */
+    static Tree build(Version[] versions, int end) {
+      int count = 0;
+      Object[][] nodes = new Object[Math.max(1, (end + MASK) / WIDTH)][];
+      for (int leaf = 0; leaf < nodes.length; leaf++) {
+        nodes[leaf] = new Object[WIDTH];
+        int from = leaf * WIDTH;
+        for (int index = from; index < Math.min(end, from + WIDTH); index++) {
+          if (versions[index] != null) {
+            nodes[leaf][index - from] = versions[index];
+            count++;
+          }
+        }
+      }
+
+      int shift = 0;
+      while (nodes.length > 1) {
+        Object[][] parents = new Object[(nodes.length + MASK) / WIDTH][];
+        for (int parent = 0; parent < parents.length; parent++) {
+          parents[parent] = new Object[WIDTH];
+          int from = parent * WIDTH;
+          System.arraycopy(
+              nodes, from, parents[parent], 0, Math.min(WIDTH, nodes.length - from)
+          );
+        }
+        nodes = parents;
+        shift += BITS;
+      }
+      return new Tree(nodes[0], shift, end, count);
+    }
+
+    /**
+     * Get the version at a position.
+     *
+     * @param index the position.
+     * @return the Version, or null if there is none.
+     */
+    Version get(int index) {
+      if (index >= end) {
+        return null;
+      }
+      Object[] node = root;
+      for (int level = shift; level > 0 && node != null; level -= BITS) {
+        node = (Object[]) node[(index >>> level) & MASK];
+      }
+      return node == null ? null : (Version) node[index & MASK];
+    }
+
+    /**
+     * Get the leaf holding a position.
+     *
+     * @param index the position.
+     * @return the leaf, or null if there is none.
+     */
+    Object[] leaf(int index) {
+      Object[] node = root;
+      for (int level = shift; level > 0 && node != null; level -= BITS) {
+        node = (Object[]) node[(index >>> level) & MASK];
+      }
+      return node;
+    }
+
+    /**
+     * Create a tree with the version at one position replaced,
+     * sharing every node off the path to it.
+     *
+     * @param index the position.
+     * @param version the new Version, or null for none.
+     * @return new Tree.
+     */
+    Tree set(int index, Version version) {
+      Object[] top = root;
+      int height = shift;
+      while (height < Integer.SIZE - BITS && index >>> (height + BITS) != 0) {
+        Object[] grown = new Object[WIDTH];
+        grown[0] = top;
+        top = grown;
+        height += BITS;
+      }
+      int counted = count + (version != null ? 1 : 0) - (get(index) != null ? 1 : 0);
+      return new Tree(
+          set(top, height, index, version), height, Math.max(end, index + 1), counted
+      );
+    }
+
+    /**
+     * Copy the path from a node down to a position, with the
+     * version at the position replaced.
+     *
+     * @param node the node, or null if there is none yet.
+     * @param level bits of the position below the node.
+     * @param index the position.
+     * @param version the new Version, or null.
+     * @return the copy of the node.
+     */
+    private static Object[] set(Object[] node, int level, int index, Version version) {
+      Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+      if (level == 0) {
+        copy[index & MASK] = version;
+      } else {
+        int child = (index >>> level) & MASK;
+        copy[child] = set((Object[]) copy[child], level - BITS, index, version);
+      }
+      return copy;
+    }
+
+    /**
+     * Build a tree with each version at the current position of
+     * its Item, after the warehouse has been compacted. Versions
+     * of Items no longer in the warehouse are left out.
+     *
+     * @return new Tree.
+     */
+    Tree renumber() {
+      Version[] versions = new Version[count];
+      int used = 0;
+      for (Version version : new View(this)) {
+        int slot = version.item.slot;
+        if (slot >= 0) {
+          if (slot >= versions.length) {
+            versions = Arrays.copyOf(versions, Math.max(slot + 1, versions.length * 2));
+          }
+          versions[slot] = version;
+          used = Math.max(used, slot + 1);
+        }
+      }
+      return build(versions, used);
+    }
+  }
+
+
+
+  /*
+  * VERSIONS AND VIEWS
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * The fields of an Item at one moment. Never changes.
+   */
+  public static final class Version {
+    /** The Item this is a version of. */
+    private final Item item;
+    /** itemNumber at the time. */
+    private final String number;
+    /** Brand at the time. */
+    private final String brand;
+    /** Color at the time. */
+    private final String color;
+    /** itemDescription at the time. */
+    private final String description;
+    /** Weight at the time. */
+    private final double weight;
+    /** Length at the time. */
+    private final double length;
+    /** Height at the time. */
+    private final double height;
+    /** Price at the time. */
+    private final int price;
+    /** Amount in store at the time. */
+    private final int amount;
+    /** Category at the time, as an index from 0. */
+    private final int category;
+
+    /**
+     * Copy the current fields of an Item.
+     *
+     * @param item the Item.
+     */
+    Version(Item item) {
+      this.item = item;
+      this.number = item.getItemNumber();
+      this.brand = item.getItemBrand();
+      this.color = item.getItemColor();
+      this.description = item.getItemDescription();
+      this.weight = item.getItemWeight();
+      this.length = item.getItemLength();
+      this.height = item.getItemHeight();
+      this.price = item.getItemPrice();
+      this.amount = item.getItemAmount();
+      this.category = item.getItemCategoryAsInt();
+    }
+
+    /**
+     * Get the live Item this is a version of.
+     *
+     * @return the Item.
+     */
+    public Item getItem() {
+      return item;
+    }
+
+    /**
+     * Get the itemNumber.
+     *
+     * @return String itemNumber.
+     */
+    public String getItemNumber() {
+      return number;
+    }
+
+    /**
+     * Get the brand.
+     *
+     * @return String brand.
+     */
+    public String getItemBrand() {
+      return brand;
+    }
+
+    /**
+     * Get the color.
+     *
+     * @return String color.
+     */
+    public String getItemColor() {
+      return color;
+    }
+
+    /**
+     * Get the itemDescription.
+     *
+     * @return String itemDescription.
+     */
+    public String getItemDescription() {
+      return description;
+    }
+
+    /**
+     * Get the weight in kilograms.
+     *
+     * @return double weight.
+     */
+    public double getItemWeight() {
+      return weight;
+    }
+
+    /**
+     * Get the length in meters.
+     *
+     * @return double length.
+     */
+    public double getItemLength() {
+      return length;
+    }
+
+    /**
+     * Get the height in meters.
+     *
+     * @return double height.
+     */
+    public double getItemHeight() {
+      return height;
+    }
+
+    /**
+     * Get the price.
+     *
+     * @return int price.
+     */
+    public int getItemPrice() {
+      return price;
+    }
+
+    /**
+     * Get the amount in store.
+     *
+     * @return int amount.
+     */
+    public int getItemAmount() {
+      return amount;
+    }
+
+    /**
+     * Get the category as an integer.
+     *
+     * @return int category.
+     */
+    public int getItemCategoryAsInt() {
+      return category;
+    }
+  }
+
+
+  /**
+   * The versions of all Items at one moment. Never changes, and
+   * can be read from any number of threads while the warehouse
+   * goes on changing.
+   */
+  public static final class View implements Iterable<Version> {
+    /** The tree at the moment of the view. */
+    private final Tree tree;
+
+    /**
+     * Create a view.
+     *
+     * @param tree the tree at the moment of the view.
+     */
+    private View(Tree tree) {
+      this.tree = tree;
+    }
+
+    /**
+     * Get the number of Items in the view.
+     *
+     * @return number of Items.
+     */
+    public int size() {
+      return tree.count;
+    }
+
+    /**
+     * Get the version of an Item in the view.
+     *
+     * @param item the Item.
+     * @return its Version, or null if it was not in the warehouse.
+     */
+    public Version get(Item item) {
+      int slot = item.slot;
+      Version version = slot >= 0 ? tree.get(slot) : null;
+      if (version != null && version.item == item) {
+        return version;
+      }
+      /* The Item has moved or gone since the view was taken. */
+      for (Version candidate : this) {
+        if (candidate.item == item) {
+          return candidate;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Get the value of the stock, the sum of price times amount
+     * over the Items.
+     *
+     * @return the value of the stock.
+     */
+    public long getStockValue() {
+      long value = 0;
+      for (Version version : this) {
+        value += (long) version.price * version.amount;
+      }
+      return value;
+    }
+
+    /**
+     * Get the versions in the order their Items were added.
+     *
+     * @return new Iterator.
+     */
+    @Override
+    public Iterator<Version> iterator() {
+      return new Iterator<Version>() {
+        /** Leaf holding the next position. */
+        private Object[] leaf;
+        /** Next position to look at. */
+        private int index;
+        /** The next version, or null if it has not been found yet. */
+        private Version next;
+
+        @Override
+        public boolean hasNext() {
+          while (next == null && index < tree.end) {
+            if ((index & MASK) == 0 || leaf == null) {
+              leaf = tree.leaf(index);
+            }
+            if (leaf == null) {
+              index = (index | MASK) + 1;
+            } else {
+              next = (Version) leaf[index & MASK];
+              index++;
+            }
+          }
+          return next != null;
+        }
+
+        @Override
+        public Version next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          Version version = next;
+          next = null;
+          return version;
+        }
+      };
+    }
+
+    /**
+     * Get the versions as a sequential Stream, in the order their
+     * Items were added.
+     *
+     * @return new Stream of the versions.
+     */
+    public Stream<Version> stream() {
+      return StreamSupport.stream(
+          Spliterators.spliterator(iterator(), tree.count,
+              Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE),
+          false
+      );
+    }
+  }
+}
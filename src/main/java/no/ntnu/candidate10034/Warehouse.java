@@ -1,64 +1,211 @@
 package no.ntnu.candidate10034;
 
-import java.util.LinkedHashMap;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-/** 
+/**
  * Represents an Item registry for the Warehouse.
  *
- * <p>Instances of the Item class is stored in a 
- * LinkedHashMap, making it possible to access
- * and modify entries, as well as creating new
- * instances and delete them.
+ * <p>Instances of the Item class are kept in an array in the
+ * order they were added, together with two KeyIndexes
+ * indexing them by ItemNumber and by ItemDescription, ignoring
+ * case without allocating on lookup. This
+ * makes it possible to access and modify entries, as well as
+ * creating new instances and delete them.
+ *
+ * <p>The registry is safe for use by several threads at
+ * once. Lookups never take a lock, while insertions and
+ * deletions are serialized by a StampedLock so that both
+ * keys of an Item always appear and disappear together.
  *
  * @since       2022-10-12
- * @version     2022-12-08
+ * @version     2026-10-17
  * @author      Candidate 10034
 */
 public class Warehouse {
-  /** Contains Item-instances identifyed by both ItemNumber and ItemDescription. */
-  private LinkedHashMap<String, Item> items;
+  /** Initial capacity of the insertion order. */
+  private static final int INITIAL_CAPACITY = 16;
+  /** Smallest number of positions worth repricing on a thread of its own. */
+  private static final int REPRICE_PARTITION = 1 << 14;
+  /** Result of tryAdjustAmount for an Item which is not registered here. */
+  private static final int NOT_REGISTERED = -2;
+  /** Optimistic attempts of view before it takes the read lock. */
+  private static final int VIEW_ATTEMPTS = 4;
+
+  /** Primary index of the Items, by ItemNumber ignoring case. Changed under the lock. */
+  private final KeyIndex numberIndex;
+  /** Secondary index of the Items, by ItemDescription ignoring case. Changed under the lock. */
+  private final KeyIndex descriptionIndex;
+  /** Serializes writers and lets the two-key search validate its reads. */
+  private final StampedLock lock;
+  /**
+   * Shared by the changes of Items made without the lock while
+   * a WriteAheadLog is attached, and held exclusively by its
+   * checkpoints. Reentrant, since a listener may change an Item.
+   */
+  private final ReentrantReadWriteLock changeLock;
+
+  /**
+   * Registered Items in the order they were added. Deleted Items
+   * leave a null behind until the array is compacted. Replaced,
+   * never resized in place, so that readers can keep using the
+   * array they started with.
+   */
+  private volatile Item[] slots;
+  /** Number of used positions in slots. Written under the lock. */
+  private volatile int tail;
+  /** Number of registered Items. Written under the lock. */
+  private volatile int size;
+  /** Read-only live view of the registered Items. */
+  private final Collection<Item> itemsView;
+  /** Listeners told about changes. Replaced as a whole when changed. */
+  private volatile WarehouseListener[] listeners;
+  /** Column store of the numeric fields, or null until asked for. */
+  private volatile ItemColumns columns;
+  /** Bitmap indexes of brand, color and category, or null until asked for. */
+  private volatile AttributeIndex attributes;
+  /** Sorted indexes of price, weight and amount, or null until asked for. */
+  private volatile RangeIndex ranges;
+  /** Running totals per category and brand, or null until asked for. */
+  private volatile StockTotals totals;
+  /** Feed of the changes to the Items, or null until asked for. */
+  private volatile ChangeFeed changes;
+  /** Immutable versions of the Items, or null until a view is asked for. */
+  private volatile VersionedRegistry versions;
+  /** Radix tree of the keys of numberIndex, or null until searched. Guarded by lock. */
+  private volatile SearchIndex numberSearch;
+  /** Radix tree of the keys of descriptionIndex, or null until searched. Guarded by lock. */
+  private volatile SearchIndex descriptionSearch;
+  /** Counters and latency histograms of the operations. */
+  private final WarehouseMetrics metrics;
+  /** Log of the changes waited for after each one, or null. Owned by WriteAheadLog. */
+  volatile WriteAheadLog log;
 
 
   /**
    * Constructor creating a new, empty instance of the Warehouse class.
    */
   public Warehouse() {
-    this.items = new LinkedHashMap<>();
-  }    
+    this.numberIndex = new KeyIndex();
+    this.descriptionIndex = new KeyIndex();
+    this.lock = new StampedLock();
+    this.changeLock = new ReentrantReadWriteLock();
+    this.slots = new Item[INITIAL_CAPACITY];
+    this.tail = 0;
+    this.size = 0;
+    this.itemsView = new ItemsView();
+    this.listeners = new WarehouseListener[0];
+    this.metrics = new WarehouseMetrics(this);
+  }
 
   /**
    * Get all Item instances associated with this warehouse
-   * as an array without duplicates.
+   * as a set without duplicates.
    *
-   * <p>Since there are two entries for each Item instance in
-   * the LinkedHashMap identified by both ItemNumber as well
-   * as ItemDescription, this method will return all the values
-   * of the LinkedHashMap as a LinkedHashSet. This will ensure
-   * that all duplicates of the Item instances are removed
-   * before the Items are returned.
+   * <p>The Items are returned in the order they were added
+   * to the warehouse. Each Item is held only once by the
+   * registry, so this is a single pass over the insertion
+   * order. The returned set is a copy, and may miss changes
+   * made by other threads while it is built.
    *
    * @return LinkedHashSet of all Item-instances without
    *          duplicates.
    */
   public LinkedHashSet<Item> getItems() {
-    LinkedHashSet<Item> set =  new LinkedHashSet<Item>();
-    set.addAll(items.values());
+    long start = metrics.start();
+    int end = tail;
+    Item[] items = slots;
+    LinkedHashSet<Item> set = new LinkedHashSet<Item>(Math.max(16, (int) (size / 0.75f) + 1));
+
+    for (int index = 0; index < end; index++) {
+      Item item = items[index];
+      if (item != null) {
+        set.add(item);
+      }
+    }
+    metrics.record(WarehouseMetrics.Operation.LIST, start, true, null);
     return set;
   }
 
 
+  /**
+   * Get a read-only view of all Item instances associated
+   * with this warehouse, in the order they were added.
+   *
+   * <p>Unlike {@link #getItems()}, the view does not copy the
+   * registry. It reflects Items added and deleted later on,
+   * and its iterators are weakly consistent: they never throw
+   * ConcurrentModificationException, and see the registry as
+   * it was when they were created, along with later deletions.
+   *
+   * @return unmodifiable live Collection of the Items.
+   */
+  public Collection<Item> getItemsView() {
+    return itemsView;
+  }
+
+
+  /**
+   * Get a sequential Stream over all Item instances associated
+   * with this warehouse, in the order they were added.
+   *
+   * <p>The Stream reads the registry directly, without copying
+   * it. Call <code>parallel()</code> on it, or use
+   * {@link #parallelStream()}, to spread the work over all cores.
+   *
+   * @return new Stream of the Items.
+   */
+  public Stream<Item> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+
+  /**
+   * Get a parallel Stream over all Item instances associated
+   * with this warehouse.
+   *
+   * <p>The registry is split into ranges of its insertion
+   * order, which are processed by the common ForkJoinPool.
+   *
+   * @return new parallel Stream of the Items.
+   */
+  public Stream<Item> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
+
   /**
    * Add an instance of the Item class into the
    * warehouse registry.
-   * 
-   * <p>Puts the Item into the LinkedHashMap as two
-   * keysets, where the first key is {@param itemNumber},
-   * and the second is {@param itemDescription}, making
-   * it possible to search for an item by either 
-   * the itemNumber or the itemDescription or both.
-   * 
-   * <p>The new item cannot be null or already present.
+   *
+   * <p>Puts the Item into the primary index by
+   * {@param itemNumber}, and into the secondary index by
+   * {@param itemDescription}, making it possible to search
+   * for an item by either the itemNumber or the
+   * itemDescription or both.
+   *
+   * <p>The new item cannot be null or already present,
+   * neither in this nor in another warehouse. The check and
+   * the insertions happens under the write lock, so two
+   * threads can never register the same key.
    *
    * @param newItem the Item to insert. Cannot be null.
    * @param number itemNumber of the new item.
@@ -67,16 +214,25 @@ public class Warehouse {
    *      succesfull or not.
    */
   public boolean addItem(Item newItem, String number, String description) {
+    long start = metrics.start();
     boolean success = false;
 
-    number = number.toLowerCase();
-    description = description.toLowerCase();
-
-    if (!items.containsKey(number) && !items.containsKey(description)) {
-      items.put(number, newItem);
-      items.put(description, newItem);
-      success = true;
-    } 
+    long stamp = lock.writeLock();
+    try {
+      if (newItem.slot < 0
+          && numberIndex.get(number) == null
+          && descriptionIndex.get(description) == null
+      ) {
+        append(newItem);
+        numberIndex.put(number, newItem);
+        descriptionIndex.put(description, newItem);
+        index(number, description, newItem);
+        success = true;
+      }
+    } finally {
+      unlockWriteDurably(stamp);
+    }
+    metrics.record(WarehouseMetrics.Operation.ADD, start, success, number);
     return success;
   }
 
@@ -85,10 +241,10 @@ public class Warehouse {
    * Search for an Item in the warehouse registry
    * by a specific searchword and assign it to the
    * <code>currentItem</code> variable.
-   * 
-   * <p>Since each Item is stored in the LinkedHashMap
-   * by both ItemNumber and ItemDescription, this method
-   * is capable of finding an Item without considering
+   *
+   * <p>The primary index by ItemNumber is searched first,
+   * and then the secondary index by ItemDescription, so this
+   * method is capable of finding an Item without considering
    * whether the user intends to search by ItemNumber
    * or ItemDescription.
    *
@@ -98,7 +254,24 @@ public class Warehouse {
    * @return Item if found, otherwise null.
    */
   public Item search(String searchWord) {
-    return items.get(searchWord.toLowerCase());
+    long start = metrics.start();
+    Item found = lookup(searchWord);
+    metrics.record(WarehouseMetrics.Operation.SEARCH, start, found != null, searchWord);
+    return found;
+  }
+
+
+  /**
+   * Look up an Item by either key, as {@link #search(String)}
+   * does, without counting the search.
+   *
+   * @param key itemNumber or itemDescription.
+   * @return Item if found, otherwise null.
+   */
+  private Item lookup(String key) {
+    int hash = KeyIndex.hash(key);
+    Item found = numberIndex.get(key, hash);
+    return found != null ? found : descriptionIndex.get(key, hash);
   }
 
 
@@ -106,21 +279,25 @@ public class Warehouse {
    * Search for an Item in the warehouse registry
    * by several search words and assign it to the
    * <code>currentItem</code> variable.
-   * 
+   *
    * <p>This method accepts two parameters which will
    * represent the ItemNumber and the ItemDescription
    * of the item to be searched for, allowing the user
    * to search for an item by those two properties.
    * The order of the parameters passed int the method
-   * call does not matter, since the search method is
-   * unaware whether a searchword represents an ItemNumber
-   * or an ItemDescription.
-   * 
+   * call does not matter, since both pairings of the
+   * search words are tried against the two indexes.
+   *
    * <p>Will only set <code>currentItem</code> to a found
    * Item if the separate searches result in the same
    * Item. If this is not the case, <code>currentItem</code>
    * will be set to <i>null</i>.
    *
+   * <p>The lookups are done optimistically. Should a
+   * writer have changed the registry in between, they are
+   * repeated under the read lock, so that the result never
+   * mixes two different states of the registry.
+   *
    * @param searchWord1 the first string which are to
    *      be used in the search. Expected to be either
    *      an ItemNumber or an ItemDescription.
@@ -132,37 +309,1390 @@ public class Warehouse {
    * @return Item if found, otherwise null.
    */
   public Item search(String searchWord1, String searchWord2) {
-    Item item1 = items.get(searchWord1.toLowerCase());
-    Item item2 = items.get(searchWord2.toLowerCase());
-    Item found;
+    long start = metrics.start();
+    long stamp = lock.tryOptimisticRead();
+    Item found = searchPair(searchWord1, searchWord2);
 
-    if (item1 == null || item2 == null) {
-      found = null;
-    } else {
-      found = (item1.equals(item2) ? item1 : null);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        found = searchPair(searchWord1, searchWord2);
+      } finally {
+        lock.unlockRead(stamp);
+      }
     }
+    metrics.record(WarehouseMetrics.Operation.SEARCH_PAIR, start, found != null, searchWord1);
     return found;
   }
 
 
+  /**
+   * Search for the Items whose ItemNumber or ItemDescription
+   * begins with a prefix, ignoring case.
+   *
+   * <p>Matches by ItemNumber come first, followed by matches
+   * by ItemDescription, each in alphabetical order. The first
+   * search builds a radix tree of the keys, which is then kept
+   * up to date as Items are added and deleted.
+   *
+   * @param prefix the beginning of an ItemNumber or ItemDescription.
+   * @param limit most Items to return.
+   * @return list of at most limit Items, without duplicates.
+   */
+  public List<Item> searchPrefix(String prefix, int limit) {
+    String key = KeyIndex.fold(prefix);
+    List<Item> numbers = new ArrayList<>();
+    List<Item> descriptions = new ArrayList<>();
+
+    buildSearchIndexes();
+    long stamp = lock.readLock();
+    try {
+      numberSearch.prefix(key, limit, numbers);
+      descriptionSearch.prefix(key, limit, descriptions);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+
+    Set<Item> found = Collections.newSetFromMap(new IdentityHashMap<>());
+    found.addAll(numbers);
+    for (Item item : descriptions) {
+      if (numbers.size() < limit && found.add(item)) {
+        numbers.add(item);
+      }
+    }
+    return numbers;
+  }
+
+
+  /**
+   * Search for the Items whose ItemNumber or ItemDescription
+   * begins with something close to a search word, ignoring case.
+   *
+   * <p>Closeness is measured as the edit distance: the number
+   * of characters which must be inserted, deleted or replaced.
+   * This finds Items despite typing errors, such as "magical dor"
+   * for "Magical door". The closest Items are returned first.
+   * Since every search word is within its own length of any
+   * key, the distance is limited to one less than the length.
+   *
+   * @param searchWord the misspelt ItemNumber or ItemDescription,
+   *      or the beginning of one.
+   * @param maxDistance largest edit distance accepted.
+   * @param limit most Items to return.
+   * @return list of at most limit Items, closest first.
+   */
+  public List<Item> searchFuzzy(String searchWord, int maxDistance, int limit) {
+    String key = KeyIndex.fold(searchWord);
+    SearchIndex.Matches matches = new SearchIndex.Matches(
+        Math.max(0, Math.min(maxDistance, key.length() - 1)), limit
+    );
+
+    buildSearchIndexes();
+    long stamp = lock.readLock();
+    try {
+      numberSearch.fuzzy(key, matches);
+      descriptionSearch.fuzzy(key, matches);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+    return matches.toList();
+  }
+
+
+  /**
+   * Atomically adjust the amount in store of the Item
+   * found by a search word.
+   *
+   * <p>The change is applied with a compare-and-set on the
+   * Item itself, so it takes no lock and does not allocate.
+   * Concurrent adjustments of the same Item, for example
+   * picking and receiving at once, are never lost.
+   *
+   * @param key itemNumber or itemDescription of the Item.
+   * @param delta number of units to add, negative to remove.
+   * @return the new amount of the Item.
+   * @throws IllegalArgumentException
+   *      If no Item is found by the key, or if the new amount
+   *      would be less than 0.
+   */
+  public int adjustAmount(String key, int delta) {
+    Item item = lookup(key);
+    if (item == null) {
+      metrics.count(WarehouseMetrics.Operation.ADJUST, 0, 1);
+      throw new IllegalArgumentException("No item found for " + key);
+    }
+    return adjustAmount(item, delta);
+  }
+
+
+  /**
+   * Atomically adjust the amount in store of an Item already
+   * found, as {@link #adjustAmount(String, int)} does, without
+   * searching for it again.
+   *
+   * <p>An Item which is not registered in this warehouse, for
+   * example because it was deleted after it was found, is left
+   * as it was and rejected as not found.
+   *
+   * @param item an Item of this Warehouse.
+   * @param delta number of units to add, negative to remove.
+   * @return the new amount of the Item.
+   * @throws IllegalArgumentException
+   *      If the Item is not registered in this warehouse, or if
+   *      the new amount would be less than 0.
+   */
+  public int adjustAmount(Item item, int delta) {
+    long start = metrics.start();
+    int amount = tryAdjustAmount(item, delta);
+    metrics.record(WarehouseMetrics.Operation.ADJUST, start, amount >= 0, null);
+    if (amount == NOT_REGISTERED) {
+      throw new IllegalArgumentException("No item found for " + item.getItemNumber());
+    } else if (amount < 0) {
+      throw new IllegalArgumentException("Invalid input for itemAmount");
+    }
+    awaitDurable();
+    return amount;
+  }
+
+
+  /**
+   * Adjust the amount in store of an Item registered in this
+   * warehouse, and tell the listeners.
+   *
+   * <p>Ownership is checked before the compare-and-set, and
+   * again before the listeners are told. An Item deleted in
+   * between gets its amount back, so that no listener hears of
+   * a change to an Item it no longer holds.
+   *
+   * @param item the Item, or null.
+   * @param delta number of units to add, negative to remove.
+   * @return the new amount, -1 if it would be out of range, or
+   *      NOT_REGISTERED if the Item is not in this warehouse.
+   */
+  private int tryAdjustAmount(Item item, int delta) {
+    if (item == null || item.owner != this) {
+      return NOT_REGISTERED;
+    }
+    boolean gated = beginChange();
+    try {
+      int amount = item.tryAdjustItemAmount(delta);
+      if (amount >= 0) {
+        if (item.owner != this) {
+          item.tryAdjustItemAmount(-delta);
+          return NOT_REGISTERED;
+        }
+        fireAmountChanged(item, amount - delta, amount);
+      }
+      return amount;
+    } finally {
+      endChange(gated);
+    }
+  }
+
+
+  /**
+   * Atomically adjust the amount in store of several Items.
+   *
+   * <p>Each adjustment is applied on its own in the same way
+   * as {@link #adjustAmount(String, int)}. Adjustments of an
+   * unknown key, or which would bring the amount below 0, are
+   * skipped rather than thrown, so that one bad line does not
+   * abort the rest of the batch.
+   *
+   * @param keys itemNumber or itemDescription of each Item.
+   * @param deltas number of units to add to the Item at the
+   *      same index in keys, negative to remove.
+   * @return the number of adjustments which were applied.
+   * @throws IllegalArgumentException
+   *      If keys and deltas are not of the same length.
+   */
+  public int adjustAmounts(String[] keys, int[] deltas) {
+    if (keys.length != deltas.length) {
+      throw new IllegalArgumentException("Keys and deltas must be of the same length");
+    }
+
+    int applied = 0;
+    for (int index = 0; index < keys.length; index++) {
+      if (tryAdjustAmount(lookup(keys[index]), deltas[index]) >= 0) {
+        applied++;
+      }
+    }
+    metrics.count(WarehouseMetrics.Operation.ADJUST, applied, keys.length - applied);
+    awaitDurable();
+    return applied;
+  }
+
+
+  /**
+   * Give every Item matching a filter a percentage discount.
+   *
+   * <p>The new price is the old price times the remaining
+   * percentage, divided by 100 and rounded down, computed as a
+   * long so that expensive Items do not overflow. See
+   * {@link #reprice(Predicate, LongUnaryOperator)}.
+   *
+   * @param filter selects the Items to discount, for example
+   *      by brand, category or price.
+   * @param percent the discount, 0 to 100.
+   * @return the number of Items which matched the filter.
+   * @throws IllegalArgumentException If percent is out of range.
+   */
+  public int discount(Predicate<Item> filter, int percent) {
+    if (percent < 0 || percent > 100) {
+      throw new IllegalArgumentException("Discount must be between 0 and 100");
+    }
+    return reprice(filter, price -> price * (100 - percent) / 100);
+  }
+
+
+  /**
+   * Give every Item matching a filter the same price.
+   *
+   * <p>See {@link #reprice(Predicate, LongUnaryOperator)}.
+   *
+   * @param filter selects the Items to reprice.
+   * @param price the new price.
+   * @return the number of Items which matched the filter.
+   * @throws IllegalArgumentException If price is negative.
+   */
+  public int reprice(Predicate<Item> filter, int price) {
+    ItemField.PRICE.validate(price);
+    return reprice(filter, old -> price);
+  }
+
+
+  /**
+   * Change the price of every Item matching a filter.
+   *
+   * <p>The registry is locked for writing, and split into
+   * partitions of its insertion order which are processed in
+   * parallel by the common ForkJoinPool, first to compute and
+   * validate every new price, then to apply them. A small
+   * registry is done in one partition on the calling thread.
+   * The filter and the pricing must be safe to call from
+   * several threads at once.
+   *
+   * <p>The change is all or nothing: if any new price is
+   * invalid, no price is changed, and if a listener fails while
+   * the prices are applied, the old prices are put back before
+   * the failure is thrown. Every changed Item is reported to the
+   * listeners as usual, from the threads applying the prices.
+   *
+   * <p>Since {@link Item#setItemPrice(int)} does not take the
+   * lock, a price may be set while the change is made. It is
+   * never overwritten: a new price is only set if the Item still
+   * has the price it was computed from, and is otherwise computed
+   * again from the current one. An old price is only put back
+   * where the new price is still in place.
+   *
+   * @param filter selects the Items to reprice.
+   * @param pricing computes the new price of an Item from its
+   *      old price, as a long.
+   * @return the number of Items which matched the filter.
+   * @throws IllegalArgumentException
+   *      If a new price is negative or larger than an int.
+   */
+  public int reprice(Predicate<Item> filter, LongUnaryOperator pricing) {
+    long stamp = lock.writeLock();
+    try {
+      Item[] items = slots;
+      int end = tail;
+      int count = end < REPRICE_PARTITION ? 1
+          : Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, end / REPRICE_PARTITION);
+      Repricing[] partitions = new Repricing[Math.max(1, count)];
+      for (int index = 0; index < partitions.length; index++) {
+        partitions[index] = new Repricing(
+            items, (int) ((long) end * index / partitions.length),
+            (int) ((long) end * (index + 1) / partitions.length)
+        );
+      }
+
+      /* Compute every new price before changing any, so an invalid one changes nothing. */
+      forEach(partitions, partition -> partition.compute(filter, pricing));
+      try {
+        forEach(partitions, Repricing::apply);
+      } catch (RuntimeException e) {
+        for (Repricing partition : partitions) {
+          partition.restore(e);
+        }
+        throw e;
+      }
+
+      int matched = 0;
+      for (Repricing partition : partitions) {
+        matched += partition.count;
+      }
+      return matched;
+    } finally {
+      unlockWriteDurably(stamp);
+    }
+  }
+
+
+  /**
+   * Run an action on every partition of a bulk change, in
+   * parallel if there is more than one.
+   *
+   * @param partitions the partitions.
+   * @param action the action.
+   */
+  private static void forEach(Repricing[] partitions, Consumer<Repricing> action) {
+    if (partitions.length == 1) {
+      action.accept(partitions[0]);
+    } else {
+      Arrays.stream(partitions).parallel().forEach(action);
+    }
+  }
+
+
   /**
    * Delete the Item which is stored in the variable
-   * <code>currentItem</code> from the LinkedHashMap.
-   * 
+   * <code>currentItem</code> from the registry.
+   *
    * <p>Both keysets associated with the Item in question
    * will be removed, indicating that this Item no longer
    * is part of the inventory of the warehouse. This method
-   * will not try to remove an Item from the LinkedHashMap
-   * if the currentItem is null. 
+   * will not try to remove an Item from the registry
+   * if the currentItem is null.
+   *
+   * <p>Only the given Item is removed, and only if it is still
+   * registered in this warehouse by at least one of the keys.
+   * Keys belonging to other Items are left alone. An Item
+   * matched by only one of the keys is removed by both of its
+   * keys, so the registry never holds an Item which can be
+   * found by one key and not the other.
    *
    * @param item the Item to remove.
    * @param number itemNumber of the item.
    * @param description the description item.
+   * @return whether the Item was deleted, false if it was
+   *      null or no longer registered by either key.
+   */
+  public boolean deleteCurrentItem(Item item, String number, String description) {
+    if (item == null) {
+      return false;
+    }
+    long start = metrics.start();
+    boolean deleted = false;
+    long stamp = lock.writeLock();
+    try {
+      if (item.owner == this
+          && (numberIndex.get(number) == item || descriptionIndex.get(description) == item)
+      ) {
+        remove(item, number, description);
+        deleted = true;
+      }
+    } finally {
+      unlockWriteDurably(stamp);
+    }
+    metrics.record(WarehouseMetrics.Operation.DELETE, start, deleted, number);
+    return deleted;
+  }
+
+
+  /**
+   * Add a batch of Items, such as a supplier catalog or the
+   * Items of a Snapshot.
+   *
+   * <p>Under a single write lock, the insertion order and both
+   * indexes are grown once to hold the whole batch, and the
+   * Items are checked and added in order in one pass. As every added Item is in the indexes
+   * before the next is checked, duplicates within the batch are
+   * found the same way as duplicates of Items already registered.
+   *
+   * <p>Rather than failing the whole batch, an Item which cannot
+   * be added is left out, and the reason is reported in the
+   * result. Each added Item is reported to the listeners as by
+   * {@link #addItem(Item, String, String)}, and a listener
+   * aborting an addition stops the batch there.
+   *
+   * @param items the Items to add, by their own itemNumber
+   *      and itemDescription.
+   * @return which Items were added, and why the others were not.
+   */
+  public AddResult addAll(Item[] items) {
+    AddResult.Reason[] reasons = new AddResult.Reason[items.length];
+    int added = 0;
+
+    long stamp = lock.writeLock();
+    try {
+      presize(items.length);
+
+      for (int index = 0; index < items.length; index++) {
+        Item item = items[index];
+        if (item == null) {
+          reasons[index] = AddResult.Reason.NULL;
+        } else if (item.slot >= 0) {
+          reasons[index] = AddResult.Reason.REGISTERED;
+        } else if (numberIndex.get(item.getItemNumber()) != null) {
+          reasons[index] = AddResult.Reason.DUPLICATE_NUMBER;
+        } else if (descriptionIndex.get(item.getItemDescription()) != null) {
+          reasons[index] = AddResult.Reason.DUPLICATE_DESCRIPTION;
+        } else {
+          String number = item.getItemNumber();
+          String description = item.getItemDescription();
+          append(item);
+          numberIndex.put(number, item);
+          descriptionIndex.put(description, item);
+          index(number, description, item);
+          added++;
+        }
+      }
+    } finally {
+      unlockWriteDurably(stamp);
+    }
+    return new AddResult(reasons, added);
+  }
+
+
+  /**
+   * Make room for a batch of Items in the insertion order and
+   * the indexes, so they do not grow step by step while it is
+   * added. Must be called while holding the write lock.
+   *
+   * <p>The indexes are grown only when the batch is at least as
+   * large as the registry, which bounds the rehashing to the work
+   * of adding the batch itself. Lock-free readers see either the
+   * old or the grown table, which hold the same Items.
+   *
+   * @param batch number of Items about to be added.
+   */
+  private void presize(int batch) {
+    if (slots.length - tail < batch) {
+      slots = Arrays.copyOf(slots, Math.max(tail + batch, slots.length));
+    }
+    if (batch >= size && batch > INITIAL_CAPACITY) {
+      numberIndex.ensureCapacity(size + batch);
+      descriptionIndex.ensureCapacity(size + batch);
+    }
+  }
+
+
+  /**
+   * Look up an Item by its itemNumber only.
+   *
+   * @param number itemNumber of the Item.
+   * @return Item if found, otherwise null.
+   */
+  Item searchNumber(String number) {
+    return numberIndex.get(number);
+  }
+
+
+  /**
+   * Get the number of Items in the registry.
+   *
+   * @return number of registered Items.
+   */
+  public int size() {
+    return size;
+  }
+
+
+  /**
+   * Get the counters and latency histograms of the operations
+   * on this warehouse.
+   *
+   * <p>Every search, addition, deletion, listing and change of
+   * amount or price is counted. A sample of them is timed, see
+   * {@link WarehouseMetrics}.
+   *
+   * @return the metrics of this warehouse.
+   */
+  public WarehouseMetrics metrics() {
+    return metrics;
+  }
+
+
+  /**
+   * Get the column store of the numeric fields of the Items,
+   * creating it the first time.
+   *
+   * <p>The store keeps the weight, length, height, price,
+   * amount and category of every Item in primitive arrays, so
+   * that totals and filters over the whole registry run as
+   * tight loops. Once created, it is kept up to date with every
+   * change, which makes changes slightly more expensive.
+   *
+   * @return the column store of this warehouse.
+   */
+  public ItemColumns columns() {
+    ItemColumns current = columns;
+    if (current == null) {
+      long stamp = lock.writeLock();
+      try {
+        current = columns;
+        if (current == null) {
+          current = new ItemColumns(slots.length);
+          attach(current);
+          current.load(slots, tail);
+          columns = current;
+        }
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+    return current;
+  }
+
+
+  /**
+   * Get the bitmap indexes of the brand, color and category of
+   * the Items in this warehouse, creating them on first use.
+   *
+   * <p>Queries combining these attributes are answered from the
+   * indexes without visiting the Items. Once created, the
+   * indexes are kept up to date with every change.
+   *
+   * @return the attribute indexes of this warehouse.
+   */
+  public AttributeIndex attributes() {
+    AttributeIndex current = attributes;
+    if (current == null) {
+      long stamp = lock.writeLock();
+      try {
+        current = attributes;
+        if (current == null) {
+          current = new AttributeIndex(slots.length);
+          attach(current);
+          current.load(slots, tail);
+          attributes = current;
+        }
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+    return current;
+  }
+
+
+  /**
+   * Get the sorted indexes of the price, weight and amount in
+   * store of the Items in this warehouse, creating them on first use.
+   *
+   * <p>Ranges, floor, ceiling and the highest or lowest values
+   * of these fields are found in logarithmic time. Once created,
+   * the indexes are kept up to date with every change.
+   *
+   * @return the range indexes of this warehouse.
+   */
+  public RangeIndex ranges() {
+    RangeIndex current = ranges;
+    if (current == null) {
+      long stamp = lock.writeLock();
+      try {
+        current = ranges;
+        if (current == null) {
+          current = new RangeIndex(slots.length);
+          attach(current);
+          current.load(slots, tail);
+          ranges = current;
+        }
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+    return current;
+  }
+
+
+  /**
+   * Get the running totals of the stock in this warehouse, per
+   * category and per brand, creating them on first use.
+   *
+   * <p>The totals are updated in constant time with every
+   * change, and can be read without locking the registry.
+   *
+   * @return the stock totals of this warehouse.
+   */
+  public StockTotals totals() {
+    StockTotals current = totals;
+    if (current == null) {
+      long stamp = lock.writeLock();
+      try {
+        current = totals;
+        if (current == null) {
+          current = new StockTotals(slots.length);
+          attach(current);
+          current.load(slots, tail);
+          totals = current;
+        }
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+    return current;
+  }
+
+
+  /**
+   * Get the feed of the changes made to the Items of this
+   * warehouse, creating it on first use.
+   *
+   * <p>The feed holds the changes made after it was created, up
+   * to {@link ChangeFeed#DEFAULT_CAPACITY} of them, and any number
+   * of readers can follow it at their own pace.
+   *
+   * @return the change feed of this warehouse.
+   */
+  public ChangeFeed changes() {
+    ChangeFeed current = changes;
+    if (current == null) {
+      long stamp = lock.writeLock();
+      try {
+        current = changes;
+        if (current == null) {
+          current = new ChangeFeed(ChangeFeed.DEFAULT_CAPACITY);
+          attach(current);
+          changes = current;
+        }
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+    return current;
+  }
+
+
+  /**
+   * Take a consistent view of the Items of this warehouse as they
+   * are now, which later changes do not alter.
+   *
+   * <p>Taking a view costs the same however many Items there are,
+   * and normally never blocks a writer: it waits only for a writer
+   * holding the lock to finish, so that a bulk change like
+   * {@link #reprice(Predicate, int)} is in a view either whole or not
+   * at all. If writers keep it from succeeding a few times in a
+   * row, it takes the read lock for a moment instead, so that a
+   * steady stream of writers cannot starve it. Old versions are
+   * freed once no view holds them. The first view creates the
+   * registry of versions, which from then on copies an Item on
+   * every change.
+   *
+   * @return new View of the Items.
+   */
+  public VersionedRegistry.View view() {
+    VersionedRegistry registry = versions();
+    for (int attempt = 0; attempt < VIEW_ATTEMPTS; attempt++) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0) {
+        VersionedRegistry.View view = registry.view();
+        if (lock.validate(stamp)) {
+          return view;
+        }
+      }
+      Thread.yield();
+    }
+
+    long stamp = lock.readLock();
+    try {
+      return registry.view();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+
+  /**
+   * Get the registry of versions of the Items, creating it on
+   * first use.
+   *
+   * @return the registry of versions.
+   */
+  private VersionedRegistry versions() {
+    VersionedRegistry current = versions;
+    if (current == null) {
+      long stamp = lock.writeLock();
+      try {
+        current = versions;
+        if (current == null) {
+          current = new VersionedRegistry();
+          attach(current);
+          current.load(slots, tail);
+          versions = current;
+        }
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+    return current;
+  }
+
+
+  /**
+   * Register a listener to be told about changes of the Items
+   * in this warehouse.
+   *
+   * <p>The listener is not told about Items which are already
+   * registered. Register listeners before the warehouse is shared
+   * between threads to be sure no change is missed.
+   *
+   * @param listener the listener to add.
+   */
+  public void addListener(WarehouseListener listener) {
+    long stamp = lock.writeLock();
+    try {
+      attach(listener);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  /**
+   * Stop telling a listener about changes of the Items.
+   *
+   * @param listener the listener to remove.
+   */
+  public void removeListener(WarehouseListener listener) {
+    long stamp = lock.writeLock();
+    try {
+      WarehouseListener[] current = listeners;
+      for (int index = 0; index < current.length; index++) {
+        if (current[index] == listener) {
+          WarehouseListener[] updated = new WarehouseListener[current.length - 1];
+          System.arraycopy(current, 0, updated, 0, index);
+          System.arraycopy(current, index + 1, updated, index, updated.length - index);
+          listeners = updated;
+          break;
+        }
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+
+  /**
+   * Tell the listeners that the amount of an Item changed.
+   * Every listener is told even if one of them throws; the
+   * first failure is then rethrown once all have been called.
+   *
+   * @param item the Item which changed.
+   * @param oldAmount the amount before the change.
+   * @param newAmount the amount after the change.
+   */
+  void fireAmountChanged(Item item, int oldAmount, int newAmount) {
+    RuntimeException failure = null;
+    for (WarehouseListener listener : listeners) {
+      try {
+        listener.amountChanged(item, oldAmount, newAmount);
+      } catch (RuntimeException e) {
+        failure = collect(failure, e);
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+
+  /**
+   * Tell the listeners that a field of an Item changed.
+   * Every listener is told even if one of them throws; the
+   * first failure is then rethrown once all have been called.
+   *
+   * @param item the Item which changed.
+   * @param field the field which changed.
+   */
+  void fireFieldChanged(Item item, ItemField field) {
+    RuntimeException failure = null;
+    for (WarehouseListener listener : listeners) {
+      try {
+        listener.fieldChanged(item, field);
+      } catch (RuntimeException e) {
+        failure = collect(failure, e);
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+
+  /**
+   * Tell the listeners that the price of an Item changed.
+   * Every listener is told even if one of them throws; the
+   * first failure is then rethrown once all have been called.
+   *
+   * @param item the Item which changed.
+   * @param oldPrice the price before the change.
+   * @param newPrice the price after the change.
+   */
+  void firePriceChanged(Item item, int oldPrice, int newPrice) {
+    metrics.count(WarehouseMetrics.Operation.PRICE, 1, 0);
+    RuntimeException failure = null;
+    for (WarehouseListener listener : listeners) {
+      try {
+        listener.priceChanged(item, oldPrice, newPrice);
+      } catch (RuntimeException e) {
+        failure = collect(failure, e);
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+
+  /**
+   * Keep the first failure of a listener, and add any later
+   * one to it as suppressed.
+   *
+   * @param failure the first failure, or null if none yet.
+   * @param e the failure of the listener just called.
+   * @return the first failure.
+   */
+  private static RuntimeException collect(RuntimeException failure, RuntimeException e) {
+    if (failure == null) {
+      return e;
+    }
+    failure.addSuppressed(e);
+    return failure;
+  }
+
+
+  /**
+   * Release the write lock, and then wait until the changes
+   * logged while holding it are durable, if a WriteAheadLog
+   * with the policy ALWAYS is attached. Waiting only after the
+   * lock is released lets other writers go on meanwhile, and
+   * their changes join the same force.
+   *
+   * @param stamp the stamp of the write lock.
+   * @throws java.io.UncheckedIOException if the log could not be written.
+   */
+  private void unlockWriteDurably(long stamp) {
+    WriteAheadLog current = log;
+    long sequence = current == null ? 0 : current.appended();
+    lock.unlockWrite(stamp);
+    if (current != null) {
+      current.awaitDurable(sequence);
+    }
+  }
+
+
+  /**
+   * Start a change of an Item made without the write lock,
+   * such as an amount, price or field change. While a
+   * WriteAheadLog is attached, a checkpoint is held off until
+   * the change has been applied and logged, so that the
+   * snapshot and the position in the log it records either
+   * both hold the change or neither does. Without a log, this
+   * takes no lock.
+   *
+   * @return whether endChange has to let a checkpoint go on.
    */
-  public void deleteCurrentItem(Item item, String number, String description) {
-    if (item != null) {
-      items.remove(number.toLowerCase());
-      items.remove(description.toLowerCase());
+  boolean beginChange() {
+    if (log == null) {
+      return false;
+    }
+    changeLock.readLock().lock();
+    return true;
+  }
+
+
+  /**
+   * End a change started by beginChange.
+   *
+   * @param gated the result of beginChange.
+   */
+  void endChange(boolean gated) {
+    if (gated) {
+      changeLock.readLock().unlock();
+    }
+  }
+
+
+  /**
+   * Stop every change of the warehouse and its Items, for a
+   * checkpoint: takes the write lock, and waits for the changes
+   * made without it to end.
+   *
+   * @return the stamp of the write lock, for unlockChanges.
+   */
+  long lockChanges() {
+    long stamp = lock.writeLock();
+    changeLock.writeLock().lock();
+    return stamp;
+  }
+
+
+  /**
+   * Let changes go on after lockChanges.
+   *
+   * @param stamp the stamp returned by lockChanges.
+   */
+  void unlockChanges(long stamp) {
+    changeLock.writeLock().unlock();
+    lock.unlockWrite(stamp);
+  }
+
+
+  /**
+   * Wait until the changes this thread made without the lock
+   * are durable, if a WriteAheadLog with the policy ALWAYS is
+   * attached. Must be called after the changes are reported.
+   *
+   * @throws java.io.UncheckedIOException if the log could not be written.
+   */
+  void awaitDurable() {
+    WriteAheadLog current = log;
+    if (current != null) {
+      current.awaitDurable(current.appended());
+    }
+  }
+
+
+  /**
+   * Build the radix trees of the keys if this is the first
+   * prefix or fuzzy search.
+   */
+  private void buildSearchIndexes() {
+    if (descriptionSearch == null) {
+      long stamp = lock.writeLock();
+      try {
+        if (descriptionSearch == null) {
+          SearchIndex numbers = new SearchIndex();
+          SearchIndex descriptions = new SearchIndex();
+          numberIndex.forEach((key, item) -> numbers.put(KeyIndex.fold(key), item));
+          descriptionIndex.forEach((key, item) -> descriptions.put(KeyIndex.fold(key), item));
+          numberSearch = numbers;
+          descriptionSearch = descriptions;
+        }
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+  }
+
+
+  /**
+   * Put the folded keys of a new Item into the radix trees, if
+   * they have been built. Must be called while holding the write lock.
+   *
+   * @param number itemNumber, in any case.
+   * @param description itemDescription, in any case.
+   * @param item the Item.
+   */
+  private void index(String number, String description, Item item) {
+    if (numberSearch != null) {
+      numberSearch.put(KeyIndex.fold(number), item);
+      descriptionSearch.put(KeyIndex.fold(description), item);
+    }
+  }
+
+
+  /**
+   * Add a listener. Must be called while holding the write lock.
+   *
+   * @param listener the listener to add.
+   */
+  private void attach(WarehouseListener listener) {
+    WarehouseListener[] current = listeners;
+    WarehouseListener[] updated = Arrays.copyOf(current, current.length + 1);
+    updated[current.length] = listener;
+    listeners = updated;
+  }
+
+
+  /**
+   * Create a Spliterator over the current insertion order.
+   *
+   * @return new Spliterator of the Items.
+   */
+  private Spliterator<Item> spliterator() {
+    int end = tail;
+    Item[] items = slots;
+    double density = end == 0 ? 0 : Math.min(1.0, (double) size / end);
+    return new ItemSpliterator(items, 0, Math.min(end, items.length), density);
+  }
+
+
+  /**
+   * Find the Item registered by one key as its ItemNumber and
+   * the other as its ItemDescription, in either order.
+   *
+   * @param key1 the first search word, in any case.
+   * @param key2 the second search word, in any case.
+   * @return Item if found, otherwise null.
+   */
+  private Item searchPair(String key1, String key2) {
+    int hash1 = KeyIndex.hash(key1);
+    int hash2 = KeyIndex.hash(key2);
+    Item found = numberIndex.get(key1, hash1);
+    if (found == null || found != descriptionIndex.get(key2, hash2)) {
+      found = numberIndex.get(key2, hash2);
+      if (found != null && found != descriptionIndex.get(key1, hash1)) {
+        found = null;
+      }
+    }
+    return found;
+  }
+
+
+  /**
+   * Put an Item at the end of the insertion order, making
+   * room first if the array is full. The listeners are told
+   * before the Item becomes visible to readers. If one of them
+   * throws, the listeners told before it are told the Item was
+   * removed again, and the Item is not added.
+   *
+   * <p>Must be called while holding the write lock.
+   *
+   * @param item the Item to append.
+   */
+  private void append(Item item) {
+    int end = tail;
+    Item[] items = slots;
+
+    if (end == items.length) {
+      boolean compacted = size * 2 <= end;
+      if (compacted) {
+        items = compact(items, end, items.length);
+        end = size;
+      } else {
+        items = Arrays.copyOf(items, end * 2);
+      }
+      slots = items;
+      tail = end;
+      if (compacted) {
+        RuntimeException failure = null;
+        for (WarehouseListener listener : listeners) {
+          try {
+            listener.itemsRenumbered();
+          } catch (RuntimeException e) {
+            failure = collect(failure, e);
+          }
+        }
+        if (failure != null) {
+          throw failure;
+        }
+      }
+    }
+    item.slot = end;
+    item.owner = this;
+    WarehouseListener[] current = listeners;
+    for (int index = 0; index < current.length; index++) {
+      try {
+        current[index].itemAdded(item);
+      } catch (RuntimeException e) {
+        for (int told = 0; told < index; told++) {
+          try {
+            current[told].itemRemoved(item);
+          } catch (RuntimeException again) {
+            e.addSuppressed(again);
+          }
+        }
+        item.slot = -1;
+        item.owner = null;
+        throw e;
+      }
+    }
+    items[end] = item;
+    tail = end + 1;
+    size = size + 1;
+  }
+
+
+  /**
+   * Remove an Item from both indexes and the insertion order.
+   *
+   * <p>The keys given to the delete request are removed along
+   * with the current keys of the Item, in case it was renamed
+   * after being added. Must be called while holding the write lock.
+   *
+   * @param item the Item to remove.
+   * @param number itemNumber of the delete request, in any case.
+   * @param description itemDescription of the delete request, in any case.
+   */
+  private void remove(Item item, String number, String description) {
+    String currentNumber = item.getItemNumber();
+    String currentDescription = item.getItemDescription();
+    numberIndex.remove(number, item);
+    descriptionIndex.remove(description, item);
+    numberIndex.remove(currentNumber, item);
+    descriptionIndex.remove(currentDescription, item);
+
+    if (numberSearch != null) {
+      numberSearch.remove(KeyIndex.fold(number), item);
+      numberSearch.remove(KeyIndex.fold(currentNumber), item);
+      descriptionSearch.remove(KeyIndex.fold(description), item);
+      descriptionSearch.remove(KeyIndex.fold(currentDescription), item);
+    }
+
+    slots[item.slot] = null;
+    size = size - 1;
+
+    RuntimeException failure = null;
+    for (WarehouseListener listener : listeners) {
+      try {
+        listener.itemRemoved(item);
+      } catch (RuntimeException e) {
+        failure = collect(failure, e);
+      }
+    }
+    item.slot = -1;
+    item.owner = null;
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+
+  /**
+   * Copy the registered Items into a new array without gaps,
+   * updating the slot of each of them.
+   *
+   * <p>Must be called while holding the write lock.
+   *
+   * @param items the current insertion order.
+   * @param end number of used positions in items.
+   * @param capacity length of the new array.
+   * @return the new array.
+   */
+  private static Item[] compact(Item[] items, int end, int capacity) {
+    Item[] compacted = new Item[capacity];
+    int next = 0;
+
+    for (int index = 0; index < end; index++) {
+      Item item = items[index];
+      if (item != null) {
+        item.slot = next;
+        compacted[next++] = item;
+      }
+    }
+    return compacted;
+  }
+
+
+  /**
+   * Read-only Collection backed by the insertion order.
+   */
+  private final class ItemsView extends AbstractCollection<Item> {
+
+    @Override
+    public Iterator<Item> iterator() {
+      return new ItemIterator(slots, tail);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+      return object instanceof Item && ((Item) object).slot >= 0
+          && find((Item) object) == object;
+    }
+
+    @Override
+    public Spliterator<Item> spliterator() {
+      return Warehouse.this.spliterator();
+    }
+
+    @Override
+    public Stream<Item> stream() {
+      return Warehouse.this.stream();
+    }
+
+    @Override
+    public Stream<Item> parallelStream() {
+      return Warehouse.this.parallelStream();
+    }
+
+    /**
+     * Look up the registered Item at the position of an Item.
+     *
+     * @param item the Item to look for.
+     * @return the Item at its position, or null.
+     */
+    private Item find(Item item) {
+      Item[] items = slots;
+      int slot = item.slot;
+      return slot >= 0 && slot < items.length ? items[slot] : null;
+    }
+  }
+
+
+  /**
+   * Weakly consistent Iterator over an insertion order.
+   */
+  private static final class ItemIterator implements Iterator<Item> {
+    /** Insertion order being iterated. */
+    private final Item[] items;
+    /** Position after the last one to visit. */
+    private final int end;
+    /** Item to return next, or null when exhausted. */
+    private Item next;
+    /** Position after the one of next. */
+    private int position;
+
+    /**
+     * Create an Iterator over the used positions of an array.
+     *
+     * @param items insertion order to iterate.
+     * @param end number of used positions.
+     */
+    private ItemIterator(Item[] items, int end) {
+      this.items = items;
+      this.end = Math.min(end, items.length);
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Item next() {
+      Item item = next;
+      if (item == null) {
+        throw new NoSuchElementException();
+      }
+      advance();
+      return item;
+    }
+
+    /**
+     * Move to the next position which holds an Item.
+     */
+    private void advance() {
+      next = null;
+      while (next == null && position < end) {
+        next = items[position++];
+      }
+    }
+  }
+
+
+  /**
+   * One partition of the insertion order during a bulk price
+   * change, with the old and new prices of its matching Items.
+   */
+  private static final class Repricing {
+    /** Insertion order being repriced. */
+    private final Item[] items;
+    /** First position of the partition. */
+    private final int from;
+    /** Position after the last one of the partition. */
+    private final int to;
+    /** Computes a new price from an old one. */
+    private LongUnaryOperator pricing;
+    /** Positions of the matching Items. */
+    private int[] ids;
+    /** Price of each matching Item before the change. */
+    private int[] oldPrices;
+    /** Price of each matching Item after the change. */
+    private int[] newPrices;
+    /** Number of matching Items. */
+    private int count;
+    /** Number of matching Items whose new price has been tried. */
+    private int applied;
+
+    /**
+     * Create a partition of an insertion order.
+     *
+     * @param items insertion order being repriced.
+     * @param from first position of the partition.
+     * @param to position after the last one of the partition.
+     */
+    private Repricing(Item[] items, int from, int to) {
+      this.items = items;
+      this.from = from;
+      this.to = to;
+      this.ids = new int[16];
+      this.oldPrices = new int[16];
+      this.newPrices = new int[16];
+    }
+
+    /**
+     * Find the matching Items and compute their new prices.
+     *
+     * @param filter selects the Items to reprice.
+     * @param pricing computes a new price from an old one.
+     * @throws IllegalArgumentException
+     *      If a new price is negative or larger than an int.
+     */
+    private void compute(Predicate<Item> filter, LongUnaryOperator pricing) {
+      this.pricing = pricing;
+      for (int id = from; id < to; id++) {
+        Item item = items[id];
+        if (item == null || !filter.test(item)) {
+          continue;
+        }
+        int oldPrice = item.getItemPrice();
+        int price = price(oldPrice);
+        if (count == ids.length) {
+          ids = Arrays.copyOf(ids, count * 2);
+          oldPrices = Arrays.copyOf(oldPrices, count * 2);
+          newPrices = Arrays.copyOf(newPrices, count * 2);
+        }
+        ids[count] = id;
+        oldPrices[count] = oldPrice;
+        newPrices[count] = price;
+        count++;
+      }
+    }
+
+    /**
+     * Compute and validate the new price of an old one.
+     *
+     * @param oldPrice the old price.
+     * @return the new price.
+     * @throws IllegalArgumentException
+     *      If the new price is negative or larger than an int.
+     */
+    private int price(int oldPrice) {
+      long price = pricing.applyAsLong(oldPrice);
+      if (price < 0 || price > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Invalid input for itemPrice");
+      }
+      return (int) price;
+    }
+
+    /**
+     * Set the new prices.
+     *
+     * <p>Each price is set only if the Item still has the old
+     * price it was computed from. setItemPrice takes no lock of
+     * the warehouse, so a price may have been set since: the new
+     * price is then computed again from that one.
+     *
+     * @throws IllegalArgumentException
+     *      If a price computed again is negative or larger than an int.
+     */
+    private void apply() {
+      for (int index = 0; index < count; index++) {
+        Item item = items[ids[index]];
+        applied = index + 1;
+        while (!item.compareAndReplacePrice(oldPrices[index], newPrices[index])) {
+          int oldPrice = item.getItemPrice();
+          newPrices[index] = price(oldPrice);
+          oldPrices[index] = oldPrice;
+        }
+      }
+    }
+
+    /**
+     * Put the old prices back after a failure, where the new
+     * price is still in place. A price set by another thread
+     * since is kept.
+     *
+     * @param failure the failure, which collects any further ones.
+     */
+    private void restore(RuntimeException failure) {
+      for (int index = 0; index < applied; index++) {
+        if (newPrices[index] != oldPrices[index]) {
+          try {
+            items[ids[index]].compareAndReplacePrice(newPrices[index], oldPrices[index]);
+          } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+          }
+        }
+      }
     }
   }
-}
\ No newline at end of file
+}
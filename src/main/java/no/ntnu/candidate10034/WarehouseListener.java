@@ -0,0 +1,92 @@
+package no.ntnu.candidate10034;
+
+/**
+ * Receives the changes made to the Items of a Warehouse.
+ *
+ * <p>Listeners are called on the thread making the change,
+ * after it has been validated. Additions and deletions are
+ * reported while the registry is locked for writing, so they
+ * arrive in the order they were applied. Changes of the fields
+ * of an Item are reported without any lock held, and must
+ * therefore be cheap and safe to call from several threads at once.
+ *
+ * <p>A listener which throws does not keep the others from
+ * being told: every listener is called, and the first failure
+ * is then rethrown to the caller of the change, with any later
+ * ones added to it as suppressed. The change itself has already
+ * been applied and stays in place, except for an addition, which
+ * is undone: the listeners which were told of it before the
+ * failing one are told the Item was removed again, and the
+ * listeners after it are not called at all.
+ *
+ * <p>All methods do nothing by default, so a listener only
+ * needs to implement the changes it is interested in.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public interface WarehouseListener {
+
+  /**
+   * Called when an Item is added to the warehouse, before it
+   * can be found by search. Throwing aborts the addition, and
+   * the listeners called before are told of it by
+   * {@link #itemRemoved(Item)}.
+   *
+   * @param item the Item which is added.
+   */
+  default void itemAdded(Item item) {
+  }
+
+
+  /**
+   * Called when an Item has been deleted from the warehouse.
+   *
+   * @param item the Item which was deleted.
+   */
+  default void itemRemoved(Item item) {
+  }
+
+
+  /**
+   * Called when the amount in store of a registered Item changed.
+   *
+   * @param item the Item which changed.
+   * @param oldAmount the amount before the change.
+   * @param newAmount the amount after the change.
+   */
+  default void amountChanged(Item item, int oldAmount, int newAmount) {
+  }
+
+
+  /**
+   * Called when the price of a registered Item changed.
+   *
+   * @param item the Item which changed.
+   * @param oldPrice the price before the change.
+   * @param newPrice the price after the change.
+   */
+  default void priceChanged(Item item, int oldPrice, int newPrice) {
+  }
+
+
+  /**
+   * Called when a field other than the amount or price of a
+   * registered Item changed.
+   *
+   * @param item the Item which changed.
+   * @param field the field which changed.
+   */
+  default void fieldChanged(Item item, ItemField field) {
+  }
+
+
+  /**
+   * Called when the registry has been compacted, which gives
+   * the Items new dense ids (see {@link ItemColumns}). Called
+   * while the registry is locked for writing.
+   */
+  default void itemsRenumbered() {
+  }
+}
@@ -0,0 +1,702 @@
+package no.ntnu.candidate10034;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Counters and latency histograms of the operations on a
+ * Warehouse.
+ *
+ * <p>Every operation is counted by its outcome, such as a search
+ * which found an Item or not. The counters are striped by thread:
+ * each thread counts into an array of its own with plain writes,
+ * and readers add up the arrays of all threads, so counting takes
+ * neither a lock nor an atomic instruction, which alone costs
+ * more than a lookup on some machines. Timing an operation reads
+ * the clock twice, which also costs more than the lookup, so only
+ * one operation in {@link #getSampleRate()} is timed, chosen at
+ * random per thread.
+ * The times go into a histogram per operation with eight buckets
+ * for each power of two of nanoseconds, which is precise to 12.5%.
+ *
+ * <p>While a flight recording with the WarehouseOperation event
+ * enabled is running, every operation is timed and written to it
+ * as an event.
+ *
+ * <p>The figures can be read as a {@link Stats} per operation
+ * with {@link #snapshot()}, or written in the text exposition
+ * format read by Prometheus and similar scrapers with
+ * {@link #writeText(Appendable)}.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class WarehouseMetrics {
+  /** One operation in this many is timed unless set otherwise. */
+  public static final int DEFAULT_SAMPLE_RATE = 64;
+
+  /** Sub-buckets of each power of two, as a number of bits. */
+  private static final int SUB_BITS = 3;
+  /** Sub-buckets of each power of two. */
+  private static final int SUB_BUCKETS = 1 << SUB_BITS;
+  /** Largest power of two of nanoseconds told apart, about 18 minutes. */
+  private static final int MAX_EXPONENT = 40;
+  /** Number of buckets of a histogram. */
+  private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+  /** Quantiles written by writeText. */
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+  /** The operations, by ordinal. */
+  private static final Operation[] OPERATIONS = Operation.values();
+  /** Least number of stripes kept before the dead threads are pruned. */
+  private static final int MIN_PRUNE = 16;
+
+  /** Handle used for the counts, each written by its own thread only. */
+  private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+  /**
+   * Whether a flight recording is running. Checked before an
+   * event is created, since creating one allocates unless the
+   * compiler removes it.
+   */
+  private static volatile boolean flightRecording;
+
+  static {
+    try {
+      FlightRecorder.addListener(new FlightRecorderListener() {
+        @Override
+        public void recordingStateChanged(Recording recording) {
+          flightRecording = FlightRecorder.isInitialized()
+              && FlightRecorder.getFlightRecorder().getRecordings().stream()
+                  .anyMatch(running -> running.getState() == RecordingState.RUNNING);
+        }
+      });
+    } catch (IllegalStateException | SecurityException e) {
+      /* No flight recorder in this JVM, so there are no events to write. */
+      flightRecording = false;
+    }
+  }
+
+  /** The Warehouse measured. */
+  private final Warehouse warehouse;
+  /**
+   * Counts of the current thread, by {@link #slot}. Created and
+   * added to the stripes on the first operation of a thread.
+   */
+  private final ThreadLocal<long[]> local;
+  /** Counts of each thread which has counted. Guarded by this. */
+  private final List<Stripe> stripes;
+  /** Counts of the threads which have ended, by slot. Guarded by this. */
+  private final long[] retired;
+  /** Number of stripes at which the dead threads are pruned. Guarded by this. */
+  private int pruneAt;
+  /** Histogram of the times of each Operation. */
+  private final AtomicLongArray[] histograms;
+  /** Sum of the times of each Operation, in nanoseconds. */
+  private final LongAdder[] totalNanos;
+  /** Sample rate minus one, 0 to time every operation. */
+  private volatile int sampleMask;
+
+
+  /**
+   * The operations measured, with the names of their outcomes.
+   */
+  public enum Operation {
+    /** {@link Warehouse#addItem}, failing if a key is taken. */
+    ADD("add", "added", "rejected"),
+    /** {@link Warehouse#search(String)}. */
+    SEARCH("search", "hit", "miss"),
+    /** {@link Warehouse#search(String, String)}. */
+    SEARCH_PAIR("search_pair", "hit", "miss"),
+    /** {@link Warehouse#deleteCurrentItem}. */
+    DELETE("delete", "deleted", "missing"),
+    /** {@link Warehouse#getItems()}. */
+    LIST("list", "listed", null),
+    /** Amount adjustments, failing if the amount would go below 0. */
+    ADJUST("adjust_amount", "applied", "rejected"),
+    /**
+     * Price changes of Items, counted but not timed. An invalid
+     * price is rejected by the Item before the Warehouse hears of
+     * it, so there are no failures.
+     */
+    PRICE("price_change", "applied", null);
+
+    /** Name of the operation in the text exposition. */
+    private final String label;
+    /** Name of the outcome of a success. */
+    private final String success;
+    /** Name of the outcome of a failure, or null if it cannot fail. */
+    private final String failure;
+
+    /**
+     * Create an operation.
+     *
+     * @param label name in the text exposition.
+     * @param success name of the outcome of a success.
+     * @param failure name of the outcome of a failure, or null.
+     */
+    Operation(String label, String success, String failure) {
+      this.label = label;
+      this.success = success;
+      this.failure = failure;
+    }
+
+    /**
+     * Get the name of the operation in the text exposition.
+     *
+     * @return the name.
+     */
+    public String label() {
+      return label;
+    }
+  }
+
+
+  /**
+   * Create the metrics of a warehouse.
+   *
+   * @param warehouse the Warehouse measured.
+   */
+  WarehouseMetrics(Warehouse warehouse) {
+    this.warehouse = warehouse;
+    int count = OPERATIONS.length;
+    this.local = ThreadLocal.withInitial(this::register);
+    this.stripes = new ArrayList<>();
+    this.retired = new long[count * 2];
+    this.pruneAt = MIN_PRUNE;
+    this.histograms = new AtomicLongArray[count];
+    this.totalNanos = new LongAdder[count];
+    for (int index = 0; index < count; index++) {
+      histograms[index] = new AtomicLongArray(BUCKETS);
+      totalNanos[index] = new LongAdder();
+    }
+    this.sampleMask = DEFAULT_SAMPLE_RATE - 1;
+  }
+
+
+  /**
+   * Get how many operations there are for each one timed.
+   *
+   * @return the sample rate.
+   */
+  public int getSampleRate() {
+    return sampleMask + 1;
+  }
+
+
+  /**
+   * Set how many operations there are for each one timed.
+   *
+   * @param sampleRate a power of two, 1 to time every operation.
+   * @throws IllegalArgumentException If sampleRate is not a
+   *      power of two.
+   */
+  public void setSampleRate(int sampleRate) {
+    if (sampleRate < 1 || Integer.bitCount(sampleRate) != 1) {
+      throw new IllegalArgumentException("Sample rate must be a power of two");
+    }
+    sampleMask = sampleRate - 1;
+  }
+
+
+
+  /*
+  * RECORDING
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Start an operation, reading the clock if it is to be timed.
+   *
+   * @return the start time, or 0 if it is not timed.
+   */
+  long start() {
+    if ((ThreadLocalRandom.current().nextInt() & sampleMask) == 0
+        || flightRecording && eventEnabled()) {
+      return System.nanoTime();
+    }
+    return 0;
+  }
+
+
+  /**
+   * Check whether a running flight recording wants the events.
+   *
+   * @return whether the events are enabled.
+   */
+  private static boolean eventEnabled() {
+    return new OperationEvent().isEnabled();
+  }
+
+
+  /**
+   * Count an operation, and time it if it was started with a time.
+   *
+   * @param operation the operation.
+   * @param start the value returned by {@link #start()}.
+   * @param succeeded whether the operation succeeded.
+   * @param key the key the operation was given, or null.
+   */
+  void record(Operation operation, long start, boolean succeeded, String key) {
+    long[] counts = local.get();
+    int slot = slot(operation, succeeded);
+    COUNTS.setOpaque(counts, slot, (long) COUNTS.getOpaque(counts, slot) + 1);
+    if (start != 0) {
+      time(operation, System.nanoTime() - start, succeeded, key);
+    }
+  }
+
+
+  /**
+   * Put the time of an operation into its histogram, and write it
+   * to the flight recording if there is one. Kept apart from
+   * {@link #record} so that the common path is small enough to be
+   * inlined into the operations.
+   *
+   * @param operation the operation.
+   * @param nanos the time it took, in nanoseconds.
+   * @param succeeded whether the operation succeeded.
+   * @param key the key the operation was given, or null.
+   */
+  private void time(Operation operation, long nanos, boolean succeeded, String key) {
+    int index = operation.ordinal();
+    histograms[index].getAndIncrement(bucket(nanos));
+    totalNanos[index].add(nanos);
+
+    if (flightRecording) {
+      OperationEvent event = new OperationEvent();
+      if (event.isEnabled()) {
+        event.operation = operation.label;
+        event.key = key;
+        event.succeeded = succeeded;
+        event.elapsed = nanos;
+        event.commit();
+      }
+    }
+  }
+
+
+  /**
+   * Count operations without timing them.
+   *
+   * @param operation the operation.
+   * @param succeeded number of operations which succeeded.
+   * @param failed number of operations which failed.
+   */
+  void count(Operation operation, int succeeded, int failed) {
+    long[] counts = local.get();
+    int slot = slot(operation, true);
+    COUNTS.setOpaque(counts, slot, (long) COUNTS.getOpaque(counts, slot) + succeeded);
+    slot = slot(operation, false);
+    COUNTS.setOpaque(counts, slot, (long) COUNTS.getOpaque(counts, slot) + failed);
+  }
+
+
+  /**
+   * Get the index of the count of an outcome of an operation.
+   *
+   * @param operation the operation.
+   * @param succeeded whether the operation succeeded.
+   * @return index in the counts.
+   */
+  private static int slot(Operation operation, boolean succeeded) {
+    return operation.ordinal() * 2 + (succeeded ? 0 : 1);
+  }
+
+
+  /**
+   * Create the counts of the current thread and add them to the
+   * stripes, pruning the threads which have ended whenever the
+   * stripes have doubled, so that a thread per request does not
+   * make them grow without end.
+   *
+   * @return the counts of the current thread.
+   */
+  private synchronized long[] register() {
+    long[] counts = new long[OPERATIONS.length * 2];
+    stripes.add(new Stripe(Thread.currentThread(), counts));
+    if (stripes.size() >= pruneAt) {
+      prune();
+      pruneAt = Math.max(MIN_PRUNE, stripes.size() * 2);
+    }
+    return counts;
+  }
+
+
+  /**
+   * Move the counts of the threads which have ended into the
+   * retired counts. A thread seen to have ended has made its last
+   * write, so its counts are final.
+   */
+  private synchronized void prune() {
+    Iterator<Stripe> iterator = stripes.iterator();
+    while (iterator.hasNext()) {
+      Stripe stripe = iterator.next();
+      if (!stripe.owner.isAlive()) {
+        for (int slot = 0; slot < retired.length; slot++) {
+          retired[slot] += stripe.counts[slot];
+        }
+        iterator.remove();
+      }
+    }
+  }
+
+
+  /**
+   * Add up the counts of all threads.
+   *
+   * @return the counts, by slot.
+   */
+  private synchronized long[] sum() {
+    prune();
+    long[] sums = retired.clone();
+    for (Stripe stripe : stripes) {
+      for (int slot = 0; slot < sums.length; slot++) {
+        sums[slot] += (long) COUNTS.getOpaque(stripe.counts, slot);
+      }
+    }
+    return sums;
+  }
+
+
+  /**
+   * Get the bucket of a time.
+   *
+   * @param nanos the time in nanoseconds.
+   * @return index of the bucket.
+   */
+  static int bucket(long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) Math.max(0, nanos);
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+    int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+    return Math.min(BUCKETS - 1, (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub);
+  }
+
+
+  /**
+   * Get the largest time of a bucket.
+   *
+   * @param bucket index of the bucket.
+   * @return the time in nanoseconds.
+   */
+  static long bucketLimit(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long sub = bucket % SUB_BUCKETS;
+    return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+  }
+
+
+
+  /*
+  * READING
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Read the figures of every operation.
+   *
+   * <p>The figures are read one after the other while operations
+   * go on, so they may be a few operations apart.
+   *
+   * @return unmodifiable Stats by operation.
+   */
+  public Map<Operation, Stats> snapshot() {
+    Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    long[] sums = sum();
+    for (Operation operation : OPERATIONS) {
+      stats.put(operation, stats(operation, sums));
+    }
+    return Collections.unmodifiableMap(stats);
+  }
+
+
+  /**
+   * Read the figures of an operation.
+   *
+   * @param operation the operation.
+   * @return its Stats.
+   */
+  public Stats stats(Operation operation) {
+    return stats(operation, sum());
+  }
+
+
+  /**
+   * Read the figures of an operation, with its counts already
+   * added up.
+   *
+   * @param operation the operation.
+   * @param sums the counts of all threads, by slot.
+   * @return its Stats.
+   */
+  private Stats stats(Operation operation, long[] sums) {
+    int index = operation.ordinal();
+    long[] counts = new long[BUCKETS];
+    AtomicLongArray histogram = histograms[index];
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      counts[bucket] = histogram.get(bucket);
+    }
+    return new Stats(
+        operation, sums[slot(operation, true)], sums[slot(operation, false)],
+        counts, totalNanos[index].sum()
+    );
+  }
+
+
+  /**
+   * Write the figures in the text exposition format of
+   * Prometheus: a counter of the operations by outcome, a summary
+   * of the timed operations with their quantiles, and a gauge of
+   * the number of Items.
+   *
+   * @param out where the text is written.
+   * @throws UncheckedIOException If writing fails.
+   */
+  public void writeText(Appendable out) {
+    try {
+      Map<Operation, Stats> stats = snapshot();
+      out.append("# HELP warehouse_items Number of Items in the warehouse.\n")
+          .append("# TYPE warehouse_items gauge\n")
+          .append("warehouse_items ").append(String.valueOf(warehouse.size())).append('\n');
+
+      out.append("# HELP warehouse_operations_total Operations on the warehouse by outcome.\n")
+          .append("# TYPE warehouse_operations_total counter\n");
+      for (Stats operation : stats.values()) {
+        Operation kind = operation.getOperation();
+        counter(out, kind, kind.success, operation.getSucceeded());
+        if (kind.failure != null) {
+          counter(out, kind, kind.failure, operation.getFailed());
+        }
+      }
+
+      out.append("# HELP warehouse_operation_duration_seconds Time of a sample of the")
+          .append(" operations.\n")
+          .append("# TYPE warehouse_operation_duration_seconds summary\n");
+      for (Stats operation : stats.values()) {
+        if (operation.getOperation() == Operation.PRICE) {
+          continue;
+        }
+        String label = operation.getOperation().label;
+        for (double quantile : QUANTILES) {
+          out.append("warehouse_operation_duration_seconds{operation=\"").append(label)
+              .append("\",quantile=\"").append(String.valueOf(quantile)).append("\"} ")
+              .append(seconds(operation.percentile(quantile * 100))).append('\n');
+        }
+        out.append("warehouse_operation_duration_seconds_sum{operation=\"").append(label)
+            .append("\"} ").append(seconds(operation.getTimedNanos())).append('\n')
+            .append("warehouse_operation_duration_seconds_count{operation=\"").append(label)
+            .append("\"} ").append(String.valueOf(operation.getTimed())).append('\n');
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+
+  /**
+   * Write the counter of an outcome of an operation.
+   *
+   * @param out where the text is written.
+   * @param operation the operation.
+   * @param outcome name of the outcome.
+   * @param value the count.
+   * @throws IOException If writing fails.
+   */
+  private static void counter(Appendable out, Operation operation, String outcome, long value)
+      throws IOException {
+    out.append("warehouse_operations_total{operation=\"").append(operation.label)
+        .append("\",outcome=\"").append(outcome).append("\"} ")
+        .append(String.valueOf(value)).append('\n');
+  }
+
+
+  /**
+   * Write nanoseconds as seconds.
+   *
+   * @param nanos the time in nanoseconds.
+   * @return the time in seconds.
+   */
+  private static String seconds(long nanos) {
+    return String.valueOf(nanos / 1e9);
+  }
+
+
+
+  /*
+  * STATS
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * The counts of one thread.
+   */
+  private static final class Stripe {
+    /** The thread which writes the counts. */
+    private final Thread owner;
+    /** The counts, by slot. */
+    private final long[] counts;
+
+    /**
+     * Create a stripe.
+     *
+     * @param owner the thread which writes the counts.
+     * @param counts the counts.
+     */
+    private Stripe(Thread owner, long[] counts) {
+      this.owner = owner;
+      this.counts = counts;
+    }
+  }
+
+
+  /**
+   * The figures of one operation at one moment.
+   */
+  public static final class Stats {
+    /** The operation. */
+    private final Operation operation;
+    /** Operations which succeeded. */
+    private final long succeeded;
+    /** Operations which failed. */
+    private final long failed;
+    /** Timed operations per bucket. */
+    private final long[] counts;
+    /** Number of timed operations. */
+    private final long timed;
+    /** Sum of the times of the timed operations, in nanoseconds. */
+    private final long timedNanos;
+
+    /**
+     * Create the figures.
+     *
+     * @param operation the operation.
+     * @param succeeded operations which succeeded.
+     * @param failed operations which failed.
+     * @param counts timed operations per bucket.
+     * @param timedNanos sum of the times of the timed operations.
+     */
+    private Stats(
+        Operation operation, long succeeded, long failed, long[] counts, long timedNanos
+    ) {
+      this.operation = operation;
+      this.succeeded = succeeded;
+      this.failed = failed;
+      this.counts = counts;
+      long sum = 0;
+      for (long count : counts) {
+        sum += count;
+      }
+      this.timed = sum;
+      this.timedNanos = timedNanos;
+    }
+
+    /**
+     * Get the operation.
+     *
+     * @return the operation.
+     */
+    public Operation getOperation() {
+      return operation;
+    }
+
+    /**
+     * Get the number of operations which succeeded.
+     *
+     * @return the number of successes.
+     */
+    public long getSucceeded() {
+      return succeeded;
+    }
+
+    /**
+     * Get the number of operations which failed.
+     *
+     * @return the number of failures.
+     */
+    public long getFailed() {
+      return failed;
+    }
+
+    /**
+     * Get the number of operations which were timed.
+     *
+     * @return the number of timed operations.
+     */
+    public long getTimed() {
+      return timed;
+    }
+
+    /**
+     * Get the sum of the times of the timed operations.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long getTimedNanos() {
+      return timedNanos;
+    }
+
+    /**
+     * Get the mean time of the timed operations.
+     *
+     * @return the mean in nanoseconds, or 0 if none were timed.
+     */
+    public double getMeanNanos() {
+      return timed == 0 ? 0 : timedNanos / (double) timed;
+    }
+
+    /**
+     * Get the time within which a percentage of the timed
+     * operations completed, rounded up to the limit of its bucket.
+     *
+     * @param percent the percentage, 0 to 100.
+     * @return the time in nanoseconds, or 0 if none were timed.
+     * @throws IllegalArgumentException If percent is not from 0
+     *      to 100.
+     */
+    public long percentile(double percent) {
+      if (!(percent >= 0 && percent <= 100)) {
+        throw new IllegalArgumentException("Percent must be from 0 to 100");
+      }
+      if (timed == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(timed * percent / 100));
+      long seen = 0;
+      for (int bucket = 0; bucket < counts.length; bucket++) {
+        seen += counts[bucket];
+        if (seen >= rank) {
+          return bucketLimit(bucket);
+        }
+      }
+      return bucketLimit(counts.length - 1);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s: %d %s, %d %s, p50 %d ns, p99 %d ns", operation.label,
+          succeeded, operation.success, failed,
+          operation.failure != null ? operation.failure : "failed",
+          percentile(50), percentile(99));
+    }
+  }
+}
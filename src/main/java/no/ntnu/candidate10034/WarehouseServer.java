@@ -0,0 +1,620 @@
+package no.ntnu.candidate10034;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP server giving access to a Warehouse through a
+ * JSON API, built on the HTTP server of the JDK so that it needs
+ * no other library.
+ *
+ * <p>The API has these endpoints, where keys are an itemNumber
+ * or itemDescription, percent-encoded:
+ * <ul>
+ *   <li><code>POST /items</code> adds the Item given as a JSON
+ *       object with the fields number, brand, color, description,
+ *       weight, length, height, price, amount and category.</li>
+ *   <li><code>GET /items?offset=0&amp;limit=100</code> lists a
+ *       page of the Items, in the order they were added.</li>
+ *   <li><code>GET /items?number=n&amp;description=d</code> finds
+ *       the Item with both keys.</li>
+ *   <li><code>GET /items/key</code> finds an Item by either key.</li>
+ *   <li><code>POST /items/key/amount</code> with
+ *       <code>{"delta": n}</code> adjusts the amount in store.</li>
+ *   <li><code>PUT /items/key/price</code> with
+ *       <code>{"price": n}</code> changes the price.</li>
+ *   <li><code>DELETE /items/key</code> deletes an Item.</li>
+ *   <li><code>GET /metrics</code> gives the counters and latencies
+ *       of the operations in the text exposition format, see
+ *       {@link WarehouseMetrics#writeText(Appendable)}.</li>
+ * </ul>
+ * Failures answer with a status of 400, 404, 405, 409, 413 or
+ * 500 and a body of <code>{"error": reason}</code>.
+ *
+ * <p>The server accepts connections on a single thread and hands
+ * each request to an executor. A thread per request is used when
+ * the JVM has virtual threads, so a request waiting on the disk
+ * does not hold a platform thread. Older JVMs use a fixed pool of
+ * platform threads instead. Idle keep-alive connections hold no
+ * thread either way, so thousands of clients can stay connected.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class WarehouseServer implements AutoCloseable {
+  /** Threads of the pool used when there are no virtual threads. */
+  public static final int DEFAULT_THREADS =
+      Math.max(8, 4 * Runtime.getRuntime().availableProcessors());
+  /** Number of connections waiting to be accepted before more are refused. */
+  private static final int BACKLOG = 4096;
+  /** Largest request body accepted, in bytes. */
+  private static final int MAX_BODY = 1 << 16;
+  /** Items listed when no limit is given. */
+  private static final int DEFAULT_LIMIT = 100;
+  /** Most Items listed at once. */
+  private static final int MAX_LIMIT = 10000;
+  /** Root of the endpoints. */
+  private static final String ITEMS = "/items";
+  /** Endpoint of the metrics. */
+  private static final String METRICS = "/metrics";
+  /** Media type of the text exposition format. */
+  private static final String METRICS_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+  /** Property turning off Nagle's algorithm in the JDK server. */
+  private static final String NO_DELAY = "sun.net.httpserver.nodelay";
+
+  /** The Warehouse served. */
+  private final Warehouse warehouse;
+  /** The HTTP server of the JDK. */
+  private final HttpServer server;
+  /** Runs the requests. */
+  private final ExecutorService executor;
+  /** Whether the requests run on virtual threads. */
+  private final boolean virtualThreads;
+
+
+  /**
+   * Create a server. Use {@link #start(Warehouse, InetSocketAddress, int)}.
+   *
+   * @param warehouse the Warehouse to serve.
+   * @param server the bound HTTP server.
+   * @param executor runs the requests.
+   * @param virtualThreads whether the executor uses virtual threads.
+   */
+  private WarehouseServer(
+      Warehouse warehouse, HttpServer server, ExecutorService executor, boolean virtualThreads
+  ) {
+    this.warehouse = warehouse;
+    this.server = server;
+    this.executor = executor;
+    this.virtualThreads = virtualThreads;
+  }
+
+
+  /**
+   * Start serving a Warehouse.
+   *
+   * @param warehouse the Warehouse to serve.
+   * @param address address to listen on, port 0 for any free port.
+   * @param threads size of the thread pool used if the JVM has
+   *      no virtual threads.
+   * @return the running server.
+   * @throws IOException If the address cannot be bound.
+   */
+  public static WarehouseServer start(Warehouse warehouse, InetSocketAddress address, int threads)
+      throws IOException {
+    ExecutorService executor = virtualThreadExecutor();
+    boolean virtualThreads = executor != null;
+    if (!virtualThreads) {
+      executor = Executors.newFixedThreadPool(threads, new DaemonThreads());
+    }
+
+    /*
+     * Without TCP_NODELAY a response written in two packets waits
+     * for the delayed ACK of the first, some 40 ms per request.
+     * The JDK server reads the property once, on first use.
+     */
+    if (System.getProperty(NO_DELAY) == null) {
+      System.setProperty(NO_DELAY, "true");
+    }
+    HttpServer server = HttpServer.create(address, BACKLOG);
+    WarehouseServer started = new WarehouseServer(warehouse, server, executor, virtualThreads);
+    server.createContext(ITEMS, started::handle);
+    server.createContext(METRICS, started::metrics);
+    server.setExecutor(executor);
+    server.start();
+    return started;
+  }
+
+
+  /**
+   * Get the port the server listens on.
+   *
+   * @return the port.
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+
+  /**
+   * Tell whether requests run on virtual threads.
+   *
+   * @return true if on virtual threads, false if on a pool of
+   *      platform threads.
+   */
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+
+  /**
+   * Stop the server, letting running requests finish for up to
+   * a second.
+   */
+  @Override
+  public void close() {
+    server.stop(1);
+    executor.shutdown();
+    try {
+      executor.awaitTermination(1, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+
+  /**
+   * Create an executor starting a virtual thread per task, if
+   * the JVM has them.
+   *
+   * @return the executor, or null before Java 21.
+   */
+  private static ExecutorService virtualThreadExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+
+
+  /*
+  * REQUESTS
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Answer a request to the items endpoints.
+   *
+   * @param exchange the request and its response.
+   * @throws IOException If the response cannot be sent.
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      String method = exchange.getRequestMethod();
+      String rawPath = exchange.getRequestURI().getRawPath();
+      List<String> path = segments(rawPath);
+
+      if (!rawPath.equals(ITEMS) && !rawPath.startsWith(ITEMS + "/")) {
+        error(exchange, 404, "No such endpoint");
+      } else if (path.isEmpty()) {
+        if ("GET".equals(method)) {
+          list(exchange);
+        } else if ("POST".equals(method)) {
+          add(exchange);
+        } else {
+          error(exchange, 405, "Method " + method + " not allowed");
+        }
+      } else if (path.size() == 1) {
+        if ("GET".equals(method)) {
+          send(exchange, 200, item(find(path.get(0))));
+        } else if ("DELETE".equals(method)) {
+          Item item = find(path.get(0));
+          if (!warehouse.deleteCurrentItem(item, item.getItemNumber(), item.getItemDescription())) {
+            throw new NotFoundException("No item found for " + path.get(0));
+          }
+          send(exchange, 204, null);
+        } else {
+          error(exchange, 405, "Method " + method + " not allowed");
+        }
+      } else if (path.size() == 2 && "amount".equals(path.get(1)) && "POST".equals(method)) {
+        adjustAmount(exchange, path.get(0));
+      } else if (path.size() == 2 && "price".equals(path.get(1)) && "PUT".equals(method)) {
+        changePrice(exchange, path.get(0));
+      } else {
+        error(exchange, 404, "No such endpoint");
+      }
+    } catch (NotFoundException e) {
+      error(exchange, 404, e.getMessage());
+    } catch (IllegalArgumentException e) {
+      error(exchange, 400, e.getMessage());
+    } catch (BodyTooLargeException e) {
+      error(exchange, 413, e.getMessage());
+    } catch (RuntimeException e) {
+      error(exchange, 500, "Internal error: " + e);
+    } finally {
+      exchange.close();
+    }
+  }
+
+
+  /**
+   * Answer a request for the metrics of the warehouse.
+   *
+   * @param exchange the request and its response.
+   * @throws IOException If the response cannot be sent.
+   */
+  private void metrics(HttpExchange exchange) throws IOException {
+    try {
+      String method = exchange.getRequestMethod();
+      if (!exchange.getRequestURI().getRawPath().equals(METRICS)) {
+        error(exchange, 404, "No such endpoint");
+      } else if (!"GET".equals(method)) {
+        error(exchange, 405, "Method " + method + " not allowed");
+      } else {
+        StringBuilder text = new StringBuilder(4096);
+        warehouse.metrics().writeText(text);
+        byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", METRICS_TYPE);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+
+  /**
+   * Add the Item in the body of a request.
+   *
+   * @param exchange the request and its response.
+   * @throws IOException If the request or response fails.
+   */
+  private void add(HttpExchange exchange) throws IOException {
+    Map<String, String> fields = Json.parseObject(body(exchange));
+    Item item = new Item(
+        Json.string(fields, "number"), Json.string(fields, "brand"),
+        Json.string(fields, "color"), Json.string(fields, "description"),
+        Json.number(fields, "weight"), Json.number(fields, "length"),
+        Json.number(fields, "height"), Json.integer(fields, "price"),
+        Json.integer(fields, "amount"), Json.integer(fields, "category")
+    );
+    if (warehouse.addItem(item, item.getItemNumber(), item.getItemDescription())) {
+      send(exchange, 201, item(item));
+    } else {
+      error(exchange, 409, "Item already exists");
+    }
+  }
+
+
+  /**
+   * List a page of the Items, or find the Item with both keys
+   * given in the query.
+   *
+   * @param exchange the request and its response.
+   * @throws IOException If the response cannot be sent.
+   */
+  private void list(HttpExchange exchange) throws IOException {
+    Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+    String number = query.get("number");
+    String description = query.get("description");
+    if (number != null || description != null) {
+      if (number == null || description == null) {
+        throw new IllegalArgumentException("Give both number and description");
+      }
+      Item item = warehouse.search(number, description);
+      if (item == null) {
+        throw new NotFoundException("No item found for " + number + " and " + description);
+      }
+      send(exchange, 200, item(item));
+      return;
+    }
+
+    int offset = parameter(query, "offset", 0);
+    int limit = Math.min(parameter(query, "limit", DEFAULT_LIMIT), MAX_LIMIT);
+    StringBuilder json = new StringBuilder(128 + limit * 200);
+    json.append("{\"total\":").append(warehouse.size()).append(",\"items\":[");
+    Iterator<Item> items = warehouse.getItemsView().iterator();
+    for (int skipped = 0; skipped < offset && items.hasNext(); skipped++) {
+      items.next();
+    }
+    for (int listed = 0; listed < limit && items.hasNext(); listed++) {
+      if (listed > 0) {
+        json.append(',');
+      }
+      Json.writeItem(json, items.next());
+    }
+    json.append("]}");
+    send(exchange, 200, json.toString());
+  }
+
+
+  /**
+   * Adjust the amount in store of an Item by the delta in the
+   * body of a request.
+   *
+   * @param exchange the request and its response.
+   * @param key itemNumber or itemDescription of the Item.
+   * @throws IOException If the request or response fails.
+   */
+  private void adjustAmount(HttpExchange exchange, String key) throws IOException {
+    int delta = Json.integer(Json.parseObject(body(exchange)), "delta");
+    Item item = find(key);
+    int amount;
+    try {
+      amount = warehouse.adjustAmount(item, delta);
+    } catch (IllegalArgumentException e) {
+      if (item.owner != warehouse) {
+        /* Deleted after it was found, so nothing was changed. */
+        throw new NotFoundException("No item found for " + key);
+      }
+      error(exchange, 409, e.getMessage());
+      return;
+    }
+    send(exchange, 200, "{\"amount\":" + amount + "}");
+  }
+
+
+  /**
+   * Change the price of an Item to the price in the body of a
+   * request.
+   *
+   * @param exchange the request and its response.
+   * @param key itemNumber or itemDescription of the Item.
+   * @throws IOException If the request or response fails.
+   */
+  private void changePrice(HttpExchange exchange, String key) throws IOException {
+    int price = Json.integer(Json.parseObject(body(exchange)), "price");
+    Item item = find(key);
+    item.setItemPrice(price);
+    send(exchange, 200, item(item));
+  }
+
+
+  /**
+   * Look up the Item of a key.
+   *
+   * @param key itemNumber or itemDescription.
+   * @return the Item.
+   * @throws NotFoundException If no Item is found.
+   */
+  private Item find(String key) {
+    Item item = warehouse.search(key);
+    if (item == null) {
+      throw new NotFoundException("No item found for " + key);
+    }
+    return item;
+  }
+
+
+
+  /*
+  * HTTP HELPERS
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Split the path below the items endpoint into its decoded
+   * segments, so that a key may hold an encoded slash.
+   *
+   * @param rawPath the path, still percent-encoded.
+   * @return the segments after "/items".
+   */
+  private static List<String> segments(String rawPath) {
+    List<String> segments = new ArrayList<>();
+    for (String segment : rawPath.substring(ITEMS.length()).split("/")) {
+      if (!segment.isEmpty()) {
+        segments.add(decode(segment.replace("+", "%2B")));
+      }
+    }
+    return segments;
+  }
+
+
+  /**
+   * Parse the parameters of a query.
+   *
+   * @param rawQuery the query, still encoded, or null.
+   * @return the decoded parameters by name.
+   */
+  private static Map<String, String> query(String rawQuery) {
+    Map<String, String> parameters = new HashMap<>();
+    if (rawQuery != null) {
+      for (String pair : rawQuery.split("&")) {
+        int equals = pair.indexOf('=');
+        if (equals > 0) {
+          parameters.put(decode(pair.substring(0, equals)), decode(pair.substring(equals + 1)));
+        }
+      }
+    }
+    return parameters;
+  }
+
+
+  /**
+   * Decode a percent-encoded part of a URI.
+   *
+   * @param text the encoded text.
+   * @return the decoded text.
+   * @throws IllegalArgumentException If the encoding is broken.
+   */
+  private static String decode(String text) {
+    return URLDecoder.decode(text, StandardCharsets.UTF_8);
+  }
+
+
+  /**
+   * Get a whole number parameter which cannot be negative.
+   *
+   * @param query the parameters.
+   * @param name name of the parameter.
+   * @param fallback value if the parameter is missing.
+   * @return the value.
+   * @throws IllegalArgumentException If the value is not a
+   *      whole number of at least 0.
+   */
+  private static int parameter(Map<String, String> query, String name, int fallback) {
+    String value = query.get(name);
+    if (value == null) {
+      return fallback;
+    }
+    try {
+      int number = Integer.parseInt(value);
+      if (number >= 0) {
+        return number;
+      }
+    } catch (NumberFormatException e) {
+      /* Falls through to the exception below. */
+    }
+    throw new IllegalArgumentException(name + " must be a whole number of at least 0");
+  }
+
+
+  /**
+   * Read the body of a request.
+   *
+   * @param exchange the request.
+   * @return the body as UTF-8 text.
+   * @throws IOException If the body cannot be read.
+   * @throws BodyTooLargeException If the body is too large.
+   */
+  private static String body(HttpExchange exchange) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      byte[] body = in.readNBytes(MAX_BODY + 1);
+      if (body.length > MAX_BODY) {
+        throw new BodyTooLargeException("Body larger than " + MAX_BODY + " bytes");
+      }
+      return new String(body, StandardCharsets.UTF_8);
+    }
+  }
+
+
+  /**
+   * Write an Item as a JSON object.
+   *
+   * @param item the Item.
+   * @return the JSON text.
+   */
+  private static String item(Item item) {
+    StringBuilder json = new StringBuilder(200);
+    Json.writeItem(json, item);
+    return json.toString();
+  }
+
+
+  /**
+   * Send an error response.
+   *
+   * @param exchange the request and its response.
+   * @param status the HTTP status.
+   * @param message why the request failed.
+   * @throws IOException If the response cannot be sent.
+   */
+  private static void error(HttpExchange exchange, int status, String message)
+      throws IOException {
+    StringBuilder json = new StringBuilder("{\"error\":");
+    Json.writeString(json, String.valueOf(message));
+    send(exchange, status, json.append('}').toString());
+  }
+
+
+  /**
+   * Send a response.
+   *
+   * @param exchange the request and its response.
+   * @param status the HTTP status.
+   * @param json the JSON body, or null for none.
+   * @throws IOException If the response cannot be sent.
+   */
+  private static void send(HttpExchange exchange, int status, String json) throws IOException {
+    if (json == null) {
+      exchange.sendResponseHeaders(status, -1);
+      /* Ends the response, so the connection can be kept alive for the next request. */
+      exchange.getResponseBody().close();
+      return;
+    }
+    byte[] body = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+
+
+  /**
+   * Thrown when a request names an Item which does not exist.
+   */
+  private static final class NotFoundException extends RuntimeException {
+    /** Serial version of the exception. */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create the exception.
+     *
+     * @param message which Item was not found.
+     */
+    private NotFoundException(String message) {
+      super(message, null, false, false);
+    }
+  }
+
+
+  /**
+   * Thrown when the body of a request is too large.
+   */
+  private static final class BodyTooLargeException extends RuntimeException {
+    /** Serial version of the exception. */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create the exception.
+     *
+     * @param message the limit exceeded.
+     */
+    private BodyTooLargeException(String message) {
+      super(message, null, false, false);
+    }
+  }
+
+
+  /**
+   * Creates the daemon threads of the pool used when there are
+   * no virtual threads.
+   */
+  private static final class DaemonThreads implements ThreadFactory {
+    /** Number of the next thread. */
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable task) {
+      Thread thread = new Thread(task, "warehouse-http-" + next.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,1133 @@
+package no.ntnu.candidate10034;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable log of the changes made to a Warehouse.
+ *
+ * <p>Every addition, deletion and change of a field is appended
+ * to a file as a compact binary record. When the application
+ * starts again, the log is replayed to rebuild the registry as
+ * it was.
+ *
+ * <p>Records name the Item they change by an id the log gives
+ * it when it is added, not by its itemNumber, which may itself
+ * be changed. Ids count up from 0 within a generation of the
+ * log: a checkpoint gives the Items of its snapshot the ids 0
+ * to n - 1 in the order of the snapshot, and the next Item
+ * added gets n.
+ *
+ * <p>Records are encoded into an in-memory buffer on the thread
+ * making the change. A background thread writes the buffer to
+ * the file and forces it to disk according to the FsyncPolicy,
+ * so that many changes share one write and one fsync (group
+ * commit). The file starts with a magic number and the
+ * generation of the log, followed by records of the form
+ * <pre>
+ *   int    length of body
+ *   byte[] body: type followed by the fields of the change
+ *   int    CRC32C of body
+ * </pre>
+ * A record cut short by a crash fails its checksum, and the log
+ * is truncated before it when opened again.
+ *
+ * <p>The log is told of changes as a WarehouseListener. If a
+ * record cannot be appended, the error is thrown to the caller
+ * of the change once the other listeners have been told, and
+ * the change stays in memory but is missing from the log. An
+ * addition is the exception: it is undone instead.
+ *
+ * <p>A {@link #checkpoint(Path) checkpoint} writes the whole
+ * registry to a Snapshot and starts a new, empty generation of
+ * the log. The snapshot remembers how far into the log it got,
+ * so that opening never applies a change twice, even when the
+ * application stopped in the middle of a checkpoint.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public final class WriteAheadLog implements WarehouseListener, Closeable {
+  /** Default time between forces with FsyncPolicy.INTERVAL. */
+  public static final long DEFAULT_INTERVAL_MILLIS = 10;
+
+  /** First bytes of a log file: "WMSWAL" followed by the format version. */
+  static final long MAGIC = 0x574D5357414C0003L;
+  /** Bytes of the file header: magic number and generation. */
+  static final int HEADER_SIZE = 16;
+
+  /** Record of an added Item with its id and all its fields. */
+  static final byte ADD = 1;
+  /** Record of a deleted Item, by its id. */
+  static final byte REMOVE = 2;
+  /** Record of an amount change, as id and signed delta. */
+  static final byte AMOUNT = 3;
+  /** Record of a price change, as id and new price. */
+  static final byte PRICE = 4;
+  /** Record of another field change, as id, field and new value. */
+  static final byte FIELD = 5;
+
+  /** Fields of the Item class, by their ordinal in FIELD records. */
+  private static final ItemField[] FIELDS = ItemField.values();
+
+  /** Capacity of each of the two buffers. */
+  private static final int BUFFER_SIZE = 1 << 20;
+  /** Bytes of a record besides its body: length and checksum. */
+  private static final int FRAMING = 8;
+
+  /** Location of the log. */
+  private final Path file;
+  /** File the records are written to. Replaced by checkpoints. */
+  private volatile FileChannel channel;
+  /** Generation of the log, increased by every checkpoint. Guarded by lock. */
+  private long generation;
+  /** When records are forced to disk. */
+  private final FsyncPolicy policy;
+  /** Time between forces, unless ALWAYS. */
+  private final long intervalNanos;
+  /** Warehouse whose changes are logged. */
+  private final Warehouse warehouse;
+  /** Number of records replayed when the log was opened. */
+  private final int replayedRecords;
+
+  /** Guards the buffers and counters below. */
+  private final ReentrantLock lock;
+  /** Signalled when the flusher has work to do. */
+  private final Condition dataAvailable;
+  /** Signalled when the flusher has written a batch. */
+  private final Condition flushed;
+  /** Checksum of the record being encoded. Guarded by lock. */
+  private final CRC32C checksum;
+  /** Buffer records are appended to. Guarded by lock. */
+  private ByteBuffer active;
+  /** Buffer which is being written, or empty. Owned by the flusher. */
+  private ByteBuffer spare;
+  /** Id of the next Item added. Guarded by lock. */
+  private int nextId;
+  /** Number of records appended. Written under lock. */
+  private volatile long appended;
+  /** Number of records written and forced according to the policy. Guarded by lock. */
+  private long durable;
+  /** Whether the log is closing. Guarded by lock. */
+  private boolean closed;
+  /** Error which stopped the flusher, if any. Guarded by lock. */
+  private IOException failure;
+
+  /** Thread writing the buffers to the file. */
+  private final Thread flusher;
+
+
+  /**
+   * Create a log appending to an open file.
+   *
+   * @param file location of the log.
+   * @param channel the file, positioned at the end of the valid records.
+   * @param generation generation of the log file.
+   * @param policy when records are forced to disk.
+   * @param intervalMillis time between forces, unless ALWAYS.
+   * @param warehouse the warehouse whose changes are logged.
+   * @param replayedRecords number of records replayed on opening.
+   * @param nextId id of the next Item added.
+   */
+  private WriteAheadLog(
+      Path file, FileChannel channel, long generation, FsyncPolicy policy,
+      long intervalMillis, Warehouse warehouse, int replayedRecords, int nextId
+  ) {
+    this.file = file;
+    this.channel = channel;
+    this.generation = generation;
+    this.policy = policy;
+    this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervalMillis));
+    this.warehouse = warehouse;
+    this.replayedRecords = replayedRecords;
+    this.nextId = nextId;
+    this.lock = new ReentrantLock();
+    this.dataAvailable = lock.newCondition();
+    this.flushed = lock.newCondition();
+    this.checksum = new CRC32C();
+    this.active = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    this.spare = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    this.flusher = new Thread(this::flushLoop, "wal-flusher");
+    this.flusher.setDaemon(true);
+  }
+
+
+  /**
+   * Open a log with the default interval between forces.
+   *
+   * @param file the log file, created if missing.
+   * @param policy when records are forced to disk.
+   * @param warehouse the warehouse to restore and log.
+   * @return the opened log.
+   * @throws IOException if the file cannot be read or written.
+   * @see #open(Path, FsyncPolicy, long, Warehouse)
+   */
+  public static WriteAheadLog open(Path file, FsyncPolicy policy, Warehouse warehouse)
+      throws IOException {
+    return open(file, policy, DEFAULT_INTERVAL_MILLIS, warehouse);
+  }
+
+
+  /**
+   * Open a log, replaying its records into a warehouse and then
+   * logging every later change of that warehouse.
+   *
+   * <p>The warehouse would normally be empty. A record cut short
+   * by a crash ends the replay, and is removed from the file.
+   *
+   * @param file the log file, created if missing.
+   * @param policy when records are forced to disk.
+   * @param intervalMillis time between forces, unless ALWAYS.
+   * @param warehouse the warehouse to restore and log.
+   * @return the opened log.
+   * @throws IOException if the file cannot be read or written.
+   */
+  public static WriteAheadLog open(
+      Path file, FsyncPolicy policy, long intervalMillis, Warehouse warehouse
+  ) throws IOException {
+    return open(file, null, policy, intervalMillis, warehouse);
+  }
+
+
+  /**
+   * Open a log along with the snapshot of its last checkpoint,
+   * restoring the warehouse from both, and then log every later
+   * change of that warehouse.
+   *
+   * <p>The snapshot is loaded first, if it exists. Only the
+   * records of the log which came after it are replayed.
+   *
+   * @param file the log file, created if missing.
+   * @param snapshotFile the snapshot written by checkpoints, or
+   *      null for none.
+   * @param policy when records are forced to disk.
+   * @param intervalMillis time between forces, unless ALWAYS.
+   * @param warehouse the empty warehouse to restore and log.
+   * @return the opened log.
+   * @throws IOException if a file cannot be read or written.
+   */
+  public static WriteAheadLog open(
+      Path file, Path snapshotFile, FsyncPolicy policy,
+      long intervalMillis, Warehouse warehouse
+  ) throws IOException {
+    long snapshotGeneration = -1;
+    long snapshotOffset = HEADER_SIZE;
+    Replay replay = new Replay(warehouse);
+    if (snapshotFile != null && Files.exists(snapshotFile)) {
+      try (Snapshot snapshot = Snapshot.open(snapshotFile)) {
+        Item[] items = snapshot.getItems();
+        warehouse.addAll(items);
+        for (Item item : items) {
+          replay.register(item);
+        }
+        snapshotGeneration = snapshot.getLogGeneration();
+        snapshotOffset = snapshot.getLogOffset();
+      }
+    }
+
+    long[] replayed = null;
+    if (Files.exists(file) && Files.size(file) > 0) {
+      replayed = replayRecords(file, replay, snapshotGeneration, snapshotOffset);
+    }
+
+    long generation;
+    FileChannel channel;
+    if (replayed == null || replayed[2] < snapshotGeneration) {
+      /* No log, or one older than the snapshot: start the next generation. */
+      generation = snapshotGeneration + 1;
+      channel = create(file, generation);
+      replayed = new long[] {0, HEADER_SIZE, generation};
+    } else {
+      generation = replayed[2];
+      channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      try {
+        if (channel.size() > replayed[1]) {
+          channel.truncate(replayed[1]);
+        }
+        channel.position(replayed[1]);
+      } catch (IOException e) {
+        channel.close();
+        throw e;
+      }
+    }
+
+    WriteAheadLog log = new WriteAheadLog(
+        file, channel, generation, policy, intervalMillis, warehouse,
+        (int) replayed[0], replay.next
+    );
+    log.flusher.start();
+    warehouse.addListener(log);
+    warehouse.log = log;
+    return log;
+  }
+
+
+  /**
+   * Replay the records of a log into a warehouse without
+   * logging anything. The log must not have been checkpointed,
+   * since the records after a checkpoint name the Items of its
+   * snapshot.
+   *
+   * @param file the log file.
+   * @param warehouse the warehouse to apply the records to.
+   * @return the number of records replayed.
+   * @throws IOException if the file cannot be read or is not a log.
+   */
+  public static int replay(Path file, Warehouse warehouse) throws IOException {
+    return (int) replayRecords(file, new Replay(warehouse), -1, HEADER_SIZE)[0];
+  }
+
+
+  /**
+   * Write the whole registry to a snapshot, and start a new,
+   * empty generation of the log.
+   *
+   * <p>The snapshot is written to a temporary file which then
+   * replaces snapshotFile, and the new log likewise replaces
+   * the old one, so a crash at any point leaves a snapshot and
+   * log which together hold every change.
+   *
+   * <p>The snapshot has to match the position it records in
+   * the log, so every change of the warehouse and its Items
+   * waits while the checkpoint is taken. The records appended
+   * before it are first written to the old log, so that the
+   * position covers them all.
+   *
+   * @param snapshotFile the snapshot to write.
+   * @throws IOException if a file could not be written.
+   */
+  public void checkpoint(Path snapshotFile) throws IOException {
+    long stamp = warehouse.lockChanges();
+    lock.lock();
+    try {
+      long target = appended;
+      dataAvailable.signal();
+      while (durable < target) {
+        checkFailure();
+        flushed.awaitUninterruptibly();
+      }
+      checkFailure();
+      long offset = channel.position();
+      Item[] items = warehouse.stream().toArray(Item[]::new);
+      Snapshot.write(items, snapshotFile, generation, offset);
+
+      FileChannel next = create(file, generation + 1);
+      FileChannel previous = channel;
+      channel = next;
+      generation++;
+      /* The new generation names the Items by their position in the snapshot. */
+      for (int id = 0; id < items.length; id++) {
+        items[id].logId = id;
+      }
+      nextId = items.length;
+      previous.close();
+    } finally {
+      lock.unlock();
+      warehouse.unlockChanges(stamp);
+    }
+  }
+
+
+  /**
+   * Create an empty log file of a given generation, replacing
+   * any file at the location once it is durable.
+   *
+   * @param file location of the log.
+   * @param generation generation of the new log.
+   * @return the new file, positioned after its header.
+   * @throws IOException if the file could not be written.
+   */
+  private static FileChannel create(Path file, long generation) throws IOException {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(
+        temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING
+    )) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putLong(MAGIC).putLong(generation);
+      header.flip();
+      while (header.hasRemaining()) {
+        channel.write(header);
+      }
+      channel.force(true);
+    }
+    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    channel.position(HEADER_SIZE);
+    return channel;
+  }
+
+
+  /**
+   * Get the number of records which were replayed when the log was opened.
+   *
+   * @return number of replayed records.
+   */
+  public int getReplayedRecords() {
+    return replayedRecords;
+  }
+
+
+  /**
+   * Get the policy deciding when records are forced to disk.
+   *
+   * @return the fsync policy.
+   */
+  public FsyncPolicy getPolicy() {
+    return policy;
+  }
+
+
+  /**
+   * Wait until every record appended so far has been written,
+   * and forced to disk unless the policy is NEVER.
+   *
+   * @throws UncheckedIOException if the log could not be written.
+   */
+  public void sync() {
+    lock.lock();
+    try {
+      long target = appended;
+      dataAvailable.signal();
+      while (durable < target) {
+        checkFailure();
+        flushed.awaitUninterruptibly();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+
+  /**
+   * Get the number of records appended so far, the sequence of
+   * the last one.
+   *
+   * @return number of appended records.
+   */
+  long appended() {
+    return appended;
+  }
+
+
+  /**
+   * Wait until the record with a sequence, and every record
+   * before it, has been forced to disk, if the policy is ALWAYS.
+   *
+   * <p>Records are only appended while the warehouse is locked,
+   * and the Warehouse waits for them here once it has released
+   * the lock, so that changes of other threads can join the
+   * same force meanwhile. Returns at once with the other
+   * policies.
+   *
+   * @param sequence the sequence of the record.
+   * @throws UncheckedIOException if the log could not be written.
+   */
+  void awaitDurable(long sequence) {
+    if (policy != FsyncPolicy.ALWAYS) {
+      return;
+    }
+    lock.lock();
+    try {
+      while (durable < sequence) {
+        checkFailure();
+        flushed.awaitUninterruptibly();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+
+  /**
+   * Stop logging, write the remaining records and close the file.
+   *
+   * @throws IOException if the file could not be written or closed.
+   */
+  @Override
+  public void close() throws IOException {
+    warehouse.removeListener(this);
+    if (warehouse.log == this) {
+      warehouse.log = null;
+    }
+
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      dataAvailable.signal();
+    } finally {
+      lock.unlock();
+    }
+
+    boolean interrupted = false;
+    while (flusher.isAlive()) {
+      try {
+        flusher.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+
+    try {
+      if (failure != null) {
+        throw failure;
+      }
+      channel.force(true);
+    } finally {
+      channel.close();
+    }
+  }
+
+
+  /*
+  * LISTENER METHODS
+  * ----------------------------------------------------------------
+  */
+
+  @Override
+  public void itemAdded(Item item) {
+    append(ADD, item, 0);
+  }
+
+
+  @Override
+  public void itemRemoved(Item item) {
+    append(REMOVE, item, 0);
+  }
+
+
+  @Override
+  public void amountChanged(Item item, int oldAmount, int newAmount) {
+    append(AMOUNT, item, newAmount - oldAmount);
+  }
+
+
+  @Override
+  public void priceChanged(Item item, int oldPrice, int newPrice) {
+    /* An Item reports its price changes one at a time, so the records keep their order. */
+    append(PRICE, item, newPrice);
+  }
+
+
+  @Override
+  public void fieldChanged(Item item, ItemField field) {
+    append(FIELD, item, field.ordinal());
+  }
+
+
+
+  /*
+  * WRITING
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Encode a record into the active buffer. With the policy
+   * ALWAYS the flusher is woken at once, but the record is not
+   * waited for here, since the warehouse may be locked: see
+   * {@link #awaitDurable(long)}.
+   *
+   * <p>An ADD record gives the Item the next id. A FIELD record
+   * holds the value the field has when the record is appended,
+   * so that of two changes of the same field, the record
+   * appended last holds the value set last.
+   *
+   * <p>Does not allocate, except for the first record after the
+   * log failed.
+   *
+   * @param type type of the record.
+   * @param item the Item which changed.
+   * @param value delta, price or field ordinal of AMOUNT, PRICE
+   *      and FIELD records.
+   * @return the sequence of the record.
+   * @throws UncheckedIOException if the log could not be written.
+   */
+  private long append(byte type, Item item, int value) {
+    lock.lock();
+    try {
+      int id = type == ADD ? nextId : item.logId;
+      String text = type == FIELD ? text(item, FIELDS[value]) : null;
+      int bodyLength = bodyLength(type, id, item, value, text);
+      if (bodyLength + FRAMING > BUFFER_SIZE) {
+        throw new IllegalArgumentException("Item is too large for the log");
+      }
+      checkFailure();
+      if (closed) {
+        throw new IllegalStateException("The log is closed");
+      }
+      while (active.remaining() < bodyLength + FRAMING) {
+        dataAvailable.signal();
+        flushed.awaitUninterruptibly();
+        checkFailure();
+      }
+
+      if (type == ADD) {
+        item.logId = id;
+        nextId = id + 1;
+      }
+      ByteBuffer buffer = active;
+      buffer.putInt(bodyLength);
+      int start = buffer.position();
+      encode(buffer, type, item, value, text);
+
+      int end = buffer.position();
+      checksum.reset();
+      buffer.position(start).limit(end);
+      checksum.update(buffer);
+      buffer.limit(buffer.capacity());
+      buffer.putInt((int) checksum.getValue());
+
+      long sequence = appended + 1;
+      appended = sequence;
+      if (policy == FsyncPolicy.ALWAYS || buffer.position() > BUFFER_SIZE / 2) {
+        dataAvailable.signal();
+      }
+      return sequence;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+
+  /**
+   * Get the value of a String field of an Item.
+   *
+   * @param item the Item.
+   * @param field the field.
+   * @return the value, or null if the field is not a String.
+   */
+  private static String text(Item item, ItemField field) {
+    switch (field) {
+      case NUMBER:
+        return item.getItemNumber();
+      case BRAND:
+        return item.getItemBrand();
+      case COLOR:
+        return item.getItemColor();
+      case DESCRIPTION:
+        return item.getItemDescription();
+      default:
+        return null;
+    }
+  }
+
+
+  /**
+   * Write the body of a record.
+   *
+   * @param buffer the buffer to write to.
+   * @param type type of the record.
+   * @param item the Item which changed.
+   * @param value delta, price or field ordinal of AMOUNT, PRICE
+   *      and FIELD records.
+   * @param text new value of a String field of a FIELD record.
+   */
+  private static void encode(ByteBuffer buffer, byte type, Item item, int value, String text) {
+    buffer.put(type);
+    putVarInt(buffer, item.logId);
+
+    if (type == ADD) {
+      putString(buffer, item.getItemNumber());
+      putString(buffer, item.getItemBrand());
+      putString(buffer, item.getItemColor());
+      putString(buffer, item.getItemDescription());
+      buffer.putDouble(item.getItemWeight());
+      buffer.putDouble(item.getItemLength());
+      buffer.putDouble(item.getItemHeight());
+      buffer.putInt(item.getItemPrice());
+      buffer.putInt(item.getItemAmount());
+      buffer.putInt(item.getItemCategoryAsInt() + 1);
+    } else if (type == AMOUNT || type == PRICE) {
+      buffer.putInt(value);
+    } else if (type == FIELD) {
+      ItemField field = FIELDS[value];
+      buffer.put((byte) value);
+      if (text != null) {
+        putString(buffer, text);
+      } else if (field == ItemField.WEIGHT) {
+        buffer.putDouble(item.getItemWeight());
+      } else if (field == ItemField.LENGTH) {
+        buffer.putDouble(item.getItemLength());
+      } else if (field == ItemField.HEIGHT) {
+        buffer.putDouble(item.getItemHeight());
+      } else {
+        buffer.putInt(item.getItemCategoryAsInt() + 1);
+      }
+    }
+  }
+
+
+  /**
+   * Compute the encoded length of a record body.
+   *
+   * @param type type of the record.
+   * @param id id of the Item in the log.
+   * @param item the Item which changed.
+   * @param value field ordinal of a FIELD record.
+   * @param text new value of a String field of a FIELD record.
+   * @return number of bytes of the body.
+   */
+  private static int bodyLength(byte type, int id, Item item, int value, String text) {
+    int length = 1 + varIntLength(id);
+
+    if (type == ADD) {
+      length += stringLength(item.getItemNumber())
+          + stringLength(item.getItemBrand())
+          + stringLength(item.getItemColor())
+          + stringLength(item.getItemDescription())
+          + 3 * Double.BYTES + 3 * Integer.BYTES;
+    } else if (type == AMOUNT || type == PRICE) {
+      length += Integer.BYTES;
+    } else if (type == FIELD) {
+      if (text != null) {
+        length += 1 + stringLength(text);
+      } else {
+        length += 1 + (FIELDS[value] == ItemField.CATEGORY ? Integer.BYTES : Double.BYTES);
+      }
+    }
+    return length;
+  }
+
+
+  /**
+   * Compute the encoded length of a String: a variable-length
+   * byte count followed by the UTF-8 bytes.
+   *
+   * @param value the String.
+   * @return number of bytes.
+   */
+  private static int stringLength(String value) {
+    int bytes = Utf8.length(value);
+    return varIntLength(bytes) + bytes;
+  }
+
+
+  /**
+   * Write a String as a variable-length byte count followed by
+   * its UTF-8 bytes, without allocating.
+   *
+   * @param buffer the buffer to write to.
+   * @param value the String.
+   */
+  private static void putString(ByteBuffer buffer, String value) {
+    putVarInt(buffer, Utf8.length(value));
+    Utf8.encode(buffer, value);
+  }
+
+
+  /**
+   * Compute the number of bytes of a variable-length int.
+   *
+   * @param value a non-negative int.
+   * @return number of bytes, 1 to 5.
+   */
+  private static int varIntLength(int value) {
+    int bytes = 1;
+    while ((value >>>= 7) != 0) {
+      bytes++;
+    }
+    return bytes;
+  }
+
+
+  /**
+   * Write a non-negative int in 7-bit groups, low group first.
+   *
+   * @param buffer the buffer to write to.
+   * @param value the int.
+   */
+  private static void putVarInt(ByteBuffer buffer, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+
+  /**
+   * Throw if the flusher has failed.
+   *
+   * @throws UncheckedIOException with the error of the flusher.
+   */
+  private void checkFailure() {
+    if (failure != null) {
+      throw new UncheckedIOException("The log could not be written", failure);
+    }
+  }
+
+
+  /**
+   * Body of the flusher thread: swaps the buffers, writes the
+   * full one to the file and forces it according to the policy.
+   */
+  private void flushLoop() {
+    while (true) {
+      ByteBuffer batch;
+      long batchEnd;
+      FileChannel target;
+
+      lock.lock();
+      try {
+        if (!closed && active.position() <= BUFFER_SIZE / 2) {
+          if (policy == FsyncPolicy.ALWAYS) {
+            while (!closed && active.position() == 0) {
+              dataAvailable.awaitUninterruptibly();
+            }
+          } else {
+            try {
+              dataAvailable.awaitNanos(intervalNanos);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              closed = true;
+            }
+          }
+        }
+        if (active.position() == 0) {
+          if (closed) {
+            return;
+          }
+          continue;
+        }
+        batch = active;
+        active = spare;
+        spare = batch;
+        batchEnd = appended;
+        target = channel;
+        flushed.signalAll();
+      } finally {
+        lock.unlock();
+      }
+
+      IOException error = null;
+      try {
+        batch.flip();
+        while (batch.hasRemaining()) {
+          target.write(batch);
+        }
+        if (policy != FsyncPolicy.NEVER) {
+          target.force(false);
+        }
+      } catch (IOException e) {
+        error = e;
+      }
+      batch.clear();
+
+      lock.lock();
+      try {
+        if (error != null) {
+          failure = error;
+        } else {
+          durable = batchEnd;
+        }
+        flushed.signalAll();
+        if (error != null) {
+          return;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+
+
+  /*
+  * REPLAY
+  * ----------------------------------------------------------------
+  */
+
+  /**
+   * Apply the valid records of a log to a warehouse.
+   *
+   * <p>If the log is of the generation a snapshot was taken in,
+   * the records before the offset recorded by the snapshot are
+   * skipped. A log of an older generation is skipped as a whole.
+   *
+   * @param file the log file.
+   * @param replay the warehouse to apply the records to, and its Items by id.
+   * @param snapshotGeneration generation recorded by the snapshot, or -1.
+   * @param snapshotOffset offset recorded by the snapshot.
+   * @return number of records replayed, the file offset after
+   *      the last valid record and the generation of the log.
+   * @throws IOException if the file cannot be read or is not a log.
+   */
+  private static long[] replayRecords(
+      Path file, Replay replay, long snapshotGeneration, long snapshotOffset
+  ) throws IOException {
+    long records = 0;
+    long offset = HEADER_SIZE;
+    long generation;
+
+    try (InputStream stream = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+        DataInputStream input = new DataInputStream(stream)) {
+      if (input.readLong() != MAGIC) {
+        throw new IOException("Not a warehouse log: " + file);
+      }
+      generation = input.readLong();
+      if (generation < snapshotGeneration) {
+        return new long[] {0, HEADER_SIZE, generation};
+      }
+      if (generation == snapshotGeneration && snapshotOffset > HEADER_SIZE) {
+        input.skipNBytes(snapshotOffset - HEADER_SIZE);
+        offset = snapshotOffset;
+      }
+
+      CRC32C crc = new CRC32C();
+      byte[] body = new byte[256];
+      while (true) {
+        int length;
+        try {
+          length = input.readInt();
+          if (length <= 0 || length > BUFFER_SIZE) {
+            throw new EOFException();
+          }
+          if (body.length < length) {
+            body = new byte[Math.max(length, body.length * 2)];
+          }
+          input.readFully(body, 0, length);
+          int expected = input.readInt();
+          crc.reset();
+          crc.update(body, 0, length);
+          if ((int) crc.getValue() != expected) {
+            throw new EOFException();
+          }
+        } catch (EOFException e) {
+          /* A torn or damaged record ends the valid part of the log. */
+          break;
+        }
+        apply(ByteBuffer.wrap(body, 0, length), replay);
+        records++;
+        offset += length + FRAMING;
+      }
+    } catch (EOFException e) {
+      throw new IOException("Not a warehouse log: " + file, e);
+    }
+    return new long[] {records, offset, generation};
+  }
+
+
+  /**
+   * Apply one record to a warehouse.
+   *
+   * @param body the body of the record.
+   * @param replay the warehouse to apply it to, and its Items by id.
+   */
+  private static void apply(ByteBuffer body, Replay replay) {
+    byte type = body.get();
+    int id = getVarInt(body);
+
+    if (type == ADD) {
+      String number = getString(body);
+      String brand = getString(body);
+      String color = getString(body);
+      String description = getString(body);
+      Item item = new Item(
+          number, brand, color, description,
+          body.getDouble(), body.getDouble(), body.getDouble(),
+          body.getInt(), body.getInt(), body.getInt()
+      );
+      replay.warehouse.addItem(item, number, description);
+      replay.register(id, item, number, description);
+      return;
+    }
+
+    Item item = replay.get(id);
+    if (item == null) {
+      return;
+    }
+    if (type == REMOVE) {
+      replay.remove(id);
+    } else if (type == AMOUNT) {
+      /* Concurrent deltas may be logged out of order, so none is rejected. */
+      int delta = body.getInt();
+      int amount = item.addItemAmount(delta);
+      replay.warehouse.fireAmountChanged(item, amount - delta, amount);
+    } else if (type == PRICE) {
+      item.setItemPrice(body.getInt());
+    } else if (type == FIELD) {
+      applyField(body, item, FIELDS[body.get()]);
+    }
+  }
+
+
+  /**
+   * Set the field of an Item a FIELD record changed.
+   *
+   * @param body the rest of the record, holding the new value.
+   * @param item the Item which changed.
+   * @param field the field which changed.
+   */
+  private static void applyField(ByteBuffer body, Item item, ItemField field) {
+    switch (field) {
+      case NUMBER:
+        item.setItemNumber(getString(body));
+        break;
+      case BRAND:
+        item.setItemBrand(getString(body));
+        break;
+      case COLOR:
+        item.setItemColor(getString(body));
+        break;
+      case DESCRIPTION:
+        item.setItemDescription(getString(body));
+        break;
+      case WEIGHT:
+        item.setItemWeight(body.getDouble());
+        break;
+      case LENGTH:
+        item.setItemLength(body.getDouble());
+        break;
+      case HEIGHT:
+        item.setItemHeight(body.getDouble());
+        break;
+      case CATEGORY:
+        item.setItemCategory(body.getInt());
+        break;
+      default:
+        break;
+    }
+  }
+
+
+  /**
+   * Read a non-negative int written by putVarInt.
+   *
+   * @param buffer the buffer to read from.
+   * @return the int.
+   */
+  private static int getVarInt(ByteBuffer buffer) {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = buffer.get();
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+
+
+  /**
+   * Read a String written by putString.
+   *
+   * @param buffer the buffer to read from.
+   * @return the String.
+   */
+  private static String getString(ByteBuffer buffer) {
+    int length = getVarInt(buffer);
+
+    String value = new String(
+        buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8
+    );
+    buffer.position(buffer.position() + length);
+    return value;
+  }
+
+
+  /**
+   * The Items of a warehouse being restored, by their id in the
+   * log, along with the keys each was added under.
+   */
+  private static final class Replay {
+    /** Warehouse the records are applied to. */
+    private final Warehouse warehouse;
+    /** Items by id, null once deleted. */
+    private Item[] items;
+    /** itemNumber each Item was added under, by id. */
+    private String[] numbers;
+    /** itemDescription each Item was added under, by id. */
+    private String[] descriptions;
+    /** Id of the next Item added. */
+    private int next;
+
+    /**
+     * Start restoring a warehouse.
+     *
+     * @param warehouse the warehouse to apply the records to.
+     */
+    private Replay(Warehouse warehouse) {
+      this.warehouse = warehouse;
+      this.items = new Item[16];
+      this.numbers = new String[16];
+      this.descriptions = new String[16];
+    }
+
+    /**
+     * Give an Item the next id.
+     *
+     * @param item the Item.
+     */
+    private void register(Item item) {
+      register(next, item, item.getItemNumber(), item.getItemDescription());
+    }
+
+    /**
+     * Give an added Item an id.
+     *
+     * @param id id of the Item in the log.
+     * @param item the Item.
+     * @param number itemNumber it was added under.
+     * @param description itemDescription it was added under.
+     */
+    private void register(int id, Item item, String number, String description) {
+      if (id >= items.length) {
+        int capacity = Math.max(id + 1, items.length * 2);
+        items = Arrays.copyOf(items, capacity);
+        numbers = Arrays.copyOf(numbers, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+      }
+      items[id] = item;
+      numbers[id] = number;
+      descriptions[id] = description;
+      item.logId = id;
+      next = Math.max(next, id + 1);
+    }
+
+    /**
+     * Find the Item with an id, if it is in the warehouse.
+     *
+     * @param id id of the Item in the log.
+     * @return the Item, or null if none.
+     */
+    private Item get(int id) {
+      Item item = id < next ? items[id] : null;
+      return item != null && item.owner == warehouse ? item : null;
+    }
+
+    /**
+     * Delete the Item with an id by the keys it was added under.
+     *
+     * @param id id of the Item in the log.
+     */
+    private void remove(int id) {
+      warehouse.deleteCurrentItem(items[id], numbers[id], descriptions[id]);
+      items[id] = null;
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the AttributeIndex-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class AttributeIndexTest {
+
+  /**
+   * Get the itemNumbers of the Items matching a query.
+   *
+   * @param attributes the index.
+   * @param brand the brand, or null.
+   * @param color the color, or null.
+   * @param category the category, or 0.
+   * @return the itemNumbers in order of id.
+   */
+  private String[] numbers(AttributeIndex attributes, String brand, String color, int category) {
+    return attributes.items(attributes.query(brand, color, category)).stream()
+        .map(Item::getItemNumber)
+        .toArray(String[]::new);
+  }
+
+
+  /**
+   * Queries combine the attributes, ignoring case.
+   */
+  @Test
+  public void testQueryCombinesAttributes() {
+    Warehouse warehouse = TestItems.warehouse(12);
+    AttributeIndex attributes = warehouse.attributes();
+    Item item = TestItems.item(12);
+    TestItems.add(warehouse, item);
+
+    assertArrayEquals(
+        new String[] {"Number 0", "Number 12"},
+        numbers(attributes, "skeidar", "GREY", 1)
+    );
+    assertArrayEquals(
+        new String[] {"Number 0", "Number 6", "Number 12"},
+        numbers(attributes, "Skeidar", "grey", 0)
+    );
+    assertEquals(5, attributes.brand("Skeidar").cardinality());
+    assertEquals(7, attributes.color("grey").cardinality());
+    assertEquals(3, attributes.category(2).cardinality());
+    assertEquals(13, attributes.query(null, null, 0).cardinality());
+    assertTrue(attributes.query("Ikea", null, 0).isEmpty());
+    assertSame(attributes, warehouse.attributes());
+  }
+
+
+  /**
+   * Changed and deleted Items move between the bitmaps.
+   */
+  @Test
+  public void testChangesAreTracked() {
+    Warehouse warehouse = TestItems.warehouse(12);
+    AttributeIndex attributes = warehouse.attributes();
+
+    warehouse.search("Number 1").setItemBrand("Ikea");
+    warehouse.search("Number 3").setItemColor("Grey");
+    warehouse.search("Number 3").setItemCategory(1);
+    warehouse.deleteCurrentItem(warehouse.search("Number 0"), "Number 0", "Door 0");
+
+    assertArrayEquals(new String[] {"Number 1"}, numbers(attributes, "ikea", null, 0));
+    assertArrayEquals(
+        new String[] {"Number 4", "Number 7", "Number 10"},
+        numbers(attributes, "Jatak", null, 0)
+    );
+    assertArrayEquals(
+        new String[] {"Number 3", "Number 6"},
+        numbers(attributes, "Skeidar", "grey", 0)
+    );
+    assertArrayEquals(
+        new String[] {"Number 3", "Number 4", "Number 8"},
+        numbers(attributes, null, null, 1)
+    );
+
+    ItemBitmap before = attributes.brand("Tre");
+    warehouse.deleteCurrentItem(warehouse.search("Number 5"), "Number 5", "Door 5");
+    assertEquals(List.of("Number 2", "Number 8", "Number 11"),
+        attributes.items(before).stream().map(Item::getItemNumber).toList());
+  }
+
+
+  /**
+   * The bitmaps follow the Items when the warehouse is compacted.
+   */
+  @Test
+  public void testCompactionRenumbers() {
+    Warehouse warehouse = TestItems.warehouse(16);
+    AttributeIndex attributes = warehouse.attributes();
+    for (int index = 0; index < 12; index++) {
+      warehouse.deleteCurrentItem(
+          warehouse.search("Number " + index), "Number " + index, "Door " + index
+      );
+    }
+    Item item = TestItems.item(16);
+    TestItems.add(warehouse, item);
+
+    assertArrayEquals(new int[] {1, 4}, attributes.query("Jatak", null, 0).toArray());
+    assertArrayEquals(
+        new String[] {"Number 12", "Number 14", "Number 16"},
+        numbers(attributes, null, "grey", 0)
+    );
+  }
+
+
+  /**
+   * Brands and colors are matched the same way whatever the
+   * default Locale.
+   */
+  @Test
+  public void testIgnoresLocale() {
+    Locale locale = Locale.getDefault();
+    try {
+      Locale.setDefault(new Locale("tr", "TR"));
+      Warehouse warehouse = new Warehouse();
+      AttributeIndex attributes = warehouse.attributes();
+      warehouse.addItem(
+          new Item("A", "TIMBER", "WHITE", "Item A", 1, 1.0, 1.0, 10, 5, 1), "A", "Item A"
+      );
+
+      assertEquals(1, attributes.brand("timber").cardinality());
+      assertEquals(1, attributes.color("white").cardinality());
+      assertEquals(1, attributes.query("Timber", "White", 1).cardinality());
+    } finally {
+      Locale.setDefault(locale);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the BatchRunner-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class BatchRunnerTest {
+
+  /**
+   * Commands change the warehouse, and only queries write anything.
+   */
+  @Test
+  public void testRunScript() throws IOException {
+    Warehouse warehouse = new Warehouse();
+    StringWriter out = new StringWriter();
+    BatchRunner runner = new BatchRunner(warehouse, out);
+
+    long commands = runner.run(new StringReader(
+        "# receiving\n"
+        + "add DumbleDoor Skeidar grey \"Magical door\" 95 150.0 200.0 15000 3 3\n"
+        + "\n"
+        + "ADD Seamless \"Home Decor\" transparent \"Simplistic window\" 20 100 100 2350 12 2\n"
+        + "increase dumbledoor 7   # picked up late\n"
+        + "decrease \"SIMPLISTIC WINDOW\" 2\n"
+        + "discount DumbleDoor 10\n"
+        + "price Seamless 2000\n"
+        + "search \"magical door\"\n"
+        + "find seamless \"Simplistic window\"\n"
+        + "remove Seamless\n"
+        + "remove seamless\n"
+        + "search Seamless"
+    ));
+
+    assertEquals(11, commands);
+    assertEquals(0, runner.getFailed());
+    assertEquals(
+        "DumbleDoor\tSkeidar\tgrey\tMagical door\t95.0\t150.0\t200.0\t13500\t10\tdoor\n"
+        + "Seamless\tHome Decor\ttransparent\tSimplistic window\t20.0\t100.0\t100.0"
+        + "\t2000\t10\twindow\n"
+        + "NOT FOUND seamless\n"
+        + "NOT FOUND Seamless\n",
+        out.toString()
+    );
+    assertEquals(1, warehouse.size());
+    assertNull(warehouse.search("Seamless"));
+  }
+
+
+  /**
+   * A failing command is reported with its line, and the rest
+   * of the script still runs.
+   */
+  @Test
+  public void testErrorsDoNotStopScript() throws IOException {
+    Warehouse warehouse = new Warehouse();
+    StringWriter out = new StringWriter();
+    BatchRunner runner = new BatchRunner(warehouse, out);
+
+    runner.run(new StringReader(
+        "add Floor Jysk brown \"Futuristic floor\" 3 188 2 100 25 1\n"
+        + "add Floor Jysk brown \"Other floor\" 3 188 2 100 25 1\n"
+        + "decrease Floor 26\n"
+        + "increase Floor many\n"
+        + "fly Floor\n"
+        + "search \"Futuristic floor\n"
+        + "add Lumber Monter white Plank 12 200 5 -80 100 4\n"
+        + "increase floor 5\n"
+    ));
+
+    assertEquals(8, runner.getCommands());
+    assertEquals(6, runner.getFailed());
+    String[] lines = out.toString().split("\n");
+    assertEquals(6, lines.length);
+    assertEquals("ERROR line 2: Item already exists: Floor", lines[0]);
+    assertEquals("ERROR line 3: Invalid input for itemAmount", lines[1]);
+    assertEquals("ERROR line 4: Not a whole number: many", lines[2]);
+    assertEquals("ERROR line 5: Unknown command fly", lines[3]);
+    assertEquals("ERROR line 6: Unclosed quote", lines[4]);
+    assertEquals("ERROR line 7: Invalid input for itemPrice", lines[5]);
+    assertEquals(30, warehouse.search("floor").getItemAmount());
+  }
+
+
+  /**
+   * Scripts longer than the read buffer are split correctly.
+   */
+  @Test
+  public void testLongScript() throws IOException {
+    Warehouse warehouse = new Warehouse();
+    StringBuilder script = new StringBuilder();
+    for (int number = 0; number < 20000; number++) {
+      script.append("add N").append(number).append(" Jysk brown \"Item ").append(number)
+          .append("\" 1 1 1 10 0 1\n");
+    }
+    for (int number = 0; number < 20000; number++) {
+      script.append("increase n").append(number).append(' ').append(number).append('\n');
+    }
+
+    BatchRunner runner = new BatchRunner(warehouse, new StringWriter());
+    runner.run(new StringReader(script.toString()));
+
+    assertEquals(40000, runner.getCommands());
+    assertEquals(0, runner.getFailed());
+    assertEquals(20000, warehouse.size());
+    assertEquals(12345, warehouse.search("Item 12345").getItemAmount());
+  }
+}
@@ -0,0 +1,163 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the ChangeFeed-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class ChangeFeedTest {
+
+  /**
+   * Every kind of change is published, and each subscription
+   * reads all of them in order.
+   */
+  @Test
+  public void testEvents() {
+    Warehouse warehouse = new Warehouse();
+    ChangeFeed feed = warehouse.changes();
+    assertSame(feed, warehouse.changes());
+    ChangeFeed.Subscription first = feed.subscribe();
+    ChangeFeed.Subscription second = feed.subscribe();
+
+    Item item = TestItems.item("A");
+    warehouse.addItem(item, "A", "Item A");
+    warehouse.adjustAmount("A", -2);
+    item.setItemPrice(12);
+    item.setItemColor("white");
+    warehouse.deleteCurrentItem(item, "A", "Item A");
+
+    List<String> events = new ArrayList<>();
+    assertEquals(3, first.poll((sequence, type, changed, oldValue, newValue, time) -> {
+      assertSame(item, changed);
+      events.add(sequence + " " + type + " " + oldValue + " " + newValue);
+    }, 3));
+    assertEquals(2, first.poll((sequence, type, changed, oldValue, newValue, time) ->
+        events.add(sequence + " " + type + " "
+            + (type == ChangeFeed.Type.FIELD ? type.field(newValue) : oldValue + " " + newValue)),
+        100));
+    assertEquals(List.of(
+        "0 ADDED 0 5", "1 AMOUNT 5 3", "2 PRICE 10 12", "3 FIELD COLOR", "4 REMOVED 3 0"
+    ), events);
+    assertEquals(0, first.poll((sequence, type, changed, oldValue, newValue, time) -> { }, 100));
+    assertEquals(5, first.position());
+
+    assertEquals(5, second.lag());
+    assertEquals(5, second.poll((sequence, type, changed, oldValue, newValue, time) -> { }, 100));
+    assertEquals(0, second.lost());
+  }
+
+
+  /**
+   * A reader a whole ring behind skips the events overwritten and
+   * counts them as lost, without holding up the writers.
+   */
+  @Test
+  public void testOverrun() {
+    Warehouse warehouse = new Warehouse();
+    ChangeFeed feed = new ChangeFeed(3);
+    warehouse.addListener(feed);
+    assertEquals(4, feed.capacity());
+    ChangeFeed.Subscription slow = feed.subscribe();
+
+    warehouse.addItem(TestItems.item("A"), "A", "Item A");
+    for (int change = 0; change < 9; change++) {
+      warehouse.adjustAmount("A", 1);
+    }
+    assertEquals(10, feed.nextSequence());
+
+    List<Long> sequences = new ArrayList<>();
+    assertEquals(4, slow.poll((sequence, type, item, oldValue, newValue, time) ->
+        sequences.add(sequence), 100));
+    assertEquals(List.of(6L, 7L, 8L, 9L), sequences);
+    assertEquals(6, slow.lost());
+    assertEquals(6, feed.subscribeFromOldest().position());
+    assertThrows(IllegalArgumentException.class, () -> new ChangeFeed(0));
+  }
+
+
+  /**
+   * Publishing an event allocates nothing.
+   */
+  @Test
+  public void testPublishDoesNotAllocate() {
+    Warehouse warehouse = new Warehouse();
+    ChangeFeed feed = warehouse.changes();
+    Item item = TestItems.item("A");
+    warehouse.addItem(item, "A", "Item A");
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long thread = Thread.currentThread().getId();
+
+    for (int change = 0; change < 200_000; change++) {
+      warehouse.adjustAmount(item, change % 2 == 0 ? 1 : -1);
+    }
+    long before = threads.getThreadAllocatedBytes(thread);
+    for (int change = 0; change < 200_000; change++) {
+      warehouse.adjustAmount(item, change % 2 == 0 ? 1 : -1);
+    }
+    long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+    assertEquals(400_001, feed.nextSequence());
+    assertTrue(allocated < 10_000, allocated + " bytes allocated by 200000 changes");
+  }
+
+
+  /**
+   * Events published from several threads at once are read whole
+   * and in sequence by a concurrent reader.
+   */
+  @Test
+  public void testConcurrentPublishing() throws InterruptedException {
+    Warehouse warehouse = new Warehouse();
+    ChangeFeed feed = warehouse.changes();
+    Item item = TestItems.item("A");
+    warehouse.addItem(item, "A", "Item A");
+    ChangeFeed.Subscription reader = feed.subscribeFromOldest();
+
+    List<Thread> writers = new ArrayList<>();
+    for (int writer = 0; writer < 4; writer++) {
+      writers.add(new Thread(() -> {
+        for (int change = 0; change < 100_000; change++) {
+          warehouse.adjustAmount(item, 1);
+        }
+      }));
+    }
+    writers.forEach(Thread::start);
+
+    AtomicBoolean whole = new AtomicBoolean(true);
+    long[] expected = {0};
+    long read = 0;
+    ChangeFeed.Handler check = (sequence, type, changed, oldValue, newValue, time) -> {
+      if (sequence < expected[0] || type == ChangeFeed.Type.AMOUNT && newValue != oldValue + 1) {
+        whole.set(false);
+      }
+      expected[0] = sequence + 1;
+    };
+    boolean running = true;
+    while (running) {
+      running = writers.stream().anyMatch(Thread::isAlive);
+      read += reader.poll(check, 1000);
+    }
+    read += reader.poll(check, Integer.MAX_VALUE);
+    for (Thread writer : writers) {
+      writer.join();
+    }
+
+    assertTrue(whole.get());
+    assertEquals(400_001, read + reader.lost());
+    assertEquals(400_005, item.getItemAmount());
+  }
+}
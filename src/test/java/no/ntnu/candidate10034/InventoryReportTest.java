@@ -0,0 +1,161 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * JUnit-test class for testing of the InventoryReport-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class InventoryReportTest {
+  /** Items the reports are made of. */
+  private final List<Item> items = List.of(
+      new Item("Floor 2.0", "Jysk", "brown", "Futuristic floor", 3, 188.0, 2.0, 100, 25, 1),
+      new Item("DumbleDoor", "Skeidar", "grey", "Magical door, \"enchanted\"",
+          95, 150.0, 200.0, 15000, 3, 3),
+      new Item("To-tom-fir-tom", "Monter", "white", "Classic Norwegian go-to lumber",
+          12, 200.0, 5.08, 80, 100, 4)
+  );
+
+
+  /**
+   * A table pads and cuts text, right-aligns numbers and names
+   * the category.
+   */
+  @Test
+  public void testTable() throws IOException {
+    StringWriter out = new StringWriter();
+    InventoryReport report = new InventoryReport(
+        InventoryReport.Layout.TABLE, 0,
+        ItemField.NUMBER, ItemField.HEIGHT, ItemField.PRICE, ItemField.CATEGORY
+    );
+
+    assertEquals(3, report.write(items, out));
+    assertEquals(
+        "Item number      | Height    | Price      | Category      \n"
+        + "----------------------------------------------------------\n"
+        + "Floor 2.0        |       2.0 |        100 | floor laminate\n"
+        + "DumbleDoor       |     200.0 |      15000 | door          \n"
+        + "To-tom-fir-tom   |      5.08 |         80 | lumber        \n",
+        out.toString()
+    );
+  }
+
+
+  /**
+   * CSV writes the header once, quotes text which needs it and
+   * writes the category number.
+   */
+  @Test
+  public void testCsv() throws IOException {
+    StringWriter out = new StringWriter();
+    InventoryReport report = new InventoryReport(
+        InventoryReport.Layout.CSV, 2,
+        ItemField.DESCRIPTION, ItemField.WEIGHT, ItemField.CATEGORY
+    );
+
+    report.write(items, out);
+    assertEquals(
+        "itemDescription,itemWeight,itemCategory\n"
+        + "Futuristic floor,3.0,1\n"
+        + "\"Magical door, \"\"enchanted\"\"\",95.0,3\n"
+        + "Classic Norwegian go-to lumber,12.0,4\n",
+        out.toString()
+    );
+  }
+
+
+  /**
+   * Pages repeat the header of a table, and can be written one
+   * at a time.
+   */
+  @Test
+  public void testPages() throws IOException {
+    InventoryReport report = new InventoryReport(
+        InventoryReport.Layout.TABLE, 2, ItemField.NUMBER
+    );
+    String header = "Item number     \n----------------\n";
+
+    StringWriter all = new StringWriter();
+    assertEquals(3, report.write(items, all));
+    assertEquals(
+        "Page 1\n" + header + "Floor 2.0       \nDumbleDoor      \n"
+        + "Page 2\n" + header + "To-tom-fir-tom  \n",
+        all.toString()
+    );
+
+    StringWriter second = new StringWriter();
+    assertEquals(1, report.writePage(items, 2, second));
+    assertEquals("Page 2\n" + header + "To-tom-fir-tom  \n", second.toString());
+
+    StringWriter third = new StringWriter();
+    assertEquals(0, report.writePage(items, 3, third));
+    assertEquals("", third.toString());
+    assertThrows(IllegalArgumentException.class,
+        () -> new InventoryReport(InventoryReport.Layout.CSV, -1));
+  }
+
+
+  /**
+   * Measurements are written as Double.toString writes them.
+   */
+  @Test
+  public void testMeasurementsMatchDoubleToString() throws IOException {
+    Random random = new Random(10034);
+    double[] values = new double[2000];
+    for (int index = 0; index < values.length; index++) {
+      switch (index % 4) {
+        case 0:
+          values[index] = random.nextInt(100000) / 100.0;
+          break;
+        case 1:
+          values[index] = random.nextInt(1000000) / 1000.0;
+          break;
+        case 2:
+          values[index] = random.nextDouble() * Math.pow(10, random.nextInt(12) - 4);
+          break;
+        default:
+          values[index] = random.nextInt(50);
+          break;
+      }
+    }
+
+    InventoryReport report = new InventoryReport(InventoryReport.Layout.CSV, 0, ItemField.WEIGHT);
+    for (double value : values) {
+      StringWriter out = new StringWriter();
+      Item item = new Item("N", "B", "C", "D", value, 1, 1, 1, 1, 1);
+      report.write(List.of(item), out);
+      assertEquals("itemWeight\n" + value + "\n", out.toString());
+    }
+  }
+
+
+  /**
+   * A report can be written to a file.
+   */
+  @Test
+  public void testWriteFile(@TempDir Path directory) throws IOException {
+    Path file = directory.resolve("inventory.csv");
+    InventoryReport report = new InventoryReport(InventoryReport.Layout.CSV, 0);
+
+    assertEquals(3, report.write(items, file));
+    List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    assertEquals(4, lines.size());
+    assertEquals("itemNumber,itemBrand,itemColor,itemDescription,itemWeight,itemLength,"
+        + "itemHeight,itemPrice,itemAmount,itemCategory", lines.get(0));
+    assertEquals("Floor 2.0,Jysk,brown,Futuristic floor,3.0,188.0,2.0,100,25,1", lines.get(1));
+  }
+}
@@ -0,0 +1,131 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the ItemBitmap-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class ItemBitmapTest {
+
+  /**
+   * Fill a bitmap and a BitSet with the same random ids.
+   *
+   * <p>Ids are drawn from a few chunks at different densities,
+   * so that both the sorted and the bitset chunks are used.
+   *
+   * @param random source of the ids.
+   * @param bitmap the bitmap to fill.
+   * @param expected the BitSet to fill.
+   * @param count number of ids to draw.
+   */
+  private void fill(Random random, ItemBitmap bitmap, BitSet expected, int count) {
+    for (int index = 0; index < count; index++) {
+      int chunk = random.nextInt(3);
+      int range = chunk == 0 ? 1 << 16 : chunk == 1 ? 1 << 12 : 1 << 14;
+      int id = (chunk << 16) + random.nextInt(range);
+      assertEquals(!expected.get(id), bitmap.add(id));
+      expected.set(id);
+    }
+  }
+
+
+  /**
+   * Get the ids of a BitSet.
+   *
+   * @param bits the BitSet.
+   * @return its ids in ascending order.
+   */
+  private int[] ids(BitSet bits) {
+    return bits.stream().toArray();
+  }
+
+
+  /**
+   * Random additions and removals give the same ids as a BitSet.
+   */
+  @Test
+  public void testAddRemoveMatchesBitSet() {
+    Random random = new Random(11);
+    ItemBitmap bitmap = new ItemBitmap();
+    BitSet expected = new BitSet();
+
+    fill(random, bitmap, expected, 30000);
+    assertArrayEquals(ids(expected), bitmap.toArray());
+    assertEquals(expected.cardinality(), bitmap.cardinality());
+
+    for (int index = 0; index < 40000; index++) {
+      int id = random.nextInt(3 << 16);
+      assertEquals(expected.get(id), bitmap.remove(id));
+      expected.clear(id);
+    }
+    assertArrayEquals(ids(expected), bitmap.toArray());
+    assertEquals(expected.cardinality(), bitmap.cardinality());
+    assertEquals(expected.nextSetBit(0), bitmap.first());
+    for (int id = 0; id < 3 << 16; id += 7) {
+      assertEquals(expected.get(id), bitmap.contains(id));
+    }
+  }
+
+
+  /**
+   * And, or and andNot give the same ids as on BitSets.
+   */
+  @Test
+  public void testSetOperationsMatchBitSet() {
+    Random random = new Random(12);
+    for (int round = 0; round < 5; round++) {
+      ItemBitmap left = new ItemBitmap();
+      ItemBitmap right = new ItemBitmap();
+      BitSet leftBits = new BitSet();
+      BitSet rightBits = new BitSet();
+      fill(random, left, leftBits, 2000 + random.nextInt(20000));
+      fill(random, right, rightBits, 2000 + random.nextInt(20000));
+
+      BitSet and = (BitSet) leftBits.clone();
+      and.and(rightBits);
+      BitSet or = (BitSet) leftBits.clone();
+      or.or(rightBits);
+      BitSet andNot = (BitSet) leftBits.clone();
+      andNot.andNot(rightBits);
+
+      assertArrayEquals(ids(and), left.and(right).toArray());
+      assertArrayEquals(ids(or), left.or(right).toArray());
+      assertArrayEquals(ids(andNot), left.andNot(right).toArray());
+      assertEquals(and.cardinality(), left.and(right).cardinality());
+      assertArrayEquals(ids(leftBits), left.toArray());
+    }
+  }
+
+
+  /**
+   * Copies are independent of the original.
+   */
+  @Test
+  public void testCopyIsIndependent() {
+    ItemBitmap bitmap = new ItemBitmap();
+    for (int id = 0; id < 10000; id += 2) {
+      bitmap.add(id);
+    }
+    ItemBitmap copy = bitmap.copy();
+    copy.remove(0);
+    bitmap.add(1);
+
+    assertTrue(bitmap.contains(0));
+    assertFalse(copy.contains(1));
+    assertEquals(5001, bitmap.cardinality());
+    assertEquals(4999, copy.cardinality());
+    assertTrue(new ItemBitmap().isEmpty());
+    assertEquals(-1, new ItemBitmap().first());
+  }
+}
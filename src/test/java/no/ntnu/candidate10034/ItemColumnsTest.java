@@ -0,0 +1,150 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the ItemColumns-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class ItemColumnsTest {
+
+  /**
+   * Create a sample Item weighing its index, priced 100, with 2 in store.
+   *
+   * @param index distinguishes the Item.
+   * @return new Item.
+   */
+  private Item createItem(int index) {
+    return TestItems.item(index, index, 100, 2);
+  }
+
+
+  /**
+   * Sum the stock value of the Items in a category with a Stream.
+   *
+   * @param warehouse the warehouse.
+   * @param category the category, 1 to 4.
+   * @return the stock value.
+   */
+  private long streamValue(Warehouse warehouse, int category) {
+    return warehouse.stream()
+        .filter(item -> item.getItemCategoryAsInt() + 1 == category)
+        .mapToLong(item -> (long) item.getItemPrice() * item.getItemAmount())
+        .sum();
+  }
+
+
+  /**
+   * Items registered before and after the store was created are included.
+   */
+  @Test
+  public void testAggregatesMatchItems() {
+    Warehouse warehouse = TestItems.warehouse(10, this::createItem);
+    ItemColumns columns = warehouse.columns();
+    Item item = createItem(10);
+    TestItems.add(warehouse, item);
+
+    assertEquals(11 * 200L, columns.stockValue());
+    assertArrayEquals(new long[] {600, 600, 600, 400}, columns.stockValueByCategory());
+    assertEquals(5, columns.countWeightBelow(5));
+    assertArrayEquals(new int[] {0, 1, 2, 3, 4}, columns.idsWeightBelow(5));
+    assertSame(columns, warehouse.columns());
+  }
+
+
+  /**
+   * Changes of the Items and deletions are reflected in the columns.
+   */
+  @Test
+  public void testChangesAreTracked() {
+    Warehouse warehouse = TestItems.warehouse(10, this::createItem);
+    ItemColumns columns = warehouse.columns();
+
+    warehouse.search("Number 3").setItemWeight(100);
+    warehouse.search("Number 3").setItemPrice(1000);
+    warehouse.adjustAmount("Number 3", 8);
+    warehouse.search("Number 5").setItemCategory(4);
+    warehouse.deleteCurrentItem(warehouse.search("Number 0"), "Number 0", "Door 0");
+
+    assertEquals(8, columns.countWeightBelow(10));
+    for (int category = 1; category <= 4; category++) {
+      assertEquals(streamValue(warehouse, category), columns.stockValueByCategory()[category - 1]);
+    }
+
+    ItemColumns.Row row = columns.row(3);
+    assertEquals(10, row.getItemAmount());
+    assertEquals(100.0, row.getItemWeight());
+    assertSame(warehouse.search("Number 3"), row.getItem());
+    assertFalse(row.moveTo(0).isPresent());
+  }
+
+
+  /**
+   * The columns follow the Items when the warehouse is compacted.
+   */
+  @Test
+  public void testCompactionRenumbers() {
+    Warehouse warehouse = TestItems.warehouse(16, this::createItem);
+    ItemColumns columns = warehouse.columns();
+    for (int index = 0; index < 12; index++) {
+      warehouse.deleteCurrentItem(
+          warehouse.search("Number " + index), "Number " + index, "Door " + index
+      );
+    }
+    Item item = createItem(16);
+    TestItems.add(warehouse, item);
+
+    assertArrayEquals(new int[] {0, 1, 2, 3, 4}, columns.idsWeightBelow(100));
+    ItemColumns.Row row = columns.row(0);
+    for (int index = 12; index <= 16; index++) {
+      assertEquals("Number " + index, row.getItem().getItemNumber());
+      assertEquals(index, row.getItemWeight());
+      row.moveTo(row.getId() + 1);
+    }
+  }
+
+
+  /**
+   * Concurrent stock movements end up in the amount column.
+   */
+  @Test
+  public void testConcurrentAdjustments() throws Exception {
+    Warehouse warehouse = TestItems.warehouse(4, this::createItem);
+    ItemColumns columns = warehouse.columns();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        results.add(executor.submit(() -> {
+          for (int round = 0; round < 5000; round++) {
+            warehouse.adjustAmount("Number 1", 1);
+            warehouse.adjustAmount("Number 1", -1);
+            warehouse.adjustAmount("Number 2", 1);
+          }
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(2, columns.row(1).getItemAmount());
+    assertEquals(2 + 4 * 5000, columns.row(2).getItemAmount());
+  }
+}
@@ -144,4 +144,45 @@ public class ItemTest {
       item.setItemCategory(0); 
     });
   }
+
+
+  /**
+   * Rejected values name the field they were given for.
+   */
+  @Test
+  public void testInvalidInputNamesField() {
+    Item item = createValidItem();
+
+    IllegalArgumentException price = assertThrows(IllegalArgumentException.class, () -> {
+      item.setItemPrice(-1);
+    });
+    IllegalArgumentException category = assertThrows(IllegalArgumentException.class, () -> {
+      item.setItemCategory(5);
+    });
+    IllegalArgumentException brand = assertThrows(IllegalArgumentException.class, () -> {
+      item.setItemBrand(" ");
+    });
+
+    assertEquals("Invalid input for itemPrice", price.getMessage());
+    assertEquals("Invalid input for itemCategory", category.getMessage());
+    assertEquals("Invalid input for itemBrand", brand.getMessage());
+    assertEquals(100, item.getItemPrice());
+    assertEquals(0, item.getItemCategoryAsInt());
+  }
+
+
+  /**
+   * Null is rejected for the String fields.
+   */
+  @Test
+  public void testNullStringRejected() {
+    Item item = createValidItem();
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      item.setItemNumber(null);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      item.setItemDescription(null);
+    });
+  }
 }
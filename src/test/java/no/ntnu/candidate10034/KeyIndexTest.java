@@ -0,0 +1,199 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the KeyIndex-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class KeyIndexTest {
+
+  /**
+   * Keys are found in any case, and removed only with their own Item.
+   */
+  @Test
+  public void testGetIgnoresCase() {
+    KeyIndex index = new KeyIndex();
+    Item door = TestItems.item("DumbleDoor");
+
+    assertNull(index.put("DumbleDoor", door));
+    assertSame(door, index.get("dumbledoor"));
+    assertSame(door, index.get("DUMBLEDOOR"));
+    assertNull(index.get("DumbleDoo"));
+    assertEquals(1, index.size());
+
+    assertFalse(index.remove("dumbledoor", TestItems.item("Other")));
+    assertTrue(index.remove("dUMBLEdOOR", door));
+    assertNull(index.get("DumbleDoor"));
+    assertEquals(0, index.size());
+  }
+
+
+  /**
+   * Random ASCII keys give the same results as a map of
+   * lowercased keys, through growth and removals.
+   */
+  @Test
+  public void testMatchesLowercasedMap() {
+    KeyIndex index = new KeyIndex();
+    Map<String, Item> expected = new HashMap<>();
+    Random random = new Random(10034);
+    String letters = "aAbBcC0-";
+
+    for (int round = 0; round < 20000; round++) {
+      StringBuilder key = new StringBuilder();
+      int length = 1 + random.nextInt(6);
+      for (int position = 0; position < length; position++) {
+        key.append(letters.charAt(random.nextInt(letters.length())));
+      }
+      String lowercased = key.toString().toLowerCase(Locale.ROOT);
+      Item item = TestItems.item(key.toString());
+
+      if (random.nextInt(3) == 0) {
+        Item present = expected.get(lowercased);
+        if (present != null) {
+          expected.remove(lowercased);
+          assertTrue(index.remove(key.toString(), present));
+        }
+      } else if (!expected.containsKey(lowercased)) {
+        expected.put(lowercased, item);
+        assertNull(index.put(key.toString(), item));
+      }
+      assertSame(expected.get(lowercased), index.get(key.toString()));
+    }
+
+    assertEquals(expected.size(), index.size());
+    index.forEach((key, item) -> assertSame(expected.get(key.toLowerCase(Locale.ROOT)), item));
+  }
+
+
+  /**
+   * Keys match as by equalsIgnoreCase, whatever the default Locale.
+   */
+  @Test
+  public void testLocaleSafe() {
+    Locale locale = Locale.getDefault();
+    Locale.setDefault(new Locale("tr", "TR"));
+    try {
+      Warehouse warehouse = new Warehouse();
+      Item item = TestItems.item("ITEM-1");
+      assertTrue(warehouse.addItem(item, "ITEM-1", "Istanbul TILE"));
+      assertSame(item, warehouse.search("item-1"));
+      assertSame(item, warehouse.search("istanbul tile", "Item-1"));
+
+      String[] keys = {"Straße", "STRASSE", "Σίσυφος", "ΣΊΣΥΦΟΣ", "σίσυφοσ", "İi", "Iı"};
+      for (String key1 : keys) {
+        for (String key2 : keys) {
+          assertEquals(key1.equalsIgnoreCase(key2), KeyIndex.matches(key1, key2));
+          if (KeyIndex.matches(key1, key2)) {
+            assertEquals(KeyIndex.hash(key1), KeyIndex.hash(key2));
+            assertEquals(KeyIndex.fold(key1), KeyIndex.fold(key2));
+          }
+        }
+      }
+    } finally {
+      Locale.setDefault(locale);
+    }
+  }
+
+
+  /**
+   * Readers keep finding a key while the table grows under them.
+   */
+  @Test
+  public void testReadersDuringGrowth() throws Exception {
+    KeyIndex index = new KeyIndex();
+    Item door = TestItems.item("DumbleDoor");
+    index.put("DumbleDoor", door);
+    AtomicBoolean failed = new AtomicBoolean();
+    AtomicBoolean done = new AtomicBoolean();
+
+    Thread reader = new Thread(() -> {
+      while (!done.get()) {
+        if (index.get("dumbledoor") != door) {
+          failed.set(true);
+        }
+      }
+    });
+    reader.start();
+    for (int number = 0; number < 100000; number++) {
+      index.put("Key " + number, door);
+    }
+    done.set(true);
+    reader.join();
+
+    assertFalse(failed.get());
+    assertEquals(100001, index.size());
+  }
+
+
+  /**
+   * Looking up Items in any case allocates nothing.
+   */
+  @Test
+  public void testLookupDoesNotAllocate() {
+    Warehouse warehouse = new Warehouse();
+    List<String> keys = new ArrayList<>();
+    for (int number = 0; number < 1000; number++) {
+      Item item = TestItems.item("Door-" + number);
+      TestItems.add(warehouse, item);
+      keys.add("DOOR-" + number);
+      keys.add("ITEM door-" + number);
+    }
+    String[] trace = keys.toArray(new String[0]);
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long thread = Thread.currentThread().getId();
+
+    int found = lookUp(warehouse, trace, 50);
+    long before = threads.getThreadAllocatedBytes(thread);
+    found += lookUp(warehouse, trace, 100);
+    long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+    assertEquals(150 * trace.length * 2, found);
+    assertTrue(allocated < 100 * trace.length,
+        allocated + " bytes allocated by " + 100 * trace.length * 2 + " lookups");
+  }
+
+
+  /**
+   * Look up every key of a trace by itself, and paired with
+   * the other key of its Item.
+   *
+   * @param warehouse the Warehouse.
+   * @param trace keys to look up.
+   * @param rounds number of times to go through the trace.
+   * @return number of Items found.
+   */
+  private static int lookUp(Warehouse warehouse, String[] trace, int rounds) {
+    int found = 0;
+    for (int round = 0; round < rounds; round++) {
+      for (int index = 0; index < trace.length; index++) {
+        if (warehouse.search(trace[index]) != null) {
+          found++;
+        }
+        if (warehouse.search(trace[index ^ 1], trace[index]) != null) {
+          found++;
+        }
+      }
+    }
+    return found;
+  }
+}
@@ -0,0 +1,177 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the RangeIndex-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class RangeIndexTest {
+
+  /**
+   * Create a sample Item weighing 100 * index, priced 10 * index, with 100 * (index % 5) in store.
+   *
+   * @param index distinguishes the Item.
+   * @return new Item.
+   */
+  private Item createItem(int index) {
+    return TestItems.item(index, 100 * index, 10 * index, 100 * (index % 5));
+  }
+
+
+  /**
+   * Get the itemNumbers of some Items.
+   *
+   * @param items the Items.
+   * @return their itemNumbers, in the same order.
+   */
+  private List<String> numbers(List<Item> items) {
+    return items.stream().map(Item::getItemNumber).collect(Collectors.toList());
+  }
+
+
+  /**
+   * Ranges, floor, ceiling and top-N follow the values.
+   */
+  @Test
+  public void testQueries() {
+    Warehouse warehouse = TestItems.warehouse(10, this::createItem);
+    RangeIndex ranges = warehouse.ranges();
+
+    assertEquals(List.of("Number 1", "Number 6", "Number 2", "Number 7"),
+        numbers(ranges.between(ItemField.AMOUNT, 100, 200)));
+    assertEquals(List.of("Number 0", "Number 5"), numbers(ranges.below(ItemField.AMOUNT, 100)));
+    assertEquals(List.of("Number 3", "Number 4"), numbers(ranges.between(ItemField.PRICE, 30, 45)));
+    assertEquals("Number 4", ranges.floor(ItemField.WEIGHT, 499).getItemNumber());
+    assertEquals("Number 5", ranges.ceiling(ItemField.WEIGHT, 499).getItemNumber());
+    assertNull(ranges.ceiling(ItemField.WEIGHT, 901));
+    assertEquals(List.of("Number 9", "Number 8", "Number 7"),
+        numbers(ranges.highest(ItemField.PRICE, 3)));
+    assertEquals(List.of("Number 0", "Number 5", "Number 1"),
+        numbers(ranges.lowest(ItemField.AMOUNT, 3)));
+    assertEquals(4, ranges.idsBetween(ItemField.PRICE, 20, 50).cardinality());
+    assertThrows(IllegalArgumentException.class, () -> ranges.lowest(ItemField.COLOR, 1));
+    assertSame(ranges, warehouse.ranges());
+  }
+
+
+  /**
+   * Changes of price, amount and weight, and deletions, move
+   * the Items in the indexes.
+   */
+  @Test
+  public void testChangesAreTracked() {
+    Warehouse warehouse = TestItems.warehouse(10, this::createItem);
+    RangeIndex ranges = warehouse.ranges();
+
+    warehouse.search("Number 9").setItemPrice(0);
+    warehouse.adjustAmount("Number 3", -290);
+    warehouse.search("Number 4").setItemAmount(10000);
+    warehouse.search("Number 0").setItemWeight(2000);
+    warehouse.deleteCurrentItem(warehouse.search("Number 5"), "Number 5", "Door 5");
+
+    assertEquals(List.of("Number 0", "Number 9"), numbers(ranges.below(ItemField.PRICE, 1)));
+    assertEquals(List.of("Number 0", "Number 3"), numbers(ranges.below(ItemField.AMOUNT, 20)));
+    assertEquals(List.of("Number 4"), numbers(ranges.highest(ItemField.AMOUNT, 1)));
+    assertEquals(List.of("Number 0"), numbers(ranges.highest(ItemField.WEIGHT, 1)));
+    assertEquals(List.of("Number 1"), numbers(ranges.lowest(ItemField.WEIGHT, 1)));
+  }
+
+
+  /**
+   * Random changes, deletions and compactions give the same
+   * answers as filtering every Item.
+   */
+  @Test
+  public void testMatchesFilter() {
+    Random random = new Random(12);
+    Warehouse warehouse = TestItems.warehouse(200, this::createItem);
+    RangeIndex ranges = warehouse.ranges();
+    int next = 200;
+
+    for (int round = 0; round < 2000; round++) {
+      List<Item> items = new ArrayList<>(warehouse.getItems());
+      Item item = items.get(random.nextInt(items.size()));
+      switch (random.nextInt(4)) {
+        case 0:
+          item.setItemPrice(random.nextInt(50));
+          break;
+        case 1:
+          warehouse.adjustAmount(item.getItemNumber(), random.nextInt(10));
+          break;
+        case 2:
+          warehouse.deleteCurrentItem(item, item.getItemNumber(), item.getItemDescription());
+          break;
+        default:
+          Item added = createItem(next++);
+          TestItems.add(warehouse, added);
+          break;
+      }
+    }
+
+    int from = 10;
+    int to = 30;
+    List<Item> expected = warehouse.stream()
+        .filter(item -> item.getItemPrice() >= from && item.getItemPrice() <= to)
+        .sorted(Comparator.comparingInt(Item::getItemPrice))
+        .collect(Collectors.toList());
+    List<Item> actual = ranges.between(ItemField.PRICE, from, to);
+    assertEquals(expected.size(), actual.size());
+    for (int index = 0; index < actual.size(); index++) {
+      assertEquals(expected.get(index).getItemPrice(), actual.get(index).getItemPrice());
+    }
+    assertEquals(
+        warehouse.stream().mapToInt(Item::getItemAmount).max().getAsInt(),
+        ranges.highest(ItemField.AMOUNT, 1).get(0).getItemAmount()
+    );
+  }
+
+
+  /**
+   * Concurrent stock movements leave the latest amount indexed.
+   */
+  @Test
+  public void testConcurrentAdjustments() throws Exception {
+    Warehouse warehouse = TestItems.warehouse(4, this::createItem);
+    RangeIndex ranges = warehouse.ranges();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        results.add(executor.submit(() -> {
+          for (int round = 0; round < 5000; round++) {
+            warehouse.adjustAmount("Number 1", 1);
+            warehouse.adjustAmount("Number 1", -1);
+            warehouse.adjustAmount("Number 2", 1);
+          }
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(List.of("Number 1"), numbers(ranges.between(ItemField.AMOUNT, 100, 100)));
+    assertEquals(List.of("Number 2"), numbers(ranges.highest(ItemField.AMOUNT, 1)));
+    assertEquals(200 + 4 * 5000, ranges.highest(ItemField.AMOUNT, 1).get(0).getItemAmount());
+  }
+}
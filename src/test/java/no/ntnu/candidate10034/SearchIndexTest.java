@@ -0,0 +1,191 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the SearchIndex-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class SearchIndexTest {
+
+  /**
+   * Create a sample Item with a given key.
+   *
+   * @param key used as number and description.
+   * @return new Item.
+   */
+  private Item createItem(String key) {
+    return new Item(key, "Jysk", "brown", key, 1, 1.0, 1.0, 1, 1, 1);
+  }
+
+
+  /**
+   * Create a random key over a small alphabet, so that keys
+   * share many beginnings.
+   *
+   * @param random source of randomness.
+   * @return new key.
+   */
+  private String randomKey(Random random) {
+    char[] key = new char[1 + random.nextInt(6)];
+    for (int index = 0; index < key.length; index++) {
+      key[index] = (char) ('a' + random.nextInt(3));
+    }
+    return new String(key);
+  }
+
+
+  /**
+   * Prefix searches agree with a sorted map after random
+   * insertions and removals.
+   */
+  @Test
+  public void testPrefixMatchesSortedMap() {
+    Random random = new Random(42);
+    SearchIndex index = new SearchIndex();
+    TreeMap<String, Item> expected = new TreeMap<>();
+
+    for (int round = 0; round < 5000; round++) {
+      String key = randomKey(random);
+      if (random.nextInt(3) == 0) {
+        Item item = expected.remove(key);
+        if (item != null) {
+          index.remove(key, item);
+        }
+      } else if (!expected.containsKey(key)) {
+        Item item = createItem(key);
+        expected.put(key, item);
+        index.put(key, item);
+      }
+
+      String prefix = randomKey(random);
+      prefix = prefix.substring(0, Math.min(prefix.length(), 1 + random.nextInt(2)));
+      List<Item> found = new ArrayList<>();
+      index.prefix(prefix, Integer.MAX_VALUE, found);
+      assertEquals(
+          new ArrayList<>(expected.subMap(prefix, prefix + Character.MAX_VALUE).values()), found
+      );
+      assertEquals(expected.size(), index.size());
+    }
+  }
+
+
+  /**
+   * Fuzzy matches are ranked by the edit distance of the
+   * closest beginning of each key.
+   */
+  @Test
+  public void testFuzzyRanksByDistance() {
+    SearchIndex index = new SearchIndex();
+    Item door = createItem("magical door");
+    Item floor = createItem("magical floor");
+    Item window = createItem("simplistic window");
+    index.put("magical door", door);
+    index.put("magical floor", floor);
+    index.put("simplistic window", window);
+
+    SearchIndex.Matches matches = new SearchIndex.Matches(3, 10);
+    index.fuzzy("magical dor", matches);
+    assertEquals(List.of(door, floor), matches.toList());
+
+    matches = new SearchIndex.Matches(3, 1);
+    index.fuzzy("magicl", matches);
+    assertEquals(List.of(door), matches.toList());
+  }
+
+
+  /**
+   * An Item found again closer by its other key is moved there,
+   * and is given only once.
+   */
+  @Test
+  public void testFuzzyMatchMovesCloser() {
+    Item door = createItem("magical door");
+    Item floor = createItem("magical floor");
+    Item window = createItem("simplistic window");
+    SearchIndex.Matches matches = new SearchIndex.Matches(3, 3);
+
+    matches.add(door, 2);
+    matches.add(floor, 2);
+    matches.add(door, 0);
+    matches.add(door, 1);
+    matches.add(window, 2);
+
+    assertEquals(List.of(door, floor, window), matches.toList());
+  }
+
+
+  /**
+   * Fuzzy searches find exactly the keys with a beginning
+   * within the distance, as computed by brute force.
+   */
+  @Test
+  public void testFuzzyMatchesBruteForce() {
+    Random random = new Random(7);
+    SearchIndex index = new SearchIndex();
+    TreeMap<String, Item> items = new TreeMap<>();
+    for (int round = 0; round < 300; round++) {
+      String key = randomKey(random) + randomKey(random);
+      items.computeIfAbsent(key, this::createItem);
+      index.put(key, items.get(key));
+    }
+
+    for (int round = 0; round < 200; round++) {
+      String query = randomKey(random) + randomKey(random);
+      int maxDistance = Math.min(2, query.length() - 1);
+      List<Item> expected = new ArrayList<>();
+      for (int distance = 0; distance <= maxDistance; distance++) {
+        for (String key : items.keySet()) {
+          if (prefixDistance(query, key) == distance) {
+            expected.add(items.get(key));
+          }
+        }
+      }
+
+      SearchIndex.Matches matches = new SearchIndex.Matches(maxDistance, Integer.MAX_VALUE);
+      index.fuzzy(query, matches);
+      assertEquals(expected, matches.toList(), query);
+    }
+  }
+
+
+  /**
+   * Compute the smallest edit distance between a query and
+   * any beginning of a key.
+   *
+   * @param query the query.
+   * @param key the key.
+   * @return the distance.
+   */
+  private int prefixDistance(String query, String key) {
+    int best = Integer.MAX_VALUE;
+    for (int end = 0; end <= key.length(); end++) {
+      String beginning = key.substring(0, end);
+      int[][] distances = new int[query.length() + 1][end + 1];
+      for (int row = 0; row <= query.length(); row++) {
+        for (int column = 0; column <= end; column++) {
+          if (row == 0 || column == 0) {
+            distances[row][column] = row + column;
+          } else {
+            int cost = query.charAt(row - 1) == beginning.charAt(column - 1) ? 0 : 1;
+            distances[row][column] = Math.min(
+                Math.min(distances[row - 1][column] + 1, distances[row][column - 1] + 1),
+                distances[row - 1][column - 1] + cost
+            );
+          }
+        }
+      }
+      best = Math.min(best, distances[query.length()][end]);
+    }
+    return best;
+  }
+}
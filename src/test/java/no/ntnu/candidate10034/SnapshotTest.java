@@ -0,0 +1,282 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * JUnit-test class for testing of the Snapshot-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class SnapshotTest {
+  /** Directory for the files of a test. */
+  @TempDir
+  Path directory;
+
+
+  /**
+   * Create a sample Item weighing 95 + index, priced 15000, with 3
+   * in store, whose description has non-ASCII letters.
+   *
+   * @param index distinguishes the number and description.
+   * @return new Item.
+   */
+  private Item createItem(int index) {
+    Item item = TestItems.item(index, 95 + index, 15000, 3);
+    item.setItemDescription("Døør " + index);
+    return item;
+  }
+
+
+  /**
+   * Every field can be read back from the mapped file, and
+   * Items are found by either key regardless of case.
+   */
+  @Test
+  public void testFieldsAndSearch() throws IOException {
+    Path file = directory.resolve("warehouse.snapshot");
+    Snapshot.write(TestItems.warehouse(100, this::createItem), file);
+
+    try (Snapshot snapshot = Snapshot.open(file)) {
+      assertEquals(100, snapshot.size());
+      int index = snapshot.indexOf("NUMBER 42");
+      assertEquals(42, index);
+      assertEquals(index, snapshot.indexOf("døør 42"));
+      assertEquals("Døør 42", snapshot.getItemDescription(index));
+      assertEquals("Skeidar", snapshot.getItemBrand(index));
+      assertEquals(137.0, snapshot.getItemWeight(index));
+      assertEquals(15000, snapshot.getItemPrice(index));
+      assertEquals(3, snapshot.getItemCategory(index));
+      assertEquals(-1, snapshot.indexOf("Number 100"));
+      assertThrows(IndexOutOfBoundsException.class, () -> snapshot.getItemNumber(100));
+    }
+  }
+
+
+  /**
+   * Keys are matched the same way as by the Warehouse whatever
+   * the default Locale, including letters outside the Basic
+   * Multilingual Plane.
+   */
+  @Test
+  public void testSearchIgnoresLocale() throws IOException {
+    Path file = directory.resolve("warehouse.snapshot");
+    Warehouse warehouse = new Warehouse();
+    warehouse.addItem(
+        new Item("ITEM", "Jysk", "red", "Ark \uD801\uDC00", 1, 1.0, 1.0, 10, 5, 1),
+        "ITEM", "Ark \uD801\uDC00"
+    );
+    Locale locale = Locale.getDefault();
+
+    try {
+      Locale.setDefault(new Locale("tr", "TR"));
+      Snapshot.write(warehouse, file);
+      try (Snapshot snapshot = Snapshot.open(file)) {
+        assertEquals(0, snapshot.indexOf("item"));
+        assertEquals(0, snapshot.indexOf("ITEM"));
+        assertEquals(0, snapshot.indexOf("ARK \uD801\uDC00"));
+        assertEquals(-1, snapshot.indexOf("ITEMS"));
+        assertEquals(-1, snapshot.indexOf("ITE"));
+        assertEquals(warehouse.search("item"), warehouse.search("ITEM"));
+      }
+    } finally {
+      Locale.setDefault(locale);
+    }
+  }
+
+
+  /**
+   * Restoring adds every Item in the original insertion order.
+   */
+  @Test
+  public void testRestoreKeepsOrder() throws IOException {
+    Path file = directory.resolve("warehouse.snapshot");
+    Warehouse warehouse = TestItems.warehouse(50, this::createItem);
+    warehouse.deleteCurrentItem(warehouse.search("Number 7"), "Number 7", "Døør 7");
+    Snapshot.write(warehouse, file);
+
+    Warehouse restored = new Warehouse();
+    try (Snapshot snapshot = Snapshot.open(file)) {
+      assertEquals(49, snapshot.restore(restored));
+    }
+
+    assertEquals(49, restored.size());
+    assertNull(restored.search("Number 7"));
+    Iterator<Item> expected = warehouse.getItemsView().iterator();
+    for (Item item : restored.getItemsView()) {
+      Item original = expected.next();
+      assertEquals(original.getItemNumber(), item.getItemNumber());
+      assertEquals(original.getItemCategoryAsInt(), item.getItemCategoryAsInt());
+      assertEquals(original.getItemWeight(), item.getItemWeight());
+    }
+  }
+
+
+  /**
+   * Files which are not snapshots are rejected.
+   */
+  @Test
+  public void testRejectsOtherFiles() throws IOException {
+    Path file = directory.resolve("warehouse.snapshot");
+    Files.write(file, new byte[128]);
+
+    assertThrows(IOException.class, () -> Snapshot.open(file));
+  }
+
+
+  /**
+   * Changes after a checkpoint are replayed on top of the snapshot.
+   */
+  @Test
+  public void testCheckpointThenReplay() throws IOException {
+    Path log = directory.resolve("warehouse.wal");
+    Path file = directory.resolve("warehouse.snapshot");
+    Warehouse warehouse = new Warehouse();
+
+    try (WriteAheadLog wal = WriteAheadLog.open(log, file, FsyncPolicy.ALWAYS, 10, warehouse)) {
+      for (int index = 0; index < 5; index++) {
+        Item item = createItem(index);
+        TestItems.add(warehouse, item);
+      }
+      wal.checkpoint(file);
+      warehouse.adjustAmount("Number 1", 5);
+    }
+
+    Warehouse restored = new Warehouse();
+    try (WriteAheadLog wal = WriteAheadLog.open(log, file, FsyncPolicy.ALWAYS, 10, restored)) {
+      assertEquals(1, wal.getReplayedRecords());
+    }
+    assertEquals(5, restored.size());
+    assertEquals(8, restored.search("Number 1").getItemAmount());
+  }
+
+
+  /**
+   * Changes after a checkpoint find their Items, even when
+   * Items deleted before it left gaps in the registry.
+   */
+  @Test
+  public void testCheckpointAfterDeletionThenReplay() throws IOException {
+    Path log = directory.resolve("warehouse.wal");
+    Path file = directory.resolve("warehouse.snapshot");
+    Warehouse warehouse = new Warehouse();
+
+    try (WriteAheadLog wal = WriteAheadLog.open(log, file, FsyncPolicy.ALWAYS, 10, warehouse)) {
+      for (int index = 0; index < 5; index++) {
+        TestItems.add(warehouse, createItem(index));
+      }
+      warehouse.deleteCurrentItem(warehouse.search("Number 1"), "Number 1", "Døør 1");
+      wal.checkpoint(file);
+      warehouse.search("Number 3").setItemNumber("Renamed");
+      warehouse.adjustAmount("Number 4", 5);
+      TestItems.add(warehouse, createItem(5));
+      warehouse.adjustAmount("Number 5", 1);
+    }
+
+    Warehouse restored = new Warehouse();
+    try (WriteAheadLog wal = WriteAheadLog.open(log, file, FsyncPolicy.ALWAYS, 10, restored)) {
+      assertEquals(4, wal.getReplayedRecords());
+      restored.search("Number 0").setItemNumber("First");
+    }
+
+    Warehouse again = new Warehouse();
+    try (WriteAheadLog wal = WriteAheadLog.open(log, file, FsyncPolicy.ALWAYS, 10, again)) {
+      assertEquals(5, wal.getReplayedRecords());
+    }
+    assertEquals(5, again.size());
+    assertEquals("First", again.search("Døør 0").getItemNumber());
+    assertEquals("Renamed", again.search("Døør 3").getItemNumber());
+    assertEquals(8, again.search("Number 4").getItemAmount());
+    assertEquals(4, again.search("Number 5").getItemAmount());
+  }
+
+
+  /**
+   * A checkpoint taken while an amount change is being logged
+   * waits for it, so the change is neither lost nor applied twice.
+   */
+  @Test
+  public void testCheckpointWaitsForChange() throws Exception {
+    Path log = directory.resolve("warehouse.wal");
+    Path file = directory.resolve("warehouse.snapshot");
+    Warehouse warehouse = new Warehouse();
+    AtomicReference<WriteAheadLog> opened = new AtomicReference<>();
+    Thread checkpoint = new Thread(() -> {
+      try {
+        opened.get().checkpoint(file);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void amountChanged(Item item, int oldAmount, int newAmount) {
+        /* Give the checkpoint time to overtake the record of this change, if it can. */
+        checkpoint.start();
+        try {
+          checkpoint.join(200);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+
+    try (WriteAheadLog wal = WriteAheadLog.open(log, file, FsyncPolicy.NEVER, 10, warehouse)) {
+      opened.set(wal);
+      TestItems.add(warehouse, createItem(0));
+      warehouse.adjustAmount("Number 0", 5);
+      checkpoint.join();
+    }
+
+    Warehouse restored = new Warehouse();
+    try (WriteAheadLog wal = WriteAheadLog.open(log, file, FsyncPolicy.NEVER, 10, restored)) {
+      assertEquals(0, wal.getReplayedRecords());
+    }
+    assertEquals(8, restored.search("Number 0").getItemAmount());
+  }
+
+
+  /**
+   * A crash after the snapshot was written, but before the log
+   * was reset, does not apply the logged changes twice.
+   */
+  @Test
+  public void testCrashDuringCheckpoint() throws IOException {
+    Path log = directory.resolve("warehouse.wal");
+    Path file = directory.resolve("warehouse.snapshot");
+    Warehouse warehouse = new Warehouse();
+
+    try (WriteAheadLog wal = WriteAheadLog.open(log, file, FsyncPolicy.ALWAYS, 10, warehouse)) {
+      assertEquals(0, wal.getReplayedRecords());
+      Item item = createItem(0);
+      TestItems.add(warehouse, item);
+      warehouse.adjustAmount("Number 0", 10);
+    }
+    Snapshot.write(warehouse, file, 0, Files.size(log));
+
+    Warehouse restored = new Warehouse();
+    try (WriteAheadLog wal = WriteAheadLog.open(log, file, FsyncPolicy.ALWAYS, 10, restored)) {
+      assertEquals(0, wal.getReplayedRecords());
+      restored.adjustAmount("Number 0", 1);
+    }
+
+    Warehouse again = new Warehouse();
+    try (WriteAheadLog wal = WriteAheadLog.open(log, file, FsyncPolicy.ALWAYS, 10, again)) {
+      assertEquals(1, wal.getReplayedRecords());
+    }
+    assertEquals(14, again.search("Number 0").getItemAmount());
+  }
+}
@@ -0,0 +1,223 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the StockServer-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class StockServerTest {
+  /** The Warehouse served. */
+  private Warehouse warehouse;
+  /** The server under test. */
+  private StockServer server;
+  /** Connection to the server. */
+  private Socket socket;
+  /** Requests to the server. */
+  private DataOutputStream out;
+  /** Answers from the server. */
+  private DataInputStream in;
+
+
+  /**
+   * Start a server with two loops over one Item, and connect.
+   */
+  @BeforeEach
+  public void setUp() throws IOException {
+    warehouse = new Warehouse();
+    Item door = new Item(
+        "DumbleDoor", "Skeidar", "grey", "Magical door", 95, 150.0, 200.0, 15000, 3, 3
+    );
+    warehouse.addItem(door, door.getItemNumber(), door.getItemDescription());
+    server = StockServer.start(
+        warehouse, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2
+    );
+    socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+    out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+  }
+
+
+  /**
+   * Stop the server.
+   */
+  @AfterEach
+  public void tearDown() throws IOException {
+    socket.close();
+    server.close();
+  }
+
+
+  /**
+   * Write a request frame.
+   *
+   * @param operation the operation.
+   * @param argument its argument.
+   * @param key the key.
+   */
+  private void request(int operation, int argument, String key) throws IOException {
+    byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+    out.writeShort(5 + bytes.length);
+    out.writeByte(operation);
+    out.writeInt(argument);
+    out.write(bytes);
+  }
+
+
+  /**
+   * Read an answer frame.
+   *
+   * @return status, amount and price of the answer.
+   */
+  private int[] answer() throws IOException {
+    int length = in.readUnsignedShort();
+    int[] answer = {in.readByte(), in.readInt(), in.readInt()};
+    in.skipBytes(length - 9);
+    return answer;
+  }
+
+
+  /**
+   * Every operation is answered with the amount and price after it.
+   */
+  @Test
+  public void testOperations() throws IOException {
+    request(StockServer.SEARCH, 0, "magical DOOR");
+    request(StockServer.ADJUST, -1, "DumbleDoor");
+    request(StockServer.ADJUST, -5, "DumbleDoor");
+    request(StockServer.PRICE, 12000, "dumbledoor");
+    request(StockServer.PRICE, -1, "DumbleDoor");
+    request(StockServer.SEARCH, 0, "Seamless");
+    request(9, 0, "DumbleDoor");
+    out.flush();
+
+    assertArrayEquals(new int[] {StockServer.OK, 3, 15000}, answer());
+    assertArrayEquals(new int[] {StockServer.OK, 2, 15000}, answer());
+    assertArrayEquals(new int[] {StockServer.REJECTED, 2, 15000}, answer());
+    assertArrayEquals(new int[] {StockServer.OK, 2, 12000}, answer());
+    assertArrayEquals(new int[] {StockServer.REJECTED, 2, 12000}, answer());
+    assertArrayEquals(new int[] {StockServer.NOT_FOUND, 0, 0}, answer());
+    assertArrayEquals(new int[] {StockServer.BAD_REQUEST, 0, 0}, answer());
+    assertEquals(12000, warehouse.search("DumbleDoor").getItemPrice());
+  }
+
+  /**
+   * An adjustment is answered with the amount it produced, even
+   * if another change follows before the answer is written.
+   */
+  @Test
+  public void testAnswerIsOwnAmount() throws IOException {
+    Item door = warehouse.search("DumbleDoor");
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void amountChanged(Item item, int oldAmount, int newAmount) {
+        if (newAmount == 4) {
+          item.setItemAmount(100);
+        }
+      }
+    });
+    request(StockServer.ADJUST, 1, "DumbleDoor");
+    out.flush();
+
+    assertArrayEquals(new int[] {StockServer.OK, 4, 15000}, answer());
+    assertEquals(100, door.getItemAmount());
+  }
+
+
+  /**
+   * A change of an Item deleted before it was made is answered
+   * as not found.
+   */
+  @Test
+  public void testDeletedItemIsNotFound() throws IOException {
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void priceChanged(Item item, int oldPrice, int newPrice) {
+        warehouse.deleteCurrentItem(item, item.getItemNumber(), item.getItemDescription());
+      }
+    });
+    request(StockServer.PRICE, 12000, "DumbleDoor");
+    request(StockServer.ADJUST, 1, "DumbleDoor");
+    out.flush();
+
+    assertArrayEquals(new int[] {StockServer.NOT_FOUND, 0, 0}, answer());
+    assertArrayEquals(new int[] {StockServer.NOT_FOUND, 0, 0}, answer());
+  }
+
+
+
+  /**
+   * Many pipelined requests, more than fit in the buffers at
+   * once, are all answered in order.
+   */
+  @Test
+  public void testPipelining() throws IOException {
+    int requests = 20000;
+    ByteArrayOutputStream frames = new ByteArrayOutputStream();
+    DataOutputStream batch = new DataOutputStream(frames);
+    for (int request = 0; request < requests; request++) {
+      batch.writeShort(15);
+      batch.writeByte(StockServer.ADJUST);
+      batch.writeInt(1);
+      batch.write("DumbleDoor".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    Thread writer = new Thread(() -> {
+      try {
+        out.write(frames.toByteArray());
+        out.flush();
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    writer.start();
+    for (int request = 1; request <= requests; request++) {
+      assertArrayEquals(new int[] {StockServer.OK, 3 + request, 15000}, answer());
+    }
+    assertEquals(3 + requests, warehouse.search("DumbleDoor").getItemAmount());
+  }
+
+
+  /**
+   * A frame of a bad length closes the connection, and other
+   * connections are still served.
+   */
+  @Test
+  public void testBadFrame() throws IOException {
+    out.writeShort(2);
+    out.writeShort(0);
+    out.flush();
+    assertThrows(EOFException.class, () -> in.readUnsignedShort());
+
+    try (Socket other = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+      out = new DataOutputStream(other.getOutputStream());
+      in = new DataInputStream(other.getInputStream());
+      request(StockServer.SEARCH, 0, "DumbleDoor");
+      out.flush();
+      assertArrayEquals(new int[] {StockServer.OK, 3, 15000}, answer());
+    }
+    assertThrows(IllegalArgumentException.class, () -> StockServer.start(
+        warehouse, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0
+    ));
+  }
+}
@@ -0,0 +1,269 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the StockTotals-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class StockTotalsTest {
+
+  /**
+   * Check that the totals of the warehouse, every category and
+   * every brand match a recomputation over the Items.
+   *
+   * @param warehouse the warehouse.
+   * @param totals its totals.
+   */
+  private void assertMatches(Warehouse warehouse, StockTotals totals) {
+    assertMatches(warehouse.stream().toArray(Item[]::new), totals.total());
+    for (int category = 1; category <= 4; category++) {
+      int expected = category;
+      assertMatches(warehouse.stream()
+          .filter(item -> item.getItemCategoryAsInt() + 1 == expected)
+          .toArray(Item[]::new), totals.category(category));
+    }
+    for (String brand : totals.brands().keySet()) {
+      assertMatches(warehouse.stream()
+          .filter(item -> item.getItemBrand().equalsIgnoreCase(brand))
+          .toArray(Item[]::new), totals.brand(brand));
+    }
+  }
+
+
+  /**
+   * Check that totals match a recomputation over some Items.
+   *
+   * @param items the Items.
+   * @param actual the totals.
+   */
+  private void assertMatches(Item[] items, StockTotals.Totals actual) {
+    long value = 0;
+    long units = 0;
+    long grams = 0;
+    for (Item item : items) {
+      value += (long) item.getItemPrice() * item.getItemAmount();
+      units += item.getItemAmount();
+      grams += Math.round(item.getItemWeight() * 1000) * item.getItemAmount();
+    }
+    assertEquals(items.length, actual.getItems());
+    assertEquals(value, actual.getStockValue());
+    assertEquals(units, actual.getUnits());
+    assertEquals(grams / 1000.0, actual.getWeight());
+  }
+
+
+  /**
+   * Totals count Items added before and after they were created.
+   */
+  @Test
+  public void testTotals() {
+    Warehouse warehouse = TestItems.warehouse(6);
+    StockTotals totals = warehouse.totals();
+    Item item = TestItems.item(6);
+    TestItems.add(warehouse, item);
+
+    assertEquals(7, totals.total().getItems());
+    assertEquals(10 * (100 + 101 + 102 + 103 + 104 + 105 + 106), totals.total().getStockValue());
+    assertEquals(70, totals.total().getUnits());
+    assertEquals(105.0, totals.total().getWeight());
+    assertEquals(10 * (100 + 104), totals.category(1).getStockValue());
+    assertEquals(3, totals.brand("skeidar").getItems());
+    assertEquals(0, totals.brand("Ikea").getItems());
+    assertSame(totals, warehouse.totals());
+  }
+
+
+  /**
+   * The value of Items with a high price and amount does not overflow.
+   */
+  @Test
+  public void testNoOverflow() {
+    Warehouse warehouse = TestItems.warehouse(2);
+    StockTotals totals = warehouse.totals();
+    warehouse.search("Number 0").setItemPrice(Integer.MAX_VALUE);
+    warehouse.search("Number 0").setItemAmount(Integer.MAX_VALUE);
+    warehouse.search("Number 1").setItemPrice(Integer.MAX_VALUE);
+    warehouse.search("Number 1").setItemAmount(Integer.MAX_VALUE);
+
+    assertEquals(2 * (long) Integer.MAX_VALUE * Integer.MAX_VALUE, totals.total().getStockValue());
+    assertEquals(2L * Integer.MAX_VALUE, totals.total().getUnits());
+  }
+
+
+  /**
+   * Random changes, deletions and compactions keep the totals exact.
+   */
+  @Test
+  public void testChangesAreTracked() {
+    Random random = new Random(13);
+    Warehouse warehouse = TestItems.warehouse(100);
+    StockTotals totals = warehouse.totals();
+    int next = 100;
+
+    for (int round = 0; round < 2000; round++) {
+      List<Item> items = new ArrayList<>(warehouse.getItems());
+      Item item = items.get(random.nextInt(items.size()));
+      switch (random.nextInt(7)) {
+        case 0:
+          item.setItemPrice(random.nextInt(1000));
+          break;
+        case 1:
+          warehouse.adjustAmount(item.getItemNumber(), random.nextInt(10));
+          break;
+        case 2:
+          item.setItemWeight(random.nextInt(5000) / 1000.0);
+          break;
+        case 3:
+          item.setItemBrand(TestItems.BRANDS[random.nextInt(3)].toUpperCase());
+          break;
+        case 4:
+          item.setItemCategory(1 + random.nextInt(4));
+          break;
+        case 5:
+          warehouse.deleteCurrentItem(item, item.getItemNumber(), item.getItemDescription());
+          break;
+        default:
+          Item added = TestItems.item(next++);
+          TestItems.add(warehouse, added);
+          break;
+      }
+    }
+    assertMatches(warehouse, totals);
+  }
+
+
+  /**
+   * Concurrent stock movements and price changes keep the totals exact.
+   */
+  @Test
+  public void testConcurrentChanges() throws Exception {
+    Warehouse warehouse = TestItems.warehouse(4);
+    StockTotals totals = warehouse.totals();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        int price = thread;
+        results.add(executor.submit(() -> {
+          for (int round = 0; round < 5000; round++) {
+            warehouse.adjustAmount("Number 1", 1);
+            warehouse.search("Number 1").setItemPrice(price + round % 7);
+            warehouse.adjustAmount("Number 2", 1);
+          }
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertMatches(warehouse, totals);
+  }
+
+
+  /**
+   * Stock movements made while the warehouse compacts its Items
+   * after deletions are not lost.
+   */
+  @Test
+  public void testChangesDuringCompaction() throws Exception {
+    Warehouse warehouse = TestItems.warehouse(8);
+    StockTotals totals = warehouse.totals();
+    AtomicBoolean running = new AtomicBoolean(true);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int thread = 0; thread < 2; thread++) {
+        results.add(executor.submit(() -> {
+          Random random = new Random();
+          while (running.get()) {
+            warehouse.adjustAmount("Number " + random.nextInt(8), 1 - random.nextInt(2));
+          }
+        }));
+      }
+      int next = 8;
+      for (int round = 0; round < 20_000; round++) {
+        Item added = TestItems.item(next++);
+        TestItems.add(warehouse, added);
+        warehouse.deleteCurrentItem(added, added.getItemNumber(), added.getItemDescription());
+      }
+      running.set(false);
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertMatches(warehouse, totals);
+  }
+
+
+  /**
+   * A stock movement of an Item which compaction has moved, made
+   * before the totals hear of the move, is not lost.
+   */
+  @Test
+  public void testChangeBeforeRenumbering() {
+    Warehouse warehouse = TestItems.warehouse(16);
+    Item moved = warehouse.search("Number 15");
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void itemsRenumbered() {
+        moved.setItemAmount(5);
+      }
+    });
+    StockTotals totals = warehouse.totals();
+    for (int index = 0; index < 8; index++) {
+      Item item = warehouse.search("Number " + index);
+      warehouse.deleteCurrentItem(item, item.getItemNumber(), item.getItemDescription());
+    }
+    Item added = TestItems.item(16);
+    TestItems.add(warehouse, added);
+
+    assertEquals(7, moved.slot);
+    assertEquals(5, moved.getItemAmount());
+    assertMatches(warehouse, totals);
+  }
+
+
+  /**
+   * Brands are matched the same way whatever the default Locale.
+   */
+  @Test
+  public void testBrandsIgnoreLocale() {
+    Locale locale = Locale.getDefault();
+    try {
+      Locale.setDefault(new Locale("tr", "TR"));
+      Warehouse warehouse = new Warehouse();
+      StockTotals totals = warehouse.totals();
+      warehouse.addItem(
+          new Item("A", "TIMBER", "grey", "Item A", 1, 1.0, 1.0, 10, 5, 1), "A", "Item A"
+      );
+
+      assertEquals(1, totals.brand("timber").getItems());
+      assertEquals(1, totals.brand("TIMBER").getItems());
+      assertEquals(Set.of("timber"), totals.brands().keySet());
+    } finally {
+      Locale.setDefault(locale);
+    }
+  }
+}
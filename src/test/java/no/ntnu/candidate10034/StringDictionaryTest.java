@@ -0,0 +1,112 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the StringDictionary-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class StringDictionaryTest {
+
+  /**
+   * Equal values share a code and a single String, case included.
+   */
+  @Test
+  public void testEncodeAndDecode() {
+    StringDictionary dictionary = new StringDictionary();
+    String skeidar = "Skeidar";
+    int code = dictionary.encode(skeidar);
+
+    assertEquals(code, dictionary.encode(new String("Skeidar".toCharArray())));
+    assertNotEquals(code, dictionary.encode("skeidar"));
+    assertSame(skeidar, dictionary.decode(code));
+    assertEquals(code, dictionary.lookup("Skeidar"));
+    assertEquals(-1, dictionary.lookup("Jysk"));
+    assertEquals(2, dictionary.size());
+  }
+
+
+  /**
+   * A full dictionary gives new values no code, and keeps the
+   * codes of the values it holds.
+   */
+  @Test
+  public void testFullDictionary() {
+    StringDictionary dictionary = new StringDictionary();
+    for (int index = 0; index < StringDictionary.CAPACITY; index++) {
+      assertEquals(index, dictionary.encode("Value " + index));
+    }
+
+    assertEquals(StringDictionary.NONE, dictionary.encode("One too many"));
+    assertEquals(-1, dictionary.lookup("One too many"));
+    assertEquals(7, dictionary.encode("Value 7"));
+    assertEquals(StringDictionary.CAPACITY, dictionary.size());
+  }
+
+
+  /**
+   * Items with the same brand and color share their codes.
+   */
+  @Test
+  public void testItemsShareCodes() {
+    Item first = new Item(
+        "DumbleDoor", "Skeidar", "grey", "Magical door", 95, 150.0, 200.0, 15000, 3, 3
+    );
+    Item second = new Item(
+        "Seamless", new String("Skeidar".toCharArray()), "white",
+        "Simplistic window", 20, 100.0, 100.0, 2350, 12, 2
+    );
+
+    assertEquals(first.getItemBrandCode(), second.getItemBrandCode());
+    assertSame(first.getItemBrand(), second.getItemBrand());
+    assertNotEquals(first.getItemColorCode(), second.getItemColorCode());
+    second.setItemColor("grey");
+    assertEquals(first.getItemColorCode(), second.getItemColorCode());
+  }
+
+
+  /**
+   * Threads adding the same values at once agree on their codes.
+   */
+  @Test
+  public void testConcurrentEncode() throws Exception {
+    StringDictionary dictionary = new StringDictionary();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      List<Future<int[]>> results = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        results.add(executor.submit(() -> {
+          int[] codes = new int[1000];
+          for (int index = 0; index < codes.length; index++) {
+            codes[index] = dictionary.encode("Value " + index);
+          }
+          return codes;
+        }));
+      }
+      int[] expected = results.get(0).get();
+      for (Future<int[]> result : results) {
+        int[] codes = result.get();
+        for (int index = 0; index < codes.length; index++) {
+          assertEquals(expected[index], codes[index]);
+          assertEquals("Value " + index, dictionary.decode(codes[index]));
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1000, dictionary.size());
+  }
+}
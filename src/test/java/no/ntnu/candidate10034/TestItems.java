@@ -0,0 +1,113 @@
+package no.ntnu.candidate10034;
+
+import java.util.function.IntFunction;
+
+/**
+ * Sample Items and warehouses shared by the tests of a Warehouse
+ * and the indexes, totals, logs and snapshots kept beside it.
+ *
+ * <p>Sample Item number <code>index</code> has the itemNumber
+ * "Number index" and the description "Door index", takes its
+ * brand from {@link #BRANDS} and its color from {@link #COLORS}
+ * in turn, is 150 by 200 and in category 1 + index % 4. Tests
+ * which depend on the weight, price or amount give them to
+ * {@link #item(int, double, int, int)}. Tests which only need an
+ * Item under a given key use {@link #item(String)}.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+final class TestItems {
+  /** Brands given to the sample Items in turn. */
+  static final String[] BRANDS = {"Skeidar", "Jatak", "Tre"};
+  /** Colors given to the sample Items in turn. */
+  static final String[] COLORS = {"grey", "white"};
+
+  /** Utility class, not to be instantiated. */
+  private TestItems() {
+  }
+
+
+  /**
+   * Create a sample Item weighing 1.5 kg, priced 100 + index,
+   * with 10 in store.
+   *
+   * @param index distinguishes the Item.
+   * @return new Item.
+   */
+  static Item item(int index) {
+    return item(index, 1.5, 100 + index, 10);
+  }
+
+
+  /**
+   * Create a sample Item with a given weight, price and amount.
+   *
+   * @param index distinguishes the Item.
+   * @param weight weight in kilograms.
+   * @param price the price.
+   * @param amount amount in store.
+   * @return new Item.
+   */
+  static Item item(int index, double weight, int price, int amount) {
+    return new Item(
+        "Number " + index, BRANDS[index % BRANDS.length], COLORS[index % COLORS.length],
+        "Door " + index, weight,
+        150.0, 200.0, price,
+        amount, 1 + index % 4
+    );
+  }
+
+
+  /**
+   * Create an Item with a given itemNumber and the description
+   * "Item number".
+   *
+   * @param number itemNumber of the Item.
+   * @return new Item.
+   */
+  static Item item(String number) {
+    return new Item(number, "Jysk", "brown", "Item " + number, 1, 1.0, 1.0, 10, 5, 1);
+  }
+
+
+  /**
+   * Create a warehouse with sample Items 0 to items - 1.
+   *
+   * @param items number of Items.
+   * @return new Warehouse.
+   */
+  static Warehouse warehouse(int items) {
+    return warehouse(items, TestItems::item);
+  }
+
+
+  /**
+   * Create a warehouse with the Items made by a factory for
+   * index 0 to items - 1.
+   *
+   * @param items number of Items.
+   * @param factory creates the Item of an index.
+   * @return new Warehouse.
+   */
+  static Warehouse warehouse(int items, IntFunction<Item> factory) {
+    Warehouse warehouse = new Warehouse();
+    for (int index = 0; index < items; index++) {
+      add(warehouse, factory.apply(index));
+    }
+    return warehouse;
+  }
+
+
+  /**
+   * Add an Item to a warehouse by its own number and description.
+   *
+   * @param warehouse the warehouse.
+   * @param item the Item to add.
+   * @return whether it was added.
+   */
+  static boolean add(Warehouse warehouse, Item item) {
+    return warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+  }
+}
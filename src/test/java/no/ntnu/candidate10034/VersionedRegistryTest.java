@@ -0,0 +1,277 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the VersionedRegistry-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class VersionedRegistryTest {
+
+  /**
+   * Check that a view holds the current fields of the Items of
+   * a warehouse, in their order.
+   *
+   * @param warehouse the warehouse.
+   * @param view the view.
+   */
+  private void assertMatches(Warehouse warehouse, VersionedRegistry.View view) {
+    List<Item> items = new ArrayList<>(warehouse.getItems());
+    List<VersionedRegistry.Version> versions = view.stream().collect(Collectors.toList());
+    assertEquals(items.size(), view.size());
+    assertEquals(items.size(), versions.size());
+    long value = 0;
+    for (int index = 0; index < items.size(); index++) {
+      Item item = items.get(index);
+      VersionedRegistry.Version version = versions.get(index);
+      assertSame(item, version.getItem());
+      assertSame(version, view.get(item));
+      assertEquals(item.getItemNumber(), version.getItemNumber());
+      assertEquals(item.getItemBrand(), version.getItemBrand());
+      assertEquals(item.getItemDescription(), version.getItemDescription());
+      assertEquals(item.getItemWeight(), version.getItemWeight());
+      assertEquals(item.getItemPrice(), version.getItemPrice());
+      assertEquals(item.getItemAmount(), version.getItemAmount());
+      assertEquals(item.getItemCategoryAsInt(), version.getItemCategoryAsInt());
+      value += (long) item.getItemPrice() * item.getItemAmount();
+    }
+    assertEquals(value, view.getStockValue());
+  }
+
+
+  /**
+   * A view keeps the Items as they were when it was taken, while
+   * they are changed, added and deleted.
+   */
+  @Test
+  public void testViewIsIsolated() {
+    Warehouse warehouse = TestItems.warehouse(3);
+    VersionedRegistry.View before = warehouse.view();
+    assertMatches(warehouse, before);
+
+    Item first = warehouse.search("Number 0");
+    warehouse.adjustAmount(first, 5);
+    first.setItemPrice(999);
+    first.setItemDescription("Red door");
+    warehouse.reprice(item -> item.getItemBrand().equals("Jatak"), 1);
+    Item added = TestItems.item(3);
+    TestItems.add(warehouse, added);
+    Item second = warehouse.search("Number 2");
+    warehouse.deleteCurrentItem(second, second.getItemNumber(), second.getItemDescription());
+
+    assertEquals(3, before.size());
+    assertEquals(10, before.get(first).getItemAmount());
+    assertEquals(100, before.get(first).getItemPrice());
+    assertEquals("Door 0", before.get(first).getItemDescription());
+    assertEquals(101, before.get(warehouse.search("Number 1")).getItemPrice());
+    assertNull(before.get(added));
+    assertNotNull(before.get(second));
+    assertEquals(10 * (100 + 101 + 102), before.getStockValue());
+
+    VersionedRegistry.View after = warehouse.view();
+    assertMatches(warehouse, after);
+    assertNull(after.get(second));
+    assertEquals(15 * 999 + 10 * (1 + 103), after.getStockValue());
+  }
+
+
+  /**
+   * Random changes, deletions and compactions keep the latest
+   * view exact, and views taken earlier unchanged.
+   */
+  @Test
+  public void testChangesAreTracked() {
+    Random random = new Random(17);
+    Warehouse warehouse = TestItems.warehouse(100);
+    VersionedRegistry.View first = warehouse.view();
+    long value = first.getStockValue();
+    int next = 100;
+
+    for (int round = 0; round < 2000; round++) {
+      List<Item> items = new ArrayList<>(warehouse.getItems());
+      Item item = items.get(random.nextInt(items.size()));
+      switch (random.nextInt(6)) {
+        case 0:
+          item.setItemPrice(random.nextInt(1000));
+          break;
+        case 1:
+          warehouse.adjustAmount(item.getItemNumber(), random.nextInt(10));
+          break;
+        case 2:
+          item.setItemBrand(TestItems.BRANDS[random.nextInt(3)].toUpperCase());
+          break;
+        case 3:
+          warehouse.deleteCurrentItem(item, item.getItemNumber(), item.getItemDescription());
+          break;
+        default:
+          Item added = TestItems.item(next++);
+          TestItems.add(warehouse, added);
+          break;
+      }
+      if (round % 250 == 0) {
+        assertMatches(warehouse, warehouse.view());
+      }
+    }
+    assertMatches(warehouse, warehouse.view());
+    assertEquals(100, first.size());
+    assertEquals(value, first.getStockValue());
+  }
+
+
+  /**
+   * When the warehouse compacts its Items after many deletions,
+   * the latest view follows them, and older views still find
+   * the Items which moved.
+   */
+  @Test
+  public void testCompaction() {
+    Warehouse warehouse = TestItems.warehouse(64);
+    for (int index = 0; index < 60; index++) {
+      Item item = warehouse.search("Number " + index);
+      warehouse.deleteCurrentItem(item, item.getItemNumber(), item.getItemDescription());
+    }
+    VersionedRegistry.View before = warehouse.view();
+    Item last = warehouse.search("Number 63");
+    for (int index = 64; index < 200; index++) {
+      Item item = TestItems.item(index);
+      TestItems.add(warehouse, item);
+    }
+
+    assertTrue(last.slot < 63, "not compacted");
+    assertMatches(warehouse, warehouse.view());
+    assertEquals(4, before.size());
+    assertEquals(163, before.get(last).getItemPrice());
+    assertEquals(10 * (160 + 161 + 162 + 163), before.getStockValue());
+  }
+
+
+  /**
+   * A bulk reprice is in a view whole or not at all, while other
+   * threads keep moving stock.
+   */
+  @Test
+  public void testRepriceIsAtomic() throws Exception {
+    Warehouse warehouse = TestItems.warehouse(300);
+    warehouse.view();
+    AtomicBoolean running = new AtomicBoolean(true);
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      results.add(executor.submit(() -> {
+        for (int round = 0; round < 200; round++) {
+          warehouse.reprice(item -> item.getItemBrand().equals("Jatak"), round);
+        }
+        running.set(false);
+      }));
+      results.add(executor.submit(() -> {
+        Random random = new Random(5);
+        while (running.get()) {
+          warehouse.adjustAmount("Number " + random.nextInt(300), 1);
+        }
+      }));
+      results.add(executor.submit(() -> {
+        while (running.get()) {
+          List<VersionedRegistry.Version> jatak = warehouse.view().stream()
+              .filter(version -> version.getItemBrand().equals("Jatak"))
+              .collect(Collectors.toList());
+          long repriced = jatak.stream()
+              .filter(version -> version.getItemPrice() != 100
+                  + Integer.parseInt(version.getItemNumber().substring("Number ".length())))
+              .count();
+          long prices = jatak.stream().mapToInt(VersionedRegistry.Version::getItemPrice)
+              .distinct().count();
+          assertTrue(repriced == 0 || prices == 1, "half applied reprice");
+        }
+      }));
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertMatches(warehouse, warehouse.view());
+  }
+
+
+  /**
+   * A view held up by a writer waits on the lock rather than
+   * spinning, and sees the change of that writer whole.
+   */
+  @Test
+  public void testViewWaitsForLongWriter() throws Exception {
+    Warehouse warehouse = TestItems.warehouse(3);
+    warehouse.view();
+    AtomicReference<VersionedRegistry.View> taken = new AtomicReference<>();
+    Thread reader = new Thread(() -> taken.set(warehouse.view()));
+    List<Thread.State> states = new ArrayList<>();
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void itemAdded(Item item) {
+        reader.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (reader.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+          Thread.yield();
+        }
+        states.add(reader.getState());
+      }
+    });
+
+    TestItems.add(warehouse, TestItems.item(3));
+    reader.join();
+
+    assertEquals(List.of(Thread.State.WAITING), states);
+    assertEquals(4, taken.get().size());
+  }
+
+
+  /**
+   * Concurrent changes of the same Items leave the latest view
+   * with their final fields.
+   */
+  @Test
+  public void testConcurrentChanges() throws Exception {
+    Warehouse warehouse = TestItems.warehouse(4);
+    warehouse.view();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        int price = thread;
+        results.add(executor.submit(() -> {
+          for (int round = 0; round < 5000; round++) {
+            warehouse.adjustAmount("Number 1", 1);
+            warehouse.search("Number 1").setItemPrice(price + round % 7);
+            warehouse.adjustAmount("Number 2", -1 + round % 3);
+          }
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertMatches(warehouse, warehouse.view());
+  }
+}
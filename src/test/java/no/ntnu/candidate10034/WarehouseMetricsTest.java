@@ -0,0 +1,156 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the WarehouseMetrics-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class WarehouseMetricsTest {
+
+  /**
+   * Every operation is counted by its outcome, and every one is
+   * timed at a sample rate of 1.
+   */
+  @Test
+  public void testCounts() {
+    Warehouse warehouse = new Warehouse();
+    WarehouseMetrics metrics = warehouse.metrics();
+    metrics.setSampleRate(1);
+
+    Item item = TestItems.item("A");
+    assertTrue(warehouse.addItem(item, "A", "Item A"));
+    warehouse.addItem(TestItems.item("A"), "A", "Item B");
+    warehouse.search("A");
+    warehouse.search("item a");
+    warehouse.search("B");
+    warehouse.search("A", "Item A");
+    warehouse.getItems();
+    warehouse.adjustAmount("A", 2);
+    assertThrows(IllegalArgumentException.class, () -> warehouse.adjustAmount("A", -100));
+    assertEquals(1, warehouse.adjustAmounts(new String[] {"A", "B"}, new int[] {1, 1}));
+    item.setItemPrice(20);
+    warehouse.deleteCurrentItem(item, "A", "Item A");
+
+    Map<WarehouseMetrics.Operation, WarehouseMetrics.Stats> stats = metrics.snapshot();
+    assertEquals(1, stats.get(WarehouseMetrics.Operation.ADD).getSucceeded());
+    assertEquals(1, stats.get(WarehouseMetrics.Operation.ADD).getFailed());
+    assertEquals(2, stats.get(WarehouseMetrics.Operation.SEARCH).getSucceeded());
+    assertEquals(1, stats.get(WarehouseMetrics.Operation.SEARCH).getFailed());
+    assertEquals(3, stats.get(WarehouseMetrics.Operation.SEARCH).getTimed());
+    assertEquals(1, stats.get(WarehouseMetrics.Operation.SEARCH_PAIR).getSucceeded());
+    assertEquals(1, stats.get(WarehouseMetrics.Operation.LIST).getSucceeded());
+    assertEquals(2, stats.get(WarehouseMetrics.Operation.ADJUST).getSucceeded());
+    assertEquals(2, stats.get(WarehouseMetrics.Operation.ADJUST).getFailed());
+    assertEquals(1, stats.get(WarehouseMetrics.Operation.PRICE).getSucceeded());
+    assertEquals(1, stats.get(WarehouseMetrics.Operation.DELETE).getSucceeded());
+    assertTrue(stats.get(WarehouseMetrics.Operation.SEARCH).percentile(100) > 0);
+
+    assertThrows(IllegalArgumentException.class, () -> metrics.setSampleRate(3));
+    assertThrows(IllegalArgumentException.class,
+        () -> stats.get(WarehouseMetrics.Operation.SEARCH).percentile(101));
+  }
+
+
+  /**
+   * Times go into buckets no more than an eighth wide, and the
+   * percentiles are read from them.
+   */
+  @Test
+  public void testHistogram() {
+    for (long nanos : new long[] {0, 1, 7, 8, 9, 100, 1000, 123_456, 1L << 35}) {
+      int bucket = WarehouseMetrics.bucket(nanos);
+      assertTrue(WarehouseMetrics.bucketLimit(bucket) >= nanos, nanos + " above its bucket");
+      assertTrue(WarehouseMetrics.bucketLimit(bucket) <= nanos + nanos / 8, nanos + " imprecise");
+      assertTrue(bucket == 0 || WarehouseMetrics.bucketLimit(bucket - 1) < nanos);
+    }
+
+    Warehouse warehouse = new Warehouse();
+    WarehouseMetrics metrics = warehouse.metrics();
+    for (int nanos = 1; nanos <= 1000; nanos++) {
+      metrics.record(WarehouseMetrics.Operation.SEARCH, System.nanoTime() - nanos, true, null);
+    }
+    WarehouseMetrics.Stats search = metrics.stats(WarehouseMetrics.Operation.SEARCH);
+    assertEquals(1000, search.getTimed());
+    assertTrue(search.percentile(50) >= 500, search.toString());
+    assertTrue(search.percentile(99) >= 990, search.toString());
+  }
+
+
+  /**
+   * The text exposition has a counter per outcome, a summary per
+   * timed operation and the number of Items.
+   */
+  @Test
+  public void testText() {
+    Warehouse warehouse = new Warehouse();
+    warehouse.metrics().setSampleRate(1);
+    warehouse.addItem(TestItems.item("A"), "A", "Item A");
+    warehouse.search("B");
+
+    StringBuilder text = new StringBuilder();
+    warehouse.metrics().writeText(text);
+    List<String> lines = text.toString().lines().collect(Collectors.toList());
+
+    assertTrue(lines.contains("# TYPE warehouse_operations_total counter"));
+    assertTrue(lines.contains("warehouse_items 1"));
+    assertTrue(lines.contains("warehouse_operations_total{operation=\"add\",outcome=\"added\"} 1"));
+    assertTrue(lines.contains(
+        "warehouse_operations_total{operation=\"search\",outcome=\"miss\"} 1"));
+    assertTrue(lines.contains(
+        "warehouse_operations_total{operation=\"price_change\",outcome=\"applied\"} 0"));
+    assertTrue(lines.contains(
+        "warehouse_operation_duration_seconds_count{operation=\"search\"} 1"));
+    assertTrue(lines.stream().anyMatch(line -> line.startsWith(
+        "warehouse_operation_duration_seconds{operation=\"search\",quantile=\"0.99\"} ")));
+    for (String line : lines) {
+      assertTrue(line.startsWith("#") || line.matches("[a-z_]+(\\{[^}]*\\})? [0-9.E-]+"), line);
+    }
+  }
+
+
+  /**
+   * While a flight recording is running, every operation is
+   * written to it as an event.
+   */
+  @Test
+  public void testFlightRecorderEvents() throws Exception {
+    Warehouse warehouse = new Warehouse();
+    warehouse.metrics().setSampleRate(1 << 30);
+    warehouse.addItem(TestItems.item("A"), "A", "Item A");
+
+    Path file = Files.createTempFile("warehouse", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("no.ntnu.candidate10034.WarehouseOperation");
+      recording.start();
+      for (int search = 0; search < 10; search++) {
+        warehouse.search(search % 2 == 0 ? "A" : "B");
+      }
+      recording.stop();
+      recording.dump(file);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+        .filter(event -> event.getEventType().getName().endsWith("WarehouseOperation"))
+        .collect(Collectors.toList());
+    Files.delete(file);
+    assertEquals(10, events.size());
+    assertEquals("search", events.get(0).getString("operation"));
+    assertEquals(5, events.stream().filter(event -> event.getBoolean("succeeded")).count());
+  }
+}
@@ -0,0 +1,202 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit-test class for testing of the WarehouseServer-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class WarehouseServerTest {
+  /** Body of a request adding the DumbleDoor. */
+  private static final String DOOR = "{\"number\": \"DumbleDoor\", \"brand\": \"Skeidar\","
+      + " \"color\": \"grey\", \"description\": \"Magical door/gate\", \"weight\": 95,"
+      + " \"length\": 150.0, \"height\": 200.0, \"price\": 15000, \"amount\": 3,"
+      + " \"category\": 3}";
+
+  /** The Warehouse served. */
+  private Warehouse warehouse;
+  /** The server under test. */
+  private WarehouseServer server;
+  /** Client sending the requests. */
+  private HttpClient client;
+
+
+  /**
+   * Start a server on a free port.
+   */
+  @BeforeEach
+  public void setUp() throws IOException {
+    warehouse = new Warehouse();
+    server = WarehouseServer.start(
+        warehouse, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4
+    );
+    client = HttpClient.newHttpClient();
+  }
+
+
+  /**
+   * Stop the server.
+   */
+  @AfterEach
+  public void tearDown() {
+    server.close();
+  }
+
+
+  /**
+   * Send a request.
+   *
+   * @param method the HTTP method.
+   * @param path the path and query.
+   * @param body the JSON body, or null for none.
+   * @return the response.
+   */
+  private HttpResponse<String> send(String method, String path, String body) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(
+        URI.create("http://localhost:" + server.getPort() + path)
+    ).method(
+        method,
+        body == null
+            ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofString(body)
+    ).build();
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+
+  /**
+   * Items can be added, found, adjusted, repriced and deleted.
+   */
+  @Test
+  public void testEndpoints() throws Exception {
+    HttpResponse<String> added = send("POST", "/items", DOOR);
+    assertEquals(201, added.statusCode());
+    assertEquals("{\"number\":\"DumbleDoor\",\"brand\":\"Skeidar\",\"color\":\"grey\","
+        + "\"description\":\"Magical door/gate\",\"weight\":95.0,\"length\":150.0,"
+        + "\"height\":200.0,\"price\":15000,\"amount\":3,\"category\":3}", added.body());
+    assertEquals(409, send("POST", "/items", DOOR).statusCode());
+
+    assertEquals(200, send("GET", "/items/dumbledoor", null).statusCode());
+    assertEquals(200, send("GET", "/items/MAGICAL%20DOOR%2FGATE", null).statusCode());
+    assertEquals(200,
+        send("GET", "/items?number=DumbleDoor&description=magical+door%2Fgate", null).statusCode());
+    assertEquals(404, send("GET", "/items/Seamless", null).statusCode());
+
+    HttpResponse<String> adjusted = send("POST", "/items/DumbleDoor/amount", "{\"delta\": 7}");
+    assertEquals(200, adjusted.statusCode());
+    assertEquals("{\"amount\":10}", adjusted.body());
+    assertEquals(409, send("POST", "/items/DumbleDoor/amount", "{\"delta\": -11}").statusCode());
+
+    HttpResponse<String> repriced = send("PUT", "/items/DumbleDoor/price", "{\"price\": 12000}");
+    assertEquals(200, repriced.statusCode());
+    assertEquals(12000, warehouse.search("DumbleDoor").getItemPrice());
+
+    assertEquals(204, send("DELETE", "/items/DumbleDoor", null).statusCode());
+    assertNull(warehouse.search("DumbleDoor"));
+    assertEquals(404, send("DELETE", "/items/DumbleDoor", null).statusCode());
+  }
+
+
+  /**
+   * Bad requests are answered with an error, not a dropped connection.
+   */
+  @Test
+  public void testErrors() throws Exception {
+    HttpResponse<String> broken = send("POST", "/items", "{\"number\": \"A\"");
+    assertEquals(400, broken.statusCode());
+    assertTrue(broken.body().startsWith("{\"error\":"));
+    assertEquals(400, send("POST", "/items", "{\"number\": \"A\"}").statusCode());
+    assertEquals(400, send("POST", "/items", DOOR.replace("15000", "-1")).statusCode());
+    assertEquals(400, send("POST", "/items", "{\"tags\": [1, 2]}").statusCode());
+    assertEquals(400, send("GET", "/items?limit=-1", null).statusCode());
+    assertEquals(405, send("PUT", "/items", DOOR).statusCode());
+    assertEquals(404, send("GET", "/itemsx", null).statusCode());
+    assertEquals(404, send("POST", "/items/DumbleDoor/price", "{}").statusCode());
+    assertEquals(413, send("POST", "/items", "{\"number\": \"" + "x".repeat(70000) + "\"}")
+        .statusCode());
+    assertEquals(0, warehouse.size());
+  }
+
+
+  /**
+   * The list is paged in the order the Items were added.
+   */
+  @Test
+  public void testList() throws Exception {
+    for (int number = 0; number < 30; number++) {
+      Item item = new Item(
+          "N" + number, "Jysk", "brown", "Item " + number, 1, 1.0, 1.0, 10, 1, 1
+      );
+      warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+    }
+
+    HttpResponse<String> page = send("GET", "/items?offset=25&limit=3", null);
+    assertEquals(200, page.statusCode());
+    assertTrue(page.body().startsWith("{\"total\":30,\"items\":[{\"number\":\"N25\""));
+    assertTrue(page.body().contains("\"N27\""));
+    assertTrue(!page.body().contains("\"N28\""));
+    assertTrue(send("GET", "/items", null).body().contains("\"N29\""));
+  }
+
+
+  /**
+   * The metrics are served in the text exposition format.
+   */
+  @Test
+  public void testMetrics() throws Exception {
+    send("POST", "/items", DOOR);
+    send("GET", "/items/DumbleDoor", null);
+    send("GET", "/items/Seamless", null);
+
+    HttpResponse<String> metrics = send("GET", "/metrics", null);
+    assertEquals(200, metrics.statusCode());
+    assertTrue(metrics.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+    assertTrue(metrics.body().contains("warehouse_items 1\n"));
+    assertTrue(metrics.body().contains(
+        "warehouse_operations_total{operation=\"add\",outcome=\"added\"} 1\n"));
+    assertTrue(metrics.body().contains(
+        "warehouse_operations_total{operation=\"search\",outcome=\"miss\"} 1\n"));
+    assertEquals(405, send("POST", "/metrics", "{}").statusCode());
+  }
+
+
+  /**
+   * Concurrent adjustments from many connections are all applied.
+   */
+  @Test
+  public void testConcurrentAdjustments() throws Exception {
+    send("POST", "/items", DOOR);
+    List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+    for (int request = 0; request < 500; request++) {
+      responses.add(client.sendAsync(
+          HttpRequest.newBuilder(
+              URI.create("http://localhost:" + server.getPort() + "/items/DumbleDoor/amount")
+          ).POST(HttpRequest.BodyPublishers.ofString("{\"delta\": 2}")).build(),
+          HttpResponse.BodyHandlers.ofString()
+      ));
+    }
+    for (CompletableFuture<HttpResponse<String>> response : responses) {
+      assertEquals(200, response.get().statusCode());
+    }
+    assertEquals(1003, warehouse.search("DumbleDoor").getItemAmount());
+  }
+}
@@ -2,7 +2,18 @@ package no.ntnu.candidate10034;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -166,4 +177,715 @@ public class WarehouseTest {
     assertEquals(null, warehouse.search(item.getItemDescription(), "test"));
     assertEquals(null, warehouse.search("test", item.getItemNumber()));
   }
-}
\ No newline at end of file
+
+
+  /**
+   * Items are returned in the order they were added.
+   */
+  @Test
+  public void testGetItemsKeepsInsertionOrder() {
+    Warehouse warehouse = createNewWarehouse();
+    List<Item> added = new ArrayList<>();
+
+    for (int index = 0; index < 50; index++) {
+      Item item = new Item(
+          "Number " + index, "Jysk", "brown",
+          "Description " + index, 1,
+          1.0, 1.0, 10,
+          1, 1
+      );
+      warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+      added.add(item);
+    }
+    warehouse.deleteCurrentItem(added.get(10), "Number 10", "Description 10");
+    added.remove(10);
+
+    assertEquals(added, new ArrayList<>(warehouse.getItems()));
+  }
+
+
+  /**
+   * Deleting by only one of the keys removes the item by both keys.
+   */
+  @Test
+  public void testDeleteByOneKeyRemovesBothKeys() {
+    Warehouse warehouse = createNewWarehouse();
+    Item item = getSampleItem();
+
+    warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+    warehouse.deleteCurrentItem(item, item.getItemNumber(), "other description");
+
+    assertNull(warehouse.search(item.getItemDescription()));
+    assertEquals(0, warehouse.getItems().size());
+  }
+
+
+  /**
+   * Deleting removes only the given item, and tells whether it did.
+   */
+  @Test
+  public void testDeleteOnlyGivenItem() {
+    Warehouse warehouse = createNewWarehouse();
+    Item item = getSampleItem();
+    Item other = new Item(
+        "Seamless", "Home Decor", "transparent",
+        "Simplistic window", 20,
+        100.0, 100.0, 2350,
+        12, 2
+    );
+    warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+    warehouse.addItem(other, other.getItemNumber(), other.getItemDescription());
+
+    assertEquals(false, warehouse.deleteCurrentItem(item, "Seamless", "Simplistic window"));
+    assertEquals(2, warehouse.getItems().size());
+
+    assertEquals(true, warehouse.deleteCurrentItem(item, "DumbleDoor", "Simplistic window"));
+    assertNull(warehouse.search("DumbleDoor"));
+    assertEquals(other, warehouse.search("Seamless", "Simplistic window"));
+    assertEquals(1, warehouse.getItems().size());
+
+    assertEquals(false, warehouse.deleteCurrentItem(item, "DumbleDoor", "Magical door"));
+    assertEquals(false, warehouse.deleteCurrentItem(null, "Seamless", "Simplistic window"));
+  }
+
+
+  /**
+   * Threads racing to register the same keys never leave a half-registered item.
+   */
+  @Test
+  public void testConcurrentAddOfSameKeys() throws Exception {
+    Warehouse warehouse = createNewWarehouse();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    try {
+      for (int round = 0; round < 200; round++) {
+        String number = "Number " + round;
+        String description = "Description " + round;
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int thread = 0; thread < 8; thread++) {
+          Item item = new Item(
+              number, "Jysk", "brown",
+              description, 1,
+              1.0, 1.0, 10,
+              1, 1
+          );
+          results.add(executor.submit(() -> warehouse.addItem(item, number, description)));
+        }
+
+        int successes = 0;
+        for (Future<Boolean> result : results) {
+          successes += result.get() ? 1 : 0;
+        }
+        assertEquals(1, successes);
+        assertNotNull(warehouse.search(number, description));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(200, warehouse.getItems().size());
+  }
+
+
+  /**
+   * Adjusting the amount by either key changes the amount of the item.
+   */
+  @Test
+  public void testAdjustAmount_positive() {
+    Warehouse warehouse = createNewWarehouse();
+    Item item = getSampleItem();
+
+    warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+
+    assertEquals(8, warehouse.adjustAmount(item.getItemNumber(), 5));
+    assertEquals(0, warehouse.adjustAmount(item.getItemDescription(), -8));
+    assertEquals(0, item.getItemAmount());
+  }
+
+
+  /**
+   * Adjusting below zero or for an unknown key is rejected.
+   */
+  @Test
+  public void testAdjustAmount_negative() {
+    Warehouse warehouse = createNewWarehouse();
+    Item item = getSampleItem();
+
+    warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      warehouse.adjustAmount(item.getItemNumber(), -4);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      warehouse.adjustAmount("other number", 1);
+    });
+    assertEquals(3, item.getItemAmount());
+  }
+
+
+  /**
+   * Adjusting an item which is not in the warehouse is rejected
+   * as not found, and neither changes it nor tells the listeners.
+   */
+  @Test
+  public void testAdjustAmountOfItemNotInWarehouse() {
+    Warehouse warehouse = createNewWarehouse();
+    Warehouse other = createNewWarehouse();
+    Item item = getSampleItem();
+    AtomicInteger changes = new AtomicInteger();
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void amountChanged(Item changed, int oldAmount, int newAmount) {
+        changes.incrementAndGet();
+      }
+    });
+
+    other.addItem(item, item.getItemNumber(), item.getItemDescription());
+    IllegalArgumentException foreign = assertThrows(IllegalArgumentException.class, () -> {
+      warehouse.adjustAmount(item, 1);
+    });
+    assertEquals("No item found for DumbleDoor", foreign.getMessage());
+
+    other.deleteCurrentItem(item, item.getItemNumber(), item.getItemDescription());
+    warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+    warehouse.deleteCurrentItem(item, item.getItemNumber(), item.getItemDescription());
+    assertThrows(IllegalArgumentException.class, () -> {
+      warehouse.adjustAmount(item, 1);
+    });
+    assertEquals(0, warehouse.adjustAmounts(new String[] {"DumbleDoor"}, new int[] {1}));
+
+    assertEquals(3, item.getItemAmount());
+    assertEquals(0, changes.get());
+  }
+
+
+  /**
+   * A failing listener does not keep the later ones from being
+   * told, and the change stays in place.
+   */
+  @Test
+  public void testListenerFailureReachesEveryListener() {
+    Warehouse warehouse = createNewWarehouse();
+    Item item = getSampleItem();
+    AtomicInteger changes = new AtomicInteger();
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void amountChanged(Item changed, int oldAmount, int newAmount) {
+        throw new IllegalStateException("First");
+      }
+    });
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void amountChanged(Item changed, int oldAmount, int newAmount) {
+        changes.incrementAndGet();
+        throw new IllegalStateException("Second");
+      }
+    });
+    warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+
+    IllegalStateException failure = assertThrows(IllegalStateException.class, () -> {
+      warehouse.adjustAmount(item, 2);
+    });
+    assertEquals("First", failure.getMessage());
+    assertEquals("Second", failure.getSuppressed()[0].getMessage());
+    assertEquals(1, changes.get());
+    assertEquals(5, item.getItemAmount());
+  }
+
+
+  /**
+   * An addition rejected by a listener is taken back from the
+   * listeners which were told of it before.
+   */
+  @Test
+  public void testRejectedAdditionIsUndone() {
+    Warehouse warehouse = createNewWarehouse();
+    Item item = getSampleItem();
+    List<String> events = new ArrayList<>();
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void itemAdded(Item added) {
+        events.add("added");
+      }
+
+      @Override
+      public void itemRemoved(Item removed) {
+        events.add("removed");
+      }
+    });
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void itemAdded(Item added) {
+        throw new IllegalStateException("Rejected");
+      }
+    });
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void itemAdded(Item added) {
+        events.add("late");
+      }
+    });
+
+    assertThrows(IllegalStateException.class, () -> {
+      warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+    });
+    assertEquals(List.of("added", "removed"), events);
+    assertNull(warehouse.search(item.getItemNumber()));
+    assertNull(item.owner);
+  }
+
+
+  /**
+   * Bulk adjustment skips the entries which cannot be applied.
+   */
+  @Test
+  public void testAdjustAmounts() {
+    Warehouse warehouse = createNewWarehouse();
+    Item item = getSampleItem();
+
+    warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+
+    int applied = warehouse.adjustAmounts(
+        new String[] {item.getItemNumber(), "other number", item.getItemNumber()},
+        new int[] {10, 1, -20}
+    );
+
+    assertEquals(1, applied);
+    assertEquals(13, item.getItemAmount());
+  }
+
+
+  /**
+   * Concurrent picking and receiving never loses an update.
+   */
+  @Test
+  public void testConcurrentAdjustAmount() throws Exception {
+    Warehouse warehouse = createNewWarehouse();
+    Item item = getSampleItem();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    item.setItemAmount(40000);
+    warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int thread = 0; thread < 8; thread++) {
+        int delta = thread % 2 == 0 ? 2 : -1;
+        results.add(executor.submit(() -> {
+          for (int round = 0; round < 10000; round++) {
+            warehouse.adjustAmount(item.getItemNumber(), delta);
+          }
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(40000 + 4 * 10000, item.getItemAmount());
+  }
+
+
+  /**
+   * A number and a description of different items do not collide.
+   */
+  @Test
+  public void testNumberAndDescriptionKeysAreSeparate() {
+    Warehouse warehouse = createNewWarehouse();
+    Item first = getSampleItem();
+    Item second = new Item(
+        "Magic", "Jysk", "brown",
+        "DumbleDoor", 1,
+        1.0, 1.0, 10,
+        1, 1
+    );
+
+    assertEquals(true, warehouse.addItem(first, first.getItemNumber(), "Magical door"));
+    assertEquals(true, warehouse.addItem(second, "Magic", "DumbleDoor"));
+
+    assertEquals(first, warehouse.search("dumbledoor"));
+    assertEquals(second, warehouse.search("magic"));
+    assertEquals(second, warehouse.search("Magic", "DumbleDoor"));
+    assertEquals(first, warehouse.search("Magical door", "DumbleDoor"));
+    assertEquals(2, warehouse.size());
+  }
+
+
+  /**
+   * An item registered in one warehouse cannot be added to another.
+   */
+  @Test
+  public void testItemCannotBeInTwoWarehouses() {
+    Warehouse first = createNewWarehouse();
+    Warehouse second = createNewWarehouse();
+    Item item = getSampleItem();
+
+    assertEquals(true, first.addItem(item, item.getItemNumber(), item.getItemDescription()));
+    assertEquals(false, second.addItem(item, item.getItemNumber(), item.getItemDescription()));
+
+    first.deleteCurrentItem(item, item.getItemNumber(), item.getItemDescription());
+    assertEquals(true, second.addItem(item, item.getItemNumber(), item.getItemDescription()));
+  }
+
+
+  /**
+   * Adding and deleting many items keeps the order and the lookups intact.
+   */
+  @Test
+  public void testChurnKeepsRegistryConsistent() {
+    Warehouse warehouse = createNewWarehouse();
+    List<Item> expected = new ArrayList<>();
+
+    for (int index = 0; index < 1000; index++) {
+      Item item = new Item(
+          "Number " + index, "Jysk", "brown",
+          "Description " + index, 1,
+          1.0, 1.0, 10,
+          1, 1
+      );
+      warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+      expected.add(item);
+      if (index % 3 == 0) {
+        Item removed = expected.remove(expected.size() / 2);
+        warehouse.deleteCurrentItem(
+            removed, removed.getItemNumber(), removed.getItemDescription()
+        );
+      }
+    }
+
+    assertEquals(expected, new ArrayList<>(warehouse.getItems()));
+    for (Item item : expected) {
+      assertEquals(item, warehouse.search(item.getItemNumber(), item.getItemDescription()));
+    }
+  }
+
+
+  /**
+   * The live view follows the registry and cannot be modified.
+   */
+  @Test
+  public void testItemsViewIsLiveAndReadOnly() {
+    Warehouse warehouse = createNewWarehouse();
+    Item item = getSampleItem();
+    Collection<Item> view = warehouse.getItemsView();
+
+    assertEquals(0, view.size());
+    warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+    assertEquals(1, view.size());
+    assertEquals(true, view.contains(item));
+
+    assertThrows(UnsupportedOperationException.class, () -> {
+      view.remove(item);
+    });
+
+    warehouse.deleteCurrentItem(item, item.getItemNumber(), item.getItemDescription());
+    assertEquals(0, view.size());
+    assertEquals(false, view.contains(item));
+  }
+
+
+  /**
+   * Parallel streams visit every item exactly once.
+   */
+  @Test
+  public void testParallelStreamVisitsAllItems() {
+    Warehouse warehouse = createNewWarehouse();
+    long expectedPrice = 0;
+
+    for (int index = 0; index < 20000; index++) {
+      Item item = new Item(
+          "Number " + index, "Jysk", "brown",
+          "Description " + index, 1,
+          1.0, 1.0, index,
+          1, 1
+      );
+      warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+      if (index % 5 == 0) {
+        warehouse.deleteCurrentItem(item, item.getItemNumber(), item.getItemDescription());
+      } else {
+        expectedPrice += index;
+      }
+    }
+
+    assertEquals(16000, warehouse.parallelStream().count());
+    assertEquals(expectedPrice,
+        warehouse.parallelStream().mapToLong(Item::getItemPrice).sum());
+    assertEquals(new ArrayList<>(warehouse.getItems()),
+        warehouse.stream().collect(Collectors.toList()));
+  }
+
+
+  /**
+   * Prefix searches find Items by the beginning of either key,
+   * and follow additions and deletions.
+   */
+  @Test
+  public void testSearchPrefix() {
+    Warehouse warehouse = createNewWarehouse();
+    Item item = getSampleItem();
+    warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+
+    assertEquals(List.of(item), warehouse.searchPrefix("dumble", 10));
+    assertEquals(List.of(item), warehouse.searchPrefix("MAGICAL", 10));
+    assertEquals(List.of(), warehouse.searchPrefix("door", 10));
+
+    Item other = new Item(
+        "DumbleDoor 2", "Skeidar", "grey",
+        "Magical door, left", 95,
+        150.0, 200.0, 15000,
+        3, 3
+    );
+    warehouse.addItem(other, other.getItemNumber(), other.getItemDescription());
+    assertEquals(List.of(item, other), warehouse.searchPrefix("dumbledoor", 10));
+    assertEquals(List.of(item), warehouse.searchPrefix("dumbledoor", 1));
+
+    warehouse.deleteCurrentItem(item, item.getItemNumber(), item.getItemDescription());
+    assertEquals(List.of(other), warehouse.searchPrefix("magical", 10));
+  }
+
+
+  /**
+   * Fuzzy searches find Items despite typing errors, closest first.
+   */
+  @Test
+  public void testSearchFuzzy() {
+    Warehouse warehouse = createNewWarehouse();
+    Item item = getSampleItem();
+    warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+    Item window = new Item(
+        "Seamless", "Home Decor", "transparent",
+        "Simplistic window", 20,
+        100.0, 100.0, 2350,
+        12, 2
+    );
+    warehouse.addItem(window, window.getItemNumber(), window.getItemDescription());
+
+    assertEquals(List.of(item), warehouse.searchFuzzy("Magical dor", 2, 10));
+    assertEquals(List.of(item), warehouse.searchFuzzy("dumbledor", 2, 10));
+    assertEquals(List.of(window, item), warehouse.searchFuzzy("seamles", 6, 10));
+    assertEquals(List.of(), warehouse.searchFuzzy("lumber", 2, 10));
+  }
+
+
+  /**
+   * Create a warehouse of doors from two brands, priced by index.
+   *
+   * @param items number of Items.
+   * @return new Warehouse.
+   */
+  private Warehouse createDoors(int items) {
+    Warehouse warehouse = createNewWarehouse();
+    for (int index = 0; index < items; index++) {
+      Item item = new Item(
+          "Door " + index, index % 2 == 0 ? "Skeidar" : "Jatak", "grey",
+          "Door number " + index, 20,
+          100.0, 200.0, 1000 * (index + 1),
+          5, 1 + index % 4
+      );
+      warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+    }
+    return warehouse;
+  }
+
+
+  /**
+   * Bulk discounts change only the matching Items, without overflow.
+   */
+  @Test
+  public void testDiscount() {
+    Warehouse warehouse = createDoors(100);
+    warehouse.search("Door 0").setItemPrice(Integer.MAX_VALUE);
+
+    int matched = warehouse.discount(item -> item.getItemBrand().equals("Skeidar")
+        && item.getItemPrice() >= 50000, 25);
+
+    assertEquals(26, matched);
+    assertEquals(1610612735, warehouse.search("Door 0").getItemPrice());
+    assertEquals(49000, warehouse.search("Door 48").getItemPrice());
+    assertEquals(50000, warehouse.search("Door 49").getItemPrice());
+    assertEquals(38250, warehouse.search("Door 50").getItemPrice());
+    assertThrows(IllegalArgumentException.class, () -> warehouse.discount(item -> true, 101));
+  }
+
+
+  /**
+   * A bulk price change with one invalid price changes nothing.
+   */
+  @Test
+  public void testRepriceIsAllOrNothing() {
+    Warehouse warehouse = createDoors(100);
+
+    assertEquals(25, warehouse.reprice(item -> item.getItemCategoryAsInt() == 0, 10));
+    assertEquals(10, warehouse.search("Door 4").getItemPrice());
+    assertEquals(6000, warehouse.search("Door 5").getItemPrice());
+
+    assertThrows(IllegalArgumentException.class,
+        () -> warehouse.reprice(item -> true, price -> price * 21475));
+    for (int index = 0; index < 100; index++) {
+      int expected = index % 4 == 0 ? 10 : 1000 * (index + 1);
+      assertEquals(expected, warehouse.search("Door " + index).getItemPrice());
+    }
+  }
+
+
+  /**
+   * A listener failing during a bulk price change puts every old price back.
+   */
+  @Test
+  public void testRepriceRollsBackOnListenerFailure() {
+    Warehouse warehouse = createDoors(100);
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void priceChanged(Item item, int oldPrice, int newPrice) {
+        if (newPrice == 1) {
+          throw new IllegalStateException("Rejected");
+        }
+      }
+    });
+
+    assertThrows(IllegalStateException.class,
+        () -> warehouse.reprice(item -> true, price -> price == 77000 ? 1 : 2));
+    for (int index = 0; index < 100; index++) {
+      assertEquals(1000 * (index + 1), warehouse.search("Door " + index).getItemPrice());
+    }
+  }
+
+
+  /**
+   * A price set while a bulk price change runs is the one the new
+   * price is computed from.
+   */
+  @Test
+  public void testRepriceKeepsConcurrentPrice() {
+    Warehouse warehouse = createDoors(2);
+    Item first = warehouse.search("Door 0");
+    Item second = warehouse.search("Door 1");
+
+    int matched = warehouse.discount(item -> {
+      if (item == second) {
+        first.setItemPrice(500);
+      }
+      return true;
+    }, 10);
+
+    assertEquals(2, matched);
+    assertEquals(450, first.getItemPrice());
+    assertEquals(1800, second.getItemPrice());
+  }
+
+
+  /**
+   * Rolling back a failed bulk price change keeps a price set by
+   * someone else in the meantime.
+   */
+  @Test
+  public void testRepriceRollbackKeepsConcurrentPrice() {
+    Warehouse warehouse = createDoors(2);
+    Item first = warehouse.search("Door 0");
+    Item second = warehouse.search("Door 1");
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void priceChanged(Item item, int oldPrice, int newPrice) {
+        if (item == second && newPrice == 1) {
+          first.setItemPrice(777);
+          throw new IllegalStateException("Rejected");
+        }
+      }
+    });
+
+    assertThrows(IllegalStateException.class,
+        () -> warehouse.reprice(item -> true, price -> 1));
+    assertEquals(777, first.getItemPrice());
+    assertEquals(2000, second.getItemPrice());
+  }
+
+
+  /**
+   * A bulk price change over several partitions reaches every
+   * matching Item, and fails as a whole.
+   */
+  @Test
+  public void testRepriceLargeRegistry() {
+    Warehouse warehouse = createDoors(40000);
+
+    assertEquals(20000, warehouse.discount(item -> item.getItemBrand().equals("Jatak"), 50));
+    assertThrows(IllegalArgumentException.class,
+        () -> warehouse.reprice(item -> true, price -> price == 38999000 ? -1 : 0));
+    for (int index = 0; index < 40000; index++) {
+      int price = 1000 * (index + 1);
+      assertEquals(index % 2 == 0 ? price : price / 2,
+          warehouse.search("Door " + index).getItemPrice());
+    }
+  }
+
+
+  /**
+   * A batch adds every valid Item and reports why the others were rejected.
+   */
+  @Test
+  public void testAddAll() {
+    Warehouse warehouse = createNewWarehouse();
+    Item item = getSampleItem();
+    warehouse.addItem(item, item.getItemNumber(), item.getItemDescription());
+    Item window = new Item(
+        "Seamless", "Home Decor", "transparent",
+        "Simplistic window", 20,
+        100.0, 100.0, 2350,
+        12, 2
+    );
+    Item sameNumber = new Item(
+        "dumbledoor", "Skeidar", "grey",
+        "Another door", 95,
+        150.0, 200.0, 15000,
+        3, 3
+    );
+    Item sameDescription = new Item(
+        "Seamless 2", "Home Decor", "transparent",
+        "SIMPLISTIC WINDOW", 20,
+        100.0, 100.0, 2350,
+        12, 2
+    );
+
+    AddResult result = warehouse.addAll(
+        new Item[] {window, sameNumber, null, item, sameDescription, window}
+    );
+
+    assertEquals(1, result.getAdded());
+    assertEquals(5, result.getRejected());
+    assertNull(result.getReason(0));
+    assertEquals(AddResult.Reason.DUPLICATE_NUMBER, result.getReason(1));
+    assertEquals(AddResult.Reason.NULL, result.getReason(2));
+    assertEquals(AddResult.Reason.REGISTERED, result.getReason(3));
+    assertEquals(AddResult.Reason.DUPLICATE_DESCRIPTION, result.getReason(4));
+    assertEquals(AddResult.Reason.REGISTERED, result.getReason(5));
+    assertEquals(List.of(1, 2, 3, 4, 5), Arrays.stream(result.getRejectedIndexes())
+        .boxed().collect(Collectors.toList()));
+    assertEquals(List.of(item, window), new ArrayList<>(warehouse.getItems()));
+  }
+
+
+  /**
+   * A batch larger than the registry keeps the earlier Items searchable.
+   */
+  @Test
+  public void testAddAllLargeBatch() {
+    Warehouse warehouse = createDoors(10);
+    warehouse.searchPrefix("door", 1);
+    Item[] batch = new Item[1000];
+    for (int index = 0; index < batch.length; index++) {
+      batch[index] = new Item(
+          "Window " + index, "Home Decor", "transparent",
+          "Window number " + index, 20,
+          100.0, 100.0, 2350,
+          12, 2
+      );
+    }
+
+    assertEquals(1000, warehouse.addAll(batch).getAdded());
+    assertEquals(1010, warehouse.size());
+    assertNotNull(warehouse.search("door 9"));
+    assertEquals(batch[999], warehouse.search("Window number 999"));
+    assertEquals(List.of(batch[99]), warehouse.searchPrefix("window 99", 1));
+  }
+}
@@ -0,0 +1,285 @@
+package no.ntnu.candidate10034;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * JUnit-test class for testing of the WriteAheadLog-class.
+ *
+ * @since       2026-10-17
+ * @version     2026-10-17
+ * @author      Candidate 10034
+ */
+public class WriteAheadLogTest {
+  /** Directory for the log files of a test. */
+  @TempDir
+  Path directory;
+
+
+  /**
+   * Create a sample Item weighing 95, priced 15000, with 3
+   * in store, whose description has non-ASCII letters.
+   *
+   * @param index distinguishes the number and description.
+   * @return new Item.
+   */
+  private Item createItem(int index) {
+    Item item = TestItems.item(index, 95, 15000, 3);
+    item.setItemDescription("Døør " + index);
+    return item;
+  }
+
+
+  /**
+   * All kinds of changes are restored when the log is opened again.
+   */
+  @ParameterizedTest
+  @EnumSource(FsyncPolicy.class)
+  public void testReplayRestoresChanges(FsyncPolicy policy) throws IOException {
+    Path file = directory.resolve("warehouse.wal");
+    Warehouse warehouse = new Warehouse();
+
+    try (WriteAheadLog log = WriteAheadLog.open(file, policy, warehouse)) {
+      assertEquals(0, log.getReplayedRecords());
+      for (int index = 0; index < 5; index++) {
+        TestItems.add(warehouse, createItem(index));
+      }
+      warehouse.adjustAmount("Number 1", 7);
+      warehouse.adjustAmount("Døør 2", -3);
+      warehouse.search("Number 3").setItemPrice(99);
+      warehouse.search("Number 3").setItemAmount(40);
+      warehouse.deleteCurrentItem(warehouse.search("Number 4"), "Number 4", "Døør 4");
+    }
+
+    Warehouse restored = new Warehouse();
+    try (WriteAheadLog log = WriteAheadLog.open(file, policy, restored)) {
+      assertEquals(10, log.getReplayedRecords());
+    }
+
+    assertEquals(4, restored.size());
+    assertEquals(10, restored.search("Number 1").getItemAmount());
+    assertEquals(0, restored.search("Number 2").getItemAmount());
+    assertEquals(99, restored.search("Døør 3").getItemPrice());
+    assertEquals(40, restored.search("Døør 3").getItemAmount());
+    assertEquals(200.0, restored.search("Number 0").getItemHeight());
+    assertNull(restored.search("Number 4"));
+  }
+
+
+  /**
+   * Changes of the other fields are restored, and the records
+   * after a change of the itemNumber still find the Item.
+   */
+  @Test
+  public void testReplayRestoresFieldChanges() throws IOException {
+    Path file = directory.resolve("warehouse.wal");
+    Warehouse warehouse = new Warehouse();
+
+    try (WriteAheadLog log = WriteAheadLog.open(file, FsyncPolicy.ALWAYS, warehouse)) {
+      assertEquals(0, log.getReplayedRecords());
+      TestItems.add(warehouse, createItem(0));
+      TestItems.add(warehouse, createItem(1));
+      Item item = warehouse.search("Number 0");
+      item.setItemNumber("Renamed");
+      item.setItemBrand("Jysk");
+      item.setItemColor("oak");
+      item.setItemWeight(12.5);
+      item.setItemCategory(4);
+      warehouse.adjustAmount(item, 2);
+      item.setItemPrice(500);
+      Item other = warehouse.search("Number 1");
+      other.setItemNumber("Gone");
+      warehouse.deleteCurrentItem(other, "Number 1", "Døør 1");
+    }
+
+    Warehouse restored = new Warehouse();
+    try (WriteAheadLog log = WriteAheadLog.open(file, FsyncPolicy.ALWAYS, restored)) {
+      assertEquals(11, log.getReplayedRecords());
+    }
+
+    assertEquals(1, restored.size());
+    Item item = restored.search("Døør 0");
+    assertEquals("Renamed", item.getItemNumber());
+    assertEquals("Jysk", item.getItemBrand());
+    assertEquals("oak", item.getItemColor());
+    assertEquals(12.5, item.getItemWeight());
+    assertEquals(3, item.getItemCategoryAsInt());
+    assertEquals(5, item.getItemAmount());
+    assertEquals(500, item.getItemPrice());
+    assertNull(restored.search("Døør 1"));
+  }
+
+
+  /**
+   * A record cut short by a crash is dropped, and logging continues after it.
+   */
+  @Test
+  public void testTornRecordIsTruncated() throws IOException {
+    Path file = directory.resolve("warehouse.wal");
+    Warehouse warehouse = new Warehouse();
+
+    try (WriteAheadLog log = WriteAheadLog.open(file, FsyncPolicy.ALWAYS, warehouse)) {
+      assertEquals(0, log.getReplayedRecords());
+      TestItems.add(warehouse, createItem(0));
+    }
+    Files.write(file, new byte[] {0, 0, 0, 40, 3, 1}, StandardOpenOption.APPEND);
+
+    Warehouse second = new Warehouse();
+    try (WriteAheadLog log = WriteAheadLog.open(file, FsyncPolicy.ALWAYS, second)) {
+      assertEquals(1, log.getReplayedRecords());
+      TestItems.add(second, createItem(1));
+    }
+
+    Warehouse third = new Warehouse();
+    assertEquals(2, WriteAheadLog.replay(file, third));
+    assertNotNull(third.search("Number 1"));
+  }
+
+
+  /**
+   * Concurrent stock movements are all durable with group commit.
+   */
+  @Test
+  public void testConcurrentAdjustmentsAreLogged() throws Exception {
+    Path file = directory.resolve("warehouse.wal");
+    Warehouse warehouse = new Warehouse();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    try (WriteAheadLog log = WriteAheadLog.open(file, FsyncPolicy.ALWAYS, warehouse)) {
+      assertEquals(0, log.getReplayedRecords());
+      TestItems.add(warehouse, createItem(0));
+      List<Future<?>> results = new ArrayList<>();
+      for (int thread = 0; thread < 8; thread++) {
+        results.add(executor.submit(() -> {
+          for (int round = 0; round < 200; round++) {
+            warehouse.adjustAmount("Number 0", 1);
+          }
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Warehouse restored = new Warehouse();
+    WriteAheadLog.replay(file, restored);
+    assertEquals(3 + 8 * 200, restored.search("Number 0").getItemAmount());
+  }
+
+
+  /**
+   * A price set while another price change of the same Item is
+   * being reported is logged after it, so the log replays to the
+   * last price set.
+   */
+  @Test
+  public void testConcurrentPricesAreLoggedInOrder() throws Exception {
+    Path file = directory.resolve("warehouse.wal");
+    Warehouse warehouse = new Warehouse();
+    Item item = createItem(0);
+    Thread other = new Thread(() -> item.setItemPrice(200));
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void priceChanged(Item changed, int oldPrice, int newPrice) {
+        if (newPrice == 100) {
+          /* Give the other thread time to overtake this change, if it can. */
+          other.start();
+          try {
+            other.join(200);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      }
+    });
+
+    try (WriteAheadLog log = WriteAheadLog.open(file, FsyncPolicy.NEVER, warehouse)) {
+      TestItems.add(warehouse, item);
+      item.setItemPrice(100);
+      other.join();
+      log.sync();
+    }
+
+    Warehouse restored = new Warehouse();
+    WriteAheadLog.replay(file, restored);
+    assertEquals(200, item.getItemPrice());
+    assertEquals(200, restored.search("Number 0").getItemPrice());
+  }
+
+
+  /**
+   * Stock movements logged in another order than they were
+   * applied replay to the same amount, even where the reversed
+   * order passes below zero.
+   */
+  @Test
+  public void testReversedAdjustmentsReplay() throws IOException {
+    Path file = directory.resolve("warehouse.wal");
+    Warehouse warehouse = new Warehouse();
+    Item item = TestItems.item(0, 95, 15000, 0);
+    warehouse.addListener(new WarehouseListener() {
+      @Override
+      public void amountChanged(Item changed, int oldAmount, int newAmount) {
+        if (newAmount == 5) {
+          /* Take the units out again before the log hears they came in. */
+          warehouse.adjustAmount(changed, -5);
+        }
+      }
+    });
+
+    try (WriteAheadLog log = WriteAheadLog.open(file, FsyncPolicy.NEVER, warehouse)) {
+      TestItems.add(warehouse, item);
+      warehouse.adjustAmount(item, 5);
+      log.sync();
+    }
+
+    Warehouse restored = new Warehouse();
+    assertEquals(3, WriteAheadLog.replay(file, restored));
+    assertEquals(0, item.getItemAmount());
+    assertEquals(0, restored.search("Number 0").getItemAmount());
+  }
+
+
+  /**
+   * With the policy ALWAYS, every change is in the file by the
+   * time the method making it returns, although additions,
+   * deletions and reprices wait for it after releasing the lock.
+   */
+  @Test
+  public void testChangesAreDurableOnReturn() throws IOException {
+    Path file = directory.resolve("warehouse.wal");
+    Warehouse warehouse = new Warehouse();
+
+    try (WriteAheadLog log = WriteAheadLog.open(file, FsyncPolicy.ALWAYS, warehouse)) {
+      TestItems.add(warehouse, createItem(0));
+      TestItems.add(warehouse, createItem(1));
+      assertEquals(2, WriteAheadLog.replay(file, new Warehouse()));
+      warehouse.adjustAmount("Number 0", 2);
+      assertEquals(3, WriteAheadLog.replay(file, new Warehouse()));
+      warehouse.search("Number 0").setItemPrice(10);
+      assertEquals(4, WriteAheadLog.replay(file, new Warehouse()));
+      warehouse.reprice(item -> true, 20);
+      assertEquals(6, WriteAheadLog.replay(file, new Warehouse()));
+      warehouse.deleteCurrentItem(warehouse.search("Number 1"), "Number 1", "Døør 1");
+      assertEquals(7, WriteAheadLog.replay(file, new Warehouse()));
+      assertEquals(7, log.appended());
+    }
+  }
+}